@@ -8,6 +8,8 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.lang.NonNull;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * Configuration for asynchronous request handling in the Spring MVC framework
  *
@@ -81,4 +83,26 @@ public class AsyncConfig implements WebMvcConfigurer {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Creates a small executor that enqueues backfill tasks for search results off the request thread.
+     *
+     * @return Configured AsyncTaskExecutor for backfill enqueueing
+     *
+     * Features:
+     * - Single core thread; enqueueing is one bulk lookup plus in-memory offers per search
+     * - Bounded queue; when full, new batches are dropped since backfill is best-effort
+     * - Descriptive thread naming pattern for monitoring
+     */
+    @Bean("backfillEnqueueExecutor")
+    public AsyncTaskExecutor backfillEnqueueExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(200);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setThreadNamePrefix("backfill-enqueue-");
+        executor.initialize();
+        return executor;
+    }
 }
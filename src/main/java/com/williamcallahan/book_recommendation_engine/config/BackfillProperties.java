@@ -0,0 +1,167 @@
+package com.williamcallahan.book_recommendation_engine.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Strongly typed configuration for the async backfill workers.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.backfill")
+public class BackfillProperties {
+
+    /**
+     * Queue implementation: {@code memory} (per-node, default) or {@code postgres} (durable, shared by all nodes).
+     */
+    private String queue = "memory";
+
+    /**
+     * Worker count per provider lane. Each provider gets its own queue and workers so a slow
+     * provider never starves another. The GOOGLE_BOOKS lane is additionally capped by
+     * {@code googleBooksServiceBulkhead}.
+     */
+    private Map<String, Integer> lanes = new LinkedHashMap<>(Map.of(
+        "GOOGLE_BOOKS", 5,
+        "OPEN_LIBRARY", 1
+    ));
+
+    /**
+     * Run workers on virtual threads (falls back to daemon platform threads when false).
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * Pause applied by a worker after the rate limiter or bulkhead rejects a task.
+     */
+    private Duration rejectionBackoff = Duration.ofMillis(250);
+
+    /**
+     * Tasks a worker drains and writes with one set-based upsert. 1 keeps per-task upserts.
+     */
+    private int batchSize = 1;
+
+    /**
+     * Postgres queue: rows claimed per round trip.
+     */
+    private int claimBatchSize = 10;
+
+    /**
+     * Postgres queue: how long an idle lane waits before polling the table again.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Postgres queue: claim lease after which rows held by a crashed node become claimable again.
+     */
+    private Duration claimLease = Duration.ofMinutes(5);
+
+    /**
+     * Postgres queue: first retry delay, doubled per attempt.
+     */
+    private Duration retryBaseDelay = Duration.ofSeconds(5);
+
+    /**
+     * Postgres queue: upper bound for the retry delay.
+     */
+    private Duration retryMaxDelay = Duration.ofMinutes(10);
+
+    @PostConstruct
+    void validate() {
+        lanes.forEach((provider, workers) ->
+            Assert.isTrue(workers != null && workers >= 0, "app.backfill.lanes." + provider + " must be non-negative"));
+        Assert.isTrue(!rejectionBackoff.isNegative(), "app.backfill.rejection-backoff must be non-negative");
+        Assert.isTrue("memory".equals(queue) || "postgres".equals(queue), "app.backfill.queue must be memory or postgres");
+        Assert.isTrue(batchSize > 0, "app.backfill.batch-size must be positive");
+        Assert.isTrue(claimBatchSize > 0, "app.backfill.claim-batch-size must be positive");
+        Assert.isTrue(pollInterval.toMillis() > 0, "app.backfill.poll-interval must be positive");
+        Assert.isTrue(claimLease.toMillis() > 0, "app.backfill.claim-lease must be positive");
+        Assert.isTrue(!retryBaseDelay.isNegative() && retryMaxDelay.compareTo(retryBaseDelay) >= 0,
+            "app.backfill.retry-max-delay must be at least app.backfill.retry-base-delay");
+    }
+
+    public String getQueue() {
+        return queue;
+    }
+
+    public void setQueue(String queue) {
+        this.queue = queue;
+    }
+
+    public Map<String, Integer> getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(Map<String, Integer> lanes) {
+        this.lanes = lanes;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public Duration getRejectionBackoff() {
+        return rejectionBackoff;
+    }
+
+    public void setRejectionBackoff(Duration rejectionBackoff) {
+        this.rejectionBackoff = rejectionBackoff;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getClaimBatchSize() {
+        return claimBatchSize;
+    }
+
+    public void setClaimBatchSize(int claimBatchSize) {
+        this.claimBatchSize = claimBatchSize;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getClaimLease() {
+        return claimLease;
+    }
+
+    public void setClaimLease(Duration claimLease) {
+        this.claimLease = claimLease;
+    }
+
+    public Duration getRetryBaseDelay() {
+        return retryBaseDelay;
+    }
+
+    public void setRetryBaseDelay(Duration retryBaseDelay) {
+        this.retryBaseDelay = retryBaseDelay;
+    }
+
+    public Duration getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public void setRetryMaxDelay(Duration retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+}
@@ -74,7 +74,9 @@ public class CacheComponentsConfig {
                 buildSitemapCache("sitemapAuthorXmlPageCount", ttl, jitter),
                 buildSitemapCache("sitemapAuthorXmlPage", ttl, jitter),
                 buildSitemapCache("sitemapBookPageMetadata", ttl, jitter),
-                buildSitemapCache("sitemapAuthorPageMetadata", ttl, jitter)
+                buildSitemapCache("sitemapAuthorPageMetadata", ttl, jitter),
+                buildSitemapCache("sitemapBookSeekKeys", ttl, jitter),
+                buildSitemapCache("sitemapAuthorSeekKeys", ttl, jitter)
         );
         manager.setCaches(caches);
         return manager;
@@ -0,0 +1,86 @@
+package com.williamcallahan.book_recommendation_engine.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Strongly typed configuration for the persistent external API response cache.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.external-api-cache")
+public class ExternalApiCacheProperties {
+
+    /**
+     * Read and write cached responses. When false every call goes to the provider.
+     */
+    private boolean enabled = true;
+
+    /**
+     * TTL for endpoints without an entry in {@link #ttl}.
+     */
+    private Duration defaultTtl = Duration.ofHours(6);
+
+    /**
+     * Per-endpoint TTLs keyed by logical endpoint name (e.g. {@code google-volume}).
+     */
+    private Map<String, Duration> ttl = new LinkedHashMap<>(Map.of(
+        "google-volume", Duration.ofDays(7),
+        "google-search", Duration.ofHours(12)
+    ));
+
+    /**
+     * How long past expiry an entry may still be served when the live call is blocked or fails.
+     * Entries older than this are purged.
+     */
+    private Duration maxStale = Duration.ofDays(30);
+
+    @PostConstruct
+    void validate() {
+        Assert.isTrue(defaultTtl.isPositive(), "app.external-api-cache.default-ttl must be positive");
+        ttl.forEach((endpoint, duration) ->
+            Assert.isTrue(duration != null && duration.isPositive(), "app.external-api-cache.ttl." + endpoint + " must be positive"));
+        Assert.isTrue(!maxStale.isNegative(), "app.external-api-cache.max-stale must be non-negative");
+    }
+
+    public Duration ttlFor(String endpoint) {
+        return ttl.getOrDefault(endpoint, defaultTtl);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Map<String, Duration> getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Map<String, Duration> ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getMaxStale() {
+        return maxStale;
+    }
+
+    public void setMaxStale(Duration maxStale) {
+        this.maxStale = maxStale;
+    }
+}
@@ -0,0 +1,105 @@
+package com.williamcallahan.book_recommendation_engine.config;
+
+import com.williamcallahan.book_recommendation_engine.service.ApiRequestPriority;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Strongly typed configuration for the cluster-wide Google Books quota budget.
+ */
+@Component
+@ConfigurationProperties(prefix = "google.books.api.quota")
+public class GoogleApiQuotaProperties {
+
+    /**
+     * Lease authenticated-call quota from Postgres. Without a database the budget is always open.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Authenticated requests the whole cluster may make per UTC day.
+     */
+    private int dailyLimit = 1000;
+
+    /**
+     * Tokens a node claims per lease. Smaller leases share the budget more evenly; larger ones hit Postgres less.
+     */
+    private int leaseSize = 20;
+
+    /**
+     * How long a node waits before asking Postgres again after an empty lease or a ledger error.
+     */
+    private Duration refillInterval = Duration.ofSeconds(5);
+
+    /**
+     * Share of the daily limit each priority class must leave unspent for the classes above it.
+     * Classes without an entry (user-facing search) may spend the budget down to zero.
+     */
+    private Map<ApiRequestPriority, Double> reserve = new EnumMap<>(Map.of(
+        ApiRequestPriority.RECOMMENDATION, 0.1,
+        ApiRequestPriority.BACKFILL, 0.25,
+        ApiRequestPriority.CACHE_WARMING, 0.4
+    ));
+
+    @PostConstruct
+    void validate() {
+        Assert.isTrue(dailyLimit > 0, "google.books.api.quota.daily-limit must be positive");
+        Assert.isTrue(leaseSize > 0, "google.books.api.quota.lease-size must be positive");
+        Assert.isTrue(refillInterval.isPositive(), "google.books.api.quota.refill-interval must be positive");
+        reserve.forEach((priority, share) ->
+            Assert.isTrue(share != null && share >= 0 && share < 1, "google.books.api.quota.reserve." + priority + " must be in [0, 1)"));
+    }
+
+    /**
+     * @return tokens of the daily limit that {@code priority} must leave for higher classes
+     */
+    public int reservedTokensFor(ApiRequestPriority priority) {
+        return (int) Math.ceil(reserve.getOrDefault(priority, 0.0) * dailyLimit);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDailyLimit() {
+        return dailyLimit;
+    }
+
+    public void setDailyLimit(int dailyLimit) {
+        this.dailyLimit = dailyLimit;
+    }
+
+    public int getLeaseSize() {
+        return leaseSize;
+    }
+
+    public void setLeaseSize(int leaseSize) {
+        this.leaseSize = leaseSize;
+    }
+
+    public Duration getRefillInterval() {
+        return refillInterval;
+    }
+
+    public void setRefillInterval(Duration refillInterval) {
+        this.refillInterval = refillInterval;
+    }
+
+    public Map<ApiRequestPriority, Double> getReserve() {
+        return reserve;
+    }
+
+    public void setReserve(Map<ApiRequestPriority, Double> reserve) {
+        this.reserve = reserve;
+    }
+}
@@ -30,6 +30,11 @@ public class SitemapProperties {
      */
     private int xmlPageSize = 5000;
 
+    /**
+     * Rows read per query when streaming an XML sitemap page; each chunk releases its connection before it is written.
+     */
+    private int xmlFetchSize = 500;
+
     /**
      * Base time-to-live for sitemap caches.
      */
@@ -70,11 +75,22 @@ public class SitemapProperties {
      */
     private String s3AccumulatedIdsKey = "sitemaps/accumulated-book-ids.json";
 
+    /**
+     * Local directory for pre-rendered gzip sitemap files (blank keeps them in memory only).
+     */
+    private String artifactDirectory = "";
+
+    /**
+     * S3 key prefix for pre-rendered gzip sitemap files (blank disables the upload).
+     */
+    private String s3ArtifactPrefix = "sitemaps/xml/";
+
     @PostConstruct
     void validate() {
         Set<Integer> allowedXmlSizes = Set.of(1000, 2500, 5000);
         Assert.isTrue(allowedXmlSizes.contains(xmlPageSize),
                 "sitemap.xml-page-size must be one of 1000, 2500, or 5000");
+        Assert.isTrue(xmlFetchSize > 0, "sitemap.xml-fetch-size must be positive");
         Assert.isTrue(!cacheTtl.isNegative(), "sitemap.cache-ttl must be non-negative");
         Assert.isTrue(!cacheJitter.isNegative(), "sitemap.cache-jitter must be non-negative");
         Assert.isTrue(schedulerJitterSeconds >= 0, "sitemap.scheduler-jitter-seconds must be non-negative");
@@ -104,6 +120,14 @@ public class SitemapProperties {
         this.xmlPageSize = xmlPageSize;
     }
 
+    public int getXmlFetchSize() {
+        return xmlFetchSize;
+    }
+
+    public void setXmlFetchSize(int xmlFetchSize) {
+        this.xmlFetchSize = xmlFetchSize;
+    }
+
     public boolean isSchedulerEnabled() {
         return schedulerEnabled;
     }
@@ -167,4 +191,20 @@ public class SitemapProperties {
     public void setCacheJitter(Duration cacheJitter) {
         this.cacheJitter = cacheJitter != null ? cacheJitter : Duration.ofHours(24);
     }
+
+    public String getArtifactDirectory() {
+        return artifactDirectory;
+    }
+
+    public void setArtifactDirectory(String artifactDirectory) {
+        this.artifactDirectory = artifactDirectory != null ? artifactDirectory : "";
+    }
+
+    public String getS3ArtifactPrefix() {
+        return s3ArtifactPrefix;
+    }
+
+    public void setS3ArtifactPrefix(String s3ArtifactPrefix) {
+        this.s3ArtifactPrefix = s3ArtifactPrefix != null ? s3ArtifactPrefix : "";
+    }
 }
@@ -6,6 +6,7 @@
  * Features:
  * - Provides endpoints for S3 cover image cleanup operations
  * - Supports dry run mode for evaluating cleanup impact
+ * - Runs resumable streaming audits of large cover prefixes
  * - Handles moving flagged images to quarantine
  * - Configurable batch processing limits
  * - Detailed logging and error handling
@@ -20,6 +21,7 @@ import com.williamcallahan.book_recommendation_engine.service.ApiCircuitBreakerS
 import com.williamcallahan.book_recommendation_engine.service.S3CoverCleanupService;
 import com.williamcallahan.book_recommendation_engine.service.s3.DryRunSummary;
 import com.williamcallahan.book_recommendation_engine.service.s3.MoveActionSummary;
+import com.williamcallahan.book_recommendation_engine.service.s3.StreamingAuditSummary;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -187,6 +189,41 @@ public class AdminController {
         }
     }
 
+    /**
+     * Runs one increment of the streaming S3 cover audit, resuming from the saved checkpoint for the prefix
+     *
+     * @param prefixOptional Optional request parameter to override the S3 prefix
+     * @param limitOptional Optional request parameter to override the number of objects audited in this run
+     * @param restart Start over instead of resuming from the saved checkpoint
+     * @return A ResponseEntity containing the StreamingAuditSummary as JSON
+     */
+    @PostMapping(value = "/s3-cleanup/audit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> triggerS3CoverStreamingAudit(
+            @RequestParam(name = "prefix", required = false) String prefixOptional,
+            @RequestParam(name = "limit", required = false) Integer limitOptional,
+            @RequestParam(name = "restart", defaultValue = "false") boolean restart) {
+
+        if (s3CoverCleanupService == null) {
+            String errorMessage = "S3 Cover Cleanup Service is not available. S3 integration may be disabled.";
+            log.warn(errorMessage);
+            return ErrorResponseUtils.badRequest(errorMessage, null);
+        }
+
+        String prefixToUse = prefixOptional != null ? prefixOptional : configuredS3Prefix;
+        int limitToUse = limitOptional != null ? limitOptional : defaultBatchLimit;
+        log.info("Admin endpoint /admin/s3-cleanup/audit invoked. Prefix: '{}', Limit: {}, Restart: {}", prefixToUse, limitToUse, restart);
+
+        try {
+            StreamingAuditSummary summary = s3CoverCleanupService.performStreamingAudit(prefixToUse, limitToUse, restart);
+            log.info("S3 cover streaming audit run completed. Summary: {}", summary);
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            String errorMessage = String.format("Failed to run S3 cover streaming audit. Prefix: '%s', Limit: %d.", prefixToUse, limitToUse);
+            log.error(errorMessage, e);
+            return ErrorResponseUtils.internalServerError("Streaming audit failed", errorMessage + " Error: " + e.getMessage());
+        }
+    }
+
     /**
      * Triggers the New York Times Bestseller processing job.
      *
@@ -63,13 +63,15 @@ public class BookController {
     public Mono<ResponseEntity<SearchResponse>> searchBooks(@RequestParam String query,
                                                             @RequestParam(name = "startIndex", defaultValue = "0") int startIndex,
                                                             @RequestParam(name = "maxResults", defaultValue = "12") int maxResults,
-                                                            @RequestParam(name = "orderBy", defaultValue = "newest") String orderBy) {
+                                                            @RequestParam(name = "orderBy", defaultValue = "newest") String orderBy,
+                                                            @RequestParam(name = "cursor", required = false) String cursor) {
         String normalizedQuery = SearchQueryUtils.normalize(query);
         SearchPaginationService.SearchRequest request = new SearchPaginationService.SearchRequest(
             normalizedQuery,
             startIndex,
             maxResults,
-            orderBy
+            orderBy,
+            cursor
         );
 
         return searchPaginationService.search(request)
@@ -194,6 +196,7 @@ public class BookController {
             page.hasMore(),
             page.nextStartIndex(),
             page.prefetchedCount(),
+            page.nextCursor(),
             hits
         );
     }
@@ -276,6 +279,7 @@ public class BookController {
                                   boolean hasMore,
                                   int nextStartIndex,
                                   int prefetchedCount,
+                                  String nextCursor,
                                   List<SearchHitDto> results) {
     }
 
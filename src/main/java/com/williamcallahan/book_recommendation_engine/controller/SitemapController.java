@@ -1,14 +1,17 @@
 package com.williamcallahan.book_recommendation_engine.controller;
 
 import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
+import com.williamcallahan.book_recommendation_engine.service.SitemapArtifactService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService;
-import com.williamcallahan.book_recommendation_engine.service.SitemapService.AuthorListingXmlItem;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.AuthorSection;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.BookSitemapItem;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.PagedResult;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.SitemapOverview;
+import com.williamcallahan.book_recommendation_engine.service.SitemapXmlRenderer;
+import com.williamcallahan.book_recommendation_engine.service.SitemapXmlRenderer.XmlPageWriter;
 import com.williamcallahan.book_recommendation_engine.util.PagingUtils;
 import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,18 +19,22 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
-import org.springframework.web.util.UriUtils;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.time.Instant;
-import java.time.format.DateTimeFormatter;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller responsible for generating the server-rendered sitemap page and XML sitemap feeds.
@@ -35,14 +42,21 @@ import java.util.stream.Collectors;
 @Controller
 public class SitemapController {
 
-    private static final DateTimeFormatter LAST_MODIFIED_FORMATTER = DateTimeFormatter.ISO_INSTANT;
+    private static final int STREAM_BUFFER_SIZE = 8192;
 
     private final SitemapService sitemapService;
     private final SitemapProperties sitemapProperties;
+    private final SitemapXmlRenderer sitemapXmlRenderer;
+    private final SitemapArtifactService sitemapArtifactService;
 
-    public SitemapController(SitemapService sitemapService, SitemapProperties sitemapProperties) {
+    public SitemapController(SitemapService sitemapService,
+                             SitemapProperties sitemapProperties,
+                             SitemapXmlRenderer sitemapXmlRenderer,
+                             SitemapArtifactService sitemapArtifactService) {
         this.sitemapService = sitemapService;
         this.sitemapProperties = sitemapProperties;
+        this.sitemapXmlRenderer = sitemapXmlRenderer;
+        this.sitemapArtifactService = sitemapArtifactService;
     }
 
     @GetMapping("/sitemap")
@@ -73,136 +87,114 @@ public class SitemapController {
 
     @GetMapping(value = "/sitemap.xml", produces = MediaType.APPLICATION_XML_VALUE)
     @ResponseBody
-    public ResponseEntity<String> sitemapIndex() {
-        int totalBookPages = sitemapService.getBooksXmlPageCount();
-        int totalAuthorPages = sitemapService.getAuthorXmlPageCount();
-        String baseUrl = sitemapProperties.getBaseUrl();
-
-        Map<Integer, Instant> bookLastModified = sitemapService.getBookSitemapPageMetadata().stream()
-                .collect(Collectors.toMap(
-                        SitemapService.SitemapPageMetadata::page,
-                        SitemapService.SitemapPageMetadata::lastModified,
-                        (a, b) -> b,
-                        LinkedHashMap::new));
-        Map<Integer, Instant> authorLastModified = sitemapService.getAuthorSitemapPageMetadata().stream()
-                .collect(Collectors.toMap(
-                        SitemapService.SitemapPageMetadata::page,
-                        SitemapService.SitemapPageMetadata::lastModified,
-                        (a, b) -> b,
-                        LinkedHashMap::new));
-
-        Instant bookFallback = sitemapService.currentBookFingerprint().lastModified();
-        Instant authorFallback = sitemapService.currentAuthorFingerprint().lastModified();
-
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
-        for (int i = 1; i <= totalBookPages; i++) {
-            Instant lastModified = bookLastModified.getOrDefault(i, bookFallback);
-            xml.append("  <sitemap>\n");
-            xml.append("    <loc>").append(escapeXml(baseUrl + "/sitemap-xml/books/" + i + ".xml")).append("</loc>\n");
-            xml.append("    <lastmod>").append(LAST_MODIFIED_FORMATTER.format(lastModified)).append("</lastmod>\n");
-            xml.append("  </sitemap>\n");
+    public ResponseEntity<StreamingResponseBody> sitemapIndex(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        Optional<SitemapArtifactService.Artifact> artifact = sitemapArtifactService.find(SitemapArtifactService.INDEX_PATH);
+        if (artifact.isPresent()) {
+            return artifactResponse(artifact.get(), acceptEncoding, webRequest);
         }
-
-        for (int i = 1; i <= totalAuthorPages; i++) {
-            Instant lastModified = authorLastModified.getOrDefault(i, authorFallback);
-            xml.append("  <sitemap>\n");
-            xml.append("    <loc>").append(escapeXml(baseUrl + "/sitemap-xml/authors/" + i + ".xml")).append("</loc>\n");
-            xml.append("    <lastmod>").append(LAST_MODIFIED_FORMATTER.format(lastModified)).append("</lastmod>\n");
-            xml.append("  </sitemap>\n");
-        }
-        xml.append("</sitemapindex>");
-
-        return ResponseEntity.ok(xml.toString());
+        return streamXml(sitemapXmlRenderer.index(), acceptEncoding);
     }
 
     @GetMapping(value = "/sitemap-xml/books/{page}.xml", produces = MediaType.APPLICATION_XML_VALUE)
     @ResponseBody
-    public ResponseEntity<String> booksSitemap(@PathVariable("page") int page) {
-        int totalPages = sitemapService.getBooksXmlPageCount();
-        if (totalPages == 0 || page < 1 || page > totalPages) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
-        List<BookSitemapItem> items = sitemapService.getBooksForXmlPage(page);
-        String xml = buildBookUrlSet(items);
-        return ResponseEntity.ok(xml);
+    public ResponseEntity<StreamingResponseBody> booksSitemap(@PathVariable("page") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        return servePage(SitemapArtifactService.booksPath(page), acceptEncoding, webRequest,
+                () -> sitemapXmlRenderer.booksPage(page));
     }
 
     @GetMapping(value = "/sitemap-xml/authors/{page}.xml", produces = MediaType.APPLICATION_XML_VALUE)
     @ResponseBody
-    public ResponseEntity<String> authorsSitemap(@PathVariable("page") int page) {
-        int totalPages = sitemapService.getAuthorXmlPageCount();
-        if (totalPages == 0 || page < 1 || page > totalPages) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
-        List<AuthorListingXmlItem> listings = sitemapService.getAuthorListingsForXmlPage(page);
-        String xml = buildAuthorUrlSet(listings);
-        return ResponseEntity.ok(xml);
+    public ResponseEntity<StreamingResponseBody> authorsSitemap(@PathVariable("page") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        return servePage(SitemapArtifactService.authorsPath(page), acceptEncoding, webRequest,
+                () -> sitemapXmlRenderer.authorsPage(page));
     }
 
-    private String buildBookUrlSet(List<BookSitemapItem> items) {
-        String baseUrl = sitemapProperties.getBaseUrl();
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
-        Instant fallback = sitemapService.currentBookFingerprint().lastModified();
-        for (BookSitemapItem item : items) {
-            if (item.slug() == null || item.slug().isBlank()) {
-                continue; // Skip items without valid slugs
-            }
-            Instant lastModified = item.updatedAt() != null ? item.updatedAt() : fallback;
-            xml.append("  <url>\n");
-            // Slugs should already be URL-safe, but ensure proper encoding
-            String safeSlug = validateAndEncodeSlug(item.slug());
-            xml.append("    <loc>").append(escapeXml(baseUrl + "/book/" + safeSlug)).append("</loc>\n");
-            xml.append("    <lastmod>").append(LAST_MODIFIED_FORMATTER.format(lastModified)).append("</lastmod>\n");
-            xml.append("    <changefreq>weekly</changefreq>\n");
-            xml.append("    <priority>0.8</priority>\n");
-            xml.append("  </url>\n");
+    /**
+     * Serves the pre-rendered page when a generation exists (a missing page is then a 404 without any query),
+     * otherwise streams it live.
+     */
+    private ResponseEntity<StreamingResponseBody> servePage(String path,
+                                                            String acceptEncoding,
+                                                            WebRequest webRequest,
+                                                            Supplier<Optional<XmlPageWriter>> livePage) {
+        Optional<SitemapArtifactService.Artifact> artifact = sitemapArtifactService.find(path);
+        if (artifact.isPresent()) {
+            return artifactResponse(artifact.get(), acceptEncoding, webRequest);
         }
-        xml.append("</urlset>");
-        return xml.toString();
+        if (sitemapArtifactService.hasArtifacts()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return livePage.get()
+                .map(pageWriter -> streamXml(pageWriter, acceptEncoding))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
-    private String buildAuthorUrlSet(List<AuthorListingXmlItem> items) {
-        String baseUrl = sitemapProperties.getBaseUrl();
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
-        Instant fallback = sitemapService.currentAuthorFingerprint().lastModified();
-        for (AuthorListingXmlItem item : items) {
-            xml.append("  <url>\n");
-            xml.append("    <loc>").append(escapeXml(baseUrl + item.toPath())).append("</loc>\n");
-            Instant lastModified = item.lastModified() != null ? item.lastModified() : fallback;
-            xml.append("    <lastmod>").append(LAST_MODIFIED_FORMATTER.format(lastModified)).append("</lastmod>\n");
-            xml.append("    <changefreq>daily</changefreq>\n");
-            xml.append("    <priority>0.6</priority>\n");
-            xml.append("  </url>\n");
+    /**
+     * {@link WebRequest#checkNotModified} answers conditional requests with 304 and sets ETag/Last-Modified
+     * itself, so they are not repeated on the entity. Gzip-capable clients get the stored bytes as-is;
+     * the rest get them inflated on the way out.
+     */
+    private ResponseEntity<StreamingResponseBody> artifactResponse(SitemapArtifactService.Artifact artifact,
+                                                                   String acceptEncoding,
+                                                                   WebRequest webRequest) {
+        if (webRequest.checkNotModified(artifact.etag(), artifact.lastModified().toEpochMilli())) {
+            return null;
         }
-        xml.append("</urlset>");
-        return xml.toString();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_XML)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> out.write(artifact.gzip()));
+        }
+        return builder.body(out -> {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(artifact.gzip()))) {
+                in.transferTo(out);
+            }
+        });
     }
 
-    private String validateAndEncodeSlug(String slug) {
-        if (slug == null || slug.isBlank()) {
-            return "unknown";
+    /**
+     * Writes the document straight to the response (gzip-encoded when the client accepts it), so heap use
+     * per request is bounded by the writer buffers rather than the document size.
+     */
+    private ResponseEntity<StreamingResponseBody> streamXml(XmlPageWriter pageWriter, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_XML)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
-        if (slug.matches("[a-z0-9-]+")) {
-            return slug;
-        }
-        return UriUtils.encodePathSegment(slug, StandardCharsets.UTF_8);
+        return builder.body(out -> {
+            GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, STREAM_BUFFER_SIZE) : null;
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+            pageWriter.writeTo(writer);
+            writer.flush();
+            if (gzipOut != null) {
+                gzipOut.finish();
+            }
+        });
     }
 
-    private String escapeXml(String value) {
-        if (value == null) {
-            return "";
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (!ValidationUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().toLowerCase(Locale.ROOT).split("\\s*;\\s*");
+            boolean refused = parts.length > 1 && parts[1].matches("q=0(\\.0*)?");
+            if (("gzip".equals(parts[0]) || "*".equals(parts[0])) && !refused) {
+                return true;
+            }
         }
-        return value.replace("&", "&amp;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
+        return false;
     }
 
     private String normalizeView(String view) {
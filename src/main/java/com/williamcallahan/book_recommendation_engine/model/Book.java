@@ -9,6 +9,8 @@
  */
 package com.williamcallahan.book_recommendation_engine.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.williamcallahan.book_recommendation_engine.model.image.CoverImages;
 import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
 import java.util.ArrayList;
@@ -77,6 +79,9 @@ public class Book {
     private Map<String, Object> qualifiers;
     private List<String> cachedRecommendationIds;
     private transient String rawJsonResponse;
+    // Provider JSON the book was mapped from; only turned into rawJsonResponse when someone reads it
+    @JsonIgnore
+    private transient JsonNode rawJsonNode;
     
     // Retrieval metadata for development mode tracking
     private transient String retrievedFrom; // "POSTGRES", "S3", "GOOGLE_BOOKS_API", "OPEN_LIBRARY_API", etc.
@@ -89,6 +94,29 @@ public class Book {
         this.cachedRecommendationIds = new ArrayList<>();
     }
 
+    /**
+     * Raw provider JSON; serialized from {@link #getRawJsonNode()} on first access when only the tree was kept.
+     */
+    public String getRawJsonResponse() {
+        if (rawJsonResponse == null && rawJsonNode != null) {
+            rawJsonResponse = rawJsonNode.toString();
+        }
+        return rawJsonResponse;
+    }
+
+    public void setRawJsonResponse(String rawJsonResponse) {
+        this.rawJsonResponse = rawJsonResponse;
+        this.rawJsonNode = null;
+    }
+
+    /**
+     * Keeps the parsed provider JSON without serializing it; {@link #getRawJsonResponse()} derives the text lazily.
+     */
+    public void setRawJsonNode(JsonNode rawJsonNode) {
+        this.rawJsonNode = rawJsonNode;
+        this.rawJsonResponse = null;
+    }
+
     public Book(String id,
                 String title,
                 List<String> authors,
@@ -106,6 +134,63 @@ public class Book {
         this.cachedRecommendationIds = new ArrayList<>();
     }
 
+    /**
+     * Copy that can be mutated without affecting this instance.
+     * Lists, qualifiers and cover images are copied; list elements and the raw provider JSON are shared.
+     */
+    public Book copy() {
+        Book copy = new Book();
+        copy.id = id;
+        copy.slug = slug;
+        copy.title = title;
+        copy.authors = authors != null ? new ArrayList<>(authors) : null;
+        copy.description = description;
+        copy.s3ImagePath = s3ImagePath;
+        copy.externalImageUrl = externalImageUrl;
+        copy.isbn10 = isbn10;
+        copy.isbn13 = isbn13;
+        copy.publishedDate = publishedDate != null ? new Date(publishedDate.getTime()) : null;
+        copy.categories = categories != null ? new ArrayList<>(categories) : null;
+        copy.setCollections(collections);
+        copy.averageRating = averageRating;
+        copy.ratingsCount = ratingsCount;
+        copy.rawRatingsData = rawRatingsData;
+        copy.hasRatings = hasRatings;
+        copy.pageCount = pageCount;
+        copy.language = language;
+        copy.publisher = publisher;
+        copy.infoLink = infoLink;
+        copy.previewLink = previewLink;
+        copy.purchaseLink = purchaseLink;
+        copy.listPrice = listPrice;
+        copy.currencyCode = currencyCode;
+        copy.webReaderLink = webReaderLink;
+        copy.pdfAvailable = pdfAvailable;
+        copy.epubAvailable = epubAvailable;
+        copy.coverImageWidth = coverImageWidth;
+        copy.coverImageHeight = coverImageHeight;
+        copy.isCoverHighResolution = isCoverHighResolution;
+        copy.heightCm = heightCm;
+        copy.widthCm = widthCm;
+        copy.thicknessCm = thicknessCm;
+        copy.weightGrams = weightGrams;
+        copy.coverImages = coverImages != null
+            ? new CoverImages(coverImages.getPreferredUrl(), coverImages.getFallbackUrl(), coverImages.getSource())
+            : null;
+        copy.editionNumber = editionNumber;
+        copy.editionGroupKey = editionGroupKey;
+        copy.otherEditions = otherEditions != null ? new ArrayList<>(otherEditions) : new ArrayList<>();
+        copy.asin = asin;
+        copy.setQualifiers(qualifiers);
+        copy.setCachedRecommendationIds(cachedRecommendationIds);
+        copy.rawJsonResponse = rawJsonResponse;
+        copy.rawJsonNode = rawJsonNode;
+        copy.retrievedFrom = retrievedFrom;
+        copy.dataSource = dataSource;
+        copy.inPostgres = inPostgres;
+        return copy;
+    }
+
     public void setAuthors(List<String> authors) {
         if (authors == null) {
             this.authors = new ArrayList<>();
@@ -0,0 +1,15 @@
+package com.williamcallahan.book_recommendation_engine.model.image;
+
+/**
+ * A cover derivative stored in S3 next to the primary processed cover
+ *
+ * @param tier The resolution tier of this derivative
+ * @param storageKey S3 object key of the derivative
+ * @param url CDN URL of the derivative
+ * @param width Width in pixels
+ * @param height Height in pixels
+ *
+ * @author William Callahan
+ */
+public record CoverDerivative(CoverTier tier, String storageKey, String url, int width, int height) {
+}
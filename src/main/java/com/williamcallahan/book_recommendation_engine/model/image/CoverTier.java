@@ -0,0 +1,49 @@
+package com.williamcallahan.book_recommendation_engine.model.image;
+
+/**
+ * Resolution tiers stored in S3 for each processed book cover
+ *
+ * @author William Callahan
+ *
+ * Features:
+ * - LARGE is the primary processed cover used on detail pages
+ * - CARD is a derivative scaled down from LARGE in the same decode pass, sized for card grids
+ * - Each tier has its own S3 key suffix and book_image_links image_type
+ */
+public enum CoverTier {
+    /** Card grids and recommendation rows (250px tall containers, 2x for high-density displays) */
+    CARD("card", "-sm", 320),
+    /** Detail pages; the primary cover written to books.s3_image_path */
+    LARGE("large", "-lg", 800);
+
+    private final String imageType;
+    private final String keySuffix;
+    private final int maxWidth;
+
+    CoverTier(String imageType, String keySuffix, int maxWidth) {
+        this.imageType = imageType;
+        this.keySuffix = keySuffix;
+        this.maxWidth = maxWidth;
+    }
+
+    /**
+     * @return The book_image_links image_type this tier is recorded under
+     */
+    public String getImageType() {
+        return imageType;
+    }
+
+    /**
+     * @return The suffix placed after the book identifier in the S3 key (e.g., "-sm")
+     */
+    public String getKeySuffix() {
+        return keySuffix;
+    }
+
+    /**
+     * @return The widest this tier is stored at; narrower images are never upscaled
+     */
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+}
@@ -1,5 +1,7 @@
 package com.williamcallahan.book_recommendation_engine.model.image;
 
+import java.util.List;
+
 /**
  * Book cover image details including source and dimension information
  *
@@ -41,6 +43,11 @@ public class ImageDetails {
      */
     private String storageKey;
 
+    /**
+     * Smaller resolution tiers stored next to this image. Empty unless uploaded with derivatives.
+     */
+    private List<CoverDerivative> derivatives = List.of();
+
     /**
      * Constructor for placeholder/failed images (no dimensions)
      *
@@ -267,6 +274,24 @@ public class ImageDetails {
         this.storageKey = storageKey;
     }
 
+    /**
+     * Gets the smaller resolution tiers stored next to this image
+     *
+     * @return Derivatives, never null
+     */
+    public List<CoverDerivative> getDerivatives() {
+        return derivatives;
+    }
+
+    /**
+     * Sets the smaller resolution tiers stored next to this image
+     *
+     * @param derivatives The derivatives, or null for none
+     */
+    public void setDerivatives(List<CoverDerivative> derivatives) {
+        this.derivatives = derivatives != null ? List.copyOf(derivatives) : List.of();
+    }
+
     private static boolean isLegacyS3Source(CoverImageSource source) {
         if (source == null) {
             return false;
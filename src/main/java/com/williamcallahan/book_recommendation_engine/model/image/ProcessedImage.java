@@ -17,11 +17,13 @@
  * @param height The height of the processed image in pixels
  * @param processingSuccessful Whether the image processing was successful
  * @param processingError Error message if processing failed
+ * @param derivatives Smaller resolution tiers produced from the same decode (JPEG, same MIME type and extension)
  */
 
  package com.williamcallahan.book_recommendation_engine.model.image;
 
 import java.util.Arrays;
+import java.util.List;
 
 public record ProcessedImage(
         byte[] processedBytes,
@@ -30,7 +32,18 @@ public record ProcessedImage(
         int width,
         int height,
         boolean processingSuccessful,
-        String processingError) {
+        String processingError,
+        List<Derivative> derivatives) {
+
+    /**
+     * A smaller resolution tier of the processed image
+     *
+     * @param tier The resolution tier
+     * @param processedBytes The encoded derivative
+     * @param width Width in pixels
+     * @param height Height in pixels
+     */
+    public record Derivative(CoverTier tier, byte[] processedBytes, int width, int height) {}
 
     // Compact canonical constructor for defensive copy
     public ProcessedImage {
@@ -38,6 +51,12 @@ public record ProcessedImage(
         if (processedBytes != null) {
             processedBytes = Arrays.copyOf(processedBytes, processedBytes.length);
         }
+        derivatives = derivatives != null ? List.copyOf(derivatives) : List.of();
+    }
+
+    public ProcessedImage(byte[] processedBytes, String newFileExtension, String newMimeType, int width, int height,
+                          boolean processingSuccessful, String processingError) {
+        this(processedBytes, newFileExtension, newMimeType, width, height, processingSuccessful, processingError, List.of());
     }
 
     /**
@@ -64,6 +83,16 @@ public record ProcessedImage(
         return new ProcessedImage(null, null, null, 0, 0, false, processingError);
     }
 
+    /**
+     * Returns a copy of this result carrying the given derivatives
+     *
+     * @param derivatives Smaller resolution tiers of this image
+     * @return A new ProcessedImage with the derivatives attached
+     */
+    public ProcessedImage withDerivatives(List<Derivative> derivatives) {
+        return new ProcessedImage(processedBytes, newFileExtension, newMimeType, width, height, processingSuccessful, processingError, derivatives);
+    }
+
     // Override accessor to return a defensive copy for immutability
     @Override
     public byte[] processedBytes() {
@@ -98,4 +127,8 @@ public record ProcessedImage(
     public String getProcessingError() {
         return processingError;
     }
+
+    public List<Derivative> getDerivatives() {
+        return derivatives;
+    }
 } 
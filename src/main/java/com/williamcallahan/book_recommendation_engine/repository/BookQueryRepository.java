@@ -53,6 +53,7 @@ public class BookQueryRepository {
      * SINGLE QUERY replaces 5 hydration queries per book.
      * 
      * This is THE SINGLE SOURCE for card data - all card views must use this method.
+     * Cover URLs point at the card-sized S3 derivative when one is stored.
      * 
      * @param bookIds List of book UUIDs to fetch
      * @return List of BookCard DTOs with all card-specific data
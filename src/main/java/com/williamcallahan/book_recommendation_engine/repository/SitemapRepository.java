@@ -1,9 +1,15 @@
 package com.williamcallahan.book_recommendation_engine.repository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -20,10 +26,7 @@ import java.util.stream.Collectors;
 @Repository
 public class SitemapRepository {
 
-    private static final String LETTER_BUCKET_EXPRESSION =
-            "CASE " +
-            "WHEN substring(lower(trim(%s)), 1, 1) BETWEEN 'a' AND 'z' THEN substring(lower(trim(%s)), 1, 1) " +
-            "ELSE '0-9' END";
+    private static final Logger log = LoggerFactory.getLogger(SitemapRepository.class);
 
     private static final String BOOK_UPDATED_AT_ALIAS = "book_updated_at";
 
@@ -34,6 +37,18 @@ public class SitemapRepository {
             rs.getTimestamp(BOOK_UPDATED_AT_ALIAS).toInstant()
     );
 
+    private static final RowMapper<BookSeekKey> BOOK_SEEK_KEY_MAPPER = (rs, rowNum) -> new BookSeekKey(
+            rs.getTimestamp("updated_at").toInstant(),
+            rs.getString("sitemap_sort_key"),
+            rs.getString("slug"),
+            rs.getString("id")
+    );
+
+    private static final RowMapper<AuthorSeekKey> AUTHOR_SEEK_KEY_MAPPER = (rs, rowNum) -> new AuthorSeekKey(
+            rs.getString("sitemap_sort_key"),
+            rs.getString("id")
+    );
+
     private final JdbcTemplate jdbcTemplate;
 
     public SitemapRepository(JdbcTemplate jdbcTemplate) {
@@ -46,9 +61,8 @@ public class SitemapRepository {
     }
 
     public Map<String, Integer> countBooksByBucket() {
-        String expr = LETTER_BUCKET_EXPRESSION.formatted("title", "title");
-        String sql = "SELECT " + expr + " AS bucket, COUNT(*) AS total FROM books " +
-                     "WHERE slug IS NOT NULL GROUP BY bucket";
+        String sql = "SELECT sitemap_bucket AS bucket, COUNT(*) AS total FROM books " +
+                     "WHERE slug IS NOT NULL GROUP BY sitemap_bucket";
         return jdbcTemplate.query(sql, rs -> {
             Map<String, Integer> counts = new LinkedHashMap<>();
             while (rs.next()) {
@@ -59,33 +73,102 @@ public class SitemapRepository {
     }
 
     public int countBooksForBucket(String bucket) {
-        String expr = LETTER_BUCKET_EXPRESSION.formatted("title", "title");
-        String sql = "SELECT COUNT(*) FROM books WHERE slug IS NOT NULL AND " + expr + " = ?";
+        String sql = "SELECT COUNT(*) FROM books WHERE slug IS NOT NULL AND sitemap_bucket = ?";
         return Objects.requireNonNullElse(jdbcTemplate.queryForObject(sql, Integer.class, bucket.toLowerCase(Locale.ROOT)), 0);
     }
 
-    public List<BookRow> fetchBooksForBucket(String bucket, int limit, int offset) {
-        String expr = LETTER_BUCKET_EXPRESSION.formatted("title", "title");
-        String sql = "SELECT id, slug, title, COALESCE(updated_at, created_at, NOW()) AS " + BOOK_UPDATED_AT_ALIAS +
-                     " FROM books WHERE slug IS NOT NULL AND " + expr + " = ? " +
-                     "ORDER BY lower(title) NULLS LAST, slug NULLS LAST, id ASC LIMIT ? OFFSET ?";
-        return jdbcTemplate.query(sql, BOOK_ROW_MAPPER, bucket.toLowerCase(Locale.ROOT), limit, offset);
+    /**
+     * Seeks to the first book of a letter-bucket page via {@code idx_books_sitemap_bucket}.
+     *
+     * @param after last key of the previous page, or {@code null} for the first page
+     */
+    public List<BookRow> fetchBooksForBucket(String bucket, @Nullable BookSeekKey after, int limit) {
+        String select = "SELECT id, slug, title, sitemap_sort_key, updated_at AS " + BOOK_UPDATED_AT_ALIAS +
+                        " FROM books WHERE slug IS NOT NULL AND sitemap_bucket = ? ";
+        String order = "ORDER BY sitemap_sort_key, slug, id LIMIT ?";
+        if (after == null) {
+            return jdbcTemplate.query(select + order, BOOK_ROW_MAPPER, bucket.toLowerCase(Locale.ROOT), limit);
+        }
+        return jdbcTemplate.query(select + "AND (sitemap_sort_key, slug, id) > (?, ?, ?::uuid) " + order, BOOK_ROW_MAPPER,
+                bucket.toLowerCase(Locale.ROOT), after.sortKey(), after.slug(), after.id(), limit);
     }
 
-    public List<BookRow> fetchBooksForXml(int limit, int offset) {
-        String sql = "SELECT id, slug, title, COALESCE(updated_at, created_at, NOW()) AS " + BOOK_UPDATED_AT_ALIAS +
-                     " FROM books WHERE slug IS NOT NULL " +
-                     "ORDER BY COALESCE(updated_at, created_at, NOW()) ASC NULLS LAST, " +
-                     "         lower(title) ASC NULLS LAST, " +
-                     "         slug ASC NULLS LAST, " +
-                     "         id ASC " +
-                     "LIMIT ? OFFSET ?";
-        return jdbcTemplate.query(sql, BOOK_ROW_MAPPER, limit, offset);
+    /**
+     * Last key of every full page in a letter bucket; entry {@code n} is the seek key for page {@code n + 2}.
+     */
+    public List<BookSeekKey> fetchBookBucketPageBoundaries(String bucket, int pageSize) {
+        requirePositive(pageSize);
+        String sql = "SELECT updated_at, sitemap_sort_key, slug, id FROM (" +
+                     "    SELECT updated_at, sitemap_sort_key, slug, id, " +
+                     "           row_number() OVER (ORDER BY sitemap_sort_key, slug, id) AS rn" +
+                     "    FROM books WHERE slug IS NOT NULL AND sitemap_bucket = ?" +
+                     ") ordered WHERE rn % ? = 0 ORDER BY rn";
+        return jdbcTemplate.query(sql, BOOK_SEEK_KEY_MAPPER, bucket.toLowerCase(Locale.ROOT), pageSize);
+    }
+
+    /**
+     * Seeks to the first book of an XML sitemap page via {@code idx_books_sitemap_xml}.
+     *
+     * @param after last key of the previous page, or {@code null} for the first page
+     */
+    public List<BookRow> fetchBooksForXml(@Nullable BookSeekKey after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(booksForXmlSql(false), BOOK_ROW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(booksForXmlSql(true), BOOK_ROW_MAPPER,
+                Timestamp.from(after.updatedAt()), after.sortKey(), after.slug(), after.id(), limit);
+    }
+
+    /**
+     * One keyset chunk of an XML sitemap page. The connection is borrowed only for this query, so callers
+     * can write the rows out between chunks without holding a connection or transaction open.
+     *
+     * @param after last key of the previous chunk, or {@code null} for the first page
+     * @return rows in sitemap order and the seek key of the last one ({@code null} when empty)
+     */
+    public BookXmlChunk fetchBookXmlChunk(@Nullable BookSeekKey after, int limit) {
+        requirePositive(limit);
+        ResultSetExtractor<BookXmlChunk> extractor = rs -> {
+            List<BookRow> rows = new ArrayList<>(limit);
+            BookSeekKey last = null;
+            while (rs.next()) {
+                BookRow row = BOOK_ROW_MAPPER.mapRow(rs, rows.size());
+                rows.add(row);
+                last = new BookSeekKey(row.updatedAt(), rs.getString("sitemap_sort_key"), row.slug(), row.bookId());
+            }
+            return new BookXmlChunk(rows, last);
+        };
+        if (after == null) {
+            return jdbcTemplate.query(booksForXmlSql(false), extractor, limit);
+        }
+        return jdbcTemplate.query(booksForXmlSql(true), extractor,
+                Timestamp.from(after.updatedAt()), after.sortKey(), after.slug(), after.id(), limit);
+    }
+
+    private static String booksForXmlSql(boolean seek) {
+        String select = "SELECT id, slug, title, sitemap_sort_key, updated_at AS " + BOOK_UPDATED_AT_ALIAS +
+                        " FROM books WHERE slug IS NOT NULL ";
+        String order = "ORDER BY updated_at, sitemap_sort_key, slug, id LIMIT ?";
+        return seek
+                ? select + "AND (updated_at, sitemap_sort_key, slug, id) > (?, ?, ?, ?::uuid) " + order
+                : select + order;
+    }
+
+    /**
+     * Last key of every full XML sitemap page; entry {@code n} is the seek key for page {@code n + 2}.
+     */
+    public List<BookSeekKey> fetchBookXmlPageBoundaries(int pageSize) {
+        requirePositive(pageSize);
+        String sql = "SELECT updated_at, sitemap_sort_key, slug, id FROM (" +
+                     "    SELECT updated_at, sitemap_sort_key, slug, id, " +
+                     "           row_number() OVER (ORDER BY updated_at, sitemap_sort_key, slug, id) AS rn" +
+                     "    FROM books WHERE slug IS NOT NULL" +
+                     ") ordered WHERE rn % ? = 0 ORDER BY rn";
+        return jdbcTemplate.query(sql, BOOK_SEEK_KEY_MAPPER, pageSize);
     }
 
     public Map<String, Integer> countAuthorsByBucket() {
-        String expr = LETTER_BUCKET_EXPRESSION.formatted("COALESCE(normalized_name, name)", "COALESCE(normalized_name, name)");
-        String sql = "SELECT " + expr + " AS bucket, COUNT(*) AS total FROM authors GROUP BY bucket";
+        String sql = "SELECT sitemap_bucket AS bucket, COUNT(*) AS total FROM authors GROUP BY sitemap_bucket";
         return jdbcTemplate.query(sql, rs -> {
             Map<String, Integer> counts = new LinkedHashMap<>();
             while (rs.next()) {
@@ -96,21 +179,40 @@ public class SitemapRepository {
     }
 
     public int countAuthorsForBucket(String bucket) {
-        String expr = LETTER_BUCKET_EXPRESSION.formatted("COALESCE(normalized_name, name)", "COALESCE(normalized_name, name)");
-        String sql = "SELECT COUNT(*) FROM authors WHERE " + expr + " = ?";
+        String sql = "SELECT COUNT(*) FROM authors WHERE sitemap_bucket = ?";
         return Objects.requireNonNullElse(jdbcTemplate.queryForObject(sql, Integer.class, bucket.toLowerCase(Locale.ROOT)), 0);
     }
 
-    public List<AuthorRow> fetchAuthorsForBucket(String bucket, int limit, int offset) {
-        String expr = LETTER_BUCKET_EXPRESSION.formatted("COALESCE(normalized_name, name)", "COALESCE(normalized_name, name)");
-        String sql = "SELECT id, name, COALESCE(updated_at, created_at, NOW()) AS author_updated_at " +
-                     "FROM authors WHERE " + expr + " = ? " +
-                     "ORDER BY lower(COALESCE(name, '')) NULLS LAST, id ASC LIMIT ? OFFSET ?";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new AuthorRow(
+    /**
+     * Seeks to the first author of a letter-bucket page via {@code idx_authors_sitemap_bucket}.
+     *
+     * @param after last key of the previous page, or {@code null} for the first page
+     */
+    public List<AuthorRow> fetchAuthorsForBucket(String bucket, @Nullable AuthorSeekKey after, int limit) {
+        String select = "SELECT id, name, updated_at AS author_updated_at FROM authors WHERE sitemap_bucket = ? ";
+        String order = "ORDER BY sitemap_sort_key, id LIMIT ?";
+        RowMapper<AuthorRow> mapper = (rs, rowNum) -> new AuthorRow(
                 rs.getString("id"),
                 rs.getString("name"),
                 rs.getTimestamp("author_updated_at").toInstant()
-        ), bucket.toLowerCase(Locale.ROOT), limit, offset);
+        );
+        if (after == null) {
+            return jdbcTemplate.query(select + order, mapper, bucket.toLowerCase(Locale.ROOT), limit);
+        }
+        return jdbcTemplate.query(select + "AND (sitemap_sort_key, id) > (?, ?) " + order, mapper,
+                bucket.toLowerCase(Locale.ROOT), after.sortKey(), after.id(), limit);
+    }
+
+    /**
+     * Last key of every full page in an author letter bucket; entry {@code n} is the seek key for page {@code n + 2}.
+     */
+    public List<AuthorSeekKey> fetchAuthorBucketPageBoundaries(String bucket, int pageSize) {
+        requirePositive(pageSize);
+        String sql = "SELECT sitemap_sort_key, id FROM (" +
+                     "    SELECT sitemap_sort_key, id, row_number() OVER (ORDER BY sitemap_sort_key, id) AS rn" +
+                     "    FROM authors WHERE sitemap_bucket = ?" +
+                     ") ordered WHERE rn % ? = 0 ORDER BY rn";
+        return jdbcTemplate.query(sql, AUTHOR_SEEK_KEY_MAPPER, bucket.toLowerCase(Locale.ROOT), pageSize);
     }
 
     public Map<String, List<BookRow>> fetchBooksForAuthors(Set<String> authorIds) {
@@ -142,15 +244,10 @@ public class SitemapRepository {
     }
 
     public List<PageMetadata> fetchBookPageMetadata(int pageSize) {
-        if (pageSize <= 0) {
-            throw new IllegalArgumentException("Page size must be positive, got: " + pageSize);
-        }
+        requirePositive(pageSize);
         String sql = "WITH ordered AS (" +
-                "    SELECT COALESCE(updated_at, created_at, NOW()) AS " + BOOK_UPDATED_AT_ALIAS + "," +
-                "           row_number() OVER (ORDER BY COALESCE(updated_at, created_at, NOW()) ASC NULLS LAST, " +
-                "                                       lower(title) ASC NULLS LAST, " +
-                "                                       slug ASC NULLS LAST, " +
-                "                                       id ASC) AS rn" +
+                "    SELECT updated_at AS " + BOOK_UPDATED_AT_ALIAS + "," +
+                "           row_number() OVER (ORDER BY updated_at, sitemap_sort_key, slug, id) AS rn" +
                 "    FROM books" +
                 "    WHERE slug IS NOT NULL" +
                 ") " +
@@ -163,7 +260,41 @@ public class SitemapRepository {
         ), pageSize);
     }
 
+    /**
+     * Reads the trigger-maintained {@code sitemap_dataset_stats} rows; falls back to a full scan when the
+     * stats table is missing or not yet seeded.
+     */
     public DatasetFingerprint fetchBookFingerprint() {
+        DatasetFingerprint maintained = fetchMaintainedFingerprint("books");
+        return maintained != null ? maintained : scanBookFingerprint();
+    }
+
+    /**
+     * Same contract as {@link #fetchBookFingerprint()} for the author listings.
+     */
+    public DatasetFingerprint fetchAuthorFingerprint() {
+        DatasetFingerprint maintained = fetchMaintainedFingerprint("authors");
+        return maintained != null ? maintained : scanAuthorFingerprint();
+    }
+
+    @Nullable
+    private DatasetFingerprint fetchMaintainedFingerprint(String entity) {
+        String sql = "SELECT SUM(total_records) AS total_records, MAX(last_modified) AS last_modified " +
+                "FROM sitemap_dataset_stats WHERE entity = ?";
+        try {
+            return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+                Timestamp lastModified = rs.getTimestamp("last_modified");
+                return lastModified != null
+                        ? new DatasetFingerprint(rs.getInt("total_records"), lastModified.toInstant())
+                        : null;
+            }, entity);
+        } catch (DataAccessException ex) {
+            log.debug("sitemap_dataset_stats unavailable for {}, scanning instead: {}", entity, ex.getMessage());
+            return null;
+        }
+    }
+
+    private DatasetFingerprint scanBookFingerprint() {
         String sql = "SELECT COUNT(*) AS total_records, " +
                 "COALESCE(MAX(updated_at), MAX(created_at), TIMESTAMP 'epoch') AS last_modified " +
                 "FROM books WHERE slug IS NOT NULL";
@@ -173,7 +304,7 @@ public class SitemapRepository {
         ));
     }
 
-    public DatasetFingerprint fetchAuthorFingerprint() {
+    private DatasetFingerprint scanAuthorFingerprint() {
         String sql = "SELECT COUNT(DISTINCT a.id) AS total_records, " +
                 "GREATEST(" +
                 "    COALESCE(MAX(a.updated_at), MAX(a.created_at), TIMESTAMP 'epoch')," +
@@ -188,10 +319,25 @@ public class SitemapRepository {
         ));
     }
 
+    private static void requirePositive(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive, got: " + pageSize);
+        }
+    }
+
     public record BookRow(String bookId, String slug, String title, Instant updatedAt) {}
 
     public record AuthorRow(String id, String name, Instant updatedAt) {}
 
+    /**
+     * Position of a book in sitemap order. XML pages compare all four fields; letter buckets skip {@code updatedAt}.
+     */
+    public record BookSeekKey(Instant updatedAt, String sortKey, String slug, String id) {}
+
+    public record BookXmlChunk(List<BookRow> rows, @Nullable BookSeekKey lastKey) {}
+
+    public record AuthorSeekKey(String sortKey, String id) {}
+
     public record PageMetadata(int pageNumber, Instant lastModified) {}
 
     public record DatasetFingerprint(int totalRecords, Instant lastModified) {}
@@ -0,0 +1,37 @@
+package com.williamcallahan.book_recommendation_engine.scheduler;
+
+import com.williamcallahan.book_recommendation_engine.service.ExternalApiResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that purges external API responses too old to be served even as stale fallbacks.
+ */
+@Component
+@ConditionalOnBean(JdbcTemplate.class)
+public class ExternalApiCacheRetentionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalApiCacheRetentionScheduler.class);
+
+    private final ExternalApiResponseCache responseCache;
+
+    public ExternalApiCacheRetentionScheduler(ExternalApiResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 5 * 60 * 1000) // Every hour, start after 5 min
+    public void purgeExpiredResponses() {
+        try {
+            int purged = responseCache.purgeExpired();
+            if (purged > 0) {
+                LOGGER.info("Purged {} expired external API responses", purged);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to purge expired external API responses: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.williamcallahan.book_recommendation_engine.scheduler;
+
+import com.williamcallahan.book_recommendation_engine.service.OutboxRelay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled task to maintain the daily events_outbox partitions.
+ * Pre-creates upcoming partitions and drops the ones past retention, so cleanup cost
+ * does not depend on how many events were written.
+ */
+@Component
+@ConditionalOnBean(JdbcTemplate.class)
+public class OutboxRetentionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRetentionScheduler.class);
+
+    private final OutboxRelay outboxRelay;
+    private final Duration retention;
+    private final int partitionsAhead;
+
+    public OutboxRetentionScheduler(OutboxRelay outboxRelay,
+                                    @Value("${app.outbox.retention:P7D}") Duration retention,
+                                    @Value("${app.outbox.partitions-ahead:3}") int partitionsAhead) {
+        this.outboxRelay = outboxRelay;
+        this.retention = retention;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    /**
+     * Runs every hour, starting one minute after boot.
+     * Partition creation runs first so writes never wait on the drop.
+     */
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 60 * 1000) // Every hour, start after 1 min
+    public void maintainPartitions() {
+        int created = outboxRelay.ensurePartitions(partitionsAhead);
+        int dropped = outboxRelay.cleanupOldEvents(retention);
+        if (created > 0 || dropped > 0) {
+            LOGGER.info("events_outbox partitions maintained: {} created, {} dropped (retention {})",
+                created, dropped, retention);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.williamcallahan.book_recommendation_engine.scheduler;
+
+import com.williamcallahan.book_recommendation_engine.service.RecentBookViewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled task to keep recent-view counters windowed.
+ * Views only ever increment book_view_stats; this job recomputes the 24h/7d/30d counters
+ * from hourly buckets so old views age out, and prunes raw rows past retention.
+ */
+@Component
+@ConditionalOnBean(JdbcTemplate.class)
+public class RecentViewRollupScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecentViewRollupScheduler.class);
+
+    private final RecentBookViewRepository recentBookViewRepository;
+    private final Duration rawRetention;
+
+    public RecentViewRollupScheduler(RecentBookViewRepository recentBookViewRepository,
+                                     @Value("${app.recent-views.raw-retention:P7D}") Duration rawRetention) {
+        this.recentBookViewRepository = recentBookViewRepository;
+        this.rawRetention = rawRetention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.recent-views.compaction-interval-ms:600000}", initialDelay = 2 * 60 * 1000)
+    public void compact() {
+        long start = System.currentTimeMillis();
+        int books = recentBookViewRepository.compactRollups(rawRetention);
+        LOGGER.debug("Recent view rollups compacted: {} books in {}ms", books, System.currentTimeMillis() - start);
+    }
+}
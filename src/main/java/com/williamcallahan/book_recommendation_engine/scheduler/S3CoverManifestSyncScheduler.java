@@ -0,0 +1,37 @@
+package com.williamcallahan.book_recommendation_engine.scheduler;
+
+import com.williamcallahan.book_recommendation_engine.service.image.S3CoverManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that pulls cover keys uploaded by other nodes into this node's S3 cover manifest.
+ */
+@Component
+@ConditionalOnBean(JdbcTemplate.class)
+public class S3CoverManifestSyncScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3CoverManifestSyncScheduler.class);
+
+    private final S3CoverManifest coverManifest;
+
+    public S3CoverManifestSyncScheduler(S3CoverManifest coverManifest) {
+        this.coverManifest = coverManifest;
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000, initialDelay = 2 * 60 * 1000) // Every minute, start after 2 min
+    public void syncManifest() {
+        try {
+            int synced = coverManifest.syncRecent();
+            if (synced > 0) {
+                LOGGER.debug("Synced {} S3 cover manifest keys", synced);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to sync S3 cover manifest: {}", e.getMessage());
+        }
+    }
+}
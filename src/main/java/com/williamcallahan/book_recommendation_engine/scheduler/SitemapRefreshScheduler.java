@@ -3,6 +3,7 @@ package com.williamcallahan.book_recommendation_engine.scheduler;
 import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
 import com.williamcallahan.book_recommendation_engine.model.Book;
 import com.williamcallahan.book_recommendation_engine.service.BookSitemapService;
+import com.williamcallahan.book_recommendation_engine.service.SitemapArtifactService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.BookSitemapItem;
 import com.williamcallahan.book_recommendation_engine.service.image.S3BookCoverService;
@@ -30,15 +31,18 @@ public class SitemapRefreshScheduler {
     private final SitemapProperties sitemapProperties;
     private final BookSitemapService bookSitemapService;
     private final SitemapService sitemapService;
+    private final SitemapArtifactService sitemapArtifactService;
     private final ObjectProvider<S3BookCoverService> coverServiceProvider;
 
     public SitemapRefreshScheduler(SitemapProperties sitemapProperties,
                                    BookSitemapService bookSitemapService,
                                    SitemapService sitemapService,
+                                   SitemapArtifactService sitemapArtifactService,
                                    ObjectProvider<S3BookCoverService> coverServiceProvider) {
         this.sitemapProperties = sitemapProperties;
         this.bookSitemapService = bookSitemapService;
         this.sitemapService = sitemapService;
+        this.sitemapArtifactService = sitemapArtifactService;
         this.coverServiceProvider = coverServiceProvider;
     }
 
@@ -83,6 +87,16 @@ public class SitemapRefreshScheduler {
             sitemapService.getAuthorSitemapPageMetadata();
         }
 
+        // Re-render only when the dataset moved (or nothing has been rendered yet) so crawler traffic stays off Postgres
+        int artifactsRendered = 0;
+        if (cachesCleared || !sitemapArtifactService.hasArtifacts()) {
+            try {
+                artifactsRendered = sitemapArtifactService.renderAll();
+            } catch (Exception e) {
+                LoggingUtils.warn(log, e, "Sitemap artifact rendering failed; XML sitemaps stay on the previous generation");
+            }
+        }
+
         int coverSampleSize = PagingUtils.atLeast(sitemapProperties.getSchedulerCoverSampleSize(), 0);
         int externalHydrationLimit = PagingUtils.atLeast(sitemapProperties.getSchedulerExternalHydrationSize(), 0);
 
@@ -91,14 +105,15 @@ public class SitemapRefreshScheduler {
         int coverWarmups = warmCoverAssets(books, coverSampleSize);
 
         Duration elapsed = Duration.between(start, Instant.now());
-        log.info("Sitemap refresh scheduler finished in {}s (books={}, s3Upload={}, hydration={{attempted:{}, success:{}}}, coverWarmups={}, cachesRefreshed={}).",
+        log.info("Sitemap refresh scheduler finished in {}s (books={}, s3Upload={}, hydration={{attempted:{}, success:{}}}, coverWarmups={}, cachesRefreshed={}, artifactsRendered={}).",
                 elapsed.toSeconds(),
                 books.size(),
                 snapshotResult.uploaded(),
                 hydrationSummary.attempted(),
                 hydrationSummary.succeeded(),
                 coverWarmups,
-                cachesCleared);
+                cachesCleared,
+                artifactsRendered);
     }
 
     private int warmCoverAssets(List<BookSitemapItem> candidates, int limit) {
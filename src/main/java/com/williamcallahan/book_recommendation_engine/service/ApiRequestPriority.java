@@ -0,0 +1,30 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Priority class of an outbound provider request, highest first.
+ * <p>
+ * Carried in the Reactor {@link Context} so it reaches {@link GoogleApiFetcher} without threading a parameter
+ * through every call chain. Pipelines without a priority are treated as {@link #INTERACTIVE_SEARCH}:
+ * <pre>
+ * fetcher.fetchVolumeByIdAuthenticated(id).contextWrite(ApiRequestPriority.BACKFILL.asContext())
+ * </pre>
+ */
+public enum ApiRequestPriority {
+    INTERACTIVE_SEARCH,
+    RECOMMENDATION,
+    BACKFILL,
+    CACHE_WARMING;
+
+    private static final String CONTEXT_KEY = ApiRequestPriority.class.getName();
+
+    public Context asContext() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public static ApiRequestPriority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE_SEARCH);
+    }
+}
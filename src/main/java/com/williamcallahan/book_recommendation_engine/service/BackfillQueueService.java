@@ -1,9 +1,12 @@
 package com.williamcallahan.book_recommendation_engine.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -14,12 +17,14 @@ import java.util.concurrent.PriorityBlockingQueue;
  * <p>
  * DEPRECATION NOTE (2025-10-01): the legacy {@code backfill_tasks} database table is deprecated and must not be used.
  * This service exists explicitly to replace that design with proper Java concurrency primitives. Backfill items are ephemeral
- * (seconds), not data to persist in a database.
+ * (seconds), not data to persist in a database. Deployments that need the backlog to survive restarts or be shared across
+ * nodes can opt into {@link PostgresBackfillQueueService} ({@code app.backfill.queue=postgres}) instead.
  * <p>
  * Features:
  * - Thread-safe enqueue/dequeue via {@link BlockingQueue}
+ * - One lane (queue) per provider so each provider's workers only block on their own backlog
  * - O(1) idempotent deduplication via {@link ConcurrentHashMap}
- * - Priority ordering (1=highest, 10=lowest)
+ * - Priority ordering within a lane (1=highest, 10=lowest)
  * - Zero database overhead
  * - Blocking take() operation (no polling needed)
  * <p>
@@ -30,16 +35,14 @@ import java.util.concurrent.PriorityBlockingQueue;
  */
 @Service
 @Slf4j
-public class BackfillQueueService {
+@ConditionalOnProperty(name = "app.backfill.queue", havingValue = "memory", matchIfMissing = true)
+public class BackfillQueueService implements BackfillTaskQueue {
     
     // Deduplication: track source|sourceId keys already queued
     private final ConcurrentMap<String, Boolean> dedupeSet = new ConcurrentHashMap<>();
     
-    // Priority queue: lower priority value = processed first
-    private final BlockingQueue<BackfillTask> queue = new PriorityBlockingQueue<>(
-        100,
-        Comparator.comparingInt(BackfillTask::priority)
-    );
+    // One priority queue per provider: lower priority value = processed first
+    private final ConcurrentMap<String, BlockingQueue<BackfillTask>> lanes = new ConcurrentHashMap<>();
     
     /**
      * Enqueue a task (idempotent via dedupe set).
@@ -53,6 +56,7 @@ public class BackfillQueueService {
      * @param priority Priority level (1=highest, 10=lowest)
      * @return true if enqueued, false if already queued
      */
+    @Override
     public boolean enqueue(String source, String sourceId, int priority) {
         String dedupeKey = source + "|" + sourceId;
         
@@ -64,7 +68,7 @@ public class BackfillQueueService {
         
         BackfillTask task = new BackfillTask(source, sourceId, priority, dedupeKey, 0);
         
-        boolean added = queue.offer(task);
+        boolean added = lane(source).offer(task);
         if (!added) {
             // Queue full (shouldn't happen with unbounded PriorityBlockingQueue)
             dedupeSet.remove(dedupeKey); // Rollback dedupe entry
@@ -77,18 +81,29 @@ public class BackfillQueueService {
     }
     
     /**
-     * Take next task from queue (BLOCKS until available).
+     * Take next task from a provider's lane (BLOCKS until available).
      * <p>
      * This is a blocking call - it will wait indefinitely until a task is available.
      * Use this in a dedicated worker thread.
      * <p>
      * Tasks are returned in priority order (lowest priority number first).
      *
+     * @param source External provider name whose lane to drain
      * @return Next task to process
      * @throws InterruptedException if thread is interrupted while waiting
      */
-    public BackfillTask take() throws InterruptedException {
-        return queue.take();
+    @Override
+    public BackfillTask take(String source) throws InterruptedException {
+        return lane(source).take();
+    }
+    
+    @Override
+    public List<BackfillTask> drain(String source, int maxTasks) {
+        List<BackfillTask> drained = new ArrayList<>();
+        if (maxTasks > 0) {
+            lane(source).drainTo(drained, maxTasks);
+        }
+        return drained;
     }
     
     /**
@@ -100,6 +115,7 @@ public class BackfillQueueService {
      *
      * @param task Task to mark as completed
      */
+    @Override
     public void markCompleted(BackfillTask task) {
         dedupeSet.remove(task.dedupeKey());
         log.debug("Task completed: {}", task.dedupeKey());
@@ -113,8 +129,9 @@ public class BackfillQueueService {
      *
      * @param task Task to retry
      */
+    @Override
     public void retry(BackfillTask task) {
-        queue.offer(task);
+        lane(task.source()).offer(task);
         log.debug("Task re-enqueued for retry: {} (attempt {})", task.dedupeKey(), task.attempts());
     }
     
@@ -123,8 +140,21 @@ public class BackfillQueueService {
      *
      * @return Number of tasks waiting to be processed
      */
+    @Override
     public int getQueueSize() {
-        return queue.size();
+        return lanes.values().stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    /**
+     * Get current queue size for a single provider lane.
+     *
+     * @param source External provider name
+     * @return Number of tasks waiting in that lane
+     */
+    @Override
+    public int getQueueSize(String source) {
+        BlockingQueue<BackfillTask> lane = lanes.get(source);
+        return lane != null ? lane.size() : 0;
     }
     
     /**
@@ -134,38 +164,15 @@ public class BackfillQueueService {
      *
      * @return Number of unique tasks in flight
      */
+    @Override
     public int getDedupeSize() {
         return dedupeSet.size();
     }
     
-    /**
-     * Backfill task record.
-     * <p>
-     * Immutable (Java record) for thread safety.
-     * Use {@link #withIncrementedAttempts()} to create retry instances.
-     *
-     * @param source External provider name (GOOGLE_BOOKS, OPEN_LIBRARY, etc.)
-     * @param sourceId Provider's book identifier
-     * @param priority Priority level (1=highest, 10=lowest)
-     * @param dedupeKey Unique key for idempotency (source|sourceId)
-     * @param attempts Number of processing attempts (0 for new task)
-     */
-    public record BackfillTask(
-        String source,
-        String sourceId,
-        int priority,
-        String dedupeKey,
-        int attempts
-    ) {
-        /**
-         * Create a copy of this task with incremented attempt count.
-         * <p>
-         * Use this when retrying a failed task.
-         *
-         * @return New task instance with attempts+1
-         */
-        public BackfillTask withIncrementedAttempts() {
-            return new BackfillTask(source, sourceId, priority, dedupeKey, attempts + 1);
-        }
+    private BlockingQueue<BackfillTask> lane(String source) {
+        return lanes.computeIfAbsent(source, ignored -> new PriorityBlockingQueue<>(
+            100,
+            Comparator.comparingInt(BackfillTask::priority)
+        ));
     }
 }
@@ -0,0 +1,91 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import java.util.List;
+
+/**
+ * Queue contract used by {@link BackfillCoordinator}.
+ * <p>
+ * Implementations:
+ * - {@link BackfillQueueService} - in-memory, per-node (default, {@code app.backfill.queue=memory})
+ * - {@link PostgresBackfillQueueService} - durable, shared by all nodes ({@code app.backfill.queue=postgres})
+ * <p>
+ * Both dedupe on (source, sourceId), order by priority (1=highest, 10=lowest) within a provider lane,
+ * and keep a task deduped from enqueue until {@link #markCompleted(BackfillTask)}.
+ */
+public interface BackfillTaskQueue {
+
+    /**
+     * Enqueue a task (idempotent on source|sourceId).
+     *
+     * @return true if enqueued, false if already queued
+     */
+    boolean enqueue(String source, String sourceId, int priority);
+
+    /**
+     * Take next task from a provider's lane (BLOCKS until available).
+     */
+    BackfillTask take(String source) throws InterruptedException;
+
+    /**
+     * Take up to {@code maxTasks} more ready tasks from a provider's lane WITHOUT blocking.
+     * Used by batch mode after {@link #take(String)} returned the first task.
+     */
+    List<BackfillTask> drain(String source, int maxTasks);
+
+    /**
+     * Mark task as completed so the same (source, sourceId) pair can be enqueued again.
+     * Call after success OR after exhausting all retries.
+     */
+    void markCompleted(BackfillTask task);
+
+    /**
+     * Return a task to its lane for another attempt (stays deduped).
+     */
+    void retry(BackfillTask task);
+
+    /**
+     * @return Number of tasks waiting to be processed across all lanes
+     */
+    int getQueueSize();
+
+    /**
+     * @return Number of tasks waiting in a single provider lane
+     */
+    int getQueueSize(String source);
+
+    /**
+     * @return Number of unique tasks queued or in flight
+     */
+    int getDedupeSize();
+
+    /**
+     * Backfill task record.
+     * <p>
+     * Immutable (Java record) for thread safety.
+     * Use {@link #withIncrementedAttempts()} to create retry instances.
+     *
+     * @param source External provider name (GOOGLE_BOOKS, OPEN_LIBRARY, etc.)
+     * @param sourceId Provider's book identifier
+     * @param priority Priority level (1=highest, 10=lowest)
+     * @param dedupeKey Unique key for idempotency (source|sourceId)
+     * @param attempts Number of processing attempts (0 for new task)
+     */
+    record BackfillTask(
+        String source,
+        String sourceId,
+        int priority,
+        String dedupeKey,
+        int attempts
+    ) {
+        /**
+         * Create a copy of this task with incremented attempt count.
+         * <p>
+         * Use this when retrying a failed task.
+         *
+         * @return New task instance with attempts+1
+         */
+        public BackfillTask withIncrementedAttempts() {
+            return new BackfillTask(source, sourceId, priority, dedupeKey, attempts + 1);
+        }
+    }
+}
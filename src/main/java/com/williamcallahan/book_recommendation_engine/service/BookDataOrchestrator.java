@@ -39,7 +39,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,9 +55,9 @@ public class BookDataOrchestrator {
     private final TieredBookSearchService tieredBookSearchService;
     private final BookUpsertService bookUpsertService; // SSOT for all book writes
     private final com.williamcallahan.book_recommendation_engine.mapper.GoogleBooksMapper googleBooksMapper; // For Book->BookAggregate mapping
-    private static final long SEARCH_VIEW_REFRESH_INTERVAL_MS = 60_000L;
-    private final AtomicLong lastSearchViewRefresh = new AtomicLong(0L);
+    private final SearchViewRefreshCoordinator searchViewRefreshCoordinator;
     private final boolean externalFallbackEnabled;
+    private final @Nullable ReactiveSingleFlight singleFlight;
 
     public BookDataOrchestrator(GoogleApiFetcher googleApiFetcher,
                                 ObjectMapper objectMapper,
@@ -67,7 +66,9 @@ public class BookDataOrchestrator {
                                 BookUpsertService bookUpsertService,
                                 com.williamcallahan.book_recommendation_engine.mapper.GoogleBooksMapper googleBooksMapper,
                                 @Lazy @Nullable TieredBookSearchService tieredBookSearchService,
-                                @Value("${app.features.external-fallback.enabled:${app.features.google-fallback.enabled:true}}") boolean externalFallbackEnabled) {
+                                @Nullable SearchViewRefreshCoordinator searchViewRefreshCoordinator,
+                                @Value("${app.features.external-fallback.enabled:${app.features.google-fallback.enabled:true}}") boolean externalFallbackEnabled,
+                                @Nullable ReactiveSingleFlight singleFlight) {
         this.googleApiFetcher = googleApiFetcher;
         this.objectMapper = objectMapper;
         this.bookSearchService = bookSearchService;
@@ -75,7 +76,9 @@ public class BookDataOrchestrator {
         this.bookUpsertService = bookUpsertService;
         this.googleBooksMapper = googleBooksMapper;
         this.tieredBookSearchService = tieredBookSearchService;
+        this.searchViewRefreshCoordinator = searchViewRefreshCoordinator;
         this.externalFallbackEnabled = externalFallbackEnabled;
+        this.singleFlight = singleFlight;
     }
 
     public void refreshSearchView() {
@@ -237,6 +240,14 @@ public class BookDataOrchestrator {
      */
     @Deprecated(since = "2025-10-01", forRemoval = true)
     public Mono<Book> getBookByIdTiered(String bookId) {
+        // Concurrent lookups for the same id share one DB/API pipeline
+        if (singleFlight == null || bookId == null) {
+            return fetchBookByIdTiered(bookId);
+        }
+        return singleFlight.mono("book-by-id", bookId.trim(), () -> fetchBookByIdTiered(bookId), Book::copy);
+    }
+
+    private Mono<Book> fetchBookByIdTiered(String bookId) {
         logger.debug("BookDataOrchestrator: Starting tiered fetch (DB → APIs) for book ID: {}", bookId);
 
         // Tier 1: Database (if configured)
@@ -284,6 +295,13 @@ public class BookDataOrchestrator {
         if (slug == null || slug.isBlank()) {
             return Mono.empty();
         }
+        if (singleFlight == null) {
+            return fetchBookBySlugTiered(slug);
+        }
+        return singleFlight.mono("book-by-slug", slug.trim(), () -> fetchBookBySlugTiered(slug), Book::copy);
+    }
+
+    private Mono<Book> fetchBookBySlugTiered(String slug) {
         return Mono.fromCallable(() -> {
                     Optional<Book> bookOpt = findInDatabaseBySlug(slug);
                     return bookOpt.map(Book::getId).orElse(null);
@@ -468,9 +486,11 @@ public class BookDataOrchestrator {
                     logger.debug("[EXTERNAL-API] [{}] Attempting to persist book: id={}, title={}", context, book.getId(), book.getTitle());
                     ExternalApiLogger.logHydrationStart(logger, context, book.getId(), context);
                     
-                    // Convert book to JSON for storage
+                    // Convert book to JSON for storage, reusing the provider tree when the book still holds it
                     JsonNode bookJson;
-                    if (book.getRawJsonResponse() != null && !book.getRawJsonResponse().isBlank()) {
+                    if (book.getRawJsonNode() != null) {
+                        bookJson = book.getRawJsonNode();
+                    } else if (book.getRawJsonResponse() != null && !book.getRawJsonResponse().isBlank()) {
                         bookJson = objectMapper.readTree(book.getRawJsonResponse());
                     } else {
                         bookJson = objectMapper.valueToTree(book);
@@ -601,22 +621,22 @@ public class BookDataOrchestrator {
             .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
+    /**
+     * Non-forced refreshes only mark the view dirty; {@link SearchViewRefreshCoordinator} debounces them
+     * across the cluster. Forced refreshes rebuild synchronously so the caller's writes are searchable.
+     */
     private void triggerSearchViewRefresh(boolean force) {
-        if (bookSearchService == null) {
+        if (searchViewRefreshCoordinator == null) {
             return;
         }
 
-        long now = System.currentTimeMillis();
         if (!force) {
-            long last = lastSearchViewRefresh.get();
-            if (last != 0 && now - last < SEARCH_VIEW_REFRESH_INTERVAL_MS) {
-                return;
-            }
+            searchViewRefreshCoordinator.markDirty();
+            return;
         }
 
         try {
-            bookSearchService.refreshMaterializedView();
-            lastSearchViewRefresh.set(now);
+            searchViewRefreshCoordinator.refreshNow();
         } catch (Exception ex) {
             logger.warn("BookDataOrchestrator: Failed to refresh search materialized view: {}", ex.getMessage());
         }
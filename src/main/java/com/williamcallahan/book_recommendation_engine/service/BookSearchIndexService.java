@@ -0,0 +1,118 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maintains the {@code book_search_index} table one book at a time.
+ * <p>
+ * When {@code app.features.incremental-search-index.enabled} is true, writers call
+ * {@link #reindexBook(UUID)} inside their own transaction so the search row commits
+ * (or rolls back) together with the book, author, and join rows it was derived from.
+ * Search then reads {@code search_books_indexed()} and never waits on a full
+ * {@code REFRESH MATERIALIZED VIEW book_search_view}.
+ * <p>
+ * When the flag is off every method is a no-op and the materialized view stays authoritative.
+ */
+@Service
+@Slf4j
+public class BookSearchIndexService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean incrementalEnabled;
+
+    public BookSearchIndexService(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.features.incremental-search-index.enabled:false}") boolean incrementalEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.incrementalEnabled = incrementalEnabled;
+    }
+
+    public boolean isIncrementalEnabled() {
+        return incrementalEnabled && jdbcTemplate != null;
+    }
+
+    /**
+     * Upserts the search row for a single book.
+     * <p>
+     * Runs on the caller's connection; failures propagate so a transactional caller rolls back
+     * instead of committing a book that search cannot see.
+     */
+    public void reindexBook(UUID bookId) {
+        if (!isIncrementalEnabled() || bookId == null) {
+            return;
+        }
+        jdbcTemplate.queryForObject(
+            "SELECT refresh_book_search_index(?::UUID[])",
+            Integer.class,
+            (Object) new UUID[] { bookId }
+        );
+        log.debug("Reindexed search row for book {}", bookId);
+    }
+
+    /**
+     * Upserts search rows for several books with a single statement.
+     */
+    public int reindexBooks(Collection<UUID> bookIds) {
+        if (!isIncrementalEnabled() || bookIds == null || bookIds.isEmpty()) {
+            return 0;
+        }
+        UUID[] ids = bookIds.stream().filter(Objects::nonNull).distinct().toArray(UUID[]::new);
+        if (ids.length == 0) {
+            return 0;
+        }
+        Integer affected = jdbcTemplate.queryForObject(
+            "SELECT refresh_book_search_index(?::UUID[])",
+            Integer.class,
+            (Object) ids
+        );
+        return affected != null ? affected : 0;
+    }
+
+    /**
+     * Backfills rows for books written before the index was enabled (or by bulk scripts that bypass
+     * {@link BookUpsertService}). Runs off the startup thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!isIncrementalEnabled()) {
+            return;
+        }
+        Mono.fromCallable(this::rebuildMissing)
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(
+                ignored -> { },
+                error -> log.warn("Startup backfill of book_search_index failed: {}", error.getMessage())
+            );
+    }
+
+    /**
+     * Creates rows for books that predate the index. Safe to run repeatedly.
+     */
+    public int rebuildMissing() {
+        if (!isIncrementalEnabled()) {
+            return 0;
+        }
+        try {
+            Integer affected = jdbcTemplate.queryForObject("SELECT rebuild_book_search_index()", Integer.class);
+            int count = affected != null ? affected : 0;
+            if (count > 0) {
+                log.info("Backfilled {} book_search_index rows", count);
+            }
+            return count;
+        } catch (DataAccessException ex) {
+            log.warn("Failed to backfill book_search_index: {}", ex.getMessage());
+            return 0;
+        }
+    }
+}
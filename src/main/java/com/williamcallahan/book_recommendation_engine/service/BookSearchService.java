@@ -5,6 +5,7 @@ import com.williamcallahan.book_recommendation_engine.util.PagingUtils;
 import com.williamcallahan.book_recommendation_engine.util.SearchQueryUtils;
 import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -17,6 +18,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 @Service
 @Slf4j
@@ -28,18 +30,24 @@ public class BookSearchService {
     private final JdbcTemplate jdbcTemplate;
     private final ExternalBookIdResolver externalBookIdResolver;
     private final BackfillCoordinator backfillCoordinator;
+    private final Executor backfillEnqueueExecutor;
     
     @Value("${app.features.async-backfill.enabled:false}")
     private boolean asyncBackfillEnabled;
 
+    @Value("${app.features.incremental-search-index.enabled:false}")
+    private boolean incrementalSearchIndexEnabled;
+
     public BookSearchService(
         JdbcTemplate jdbcTemplate,
         Optional<ExternalBookIdResolver> externalBookIdResolver,
-        Optional<BackfillCoordinator> backfillCoordinator
+        Optional<BackfillCoordinator> backfillCoordinator,
+        @Qualifier("backfillEnqueueExecutor") Executor backfillEnqueueExecutor
     ) {
         this.jdbcTemplate = jdbcTemplate;
         this.externalBookIdResolver = externalBookIdResolver.orElse(null);
         this.backfillCoordinator = backfillCoordinator.orElse(null);
+        this.backfillEnqueueExecutor = backfillEnqueueExecutor;
     }
 
     public List<SearchResult> searchBooks(String query, Integer limit) {
@@ -49,8 +57,11 @@ public class BookSearchService {
         String sanitizedQuery = SearchQueryUtils.normalize(query);
         int safeLimit = PagingUtils.safeLimit(limit != null ? limit : 0, DEFAULT_LIMIT, 1, MAX_LIMIT);
         try {
+            String searchSql = incrementalSearchIndexEnabled
+                    ? "SELECT * FROM search_books_indexed(?, ?)"
+                    : "SELECT * FROM search_books(?, ?)";
             List<SearchResult> results = jdbcTemplate.query(
-                    "SELECT * FROM search_books(?, ?)",
+                    searchSql,
                     ps -> {
                         ps.setString(1, sanitizedQuery);
                         ps.setInt(2, safeLimit);
@@ -130,8 +141,12 @@ public class BookSearchService {
         }
     }
 
+    /**
+     * Rebuilds {@code book_search_view}. Skipped when the incremental search index is enabled,
+     * because writers already keep {@code book_search_index} current per book.
+     */
     public void refreshMaterializedView() {
-        if (jdbcTemplate == null) {
+        if (jdbcTemplate == null || incrementalSearchIndexEnabled) {
             return;
         }
         try {
@@ -145,9 +160,9 @@ public class BookSearchService {
      * Enqueue backfill tasks for search results that might need data enrichment.
      * <p>
      * Strategy:
-     * - For each book in search results, look up external IDs
+     * - Hand the result ids to {@code backfillEnqueueExecutor} so the request thread never waits on it
+     * - Look up external IDs for all results with one {@link ExternalBookIdResolver#reverseAll} query
      * - Enqueue high-priority backfill tasks (priority=3) for user-facing search
-     * - Runs asynchronously, doesn't block search response
      * <p>
      * Only runs when async-backfill feature flag is enabled.
      */
@@ -156,25 +171,29 @@ public class BookSearchService {
             log.debug("Backfill components not available, skipping enqueue");
             return;
         }
-        
+        List<UUID> bookIds = results.stream().map(SearchResult::bookId).toList();
+        try {
+            backfillEnqueueExecutor.execute(() -> enqueueBackfill(bookIds));
+        } catch (RuntimeException e) {
+            // Don't let backfill enqueue errors affect search results
+            log.warn("Error scheduling backfill enqueue for search results: {}", e.getMessage());
+        }
+    }
+
+    private void enqueueBackfill(List<UUID> bookIds) {
         try {
-            for (SearchResult result : results) {
-                // Look up external IDs for this book
-                Map<String, String> externalIds = externalBookIdResolver.reverse(result.bookId());
-                
+            // One bulk lookup for every hit instead of a reverse() query per book
+            Map<UUID, Map<String, String>> externalIdsByBook = externalBookIdResolver.reverseAll(bookIds);
+            for (Map<String, String> externalIds : externalIdsByBook.values()) {
                 // Enqueue backfill for each external provider
                 for (Map.Entry<String, String> entry : externalIds.entrySet()) {
-                    String source = entry.getKey();
-                    String externalId = entry.getValue();
-                    
                     // Priority 3 = high priority (user just searched)
-                    backfillCoordinator.enqueue(source, externalId, 3);
+                    backfillCoordinator.enqueue(entry.getKey(), entry.getValue(), 3);
                 }
             }
-            
-            log.debug("Enqueued backfill for {} search results", results.size());
+
+            log.debug("Enqueued backfill for {} of {} search results", externalIdsByBook.size(), bookIds.size());
         } catch (Exception e) {
-            // Don't let backfill enqueue errors affect search results
             log.warn("Error enqueuing backfill for search results: {}", e.getMessage());
         }
     }
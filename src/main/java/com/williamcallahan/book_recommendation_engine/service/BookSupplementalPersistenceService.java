@@ -9,6 +9,7 @@ import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
@@ -20,15 +21,19 @@ public class BookSupplementalPersistenceService {
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
     private final BookCollectionPersistenceService collectionPersistenceService;
+    private final BookSearchIndexService searchIndexService;
 
     public BookSupplementalPersistenceService(JdbcTemplate jdbcTemplate,
                                               ObjectMapper objectMapper,
-                                              BookCollectionPersistenceService collectionPersistenceService) {
+                                              BookCollectionPersistenceService collectionPersistenceService,
+                                              BookSearchIndexService searchIndexService) {
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
         this.collectionPersistenceService = collectionPersistenceService;
+        this.searchIndexService = searchIndexService;
     }
 
+    @Transactional
     public void persistAuthors(String bookId, List<String> authors) {
         if (jdbcTemplate == null || !ValidationUtils.hasText(bookId) || ValidationUtils.isNullOrEmpty(authors)) {
             return;
@@ -57,6 +62,8 @@ public class BookSupplementalPersistenceService {
                 position++
             );
         }
+        // Author names feed the weighted search vector, so keep the book's search row in step
+        searchIndexService.reindexBook(bookUuid);
     }
 
     public void persistCategories(String bookId, List<String> categories) {
@@ -1,5 +1,6 @@
 package com.williamcallahan.book_recommendation_engine.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.williamcallahan.book_recommendation_engine.dto.BookAggregate;
 import com.williamcallahan.book_recommendation_engine.service.image.CoverPersistenceService;
@@ -14,8 +15,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
 
 /**
@@ -28,6 +38,7 @@ import java.util.UUID;
  * - book_external_ids table
  * - book_image_links table
  * - book_dimensions table (if dimensions provided)
+ * - book_search_index table (when the incremental search index is enabled)
  * - events_outbox table (transactional event publishing)
  * <p>
  * Key principles:
@@ -47,27 +58,117 @@ import java.util.UUID;
  * UpsertResult result = bookUpsertService.upsert(aggregate);
  * UUID bookId = result.getBookId();
  * String slug = result.getSlug();
+ *
+ * // Backfill batches: set-based statements, one result per aggregate
+ * List&lt;UpsertResult&gt; results = bookUpsertService.upsertBatch(aggregates);
  * </pre>
  */
 @Service
 @Slf4j
 public class BookUpsertService {
     
+    private static final String UPSERT_BOOK_SQL = """
+        INSERT INTO books (
+            id, title, subtitle, description, isbn10, isbn13, 
+            published_date, language, publisher, page_count, slug, 
+            created_at, updated_at
+        )
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())
+        ON CONFLICT (id) DO UPDATE SET
+            title = EXCLUDED.title,
+            subtitle = COALESCE(NULLIF(EXCLUDED.subtitle, ''), books.subtitle),
+            description = COALESCE(NULLIF(EXCLUDED.description, ''), books.description),
+            isbn10 = COALESCE(NULLIF(EXCLUDED.isbn10, ''), books.isbn10),
+            isbn13 = COALESCE(NULLIF(EXCLUDED.isbn13, ''), books.isbn13),
+            published_date = COALESCE(EXCLUDED.published_date, books.published_date),
+            language = COALESCE(NULLIF(EXCLUDED.language, ''), books.language),
+            publisher = COALESCE(NULLIF(EXCLUDED.publisher, ''), books.publisher),
+            page_count = COALESCE(EXCLUDED.page_count, books.page_count),
+            slug = COALESCE(NULLIF(EXCLUDED.slug, ''), books.slug),
+            updated_at = NOW()
+        """;
+
+    private static final String UPSERT_EXTERNAL_ID_SQL = """
+        INSERT INTO book_external_ids (
+            id, book_id, source, external_id,
+            provider_isbn10, provider_isbn13,
+            info_link, preview_link, web_reader_link, purchase_link, canonical_volume_link,
+            average_rating, ratings_count, review_count,
+            is_ebook, pdf_available, epub_available, embeddable, public_domain,
+            viewability, text_readable, image_readable,
+            print_type, maturity_rating, content_version, text_to_speech_permission,
+            saleability, country_code, is_ebook_for_sale,
+            list_price, retail_price, currency_code,
+            oclc_work_id, openlibrary_work_id, goodreads_work_id, google_canonical_id,
+            created_at, last_updated
+        )
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())
+        ON CONFLICT (source, external_id) DO UPDATE SET
+            book_id = EXCLUDED.book_id,
+            info_link = COALESCE(EXCLUDED.info_link, book_external_ids.info_link),
+            preview_link = COALESCE(EXCLUDED.preview_link, book_external_ids.preview_link),
+            web_reader_link = COALESCE(EXCLUDED.web_reader_link, book_external_ids.web_reader_link),
+            purchase_link = COALESCE(EXCLUDED.purchase_link, book_external_ids.purchase_link),
+            canonical_volume_link = COALESCE(EXCLUDED.canonical_volume_link, book_external_ids.canonical_volume_link),
+            average_rating = COALESCE(EXCLUDED.average_rating, book_external_ids.average_rating),
+            ratings_count = COALESCE(EXCLUDED.ratings_count, book_external_ids.ratings_count),
+            review_count = COALESCE(EXCLUDED.review_count, book_external_ids.review_count),
+            is_ebook = COALESCE(EXCLUDED.is_ebook, book_external_ids.is_ebook),
+            pdf_available = COALESCE(EXCLUDED.pdf_available, book_external_ids.pdf_available),
+            epub_available = COALESCE(EXCLUDED.epub_available, book_external_ids.epub_available),
+            embeddable = COALESCE(EXCLUDED.embeddable, book_external_ids.embeddable),
+            public_domain = COALESCE(EXCLUDED.public_domain, book_external_ids.public_domain),
+            viewability = COALESCE(EXCLUDED.viewability, book_external_ids.viewability),
+            text_readable = COALESCE(EXCLUDED.text_readable, book_external_ids.text_readable),
+            image_readable = COALESCE(EXCLUDED.image_readable, book_external_ids.image_readable),
+            print_type = COALESCE(EXCLUDED.print_type, book_external_ids.print_type),
+            maturity_rating = COALESCE(EXCLUDED.maturity_rating, book_external_ids.maturity_rating),
+            content_version = COALESCE(EXCLUDED.content_version, book_external_ids.content_version),
+            text_to_speech_permission = COALESCE(EXCLUDED.text_to_speech_permission, book_external_ids.text_to_speech_permission),
+            saleability = COALESCE(EXCLUDED.saleability, book_external_ids.saleability),
+            country_code = COALESCE(EXCLUDED.country_code, book_external_ids.country_code),
+            is_ebook_for_sale = COALESCE(EXCLUDED.is_ebook_for_sale, book_external_ids.is_ebook_for_sale),
+            list_price = COALESCE(EXCLUDED.list_price, book_external_ids.list_price),
+            retail_price = COALESCE(EXCLUDED.retail_price, book_external_ids.retail_price),
+            currency_code = COALESCE(EXCLUDED.currency_code, book_external_ids.currency_code),
+            oclc_work_id = COALESCE(EXCLUDED.oclc_work_id, book_external_ids.oclc_work_id),
+            openlibrary_work_id = COALESCE(EXCLUDED.openlibrary_work_id, book_external_ids.openlibrary_work_id),
+            goodreads_work_id = COALESCE(EXCLUDED.goodreads_work_id, book_external_ids.goodreads_work_id),
+            google_canonical_id = COALESCE(EXCLUDED.google_canonical_id, book_external_ids.google_canonical_id),
+            last_updated = NOW()
+        """;
+
+    private static final String INSERT_OUTBOX_SQL =
+        "INSERT INTO events_outbox (topic, payload, created_at) VALUES (?, ?::jsonb, NOW())";
+
+    private static final String UPSERT_AUTHOR_JOIN_SQL = """
+        INSERT INTO book_authors_join (id, book_id, author_id, position, created_at)
+        VALUES (?, ?, ?, ?, NOW())
+        ON CONFLICT (book_id, author_id) DO UPDATE SET
+            position = EXCLUDED.position
+        """;
+
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
     private final BookCollectionPersistenceService collectionPersistenceService;
     private final CoverPersistenceService coverPersistenceService;
+    private final BookSearchIndexService searchIndexService;
+    private final boolean notifyOutboxRelay;
     
     public BookUpsertService(
         JdbcTemplate jdbcTemplate,
         ObjectMapper objectMapper,
             BookCollectionPersistenceService collectionPersistenceService,
-            CoverPersistenceService coverPersistenceService
+            CoverPersistenceService coverPersistenceService,
+            BookSearchIndexService searchIndexService,
+            @org.springframework.beans.factory.annotation.Value("${app.outbox.relay.mode:poll}") String outboxRelayMode
     ) {
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
         this.collectionPersistenceService = collectionPersistenceService;
         this.coverPersistenceService = coverPersistenceService;
+        this.searchIndexService = searchIndexService;
+        this.notifyOutboxRelay = "notify".equalsIgnoreCase(outboxRelayMode);
     }
     
     /**
@@ -84,7 +185,8 @@ public class BookUpsertService {
      * 5. UPSERT book_external_ids
      * 6. UPSERT book_image_links
      * 7. UPSERT book_dimensions (if provided)
-     * 8. Emit outbox event (same transaction)
+     * 8. UPSERT book_search_index row (incremental search mode only)
+     * 9. Emit outbox event (same transaction)
      * <p>
      * Thread-safe and can be called concurrently.
      *
@@ -149,7 +251,10 @@ public class BookUpsertService {
             upsertDimensions(bookId, aggregate.getDimensions());
         }
         
-        // 9. Emit outbox event (transactional)
+        // 9. Refresh this book's search row (no-op unless incremental search index is enabled)
+        searchIndexService.reindexBook(bookId);
+        
+        // 10. Emit outbox event (transactional)
         emitOutboxEvent(bookId, slug, aggregate.getTitle(), isNew);
         
         log.info("Successfully upserted book: id={}, slug='{}', isNew={}", bookId, slug, isNew);
@@ -161,6 +266,301 @@ public class BookUpsertService {
             .build();
     }
     
+    /**
+     * Upserts many books in one transaction with set-based statements.
+     * <p>
+     * Same end state as calling {@link #upsert(BookAggregate)} per aggregate, but:
+     * 1. Existing book ids (external id, ISBN-13, ISBN-10) for the whole batch are resolved with ONE query
+     * 2. books, book_authors_join, book_external_ids and events_outbox rows are written with JDBC batches
+     * 3. Authors are upserted with ONE multi-row INSERT ... ON CONFLICT ... RETURNING
+     * 4. Slugs are assigned in one JDBC batch after the rows exist, so duplicates within the batch stay unique
+     * 5. The incremental search index (if enabled) is refreshed with one statement
+     * <p>
+     * Image links, categories and dimensions still go through their per-book paths.
+     * Aggregates that resolve to the same book are written once (last one wins), but the
+     * (source, external_id) mapping of every aggregate is recorded against that book.
+     *
+     * @param aggregates Normalized book data; each must have a title
+     * @return One result per aggregate, in input order
+     */
+    @Transactional
+    public List<UpsertResult> upsertBatch(List<BookAggregate> aggregates) {
+        if (aggregates == null || aggregates.isEmpty()) {
+            return List.of();
+        }
+        for (BookAggregate aggregate : aggregates) {
+            if (aggregate == null || aggregate.getTitle() == null || aggregate.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Every BookAggregate in a batch needs a title");
+            }
+        }
+        
+        // 1. Resolve existing books for the whole batch in one round trip
+        Map<String, UUID> existing = findExistingBooks(aggregates);
+        
+        UUID[] bookIds = new UUID[aggregates.size()];
+        boolean[] isNew = new boolean[aggregates.size()];
+        Map<String, UUID> assignedInBatch = new HashMap<>();
+        // Rows are written in key order so parallel batches that share books lock them in the same order
+        Map<UUID, BookAggregate> latestByBook = new TreeMap<>();
+        // Collected before collapsing so earlier aggregates for the same book keep their external id rows
+        Map<String, Object[]> externalIdRowsByKey = new TreeMap<>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            BookAggregate aggregate = aggregates.get(i);
+            List<String> keys = matchKeys(aggregate);
+            UUID bookId = null;
+            for (String key : keys) {
+                bookId = existing.get(key);
+                if (bookId != null) {
+                    break;
+                }
+            }
+            boolean createdHere = false;
+            if (bookId == null) {
+                bookId = keys.stream().map(assignedInBatch::get).filter(Objects::nonNull).findFirst().orElse(null);
+            }
+            if (bookId == null) {
+                bookId = UUID.fromString(IdGenerator.uuidV7());
+                createdHere = true;
+            }
+            for (String key : keys) {
+                assignedInBatch.putIfAbsent(key, bookId);
+            }
+            bookIds[i] = bookId;
+            isNew[i] = createdHere;
+            latestByBook.put(bookId, aggregate);
+            BookAggregate.ExternalIdentifiers identifiers = aggregate.getIdentifiers();
+            if (identifiers != null && identifiers.getSource() != null && identifiers.getExternalId() != null) {
+                externalIdRowsByKey.put(identifiers.getSource() + "|" + identifiers.getExternalId(), externalIdArgs(bookId, identifiers));
+            }
+        }
+        Set<UUID> newBookIds = new HashSet<>();
+        for (int i = 0; i < bookIds.length; i++) {
+            if (isNew[i]) {
+                newBookIds.add(bookIds[i]);
+            }
+        }
+        
+        // 2. UPSERT books (slug left untouched; assigned below)
+        List<Object[]> bookRows = new ArrayList<>(latestByBook.size());
+        latestByBook.forEach((bookId, aggregate) -> bookRows.add(bookRecordArgs(bookId, aggregate, null)));
+        jdbcTemplate.batchUpdate(UPSERT_BOOK_SQL, bookRows);
+        
+        // 3. Assign slugs to rows that still have none; statements run in order so ensure_unique_slug sees earlier ones
+        List<Object[]> slugRows = new ArrayList<>();
+        latestByBook.forEach((bookId, aggregate) -> {
+            if (aggregate.getSlugBase() != null && !aggregate.getSlugBase().isBlank()) {
+                slugRows.add(new Object[] { aggregate.getSlugBase(), bookId });
+            }
+        });
+        if (!slugRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE books SET slug = ensure_unique_slug(?) WHERE id = ? AND slug IS NULL", slugRows);
+        }
+        
+        // 4. UPSERT authors (one statement) and book_authors_join (one batch)
+        upsertAuthorsBatch(latestByBook);
+        
+        // 5. UPSERT external IDs of every aggregate (one batch)
+        List<Object[]> externalIdRows = new ArrayList<>(externalIdRowsByKey.values());
+        if (!externalIdRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_EXTERNAL_ID_SQL, externalIdRows);
+        }
+        
+        // 6-8. Image links, categories and dimensions keep their per-book paths
+        latestByBook.forEach((bookId, aggregate) -> {
+            if (aggregate.getIdentifiers() != null && aggregate.getIdentifiers().getImageLinks() != null) {
+                upsertImageLinksEnhanced(bookId, aggregate.getIdentifiers());
+            }
+            if (aggregate.getCategories() != null && !aggregate.getCategories().isEmpty()) {
+                upsertCategories(bookId, aggregate.getCategories());
+            }
+            if (aggregate.getDimensions() != null) {
+                upsertDimensions(bookId, aggregate.getDimensions());
+            }
+        });
+        
+        // 9. Refresh search rows for the whole batch in one statement
+        searchIndexService.reindexBooks(latestByBook.keySet());
+        
+        // 10. Emit outbox events (one batch)
+        Map<UUID, String> slugs = findSlugs(latestByBook.keySet());
+        List<Object[]> outboxRows = new ArrayList<>();
+        latestByBook.forEach((bookId, aggregate) -> {
+            try {
+                outboxRows.add(outboxArgs(bookId, slugs.get(bookId), aggregate.getTitle(), newBookIds.contains(bookId)));
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to serialize outbox event for book {}: {}", bookId, e.getMessage());
+            }
+        });
+        try {
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, outboxRows);
+            notifyOutboxRelay();
+        } catch (Exception e) {
+            // Don't fail the transaction - events are optional
+            log.warn("Failed to emit outbox events for batch of {} books: {}", outboxRows.size(), e.getMessage());
+        }
+        
+        log.info("Successfully batch-upserted {} books ({} new) from {} aggregates",
+            latestByBook.size(), newBookIds.size(), aggregates.size());
+        
+        List<UpsertResult> results = new ArrayList<>(aggregates.size());
+        for (int i = 0; i < bookIds.length; i++) {
+            results.add(UpsertResult.builder()
+                .bookId(bookIds[i])
+                .slug(slugs.get(bookIds[i]))
+                .isNew(isNew[i])
+                .build());
+        }
+        return results;
+    }
+    
+    /**
+     * Lookup keys in the same precedence order as {@link #findOrCreateBookId(BookAggregate)}.
+     */
+    private List<String> matchKeys(BookAggregate aggregate) {
+        List<String> keys = new ArrayList<>(3);
+        BookAggregate.ExternalIdentifiers identifiers = aggregate.getIdentifiers();
+        if (identifiers != null && identifiers.getSource() != null && identifiers.getExternalId() != null) {
+            keys.add("EXTERNAL|" + identifiers.getSource() + "|" + identifiers.getExternalId());
+        }
+        if (nullIfBlank(aggregate.getIsbn13()) != null) {
+            keys.add("ISBN13|" + aggregate.getIsbn13());
+        }
+        if (nullIfBlank(aggregate.getIsbn10()) != null) {
+            keys.add("ISBN10|" + aggregate.getIsbn10());
+        }
+        return keys;
+    }
+    
+    /**
+     * Resolves every external id / ISBN in the batch with a single query.
+     */
+    private Map<String, UUID> findExistingBooks(List<BookAggregate> aggregates) {
+        Set<String> seenExternalKeys = new LinkedHashSet<>();
+        List<String> externalSources = new ArrayList<>();
+        List<String> externalIds = new ArrayList<>();
+        Set<String> isbn13s = new LinkedHashSet<>();
+        Set<String> isbn10s = new LinkedHashSet<>();
+        for (BookAggregate aggregate : aggregates) {
+            BookAggregate.ExternalIdentifiers identifiers = aggregate.getIdentifiers();
+            if (identifiers != null && identifiers.getSource() != null && identifiers.getExternalId() != null
+                && seenExternalKeys.add(identifiers.getSource() + "|" + identifiers.getExternalId())) {
+                externalSources.add(identifiers.getSource());
+                externalIds.add(identifiers.getExternalId());
+            }
+            if (nullIfBlank(aggregate.getIsbn13()) != null) {
+                isbn13s.add(aggregate.getIsbn13());
+            }
+            if (nullIfBlank(aggregate.getIsbn10()) != null) {
+                isbn10s.add(aggregate.getIsbn10());
+            }
+        }
+        if (externalIds.isEmpty() && isbn13s.isEmpty() && isbn10s.isEmpty()) {
+            return Map.of();
+        }
+        
+        Map<String, UUID> existing = new HashMap<>();
+        jdbcTemplate.query(
+            """
+            SELECT 'EXTERNAL|' || e.source || '|' || e.external_id AS match_key, e.book_id AS id
+            FROM book_external_ids e
+            JOIN unnest(?::text[], ?::text[]) AS k(source, external_id)
+              ON e.source = k.source AND e.external_id = k.external_id
+            UNION ALL
+            SELECT 'ISBN13|' || b.isbn13, b.id FROM books b WHERE b.isbn13 = ANY(?::text[])
+            UNION ALL
+            SELECT 'ISBN10|' || b.isbn10, b.id FROM books b WHERE b.isbn10 = ANY(?::text[])
+            """,
+            rs -> {
+                existing.putIfAbsent(rs.getString("match_key"), (UUID) rs.getObject("id"));
+            },
+            (Object) externalSources.toArray(String[]::new),
+            (Object) externalIds.toArray(String[]::new),
+            (Object) isbn13s.toArray(String[]::new),
+            (Object) isbn10s.toArray(String[]::new)
+        );
+        return existing;
+    }
+    
+    /**
+     * Upserts all distinct author names of the batch in one statement, then links them in one batch.
+     * Names and join rows are sorted so concurrent batches sharing authors lock their rows in the same order.
+     */
+    private void upsertAuthorsBatch(Map<UUID, BookAggregate> latestByBook) {
+        Set<String> names = new TreeSet<>();
+        latestByBook.values().forEach(aggregate -> {
+            if (aggregate.getAuthors() != null) {
+                aggregate.getAuthors().stream()
+                    .filter(name -> name != null && !name.isBlank())
+                    .forEach(names::add);
+            }
+        });
+        if (names.isEmpty()) {
+            return;
+        }
+        
+        String[] nameArray = names.toArray(String[]::new);
+        String[] ids = new String[nameArray.length];
+        String[] normalized = new String[nameArray.length];
+        for (int i = 0; i < nameArray.length; i++) {
+            ids[i] = IdGenerator.generate();
+            normalized[i] = normalizeAuthorName(nameArray[i]);
+        }
+        Map<String, String> authorIds = new HashMap<>();
+        jdbcTemplate.query(
+            """
+            INSERT INTO authors (id, name, normalized_name, created_at, updated_at)
+            SELECT a.id, a.name, a.normalized_name, NOW(), NOW()
+            FROM unnest(?::text[], ?::text[], ?::text[]) AS a(id, name, normalized_name)
+            ORDER BY a.name
+            ON CONFLICT (name) DO UPDATE SET updated_at = NOW()
+            RETURNING id, name
+            """,
+            rs -> {
+                authorIds.put(rs.getString("name"), rs.getString("id"));
+            },
+            (Object) ids,
+            (Object) nameArray,
+            (Object) normalized
+        );
+        
+        List<Object[]> joinRows = new ArrayList<>();
+        latestByBook.forEach((bookId, aggregate) -> {
+            if (aggregate.getAuthors() == null) {
+                return;
+            }
+            // Same author twice on one book: keep the last position, like the per-row ON CONFLICT update
+            Map<String, Integer> positions = new TreeMap<>();
+            int position = 0;
+            for (String name : aggregate.getAuthors()) {
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                String authorId = authorIds.get(name);
+                if (authorId != null) {
+                    positions.put(authorId, position);
+                }
+                position++;
+            }
+            positions.forEach((authorId, pos) ->
+                joinRows.add(new Object[] { IdGenerator.generateLong(), bookId, authorId, pos }));
+        });
+        if (!joinRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_AUTHOR_JOIN_SQL, joinRows);
+        }
+    }
+    
+    private Map<UUID, String> findSlugs(Collection<UUID> bookIds) {
+        Map<UUID, String> slugs = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT id, slug FROM books WHERE id = ANY(?::UUID[])",
+            rs -> {
+                slugs.put((UUID) rs.getObject("id"), rs.getString("slug"));
+            },
+            (Object) bookIds.toArray(UUID[]::new)
+        );
+        return slugs;
+    }
+    
     /**
      * Find existing book ID or return null for new book.
      * Lookup strategy (in order):
@@ -294,6 +694,10 @@ public class BookUpsertService {
      * Only updates if new data is present (COALESCE keeps existing if new is null).
      */
     private void upsertBookRecord(UUID bookId, BookAggregate aggregate, String slug) {
+        jdbcTemplate.update(UPSERT_BOOK_SQL, bookRecordArgs(bookId, aggregate, slug));
+    }
+
+    private Object[] bookRecordArgs(UUID bookId, BookAggregate aggregate, String slug) {
         Date sqlDate = aggregate.getPublishedDate() != null 
             ? Date.valueOf(aggregate.getPublishedDate()) 
             : null;
@@ -302,27 +706,7 @@ public class BookUpsertService {
         String isbn10 = nullIfBlank(aggregate.getIsbn10());
         String isbn13 = nullIfBlank(aggregate.getIsbn13());
         
-        jdbcTemplate.update(
-            """
-            INSERT INTO books (
-                id, title, subtitle, description, isbn10, isbn13, 
-                published_date, language, publisher, page_count, slug, 
-                created_at, updated_at
-            )
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())
-            ON CONFLICT (id) DO UPDATE SET
-                title = EXCLUDED.title,
-                subtitle = COALESCE(NULLIF(EXCLUDED.subtitle, ''), books.subtitle),
-                description = COALESCE(NULLIF(EXCLUDED.description, ''), books.description),
-                isbn10 = COALESCE(NULLIF(EXCLUDED.isbn10, ''), books.isbn10),
-                isbn13 = COALESCE(NULLIF(EXCLUDED.isbn13, ''), books.isbn13),
-                published_date = COALESCE(EXCLUDED.published_date, books.published_date),
-                language = COALESCE(NULLIF(EXCLUDED.language, ''), books.language),
-                publisher = COALESCE(NULLIF(EXCLUDED.publisher, ''), books.publisher),
-                page_count = COALESCE(EXCLUDED.page_count, books.page_count),
-                slug = COALESCE(NULLIF(EXCLUDED.slug, ''), books.slug),
-                updated_at = NOW()
-            """,
+        return new Object[] {
             bookId,
             aggregate.getTitle(),
             aggregate.getSubtitle(),
@@ -334,7 +718,7 @@ public class BookUpsertService {
             aggregate.getPublisher(),
             aggregate.getPageCount(),
             slug
-        );
+        };
     }
     
     /**
@@ -349,20 +733,11 @@ public class BookUpsertService {
                 continue;
             }
             
-            String normalized = authorName.toLowerCase()
-                .replaceAll("[^a-z0-9\\s]", "")
-                .trim();
-            
-            String authorId = upsertAuthor(authorName, normalized);
+            String authorId = upsertAuthor(authorName, normalizeAuthorName(authorName));
             
             // Link book to author
             jdbcTemplate.update(
-                """
-                INSERT INTO book_authors_join (id, book_id, author_id, position, created_at)
-                VALUES (?, ?, ?, ?, NOW())
-                ON CONFLICT (book_id, author_id) DO UPDATE SET
-                    position = EXCLUDED.position
-                """,
+                UPSERT_AUTHOR_JOIN_SQL,
                 IdGenerator.generateLong(),
                 bookId,
                 authorId,
@@ -413,64 +788,19 @@ public class BookUpsertService {
             return;
         }
         
+        jdbcTemplate.update(UPSERT_EXTERNAL_ID_SQL, externalIdArgs(bookId, identifiers));
+    }
+
+    private Object[] externalIdArgs(UUID bookId, BookAggregate.ExternalIdentifiers identifiers) {
         // Convert empty strings to null
         String providerIsbn10 = nullIfBlank(identifiers.getProviderIsbn10());
         String providerIsbn13 = nullIfBlank(identifiers.getProviderIsbn13());
         
-        jdbcTemplate.update(
-            """
-            INSERT INTO book_external_ids (
-                id, book_id, source, external_id,
-                provider_isbn10, provider_isbn13,
-                info_link, preview_link, web_reader_link, purchase_link, canonical_volume_link,
-                average_rating, ratings_count, review_count,
-                is_ebook, pdf_available, epub_available, embeddable, public_domain,
-                viewability, text_readable, image_readable,
-                print_type, maturity_rating, content_version, text_to_speech_permission,
-                saleability, country_code, is_ebook_for_sale,
-                list_price, retail_price, currency_code,
-                oclc_work_id, openlibrary_work_id, goodreads_work_id, google_canonical_id,
-                created_at, last_updated
-            )
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())
-            ON CONFLICT (source, external_id) DO UPDATE SET
-                book_id = EXCLUDED.book_id,
-                info_link = COALESCE(EXCLUDED.info_link, book_external_ids.info_link),
-                preview_link = COALESCE(EXCLUDED.preview_link, book_external_ids.preview_link),
-                web_reader_link = COALESCE(EXCLUDED.web_reader_link, book_external_ids.web_reader_link),
-                purchase_link = COALESCE(EXCLUDED.purchase_link, book_external_ids.purchase_link),
-                canonical_volume_link = COALESCE(EXCLUDED.canonical_volume_link, book_external_ids.canonical_volume_link),
-                average_rating = COALESCE(EXCLUDED.average_rating, book_external_ids.average_rating),
-                ratings_count = COALESCE(EXCLUDED.ratings_count, book_external_ids.ratings_count),
-                review_count = COALESCE(EXCLUDED.review_count, book_external_ids.review_count),
-                is_ebook = COALESCE(EXCLUDED.is_ebook, book_external_ids.is_ebook),
-                pdf_available = COALESCE(EXCLUDED.pdf_available, book_external_ids.pdf_available),
-                epub_available = COALESCE(EXCLUDED.epub_available, book_external_ids.epub_available),
-                embeddable = COALESCE(EXCLUDED.embeddable, book_external_ids.embeddable),
-                public_domain = COALESCE(EXCLUDED.public_domain, book_external_ids.public_domain),
-                viewability = COALESCE(EXCLUDED.viewability, book_external_ids.viewability),
-                text_readable = COALESCE(EXCLUDED.text_readable, book_external_ids.text_readable),
-                image_readable = COALESCE(EXCLUDED.image_readable, book_external_ids.image_readable),
-                print_type = COALESCE(EXCLUDED.print_type, book_external_ids.print_type),
-                maturity_rating = COALESCE(EXCLUDED.maturity_rating, book_external_ids.maturity_rating),
-                content_version = COALESCE(EXCLUDED.content_version, book_external_ids.content_version),
-                text_to_speech_permission = COALESCE(EXCLUDED.text_to_speech_permission, book_external_ids.text_to_speech_permission),
-                saleability = COALESCE(EXCLUDED.saleability, book_external_ids.saleability),
-                country_code = COALESCE(EXCLUDED.country_code, book_external_ids.country_code),
-                is_ebook_for_sale = COALESCE(EXCLUDED.is_ebook_for_sale, book_external_ids.is_ebook_for_sale),
-                list_price = COALESCE(EXCLUDED.list_price, book_external_ids.list_price),
-                retail_price = COALESCE(EXCLUDED.retail_price, book_external_ids.retail_price),
-                currency_code = COALESCE(EXCLUDED.currency_code, book_external_ids.currency_code),
-                oclc_work_id = COALESCE(EXCLUDED.oclc_work_id, book_external_ids.oclc_work_id),
-                openlibrary_work_id = COALESCE(EXCLUDED.openlibrary_work_id, book_external_ids.openlibrary_work_id),
-                goodreads_work_id = COALESCE(EXCLUDED.goodreads_work_id, book_external_ids.goodreads_work_id),
-                google_canonical_id = COALESCE(EXCLUDED.google_canonical_id, book_external_ids.google_canonical_id),
-                last_updated = NOW()
-            """,
+        return new Object[] {
             IdGenerator.generate(),
             bookId,
-            source,
-            externalId,
+            identifiers.getSource(),
+            identifiers.getExternalId(),
             providerIsbn10,
             providerIsbn13,
             normalizeToHttps(identifiers.getInfoLink()),
@@ -503,7 +833,7 @@ public class BookUpsertService {
             identifiers.getOpenlibraryWorkId(),
             identifiers.getGoodreadsWorkId(),
             identifiers.getGoogleCanonicalId()
-        );
+        };
     }
     
     /**
@@ -635,23 +965,8 @@ public class BookUpsertService {
      */
     private void emitOutboxEvent(UUID bookId, String slug, String title, boolean isNew) {
         try {
-            String topic = "/topic/book." + bookId;
-            
-            Map<String, Object> payload = Map.of(
-                "bookId", bookId.toString(),
-                "slug", slug != null ? slug : "",
-                "title", title != null ? title : "",
-                "isNew", isNew,
-                "timestamp", System.currentTimeMillis()
-            );
-            
-            String payloadJson = objectMapper.writeValueAsString(payload);
-            
-            jdbcTemplate.update(
-                "INSERT INTO events_outbox (topic, payload, created_at) VALUES (?, ?::jsonb, NOW())",
-                topic,
-                payloadJson
-            );
+            jdbcTemplate.update(INSERT_OUTBOX_SQL, outboxArgs(bookId, slug, title, isNew));
+            notifyOutboxRelay();
             
             log.debug("Emitted outbox event for book {}", bookId);
         } catch (Exception e) {
@@ -660,8 +975,39 @@ public class BookUpsertService {
         }
     }
     
+    /**
+     * Wakes LISTENing {@link OutboxRelay}s. Postgres delivers the notification on commit and folds
+     * duplicates within one transaction, so a batch costs a single notification. Skipped in poll mode
+     * because NOTIFY serializes commits.
+     */
+    private void notifyOutboxRelay() {
+        if (notifyOutboxRelay) {
+            jdbcTemplate.execute("SELECT pg_notify('" + OutboxRelay.NOTIFY_CHANNEL + "', '')");
+        }
+    }
+    
+    private Object[] outboxArgs(UUID bookId, String slug, String title, boolean isNew) throws JsonProcessingException {
+        String topic = "/topic/book." + bookId;
+        
+        Map<String, Object> payload = Map.of(
+            "bookId", bookId.toString(),
+            "slug", slug != null ? slug : "",
+            "title", title != null ? title : "",
+            "isNew", isNew,
+            "timestamp", System.currentTimeMillis()
+        );
+        
+        return new Object[] { topic, objectMapper.writeValueAsString(payload) };
+    }
+    
     // Helper methods
     
+    private static String normalizeAuthorName(String authorName) {
+        return authorName.toLowerCase()
+            .replaceAll("[^a-z0-9\\s]", "")
+            .trim();
+    }
+    
     private String nullIfBlank(String value) {
         return (value != null && !value.isBlank()) ? value : null;
     }
@@ -0,0 +1,212 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.williamcallahan.book_recommendation_engine.config.ExternalApiCacheProperties;
+import com.williamcallahan.book_recommendation_engine.util.CompressionUtils;
+import com.williamcallahan.book_recommendation_engine.util.HashUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Persistent, content-addressed cache of external API JSON responses, stored gzip-compressed in Postgres.
+ * <p>
+ * Entries are keyed by a hash of the request URL with API key parameters removed and query parameters sorted,
+ * so authenticated and unauthenticated calls for the same resource share one entry. Lookup order:
+ * - Fresh entry (within the endpoint TTL): served without calling the provider
+ * - Live call allowed: provider is called and the response stored; an expired entry is served if the call yields nothing
+ * - Live call blocked (e.g. circuit breaker open): an expired entry up to {@code max-stale} old is served
+ * <p>
+ * Without a database, or with {@code app.external-api-cache.enabled=false}, calls pass straight through.
+ * <p>
+ * Metrics per endpoint:
+ * - {@code external.api.cache.requests} with {@code result=hit|stale|miss}
+ * - {@code external.api.cache.hit.ratio}: (hit + stale) / all requests since startup
+ */
+@Service
+@Slf4j
+public class ExternalApiResponseCache {
+
+    private static final Set<String> CREDENTIAL_PARAMS = Set.of("key", "api-key", "apikey");
+
+    private final @Nullable JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExternalApiCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public ExternalApiResponseCache(@Nullable JdbcTemplate jdbcTemplate,
+                                    ObjectMapper objectMapper,
+                                    ExternalApiCacheProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param endpoint logical endpoint name; selects the TTL and tags metrics (e.g. {@code google-search})
+     * @param url full request URL; API key parameters are ignored for the cache key
+     * @param liveAllowed whether the provider may be called right now
+     * @param live performs the provider call; empty signals failure or no content
+     */
+    public Mono<JsonNode> fetch(String endpoint, String url, boolean liveAllowed, Supplier<Mono<JsonNode>> live) {
+        if (jdbcTemplate == null || !properties.isEnabled()) {
+            return liveAllowed ? live.get() : Mono.empty();
+        }
+        String key = cacheKey(url);
+        return Mono.fromCallable(() -> load(key))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(cached -> {
+                if (cached.isPresent() && cached.get().fresh()) {
+                    meters(endpoint).hits().increment();
+                    return Mono.just(cached.get().body());
+                }
+                Mono<JsonNode> fallback = Mono.defer(() -> {
+                    if (cached.isPresent()) {
+                        meters(endpoint).stale().increment();
+                        return Mono.just(cached.get().body());
+                    }
+                    meters(endpoint).misses().increment();
+                    return Mono.empty();
+                });
+                if (!liveAllowed) {
+                    return fallback;
+                }
+                return live.get()
+                    .doOnNext(body -> {
+                        meters(endpoint).misses().increment();
+                        Schedulers.boundedElastic().schedule(() -> store(endpoint, key, body));
+                    })
+                    .switchIfEmpty(fallback);
+            });
+    }
+
+    /**
+     * Deletes entries that are past their TTL by more than {@code max-stale}.
+     *
+     * @return number of rows deleted
+     */
+    public int purgeExpired() {
+        if (jdbcTemplate == null) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+            "DELETE FROM external_api_response_cache WHERE expires_at < now() - ?::interval",
+            properties.getMaxStale().toSeconds() + " seconds");
+    }
+
+    /**
+     * Normalizes the URL (credentials dropped, query parameters sorted) and hashes it.
+     */
+    static String cacheKey(String url) {
+        UriComponents components = UriComponentsBuilder.fromUriString(url).build();
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        new TreeMap<>(components.getQueryParams()).forEach((name, values) -> {
+            if (!CREDENTIAL_PARAMS.contains(name)) {
+                params.addAll(name, values.stream().sorted().toList());
+            }
+        });
+        String normalized = UriComponentsBuilder.newInstance()
+            .scheme(components.getScheme())
+            .host(components.getHost())
+            .port(components.getPort())
+            .path(components.getPath())
+            .queryParams(params)
+            .build()
+            .toUriString();
+        try {
+            return HashUtils.sha256Hex(normalized);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private Optional<CachedResponse> load(String key) {
+        try {
+            Optional<Map.Entry<byte[], Boolean>> row = jdbcTemplate.query(
+                "SELECT body, expires_at > now() AS fresh FROM external_api_response_cache "
+                    + "WHERE cache_key = ? AND expires_at > now() - ?::interval",
+                rs -> rs.next() ? Optional.of(Map.entry(rs.getBytes("body"), rs.getBoolean("fresh"))) : Optional.empty(),
+                key, properties.getMaxStale().toSeconds() + " seconds");
+            if (row == null || row.isEmpty()) {
+                return Optional.empty();
+            }
+            JsonNode body = objectMapper.readTree(CompressionUtils.decodeUtf8ExpectingGzip(row.get().getKey()));
+            return Optional.of(new CachedResponse(body, row.get().getValue()));
+        } catch (Exception e) {
+            log.debug("External API cache lookup failed for {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String endpoint, String key, JsonNode body) {
+        Duration ttl = properties.ttlFor(endpoint);
+        try {
+            byte[] gzip = CompressionUtils.gzipUtf8(objectMapper.writeValueAsString(body));
+            jdbcTemplate.update("""
+                INSERT INTO external_api_response_cache (cache_key, endpoint, body, fetched_at, expires_at)
+                VALUES (?, ?, ?, now(), now() + ?::interval)
+                ON CONFLICT (cache_key) DO UPDATE SET
+                    endpoint = EXCLUDED.endpoint,
+                    body = EXCLUDED.body,
+                    fetched_at = EXCLUDED.fetched_at,
+                    expires_at = EXCLUDED.expires_at
+                """, key, endpoint, gzip, ttl.toSeconds() + " seconds");
+        } catch (Exception e) {
+            log.debug("Failed to store external API response for {} ({}): {}", endpoint, key, e.getMessage());
+        }
+    }
+
+    private EndpointMeters meters(String endpoint) {
+        return meters.computeIfAbsent(endpoint, name -> {
+            Counter hits = counter(name, "hit");
+            Counter stale = counter(name, "stale");
+            Counter misses = counter(name, "miss");
+            Gauge.builder("external.api.cache.hit.ratio", () -> {
+                    double total = hits.count() + stale.count() + misses.count();
+                    return total == 0 ? 0.0 : (hits.count() + stale.count()) / total;
+                })
+                .tag("endpoint", name)
+                .description("Share of external API requests answered from the response cache")
+                .register(meterRegistry);
+            return new EndpointMeters(hits, stale, misses);
+        });
+    }
+
+    private Counter counter(String endpoint, String result) {
+        return Counter.builder("external.api.cache.requests")
+            .tag("endpoint", endpoint)
+            .tag("result", result)
+            .description("External API requests by response cache outcome")
+            .register(meterRegistry);
+    }
+
+    private record CachedResponse(JsonNode body, boolean fresh) {
+    }
+
+    private record EndpointMeters(Counter hits, Counter stale, Counter misses) {
+    }
+}
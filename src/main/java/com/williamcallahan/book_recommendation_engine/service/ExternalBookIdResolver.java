@@ -4,7 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +17,7 @@ import java.util.UUID;
  * This service provides bidirectional lookup:
  * - resolve(source, sourceId) → Optional&lt;UUID&gt; (external → internal)
  * - reverse(bookId) → Map&lt;String, String&gt; (internal → all externals)
+ * - reverseAll(bookIds) → the same for many books in one query
  * <p>
  * Uses the book_external_ids table which maps:
  * - source: 'GOOGLE_BOOKS', 'OPEN_LIBRARY', 'AMAZON', etc.
@@ -119,6 +122,46 @@ public class ExternalBookIdResolver {
         }
     }
     
+    /**
+     * Bulk variant of {@link #reverse(UUID)}: one {@code book_id = ANY(?)} query for all books.
+     * <p>
+     * The returned map follows the iteration order of {@code bookIds} and omits books without external IDs.
+     *
+     * @param bookIds Internal book UUIDs; nulls and duplicates are ignored
+     * @return Map of book UUID → (source → external_id), empty on error
+     */
+    public Map<UUID, Map<String, String>> reverseAll(Collection<UUID> bookIds) {
+        if (bookIds == null || bookIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Map<String, String>> result = new LinkedHashMap<>();
+        for (UUID bookId : bookIds) {
+            if (bookId != null) {
+                result.putIfAbsent(bookId, new HashMap<>());
+            }
+        }
+        if (result.isEmpty()) {
+            return Map.of();
+        }
+
+        String sql = "SELECT book_id, source, external_id FROM book_external_ids WHERE book_id = ANY(?::UUID[])";
+
+        try {
+            jdbcTemplate.query(sql, rs -> {
+                Map<String, String> externalIds = result.get((UUID) rs.getObject("book_id"));
+                if (externalIds != null) {
+                    externalIds.put(rs.getString("source"), rs.getString("external_id"));
+                }
+            }, (Object) result.keySet().toArray(UUID[]::new));
+        } catch (Exception e) {
+            log.error("Error in bulk reverse lookup for {} books", result.size(), e);
+            return Map.of();
+        }
+        result.values().removeIf(Map::isEmpty);
+        log.debug("Found external IDs for {} of {} books", result.size(), bookIds.size());
+        return result;
+    }
+
     /**
      * Check if a specific external ID exists (without fetching book UUID).
      * <p>
@@ -14,9 +14,13 @@
 package com.williamcallahan.book_recommendation_engine.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import com.williamcallahan.book_recommendation_engine.util.LoggingUtils;
 import com.williamcallahan.book_recommendation_engine.util.ExternalApiLogger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -29,17 +33,25 @@ import reactor.util.retry.Retry;
 import reactor.netty.http.client.PrematureCloseException;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @Slf4j
 public class GoogleApiFetcher {
 
-    
+    private static final String CACHE_ENDPOINT_VOLUME = "google-volume";
+    private static final String CACHE_ENDPOINT_SEARCH = "google-search";
+
     private final WebClient webClient;
     private final ApiRequestMonitor apiRequestMonitor;
     private final ApiCircuitBreakerService circuitBreakerService;
+    private final ExternalApiResponseCache responseCache;
+    private final GoogleApiQuotaBudget quotaBudget;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
 
     @Value("${google.books.api.base-url}")
     private String googleBooksApiUrl;
@@ -50,19 +62,35 @@ public class GoogleApiFetcher {
     @Value("${app.features.external-fallback.enabled:${app.features.google-fallback.enabled:true}}")
     private boolean googleFallbackEnabled;
 
+    @Value("${google.books.api.search-page-concurrency:3}") // 1 = strictly sequential pages
+    private int searchPageConcurrency;
+
     /**
      * Constructs GoogleApiFetcher with required dependencies
      * 
      * @param webClientBuilder WebClient builder 
      * @param apiRequestMonitor API request tracking service
      * @param circuitBreakerService Circuit breaker for API rate limiting
+     * @param responseCache Persistent response cache shared by authenticated and unauthenticated calls
+     * @param rateLimiterRegistryProvider Source of the shared {@code googleBooksServiceRateLimiter}, when configured
+     * @param objectMapper Parses raw response bytes
+     * @param quotaBudget Cluster-wide daily quota that authenticated calls draw from
      */
     public GoogleApiFetcher(WebClient.Builder webClientBuilder, 
                            ApiRequestMonitor apiRequestMonitor,
-                           ApiCircuitBreakerService circuitBreakerService) {
+                           ApiCircuitBreakerService circuitBreakerService,
+                           ExternalApiResponseCache responseCache,
+                           ObjectProvider<RateLimiterRegistry> rateLimiterRegistryProvider,
+                           ObjectMapper objectMapper,
+                           GoogleApiQuotaBudget quotaBudget) {
         this.webClient = webClientBuilder.build();
         this.apiRequestMonitor = apiRequestMonitor;
         this.circuitBreakerService = circuitBreakerService;
+        this.responseCache = responseCache;
+        RateLimiterRegistry rlRegistry = rateLimiterRegistryProvider.getIfAvailable();
+        this.rateLimiter = rlRegistry != null ? rlRegistry.rateLimiter("googleBooksServiceRateLimiter") : null;
+        this.objectMapper = objectMapper;
+        this.quotaBudget = quotaBudget;
     }
 
     /**
@@ -90,24 +118,28 @@ public class GoogleApiFetcher {
             log.debug("Google fallback disabled - skipping {} fetch for {}", authenticated ? "authenticated" : "unauthenticated", bookId);
             return Mono.empty();
         }
+        boolean liveAllowed = true;
         if (authenticated) {
-            // Check circuit breaker first
-            if (!circuitBreakerService.isApiCallAllowed()) {
-                log.info("Circuit breaker is OPEN - skipping authenticated fetch for book ID: {}. Caller should try unauthenticated fallback.", bookId);
-                ExternalApiLogger.logCircuitBreakerBlocked(log, "GoogleBooks", bookId);
-                return Mono.empty();
-            }
             if (googleBooksApiKey == null || googleBooksApiKey.isEmpty()) {
                 log.debug("No API key configured - skipping authenticated fetch for bookId {}", bookId);
                 return Mono.empty();
             }
+            // Check circuit breaker first; a cached response may still be served while it is open
+            if (!circuitBreakerService.isApiCallAllowed()) {
+                log.info("Circuit breaker is OPEN - serving cached response only for book ID: {}. Caller should try unauthenticated fallback.", bookId);
+                ExternalApiLogger.logCircuitBreakerBlocked(log, "GoogleBooks", bookId);
+                liveAllowed = false;
+            }
         }
 
         String url = buildVolumeUrl(bookId, authenticated);
         String endpoint = "volumes/get/" + bookId + "/" + (authenticated ? "authenticated" : "unauthenticated");
-        log.debug("Making {} Google Books API GET call for book ID: {}, endpoint: {}", authenticated ? "Authenticated" : "Unauthenticated", bookId, endpoint);
-        ExternalApiLogger.logHttpRequest(log, "GET", url, authenticated);
-        return performGetJson(url, endpoint, authenticated);
+        return responseCache.fetch(CACHE_ENDPOINT_VOLUME, url, liveAllowed, () -> {
+            log.debug("Making {} Google Books API GET call for book ID: {}, endpoint: {}", authenticated ? "Authenticated" : "Unauthenticated", bookId, endpoint);
+            return authenticated
+                ? quotaBudget.guard(() -> performGetJson(url, endpoint, true))
+                : performGetJson(url, endpoint, false);
+        });
     }
 
     private String buildVolumeUrl(String bookId, boolean authenticated) {
@@ -125,7 +157,7 @@ public class GoogleApiFetcher {
         return webClient.get()
                 .uri(url)
                 .retrieve()
-                .toEntity(JsonNode.class)
+                .toEntity(byte[].class) // Raw bytes: size is the byte count and the tree is parsed once
                 .doOnSubscribe(s -> log.debug("Fetching from Google API: {}", url))
                 .timeout(Duration.ofSeconds(5))
                 .retryWhen(authenticated 
@@ -156,19 +188,18 @@ public class GoogleApiFetcher {
                         }))
                 .doOnSuccess(responseEntity -> {
                     if (responseEntity != null) {
-                        JsonNode body = responseEntity.getBody();
-                        int responseSize = body == null ? 0 : body.toString().length();
+                        byte[] body = responseEntity.getBody();
                         ExternalApiLogger.logHttpResponse(log,
                             responseEntity.getStatusCode().value(),
                             url,
-                            responseSize);
+                            body == null ? 0 : body.length);
                         apiRequestMonitor.recordSuccessfulRequest(endpoint);
                     }
                     if (authenticated) {
                         circuitBreakerService.recordSuccess();
                     }
                 })
-                .map(responseEntity -> responseEntity != null ? responseEntity.getBody() : null)
+                .mapNotNull(responseEntity -> readJson(responseEntity.getBody()))
                 .onErrorResume(e -> {
                     if (e instanceof PrematureCloseException) {
                         // Treat premature close as transient/cancellation; do not trip the circuit breaker
@@ -183,6 +214,7 @@ public class GoogleApiFetcher {
                         if (authenticated) {
                             if (wcre.getStatusCode().value() == 429) {
                                 circuitBreakerService.recordRateLimitFailure();
+                                quotaBudget.markExhausted();
                             } else {
                                 circuitBreakerService.recordGeneralFailure();
                             }
@@ -217,18 +249,17 @@ public class GoogleApiFetcher {
             log.debug("Google fallback disabled - skipping authenticated search for query '{}'", query);
             return Mono.empty();
         }
-        // Check circuit breaker first
-        if (!circuitBreakerService.isApiCallAllowed()) {
-            log.info("Circuit breaker is OPEN - skipping authenticated search for query '{}'. Caller should try unauthenticated fallback.", query);
-            ExternalApiLogger.logCircuitBreakerBlocked(log, "GoogleBooks", query);
-            return Mono.empty();
-        }
-        
         if (googleBooksApiKey == null || googleBooksApiKey.isEmpty()) {
             log.debug("No API key configured - skipping authenticated search for query '{}'", query);
             return Mono.empty();
         }
-        return searchVolumesInternal(query, startIndex, orderBy, langCode, true, pageSize);
+        // Check circuit breaker first; a cached response may still be served while it is open
+        boolean liveAllowed = circuitBreakerService.isApiCallAllowed();
+        if (!liveAllowed) {
+            log.info("Circuit breaker is OPEN - serving cached response only for query '{}'. Caller should try unauthenticated fallback.", query);
+            ExternalApiLogger.logCircuitBreakerBlocked(log, "GoogleBooks", query);
+        }
+        return searchVolumesInternal(query, startIndex, orderBy, langCode, true, pageSize, liveAllowed);
     }
 
     /**
@@ -249,13 +280,19 @@ public class GoogleApiFetcher {
             log.debug("Google fallback disabled - skipping unauthenticated search for query '{}'", query);
             return Mono.empty();
         }
-        return searchVolumesInternal(query, startIndex, orderBy, langCode, false, pageSize);
+        return searchVolumesInternal(query, startIndex, orderBy, langCode, false, pageSize, true);
     }
 
     /**
      * Streams individual search result items across the requested page span using either the
      * authenticated or unauthenticated Google Books API. Callers can focus on item-level handling
      * without re-implementing the paging mechanics.
+     * <p>
+     * Up to {@code google.books.api.search-page-concurrency} pages are fetched at once while items are still
+     * emitted in page order. Cancelling the returned Flux (e.g. a downstream {@code take}) cancels pages in flight;
+     * pages not yet started are skipped once a short page shows the result set is exhausted. Pages after the
+     * first take a {@code googleBooksServiceRateLimiter} permit; the first denied page ends the stream, so the
+     * items emitted are always a prefix of the result set without holes.
      *
      * @param query Search terms to execute
      * @param maxResultsToFetch Maximum number of results to retrieve (<= 0 treated as 40)
@@ -272,17 +309,30 @@ public class GoogleApiFetcher {
         final int maxResultsPerPage = 40;
         final int effectiveMax = maxResultsToFetch > 0 ? maxResultsToFetch : maxResultsPerPage;
         final int pageCount = (effectiveMax + maxResultsPerPage - 1) / maxResultsPerPage;
+        final AtomicBoolean exhausted = new AtomicBoolean(false);
 
         return Flux.range(0, pageCount)
             .map(page -> page * maxResultsPerPage)
-            .concatMap(startIndex -> {
+            .flatMapSequential(startIndex -> Flux.defer(() -> {
                 int remaining = Math.max(effectiveMax - startIndex, 0);
                 int pageSize = Math.min(maxResultsPerPage, remaining == 0 ? maxResultsPerPage : remaining);
-                pageSize = Math.max(pageSize, 1);
+                final int requestedPageSize = Math.max(pageSize, 1);
+
+                if (exhausted.get()) {
+                    return Flux.<JsonNode>empty();
+                }
+                // The first page keeps its old unthrottled behaviour; the extra pages fetched in parallel take permits.
+                // Pages start in order, so stopping here means no later page can fill in behind the gap.
+                if (startIndex > 0 && rateLimiter != null && !rateLimiter.acquirePermission()) {
+                    exhausted.set(true);
+                    log.debug("GoogleApiFetcher: Rate limiter denied search page for query '{}' at startIndex {}. Ending stream.",
+                            query, startIndex);
+                    return Flux.<JsonNode>empty();
+                }
 
                 Mono<JsonNode> apiCall = authenticated
-                    ? searchVolumesAuthenticated(query, startIndex, orderBy, langCode, pageSize)
-                    : searchVolumesUnauthenticated(query, startIndex, orderBy, langCode, pageSize);
+                    ? searchVolumesAuthenticated(query, startIndex, orderBy, langCode, requestedPageSize)
+                    : searchVolumesUnauthenticated(query, startIndex, orderBy, langCode, requestedPageSize);
 
                 ExternalApiLogger.logApiCallAttempt(log,
                     "GoogleBooks",
@@ -299,6 +349,9 @@ public class GoogleApiFetcher {
                                 "SEARCH_PAGE",
                                 String.format("%s start=%d", query, startIndex),
                                 count);
+                            if (count < requestedPageSize) {
+                                exhausted.set(true);
+                            }
                             return Flux.fromIterable(responseNode.get("items"));
                         }
                         ExternalApiLogger.logApiCallSuccess(log,
@@ -308,6 +361,7 @@ public class GoogleApiFetcher {
                             0);
                         log.debug("GoogleApiFetcher: {} search page for query '{}' startIndex {} returned no items.",
                                 authenticated ? "Authenticated" : "Unauthenticated", query, startIndex);
+                        exhausted.set(true);
                         return Flux.empty();
                     })
                     .switchIfEmpty(Flux.defer(() -> {
@@ -327,7 +381,7 @@ public class GoogleApiFetcher {
                                 e.getMessage());
                         return Flux.empty();
                     });
-            })
+            }), Math.max(1, searchPageConcurrency))
             .take(effectiveMax);
     }
 
@@ -339,6 +393,7 @@ public class GoogleApiFetcher {
      * @param orderBy Sort order
      * @param langCode Language filter
      * @param authenticated Use API key for authentication
+     * @param liveAllowed Whether Google may be called; when false only a cached response is served
      * @return JsonNode response with search results
      */
     private Mono<JsonNode> searchVolumesInternal(String query,
@@ -346,7 +401,8 @@ public class GoogleApiFetcher {
                                                  String orderBy,
                                                  String langCode,
                                                  boolean authenticated,
-                                                 int pageSize) {
+                                                 int pageSize,
+                                                 boolean liveAllowed) {
         UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(googleBooksApiUrl)
                 .pathSegment("volumes")
                 .queryParam("q", query) // builder will safely encode
@@ -367,6 +423,14 @@ public class GoogleApiFetcher {
         String authStatus = authenticated ? "authenticated" : "unauthenticated";
         String endpoint = "volumes/search/" + getQueryTypeForMonitoring(query) + "/" + authStatus;
 
+        return responseCache.fetch(CACHE_ENDPOINT_SEARCH, url, liveAllowed,
+                () -> authenticated
+                    ? quotaBudget.guard(() -> performSearch(url, endpoint, query, startIndex, true))
+                    : performSearch(url, endpoint, query, startIndex, false));
+    }
+
+    private Mono<JsonNode> performSearch(String url, String endpoint, String query, int startIndex, boolean authenticated) {
+        String authStatus = authenticated ? "authenticated" : "unauthenticated";
         log.debug("Making Google Books API search call ({}) for query: {}, startIndex: {}, endpoint: {}",
                 authStatus, query, startIndex, endpoint);
 
@@ -375,7 +439,7 @@ public class GoogleApiFetcher {
         return webClient.get()
                 .uri(url)
                 .retrieve()
-                .toEntity(JsonNode.class)
+                .toEntity(byte[].class) // Raw bytes: size is the byte count and the tree is parsed once
                 .doOnSubscribe(s -> log.debug("Making Google Books API search call ({}) for query: {}, startIndex: {}", authStatus, query, startIndex))
                 .timeout(Duration.ofSeconds(5)) // Add 5-second timeout to prevent blocking
                 .retryWhen(authenticated
@@ -409,19 +473,18 @@ public class GoogleApiFetcher {
                         }))
                 .doOnSuccess(responseEntity -> {
                     if (responseEntity != null) {
-                        JsonNode body = responseEntity.getBody();
-                        int responseSize = body == null ? 0 : body.toString().length();
+                        byte[] body = responseEntity.getBody();
                         ExternalApiLogger.logHttpResponse(log,
                             responseEntity.getStatusCode().value(),
                             url,
-                            responseSize);
+                            body == null ? 0 : body.length);
                         apiRequestMonitor.recordSuccessfulRequest(endpoint);
                     }
                     if (authenticated) {
                         circuitBreakerService.recordSuccess();
                     }
                 })
-                .map(responseEntity -> responseEntity != null ? responseEntity.getBody() : null)
+                .mapNotNull(responseEntity -> readJson(responseEntity.getBody()))
                 .onErrorResume(e -> {
                     if (e instanceof PrematureCloseException) {
                         // Treat premature close as transient/cancellation; do not trip the circuit breaker
@@ -440,6 +503,7 @@ public class GoogleApiFetcher {
                         if (authenticated) {
                             if (wcre.getStatusCode().value() == 429) {
                                 circuitBreakerService.recordRateLimitFailure();
+                                quotaBudget.markExhausted();
                             } else {
                                 circuitBreakerService.recordGeneralFailure();
                             }
@@ -462,6 +526,17 @@ public class GoogleApiFetcher {
                 });
     }
 
+    private JsonNode readJson(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed Google Books response", e);
+        }
+    }
+
     /**
      * Categorizes query for monitoring metrics
      * 
@@ -0,0 +1,280 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.config.GoogleApiQuotaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide daily budget for authenticated Google Books calls.
+ * <p>
+ * The daily limit lives in Postgres ({@code api_quota_budget}); each node leases {@code lease-size} tokens at a
+ * time through {@code claim_api_quota_lease} and spends them locally, so the hot path is a CAS on an
+ * {@link AtomicInteger} and Postgres sees one round trip per lease. The lease is topped up in the background once
+ * it runs low, and synchronously (off the event loop) when it is empty.
+ * <p>
+ * Each {@link ApiRequestPriority} may only spend down to its configured reserve, so background work runs out
+ * before user-facing search does. A 429 marks the day exhausted for every node; the ledger rolls over at UTC
+ * midnight, matching Google's quota reset and {@link ApiCircuitBreakerService}.
+ * <p>
+ * Without a database, with {@code google.books.api.quota.enabled=false}, or while the ledger is unreachable,
+ * calls are not metered here and only the per-node circuit breaker and rate limiter apply.
+ * <p>
+ * Metrics:
+ * - {@code google.api.quota.requests} with {@code priority} and {@code outcome=granted|reserved|unleased|exhausted|unmetered}
+ * - {@code google.api.quota.local.tokens}: tokens this node holds
+ */
+@Service
+@Slf4j
+public class GoogleApiQuotaBudget {
+
+    static final String PROVIDER = "GOOGLE_BOOKS";
+
+    private static final String CLAIM_SQL =
+        "SELECT leased, remaining_quota, is_exhausted FROM claim_api_quota_lease(?, ?, ?, ?)";
+    private static final String MARK_EXHAUSTED_SQL =
+        "INSERT INTO api_quota_budget (provider, quota_day, daily_limit, exhausted_at) VALUES (?, ?, ?, now()) " +
+        "ON CONFLICT (provider, quota_day) DO UPDATE SET exhausted_at = COALESCE(api_quota_budget.exhausted_at, now())";
+    private static final String RELEASE_SQL =
+        "UPDATE api_quota_budget SET granted = GREATEST(0, granted - ?) " +
+        "WHERE provider = ? AND quota_day = ? AND exhausted_at IS NULL";
+
+    private final @Nullable JdbcTemplate jdbcTemplate;
+    private final GoogleApiQuotaProperties properties;
+    private final Clock clock;
+
+    private final AtomicInteger localTokens = new AtomicInteger();
+    private final AtomicBoolean refillInFlight = new AtomicBoolean();
+    private volatile LocalDate quotaDay;
+    private volatile int clusterRemaining;
+    private volatile boolean exhausted;
+    private volatile boolean ledgerAvailable = true;
+    private volatile Instant nextLeaseAttempt = Instant.MIN;
+
+    private final Map<ApiRequestPriority, Map<String, Counter>> requestCounters = new EnumMap<>(ApiRequestPriority.class);
+
+    public GoogleApiQuotaBudget(@Nullable JdbcTemplate jdbcTemplate,
+                                GoogleApiQuotaProperties properties,
+                                MeterRegistry meterRegistry) {
+        this(jdbcTemplate, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    GoogleApiQuotaBudget(@Nullable JdbcTemplate jdbcTemplate,
+                         GoogleApiQuotaProperties properties,
+                         MeterRegistry meterRegistry,
+                         Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.quotaDay = today();
+        this.clusterRemaining = properties.getDailyLimit();
+        for (ApiRequestPriority priority : ApiRequestPriority.values()) {
+            Map<String, Counter> byOutcome = new HashMap<>();
+            for (String outcome : new String[] {"granted", "reserved", "unleased", "exhausted", "unmetered"}) {
+                byOutcome.put(outcome, Counter.builder("google.api.quota.requests")
+                    .description("Authenticated Google Books calls checked against the shared daily quota")
+                    .tag("priority", priority.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            }
+            requestCounters.put(priority, byOutcome);
+        }
+        Gauge.builder("google.api.quota.local.tokens", localTokens, AtomicInteger::get)
+            .description("Leased Google Books quota tokens held by this node")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} only if the priority read from the subscriber context may spend a token; otherwise
+     * completes empty so callers fall back to cached or unauthenticated data.
+     */
+    public <T> Mono<T> guard(Supplier<Mono<T>> call) {
+        return Mono.deferContextual(ctx -> tryAcquire(ApiRequestPriority.from(ctx)))
+            .flatMap(allowed -> allowed ? call.get() : Mono.<T>empty());
+    }
+
+    /**
+     * Spends one token for {@code priority}. Completes on the caller's thread when a local token is available;
+     * an empty lease is refilled on {@code boundedElastic}.
+     */
+    public Mono<Boolean> tryAcquire(ApiRequestPriority priority) {
+        if (!isMetered()) {
+            return Mono.just(true);
+        }
+        rollOverIfNewDay();
+        if (localTokens.get() > 0 || exhausted || clock.instant().isBefore(nextLeaseAttempt)) {
+            return Mono.just(spend(priority));
+        }
+        return Mono.fromCallable(() -> {
+                refill();
+                return spend(priority);
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Records that Google answered 429: the quota is spent for the rest of the UTC day on every node.
+     */
+    public void markExhausted() {
+        if (!isMetered() || exhausted) {
+            return;
+        }
+        exhausted = true;
+        localTokens.set(0);
+        LocalDate day = quotaDay;
+        log.warn("Google Books quota exhausted for {}; blocking authenticated calls cluster-wide until the next UTC day", day);
+        Mono.fromRunnable(() -> jdbcTemplate.update(MARK_EXHAUSTED_SQL, PROVIDER, Date.valueOf(day), properties.getDailyLimit()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, e -> log.warn("Failed to record exhausted Google Books quota: {}", e.getMessage()));
+    }
+
+    /**
+     * Hands unspent tokens back to the cluster so a restarting node does not strand part of the day's quota.
+     */
+    @PreDestroy
+    public void releaseLease() {
+        int unused = localTokens.getAndSet(0);
+        if (!isMetered() || unused <= 0 || exhausted) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(RELEASE_SQL, unused, PROVIDER, Date.valueOf(quotaDay));
+            log.info("Released {} unused Google Books quota tokens", unused);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release {} Google Books quota tokens: {}", unused, e.getMessage());
+        }
+    }
+
+    int localTokens() {
+        return localTokens.get();
+    }
+
+    private boolean isMetered() {
+        return jdbcTemplate != null && properties.isEnabled();
+    }
+
+    private boolean spend(ApiRequestPriority priority) {
+        if (!ledgerAvailable) {
+            count(priority, "unmetered");
+            return true;
+        }
+        if (exhausted) {
+            count(priority, "exhausted");
+            return false;
+        }
+        // Tokens still unclaimed in Postgres plus this node's lease; other nodes' leases are not visible here
+        int reserved = properties.reservedTokensFor(priority);
+        if (reserved > 0 && clusterRemaining + localTokens.get() <= reserved) {
+            count(priority, "reserved");
+            return false;
+        }
+        int left;
+        do {
+            left = localTokens.get();
+            if (left <= 0) {
+                count(priority, "unleased");
+                return false;
+            }
+        } while (!localTokens.compareAndSet(left, left - 1));
+        count(priority, "granted");
+        if (left - 1 <= properties.getLeaseSize() / 4) {
+            refillInBackground();
+        }
+        return true;
+    }
+
+    private void refillInBackground() {
+        if (!refillInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.fromRunnable(this::refill)
+            .subscribeOn(Schedulers.boundedElastic())
+            .doFinally(signal -> refillInFlight.set(false))
+            .subscribe(null, e -> log.debug("Background Google Books quota refill failed: {}", e.getMessage()));
+    }
+
+    /**
+     * Tops the local lease up to {@code lease-size}. After an empty or failed lease, Postgres is not asked again
+     * for {@code refill-interval}.
+     */
+    private synchronized void refill() {
+        rollOverIfNewDay();
+        int wanted = properties.getLeaseSize() - localTokens.get();
+        Instant now = clock.instant();
+        if (exhausted || wanted <= 0 || now.isBefore(nextLeaseAttempt)) {
+            return;
+        }
+        LocalDate day = quotaDay;
+        try {
+            int[] lease = jdbcTemplate.query(CLAIM_SQL, rs -> rs.next()
+                    ? new int[] {rs.getInt("leased"), rs.getInt("remaining_quota"), rs.getBoolean("is_exhausted") ? 1 : 0}
+                    : new int[] {0, 0, 0},
+                PROVIDER, Date.valueOf(day), properties.getDailyLimit(), wanted);
+            ledgerAvailable = true;
+            if (!day.equals(quotaDay)) {
+                return; // Day rolled over while leasing; the tokens belong to a finished day
+            }
+            localTokens.addAndGet(lease[0]);
+            clusterRemaining = lease[1];
+            if (lease[2] == 1) {
+                exhausted = true;
+                localTokens.set(0);
+            }
+            if (lease[0] == 0) {
+                nextLeaseAttempt = now.plus(properties.getRefillInterval());
+            }
+            log.debug("Leased {} Google Books quota tokens for {} ({} left cluster-wide)", lease[0], day, lease[1]);
+        } catch (DataAccessException e) {
+            if (ledgerAvailable) {
+                log.warn("Google Books quota ledger unavailable, not metering authenticated calls: {}", e.getMessage());
+            }
+            ledgerAvailable = false;
+            nextLeaseAttempt = now.plus(properties.getRefillInterval());
+        }
+    }
+
+    private void rollOverIfNewDay() {
+        LocalDate today = today();
+        if (today.equals(quotaDay)) {
+            return;
+        }
+        synchronized (this) {
+            if (today.equals(quotaDay)) {
+                return;
+            }
+            quotaDay = today;
+            localTokens.set(0);
+            clusterRemaining = properties.getDailyLimit();
+            exhausted = false;
+            nextLeaseAttempt = Instant.MIN;
+        }
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock.withZone(ZoneOffset.UTC));
+    }
+
+    private void count(ApiRequestPriority priority, String outcome) {
+        requestCounters.get(priority).get(outcome).increment();
+    }
+}
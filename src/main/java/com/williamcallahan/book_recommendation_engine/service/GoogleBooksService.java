@@ -732,7 +732,7 @@ public class GoogleBooksService {
             BookAggregate aggregate = googleBooksMapper.map(item);
             Book book = BookDomainMapper.fromAggregate(aggregate);
             if (book != null) {
-                book.setRawJsonResponse(item.toString());
+                book.setRawJsonNode(item);
             }
             return book;
         } catch (Exception ex) {
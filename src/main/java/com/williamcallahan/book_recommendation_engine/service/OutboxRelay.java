@@ -1,13 +1,26 @@
 package com.williamcallahan.book_recommendation_engine.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,7 +29,7 @@ import java.util.UUID;
  * <p>
  * Implements the Transactional Outbox Pattern:
  * 1. Services write events to events_outbox table (same transaction as business logic)
- * 2. This relay polls the outbox and publishes to WebSocket
+ * 2. This relay claims unsent events and publishes to WebSocket
  * 3. Successfully sent events are marked with sent_at timestamp
  * <p>
  * Benefits:
@@ -25,19 +38,22 @@ import java.util.UUID;
  * - Automatic retry for failed publishes
  * - Decouples event production from delivery
  * <p>
- * Processing:
- * - Runs every 1 second via @Scheduled
- * - Fetches up to 100 unsent events per batch
+ * Processing ({@code app.outbox.relay.mode}):
+ * - {@code poll} (default): runs every 1 second via @Scheduled
+ * - {@code notify}: writers call {@code pg_notify('events_outbox')}; a listener thread holding one pooled
+ *   connection wakes the relay on commit, and the 1 second tick only runs as a safety net every
+ *   {@code app.outbox.relay.safety-net-interval} (or every tick while the listener is down)
+ * - Claims up to 100 unsent events per batch with FOR UPDATE SKIP LOCKED, so several nodes can relay concurrently
  * - Publishes to WebSocket via SimpMessagingTemplate
- * - Marks successful events with sent_at = NOW()
+ * - Marks the whole batch with one UPDATE ... WHERE event_id = ANY(?)
  * <p>
  * Example event flow:
  * <pre>
- * BookUpsertService → INSERT INTO events_outbox (SAME TX)
+ * BookUpsertService → INSERT INTO events_outbox (SAME TX) [+ pg_notify]
  *                  ↓
- * OutboxRelay (every 1s) → Poll unsent events
- *                        → Publish to /topic/book.{id}
- *                        → Mark as sent
+ * OutboxRelay (notification or tick) → Claim unsent events
+ *                                    → Publish to /topic/book.{id}
+ *                                    → Mark batch as sent
  * </pre>
  * <p>
  * Topics:
@@ -51,8 +67,16 @@ import java.util.UUID;
 @Slf4j
 public class OutboxRelay {
     
+    /**
+     * LISTEN/NOTIFY channel used when {@code app.outbox.relay.mode=notify}.
+     */
+    public static final String NOTIFY_CHANNEL = "events_outbox";
+    
     private final JdbcTemplate jdbcTemplate;
     private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean notifyMode;
+    private final long safetyNetIntervalMs;
     
     // Batch size for processing
     private static final int BATCH_SIZE = 100;
@@ -60,43 +84,90 @@ public class OutboxRelay {
     // Processing interval (1 second for near-real-time)
     private static final long PROCESS_INTERVAL_MS = 1000;
     
-    public OutboxRelay(JdbcTemplate jdbcTemplate, SimpMessagingTemplate messagingTemplate) {
+    // Back-off before re-opening a dropped LISTEN connection
+    private static final long LISTENER_RECONNECT_MS = 5000;
+    
+    // Longest wait for notifications before the listener re-checks whether it should stop
+    private static final int LISTEN_POLL_MS = 1000;
+    
+    private volatile boolean listening = false;
+    private volatile boolean running = false;
+    private volatile long lastRelayMs = 0L;
+    private Thread listenerThread;
+    
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       SimpMessagingTemplate messagingTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @org.springframework.beans.factory.annotation.Value("${app.outbox.relay.mode:poll}") String mode,
+                       @org.springframework.beans.factory.annotation.Value("${app.outbox.relay.safety-net-interval:PT30S}") Duration safetyNetInterval) {
         this.jdbcTemplate = jdbcTemplate;
         this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notifyMode = "notify".equalsIgnoreCase(mode);
+        this.safetyNetIntervalMs = safetyNetInterval.toMillis();
     }
     
     /**
      * Process outbox events and relay to WebSocket.
      * <p>
-     * Runs every 1 second via @Scheduled.
-     * Processes up to 100 events per batch.
-     * <p>
-     * For each event:
-     * 1. Fetch from events_outbox WHERE sent_at IS NULL
-     * 2. Publish to WebSocket topic
-     * 3. Mark as sent (UPDATE sent_at = NOW())
-     * <p>
-     * If publish fails, event remains unsent and will be retried.
+     * Runs every 1 second via @Scheduled. In notify mode the tick is skipped while the listener
+     * is connected and a relay ran within the safety-net interval.
      */
     @Scheduled(fixedDelay = PROCESS_INTERVAL_MS)
     @Async
     public void relayEvents() {
+        if (notifyMode && listening && System.currentTimeMillis() - lastRelayMs < safetyNetIntervalMs) {
+            return;
+        }
+        relayPending();
+    }
+    
+    /**
+     * Relays batches until the outbox has no more claimable events.
+     *
+     * @return Number of events published
+     */
+    public int relayPending() {
+        int total = 0;
         try {
-            List<OutboxEvent> events = fetchUnsentEvents(BATCH_SIZE);
-            
+            int sent;
+            do {
+                sent = relayBatch();
+                total += sent;
+            } while (sent == BATCH_SIZE);
+        } catch (Exception e) {
+            log.error("Error in outbox relay processor", e);
+        }
+        return total;
+    }
+    
+    /**
+     * Claims, publishes and acknowledges one batch in a single transaction.
+     * <p>
+     * 1. SELECT ... FOR UPDATE SKIP LOCKED (other nodes skip rows this node holds)
+     * 2. Publish each event to its WebSocket topic
+     * 3. One UPDATE for the sent ids, one for the failed ids
+     * <p>
+     * If publish fails, event remains unsent and will be retried.
+     *
+     * @return Number of events published
+     */
+    private int relayBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = claimUnsentEvents(BATCH_SIZE);
             if (events.isEmpty()) {
-                return;
+                return 0;
             }
             
             log.debug("Relaying {} outbox events to WebSocket", events.size());
             
+            List<UUID> sentIds = new ArrayList<>(events.size());
+            List<UUID> failedIds = new ArrayList<>();
             for (OutboxEvent event : events) {
                 try {
                     // Publish to WebSocket
                     messagingTemplate.convertAndSend(event.getTopic(), event.getPayload());
-                    
-                    // Mark as sent
-                    markSent(event.getEventId());
+                    sentIds.add(event.getEventId());
                     
                     log.debug("Relayed event {} to topic {}", event.getEventId(), event.getTopic());
                 } catch (Exception e) {
@@ -105,70 +176,139 @@ public class OutboxRelay {
                         event.getTopic(),
                         e.getMessage()
                     );
-                    
-                    // Increment retry count
-                    incrementRetryCount(event.getEventId());
+                    failedIds.add(event.getEventId());
                 }
             }
-        } catch (Exception e) {
-            log.error("Error in outbox relay processor", e);
+            
+            markSent(sentIds);
+            incrementRetryCount(failedIds);
+            return sentIds.size();
+        });
+        lastRelayMs = System.currentTimeMillis();
+        return sent != null ? sent : 0;
+    }
+    
+    /**
+     * Claim unsent events ordered by creation time. Row locks are held until the batch commits.
+     */
+    private List<OutboxEvent> claimUnsentEvents(int limit) {
+        return jdbcTemplate.query(
+            """
+            SELECT event_id, topic, payload, retry_count
+            FROM events_outbox
+            WHERE sent_at IS NULL
+            ORDER BY created_at ASC
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """,
+            (rs, rowNum) -> new OutboxEvent(
+                (UUID) rs.getObject("event_id"),
+                rs.getString("topic"),
+                rs.getString("payload"),
+                rs.getInt("retry_count")
+            ),
+            limit
+        );
+    }
+    
+    /**
+     * Mark a batch of events as successfully sent with one statement.
+     */
+    private void markSent(List<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
         }
+        jdbcTemplate.update(
+            "UPDATE events_outbox SET sent_at = NOW() WHERE event_id = ANY(?::UUID[])",
+            (Object) eventIds.toArray(UUID[]::new)
+        );
     }
     
     /**
-     * Fetch unsent events ordered by creation time.
+     * Increment retry count for failed events.
+     * Events with retry_count > 10 might need manual intervention.
      */
-    private List<OutboxEvent> fetchUnsentEvents(int limit) {
-        try {
-            return jdbcTemplate.query(
-                """
-                SELECT event_id, topic, payload, retry_count
-                FROM events_outbox
-                WHERE sent_at IS NULL
-                ORDER BY created_at ASC
-                LIMIT ?
-                """,
-                (rs, rowNum) -> new OutboxEvent(
-                    (UUID) rs.getObject("event_id"),
-                    rs.getString("topic"),
-                    rs.getString("payload"),
-                    rs.getInt("retry_count")
-                ),
-                limit
-            );
-        } catch (Exception e) {
-            log.error("Error fetching unsent events", e);
-            return List.of();
+    private void incrementRetryCount(List<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(
+            "UPDATE events_outbox SET retry_count = retry_count + 1 WHERE event_id = ANY(?::UUID[])",
+            (Object) eventIds.toArray(UUID[]::new)
+        );
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListener() {
+        if (!notifyMode || listenerThread != null) {
+            return;
         }
+        running = true;
+        listenerThread = Thread.ofVirtual().name("outbox-listener").start(this::listen);
+        log.info("OutboxRelay listening on channel '{}'", NOTIFY_CHANNEL);
     }
     
     /**
-     * Mark event as successfully sent.
+     * Stops the listener thread, which UNLISTENs and returns its connection to the pool on the way out.
+     * A listener still blocked after two poll intervals (e.g. sleeping before a reconnect) is interrupted.
      */
-    private void markSent(UUID eventId) {
+    @PreDestroy
+    void stopListener() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread == null) {
+            return;
+        }
         try {
-            jdbcTemplate.update(
-                "UPDATE events_outbox SET sent_at = NOW() WHERE event_id = ?",
-                eventId
-            );
-        } catch (Exception e) {
-            log.error("Error marking event {} as sent", eventId, e);
+            if (!thread.join(Duration.ofMillis(2L * LISTEN_POLL_MS))) {
+                thread.interrupt();
+                thread.join(Duration.ofMillis(LISTEN_POLL_MS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        listenerThread = null;
     }
     
     /**
-     * Increment retry count for failed event.
-     * Events with retry_count > 10 might need manual intervention.
+     * Holds one connection in LISTEN and relays whenever a notification arrives. Reconnects after
+     * failures; the scheduled tick covers the gap while {@link #listening} is false.
+     * On shutdown the channel is UNLISTENed before the connection goes back to the pool.
      */
-    private void incrementRetryCount(UUID eventId) {
-        try {
-            jdbcTemplate.update(
-                "UPDATE events_outbox SET retry_count = retry_count + 1 WHERE event_id = ?",
-                eventId
-            );
-        } catch (Exception e) {
-            log.error("Error incrementing retry count for event {}", eventId, e);
+    private void listen() {
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        while (running && dataSource != null) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                connection.setAutoCommit(true);
+                statement.execute("LISTEN " + NOTIFY_CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                // Catch up on anything committed while we were not listening
+                relayPending();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) Math.min(safetyNetIntervalMs, LISTEN_POLL_MS));
+                    if (notifications != null && notifications.length > 0) {
+                        relayPending();
+                    }
+                }
+                listening = false;
+                statement.execute("UNLISTEN " + NOTIFY_CHANNEL);
+            } catch (SQLException e) {
+                listening = false;
+                if (!running) {
+                    break;
+                }
+                log.warn("Outbox LISTEN connection failed, reconnecting in {}ms: {}", LISTENER_RECONNECT_MS, e.getMessage());
+                try {
+                    Thread.sleep(LISTENER_RECONNECT_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
         }
+        listening = false;
     }
     
     /**
@@ -200,20 +340,55 @@ public class OutboxRelay {
     
     /**
      * Clean up old sent events.
-     * Call periodically to prevent table bloat.
      * Keeps last 7 days of events for debugging.
+     *
+     * @see #cleanupOldEvents(Duration)
      */
     public int cleanupOldEvents() {
+        return cleanupOldEvents(Duration.ofDays(7));
+    }
+    
+    /**
+     * Drop daily events_outbox partitions older than the retention window.
+     * Partitions that still hold unsent events are kept until the relay drains them.
+     *
+     * @param retention How long sent events are kept
+     * @return Number of partitions dropped
+     */
+    public int cleanupOldEvents(Duration retention) {
         try {
-            return jdbcTemplate.update(
-                "DELETE FROM events_outbox WHERE sent_at < NOW() - INTERVAL '7 days'"
+            Integer dropped = jdbcTemplate.queryForObject(
+                "SELECT drop_expired_events_outbox_partitions(?::interval)",
+                Integer.class,
+                retention.toSeconds() + " seconds"
             );
+            return dropped != null ? dropped : 0;
         } catch (Exception e) {
             log.error("Error cleaning up old events", e);
             return 0;
         }
     }
     
+    /**
+     * Pre-create daily events_outbox partitions so writes never fall into the default partition.
+     *
+     * @param daysAhead Days after today to create partitions for
+     * @return Number of partitions created
+     */
+    public int ensurePartitions(int daysAhead) {
+        try {
+            Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_events_outbox_partitions(?)",
+                Integer.class,
+                daysAhead
+            );
+            return created != null ? created : 0;
+        } catch (Exception e) {
+            log.error("Error creating events_outbox partitions", e);
+            return 0;
+        }
+    }
+    
     /**
      * Retry stuck events (retry_count > 5).
      * Resets retry count to 0 for manual intervention.
@@ -233,7 +408,7 @@ public class OutboxRelay {
      * Outbox event data.
      */
     @Value
-    private static class OutboxEvent {
+    static class OutboxEvent {
         UUID eventId;
         String topic;
         String payload;
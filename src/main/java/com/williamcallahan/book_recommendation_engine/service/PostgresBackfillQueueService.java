@@ -0,0 +1,314 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.config.BackfillProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable backfill queue stored in {@code backfill_queue}.
+ * <p>
+ * Opt-in alternative to {@link BackfillQueueService} ({@code app.backfill.queue=postgres}) for deployments
+ * where the backlog must survive restarts and be shared by every node instead of duplicated per node.
+ * <p>
+ * Claiming:
+ * - One worker per lane at a time claims up to {@code claim-batch-size} ready rows with
+ *   {@code FOR UPDATE SKIP LOCKED}, so concurrent nodes never block on or double-claim each other's rows
+ * - Claimed rows carry a lease ({@code claimed_until}); rows from a crashed node become claimable once it expires
+ * - Claimed tasks are buffered locally and handed to this node's workers; a task buffered for more than
+ *   half the lease has its lease renewed when handed out, and is skipped if another node has reclaimed it
+ * - On shutdown, claims still buffered are released so other nodes can take them without waiting for the lease
+ * <p>
+ * Retries set {@code not_before} with exponential backoff ({@code retry-base-delay * 2^attempts},
+ * capped at {@code retry-max-delay}) and release the lease.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.backfill.queue", havingValue = "postgres")
+public class PostgresBackfillQueueService implements BackfillTaskQueue {
+
+    private static final String CLAIM_SQL = """
+        WITH next AS (
+            SELECT source, source_id
+            FROM backfill_queue
+            WHERE source = ?
+              AND not_before <= NOW()
+              AND (claimed_until IS NULL OR claimed_until < NOW())
+            ORDER BY priority, not_before
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        )
+        UPDATE backfill_queue q
+        SET claimed_by = ?, claimed_until = NOW() + ?::interval
+        FROM next
+        WHERE q.source = next.source AND q.source_id = next.source_id
+        RETURNING q.source, q.source_id, q.priority, q.attempts
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BackfillProperties properties;
+    private final String nodeId;
+
+    private static final String RENEW_LEASE_SQL =
+        "UPDATE backfill_queue SET claimed_until = NOW() + ?::interval WHERE source = ? AND source_id = ? AND claimed_by = ?";
+
+    private static final String RELEASE_CLAIM_SQL =
+        "UPDATE backfill_queue SET claimed_by = NULL, claimed_until = NULL WHERE source = ? AND source_id = ? AND claimed_by = ?";
+
+    private final ConcurrentMap<String, BlockingQueue<Claim>> claimed = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ReentrantLock> claimLocks = new ConcurrentHashMap<>();
+
+    public PostgresBackfillQueueService(JdbcTemplate jdbcTemplate, BackfillProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    @Override
+    public boolean enqueue(String source, String sourceId, int priority) {
+        String dedupeKey = source + "|" + sourceId;
+        try {
+            int inserted = jdbcTemplate.update(
+                "INSERT INTO backfill_queue (source, source_id, priority) VALUES (?, ?, ?) " +
+                "ON CONFLICT (source, source_id) DO NOTHING",
+                source, sourceId, priority
+            );
+            if (inserted == 0) {
+                log.debug("Task already queued (dedupe): {}", dedupeKey);
+                return false;
+            }
+            log.debug("Enqueued task: {} (priority={})", dedupeKey, priority);
+            return true;
+        } catch (DataAccessException ex) {
+            log.error("Failed to enqueue task {}: {}", dedupeKey, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Hands out locally buffered claims, claiming a new batch when the buffer is empty.
+     * Polls the table every {@code poll-interval} while the lane is idle.
+     */
+    @Override
+    public BackfillTask take(String source) throws InterruptedException {
+        BlockingQueue<Claim> buffer = claimed.computeIfAbsent(source, ignored -> new LinkedBlockingQueue<>());
+        ReentrantLock claimLock = claimLocks.computeIfAbsent(source, ignored -> new ReentrantLock());
+        long pollMillis = properties.getPollInterval().toMillis();
+
+        while (true) {
+            Claim claim = buffer.poll();
+            if (claim != null) {
+                BackfillTask task = handOut(claim);
+                if (task != null) {
+                    return task;
+                }
+                continue;
+            }
+            // Only one worker per lane goes to the database; the rest wait on the buffer
+            if (claimLock.tryLock()) {
+                try {
+                    if (buffer.isEmpty() && buffer.addAll(claimBatch(source, properties.getClaimBatchSize()))) {
+                        continue;
+                    }
+                } finally {
+                    claimLock.unlock();
+                }
+            }
+            claim = buffer.poll(pollMillis, TimeUnit.MILLISECONDS);
+            if (claim != null) {
+                BackfillTask task = handOut(claim);
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drains the local buffer first and tops up from the table when this worker can take the lane's claim lock.
+     */
+    @Override
+    public List<BackfillTask> drain(String source, int maxTasks) {
+        List<BackfillTask> drained = new ArrayList<>();
+        if (maxTasks <= 0) {
+            return drained;
+        }
+        List<Claim> buffered = new ArrayList<>();
+        claimed.computeIfAbsent(source, ignored -> new LinkedBlockingQueue<>()).drainTo(buffered, maxTasks);
+        for (Claim claim : buffered) {
+            BackfillTask task = handOut(claim);
+            if (task != null) {
+                drained.add(task);
+            }
+        }
+        ReentrantLock claimLock = claimLocks.computeIfAbsent(source, ignored -> new ReentrantLock());
+        if (drained.size() < maxTasks && claimLock.tryLock()) {
+            try {
+                claimBatch(source, maxTasks - drained.size()).forEach(claim -> drained.add(claim.task()));
+            } finally {
+                claimLock.unlock();
+            }
+        }
+        return drained;
+    }
+
+    @Override
+    public void markCompleted(BackfillTask task) {
+        try {
+            jdbcTemplate.update(
+                "DELETE FROM backfill_queue WHERE source = ? AND source_id = ?",
+                task.source(), task.sourceId()
+            );
+            log.debug("Task completed: {}", task.dedupeKey());
+        } catch (DataAccessException ex) {
+            // Lease expiry makes the row claimable again, so the worst case is one repeat fetch
+            log.warn("Failed to delete completed task {}: {}", task.dedupeKey(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public void retry(BackfillTask task) {
+        Duration delay = retryDelay(task.attempts());
+        try {
+            jdbcTemplate.update(
+                "UPDATE backfill_queue SET attempts = ?, not_before = NOW() + ?::interval, " +
+                "claimed_by = NULL, claimed_until = NULL WHERE source = ? AND source_id = ?",
+                task.attempts(), delay.toMillis() + " milliseconds", task.source(), task.sourceId()
+            );
+            log.debug("Task re-enqueued for retry: {} (attempt {}, not before +{}ms)",
+                task.dedupeKey(), task.attempts(), delay.toMillis());
+        } catch (DataAccessException ex) {
+            log.warn("Failed to schedule retry for {}: {}", task.dedupeKey(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        return count("SELECT COUNT(*) FROM backfill_queue WHERE claimed_until IS NULL OR claimed_until < NOW()");
+    }
+
+    @Override
+    public int getQueueSize(String source) {
+        return count("SELECT COUNT(*) FROM backfill_queue WHERE source = ? AND (claimed_until IS NULL OR claimed_until < NOW())",
+            source);
+    }
+
+    @Override
+    public int getDedupeSize() {
+        return count("SELECT COUNT(*) FROM backfill_queue");
+    }
+
+    /**
+     * Exponential backoff: base * 2^attempts, capped at the configured maximum.
+     */
+    Duration retryDelay(int attempts) {
+        Duration base = properties.getRetryBaseDelay();
+        Duration max = properties.getRetryMaxDelay();
+        int shift = Math.min(Math.max(attempts, 0), 20);
+        Duration delay = base.multipliedBy(1L << shift);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    /**
+     * Releases claims still waiting in the local buffers, so other nodes can take them right away.
+     */
+    @PreDestroy
+    void releaseBufferedClaims() {
+        List<Object[]> rows = new ArrayList<>();
+        claimed.values().forEach(buffer -> {
+            List<Claim> remaining = new ArrayList<>();
+            buffer.drainTo(remaining);
+            remaining.forEach(claim -> rows.add(new Object[] { claim.task().source(), claim.task().sourceId(), nodeId }));
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(RELEASE_CLAIM_SQL, rows);
+            log.info("Released {} buffered backfill claims on shutdown", rows.size());
+        } catch (DataAccessException ex) {
+            log.warn("Failed to release {} buffered backfill claims; they become claimable when their lease expires: {}",
+                rows.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the task of a buffered claim, renewing its lease first once half of it has passed.
+     *
+     * @return The task, or null when the lease was lost to another node or could not be renewed
+     */
+    private BackfillTask handOut(Claim claim) {
+        Duration lease = properties.getClaimLease();
+        if (System.nanoTime() - claim.claimedAtNanos() < lease.toNanos() / 2) {
+            return claim.task();
+        }
+        BackfillTask task = claim.task();
+        try {
+            int renewed = jdbcTemplate.update(RENEW_LEASE_SQL,
+                lease.toMillis() + " milliseconds", task.source(), task.sourceId(), nodeId);
+            if (renewed > 0) {
+                return task;
+            }
+            log.debug("Lease on {} was taken over by another node; skipping", task.dedupeKey());
+        } catch (DataAccessException ex) {
+            log.warn("Failed to renew lease on {}; leaving it to expire: {}", task.dedupeKey(), ex.getMessage());
+        }
+        return null;
+    }
+
+    private List<Claim> claimBatch(String source, int limit) {
+        long claimedAtNanos = System.nanoTime();
+        try {
+            List<Claim> tasks = jdbcTemplate.query(
+                CLAIM_SQL,
+                (rs, rowNum) -> {
+                    String taskSource = rs.getString("source");
+                    String sourceId = rs.getString("source_id");
+                    return new Claim(new BackfillTask(taskSource, sourceId, rs.getInt("priority"),
+                        taskSource + "|" + sourceId, rs.getInt("attempts")), claimedAtNanos);
+                },
+                source,
+                limit,
+                nodeId,
+                properties.getClaimLease().toMillis() + " milliseconds"
+            );
+            if (!tasks.isEmpty()) {
+                log.debug("Claimed {} {} backfill tasks", tasks.size(), source);
+            }
+            return tasks;
+        } catch (DataAccessException ex) {
+            log.warn("Failed to claim {} backfill tasks: {}", source, ex.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * A claimed task waiting in the local buffer, with the time its lease was taken.
+     */
+    private record Claim(BackfillTask task, long claimedAtNanos) {
+    }
+
+    private int count(String sql, Object... args) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, args);
+            return count != null ? count : 0;
+        } catch (DataAccessException ex) {
+            log.debug("Failed to count backfill_queue rows: {}", ex.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shares one in-flight {@link Mono}/{@link Flux} among concurrent subscribers asking for the same key.
+ * <p>
+ * The first subscriber for a key (the leader) starts the pipeline; subscribers arriving while it runs
+ * (followers) attach to it and receive the same signals, with {@link Flux} elements replayed from the start.
+ * The entry is dropped as soon as the pipeline terminates, so nothing is cached beyond the flight itself:
+ * the next request after completion starts a fresh pipeline.
+ * <p>
+ * Sharing rules:
+ * - Every subscriber receives its own copy of each element, so callers may mutate what they get
+ * - The pipeline is reference counted: it is cancelled once the last subscriber cancels
+ * - The caller's {@link ApiRequestPriority} is part of the key, so callers of different priorities never
+ *   spend quota under each other's priority; the rest of the leader's context (tracing, security) is kept
+ * <p>
+ * Metrics per flight name:
+ * - {@code singleflight.calls} with {@code role=leader|follower}
+ * - {@code singleflight.coalescing.ratio}: followers / all calls since startup
+ * - {@code singleflight.inflight}: keys currently in flight
+ */
+@Component
+public class ReactiveSingleFlight {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Flux<?>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FlightMeters> meters = new ConcurrentHashMap<>();
+
+    public ReactiveSingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("singleflight.inflight", inFlight, ConcurrentMap::size)
+            .description("Keys with a shared pipeline in flight")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param name flight name used as the metric tag and key namespace (e.g. {@code book-by-id})
+     * @param key normalized request key; callers normalize so equivalent requests coalesce
+     * @param source creates the pipeline; only invoked by the leader
+     * @param copy copies the shared result for each subscriber
+     */
+    public <T> Mono<T> mono(String name, String key, Supplier<Mono<T>> source, UnaryOperator<T> copy) {
+        return Mono.deferContextual(ctx -> this.<T>join(name, key, ApiRequestPriority.from(ctx), () -> Mono.defer(source).flux())
+            .singleOrEmpty()
+            .map(copy));
+    }
+
+    /**
+     * Flux variant of {@link #mono}: followers get every element emitted so far replayed, then the rest live.
+     */
+    public <T> Flux<T> flux(String name, String key, Supplier<Flux<T>> source, UnaryOperator<T> copy) {
+        return Flux.deferContextual(ctx -> this.<T>join(name, key, ApiRequestPriority.from(ctx), () -> Flux.defer(source))
+            .map(copy));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flux<T> join(String name, String key, ApiRequestPriority priority, Supplier<Flux<T>> pipeline) {
+        String flightKey = name + '|' + priority + '|' + key;
+        boolean[] leader = {false};
+        Flux<?> shared = inFlight.computeIfAbsent(flightKey, k -> {
+            leader[0] = true;
+            AtomicReference<Flux<T>> self = new AtomicReference<>();
+            Flux<T> flight = pipeline.get()
+                .contextWrite(ctx -> ctx.putAll(priority.asContext().readOnly()))
+                .doFinally(signal -> inFlight.remove(k, self.get()))
+                .replay()
+                .refCount();
+            self.set(flight);
+            return flight;
+        });
+        FlightMeters flightMeters = meters(name);
+        (leader[0] ? flightMeters.leaders() : flightMeters.followers()).increment();
+        return (Flux<T>) shared;
+    }
+
+    private FlightMeters meters(String name) {
+        return meters.computeIfAbsent(name, flight -> {
+            Counter leaders = Counter.builder("singleflight.calls")
+                .tag("name", flight).tag("role", "leader")
+                .description("Calls that started a shared pipeline")
+                .register(meterRegistry);
+            Counter followers = Counter.builder("singleflight.calls")
+                .tag("name", flight).tag("role", "follower")
+                .description("Calls that joined an in-flight pipeline")
+                .register(meterRegistry);
+            Gauge.builder("singleflight.coalescing.ratio", () -> {
+                    double total = leaders.count() + followers.count();
+                    return total == 0 ? 0.0 : followers.count() / total;
+                })
+                .tag("name", flight)
+                .description("Share of calls served by an in-flight pipeline")
+                .register(meterRegistry);
+            return new FlightMeters(leaders, followers);
+        });
+    }
+
+    private record FlightMeters(Counter leaders, Counter followers) {
+    }
+}
@@ -1,34 +1,83 @@
 package com.williamcallahan.book_recommendation_engine.service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.lang.Nullable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
 
 /**
  * Repository abstraction for persisting and aggregating recent book view activity.
  *
- * <p>Stores a row for every view in {@code recent_book_views} and exposes aggregated
- * counters that power the homepage and other analytics surfaces.</p>
+ * <p>{@link #recordView} only appends to a bounded in-memory buffer; a background flush
+ * ({@code app.recent-views.flush-interval-ms}) writes everything buffered with one
+ * {@code record_book_views} call, which stores the raw rows in {@code recent_book_views} and
+ * bumps the hourly buckets and per-book counters in {@code book_view_stats}. When the buffer is
+ * full, views are dropped and counted ({@code book.views.dropped}) rather than blocking the request.
+ * A batch whose write fails goes back into the buffer for the next flush, space permitting.</p>
+ *
+ * <p>Reads hit {@code book_view_stats} only. Per-book stats for page renders come from
+ * {@link #cachedStatsForBook(String)}, which never waits on the database when the entry is cached.
+ * {@link #compactRollups(Duration)} slides the 24h/7d/30d windows and prunes raw rows past retention.</p>
  */
 @Service
 @Slf4j
 public class RecentBookViewRepository {
 
+    private static final String RECORD_VIEWS_SQL =
+            "SELECT record_book_views(?::text[], ?::timestamptz[], ?::text[])";
+
+    // Upper bound on events written per statement
+    private static final int MAX_FLUSH_BATCH = 1000;
 
     private final JdbcTemplate jdbcTemplate;
+    private final int bufferCapacity;
+    private final Queue<ViewEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AsyncLoadingCache<String, Optional<ViewStats>> statsCache;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
 
-    public RecentBookViewRepository(@Nullable JdbcTemplate jdbcTemplate) {
+    public RecentBookViewRepository(@Nullable JdbcTemplate jdbcTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.recent-views.buffer-capacity:10000}") int bufferCapacity,
+                                    @Value("${app.recent-views.stats-cache-ttl:PT1M}") Duration statsCacheTtl) {
         this.jdbcTemplate = jdbcTemplate;
+        this.bufferCapacity = bufferCapacity;
+        this.statsCache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(statsCacheTtl)
+                .buildAsync(this::fetchStatsForBook);
+        this.droppedCounter = Counter.builder("book.views.dropped")
+                .description("View events dropped because the ingestion buffer was full or the flush failed")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("book.views.flushed")
+                .description("View events written to the database")
+                .register(meterRegistry);
+        Gauge.builder("book.views.buffer.depth", buffered, AtomicInteger::get)
+                .description("View events waiting for the next flush")
+                .register(meterRegistry);
     }
 
     /**
@@ -39,41 +88,119 @@ public class RecentBookViewRepository {
     }
 
     /**
-     * Records a single book view asynchronously. Safe to invoke even when the repository is disabled.
-     * Uses @Async to prevent blocking the main request thread.
+     * Buffers a single book view for the next flush. Never blocks and never touches the database;
+     * safe to invoke even when the repository is disabled.
      *
      * @param canonicalBookId Canonical UUID string for the book that was viewed
      * @param viewedAt         Timestamp for the view (defaults to {@link Instant#now()} when null)
      * @param source           Optional source label (e.g., "web", "api")
+     * @return {@code false} when the view was dropped because the buffer is full
      */
-    @Async
-    public void recordView(String canonicalBookId, @Nullable Instant viewedAt, @Nullable String source) {
+    public boolean recordView(String canonicalBookId, @Nullable Instant viewedAt, @Nullable String source) {
         if (!isEnabled() || !ValidationUtils.hasText(canonicalBookId)) {
-            return;
+            return false;
+        }
+        // Reserve a slot first so the queue never grows past capacity
+        if (buffered.incrementAndGet() > bufferCapacity) {
+            buffered.decrementAndGet();
+            droppedCounter.increment();
+            return false;
         }
+        buffer.offer(new ViewEvent(canonicalBookId, viewedAt != null ? viewedAt : Instant.now(),
+                ValidationUtils.hasText(source) ? source : null));
+        return true;
+    }
 
-        Instant effectiveInstant = viewedAt != null ? viewedAt : Instant.now();
+    /**
+     * Writes buffered views in batches of up to {@value #MAX_FLUSH_BATCH}, one statement per batch.
+     * Stops at the first failed batch, which is requeued for the next flush.
+     *
+     * @return Number of views written
+     */
+    @Scheduled(fixedDelayString = "${app.recent-views.flush-interval-ms:250}")
+    public int flushBufferedViews() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        int written = 0;
+        List<ViewEvent> batch = new ArrayList<>(Math.min(MAX_FLUSH_BATCH, Math.max(buffered.get(), 1)));
+        while (true) {
+            ViewEvent event;
+            while (batch.size() < MAX_FLUSH_BATCH && (event = buffer.poll()) != null) {
+                buffered.decrementAndGet();
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return written;
+            }
+            if (!writeBatch(batch)) {
+                requeue(batch);
+                return written;
+            }
+            written += batch.size();
+            if (batch.size() < MAX_FLUSH_BATCH) {
+                return written;
+            }
+            batch.clear();
+        }
+    }
 
+    @PreDestroy
+    void flushOnShutdown() {
+        int written = flushBufferedViews();
+        if (written > 0) {
+            log.info("Flushed {} buffered recent views on shutdown", written);
+        }
+    }
+
+    private boolean writeBatch(List<ViewEvent> batch) {
+        String[] bookIds = new String[batch.size()];
+        String[] viewedAt = new String[batch.size()];
+        String[] sources = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ViewEvent event = batch.get(i);
+            bookIds[i] = event.bookId();
+            viewedAt[i] = event.viewedAt().toString();
+            sources[i] = event.source();
+        }
         try {
-            jdbcTemplate.update(
-                    "INSERT INTO recent_book_views (book_id, viewed_at, source) VALUES (?, ?, ?)",
-                    ps -> {
-                        ps.setString(1, canonicalBookId);
-                        ps.setTimestamp(2, Timestamp.from(effectiveInstant));
-                        if (!ValidationUtils.hasText(source)) {
-                            ps.setNull(3, java.sql.Types.VARCHAR);
-                        } else {
-                            ps.setString(3, source);
-                        }
-                    }
-            );
+            jdbcTemplate.query(RECORD_VIEWS_SQL, rs -> null, (Object) bookIds, (Object) viewedAt, (Object) sources);
+            flushedCounter.increment(batch.size());
+            return true;
         } catch (Exception ex) {
-            log.debug("Failed to record recent view for book {}: {}", canonicalBookId, ex.getMessage());
+            log.warn("Failed to flush {} recent views; requeueing them: {}", batch.size(), ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Puts a failed batch back into the buffer. Views that no longer fit because new ones
+     * arrived in the meantime are dropped and counted.
+     */
+    private void requeue(List<ViewEvent> batch) {
+        for (ViewEvent event : batch) {
+            if (buffered.incrementAndGet() > bufferCapacity) {
+                buffered.decrementAndGet();
+                droppedCounter.increment();
+                continue;
+            }
+            buffer.offer(event);
+        }
+    }
+
+    /**
+     * Per-book stats from the in-memory cache. Completes immediately when cached; otherwise the
+     * lookup runs off the calling thread.
+     */
+    public CompletableFuture<Optional<ViewStats>> cachedStatsForBook(String canonicalBookId) {
+        if (!isEnabled() || !ValidationUtils.hasText(canonicalBookId)) {
+            return CompletableFuture.completedFuture(Optional.empty());
         }
+        return statsCache.get(canonicalBookId);
     }
 
     /**
-     * Fetches aggregate view statistics for a single book over standard windows.
+     * Fetches aggregate view statistics for a single book over standard windows, bypassing the cache.
      */
     public Optional<ViewStats> fetchStatsForBook(String canonicalBookId) {
         if (!isEnabled() || !ValidationUtils.hasText(canonicalBookId)) {
@@ -81,15 +208,9 @@ public class RecentBookViewRepository {
         }
 
         String sql = """
-                SELECT book_id,
-                       MAX(viewed_at) AS last_viewed_at,
-                       COUNT(*) FILTER (WHERE viewed_at >= now() - INTERVAL '24 hours') AS views_24h,
-                       COUNT(*) FILTER (WHERE viewed_at >= now() - INTERVAL '7 days') AS views_7d,
-                       COUNT(*) FILTER (WHERE viewed_at >= now() - INTERVAL '30 days') AS views_30d
-                FROM recent_book_views
+                SELECT book_id, last_viewed_at, views_24h, views_7d, views_30d
+                FROM book_view_stats
                 WHERE book_id = ?
-                  AND viewed_at >= now() - INTERVAL '30 days'
-                GROUP BY book_id
                 """;
 
         try {
@@ -123,22 +244,10 @@ public class RecentBookViewRepository {
         }
 
         String sql = """
-                SELECT rv.book_id,
-                       rv.last_viewed_at,
-                       rv.views_24h,
-                       rv.views_7d,
-                       rv.views_30d
-                FROM (
-                    SELECT book_id,
-                           MAX(viewed_at) AS last_viewed_at,
-                           COUNT(*) FILTER (WHERE viewed_at >= now() - INTERVAL '24 hours') AS views_24h,
-                           COUNT(*) FILTER (WHERE viewed_at >= now() - INTERVAL '7 days') AS views_7d,
-                           COUNT(*) FILTER (WHERE viewed_at >= now() - INTERVAL '30 days') AS views_30d
-                    FROM recent_book_views
-                    WHERE viewed_at >= now() - INTERVAL '30 days'
-                    GROUP BY book_id
-                ) rv
-                ORDER BY rv.last_viewed_at DESC
+                SELECT book_id, last_viewed_at, views_24h, views_7d, views_30d
+                FROM book_view_stats
+                WHERE last_viewed_at >= now() - INTERVAL '30 days'
+                ORDER BY last_viewed_at DESC
                 LIMIT ?
                 """;
 
@@ -160,6 +269,29 @@ public class RecentBookViewRepository {
         }
     }
 
+    /**
+     * Recomputes the windowed counters from hourly buckets and prunes expired buckets and raw rows.
+     *
+     * @param rawRetention How long raw {@code recent_book_views} rows are kept
+     * @return Number of books whose counters were recomputed
+     */
+    public int compactRollups(Duration rawRetention) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        try {
+            Integer updated = jdbcTemplate.queryForObject(
+                    "SELECT compact_book_view_rollups(?::interval)",
+                    Integer.class,
+                    rawRetention.toSeconds() + " seconds"
+            );
+            return updated != null ? updated : 0;
+        } catch (Exception ex) {
+            log.warn("Failed to compact recent view rollups: {}", ex.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Aggregated counters for a single book across different time windows.
      */
@@ -169,4 +301,7 @@ public class RecentBookViewRepository {
                             long viewsLast7d,
                             long viewsLast30d) {
     }
+
+    private record ViewEvent(String bookId, Instant viewedAt, @Nullable String source) {
+    }
 }
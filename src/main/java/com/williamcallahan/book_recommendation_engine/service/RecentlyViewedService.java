@@ -36,6 +36,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.stream.Collectors;
 
@@ -61,6 +62,8 @@ public class RecentlyViewedService {
 
     // In-memory storage for recently viewed books (lock-free for better concurrency)
     private final ConcurrentLinkedDeque<Book> recentlyViewedBooks = new ConcurrentLinkedDeque<>();
+    // View stats arrive asynchronously after a book is published; kept apart and merged into copies on read
+    private final Map<String, RecentBookViewRepository.ViewStats> viewStatsById = new ConcurrentHashMap<>();
     private static final int MAX_RECENT_BOOKS = ApplicationConstants.Paging.DEFAULT_TIERED_LIMIT / 2;
     private static final String DEFAULT_FALLBACK_QUERY = ApplicationConstants.Search.DEFAULT_RECENT_FALLBACK_QUERY;
 
@@ -145,9 +148,6 @@ public class RecentlyViewedService {
             bookToAdd.setSlug(finalCanonicalId);
         }
 
-        // Use a final reference for lambda capture below
-        final Book bookRef = bookToAdd;
-
         // Lock-free operations using ConcurrentLinkedDeque
         // Remove existing entry for this book
         recentlyViewedBooks.removeIf(b ->
@@ -162,14 +162,19 @@ public class RecentlyViewedService {
         while (recentlyViewedBooks.size() > MAX_RECENT_BOOKS) {
             Book removedLastBook = recentlyViewedBooks.pollLast();
             if (removedLastBook != null) {
+                viewStatsById.remove(removedLastBook.getId());
                 log.debug("RECENT_VIEWS_DEBUG: Trimmed book. ID: '{}'", removedLastBook.getId());
             }
         }
 
         if (recentBookViewRepository != null && recentBookViewRepository.isEnabled()) {
             recentBookViewRepository.recordView(finalCanonicalId, Instant.now(), "web");
-            recentBookViewRepository.fetchStatsForBook(finalCanonicalId)
-                    .ifPresent(stats -> applyViewStats(bookRef, stats));
+            recentBookViewRepository.cachedStatsForBook(finalCanonicalId)
+                    .thenAccept(stats -> stats.ifPresent(value -> {
+                        if (recentlyViewedBooks.stream().anyMatch(b -> b != null && Objects.equals(b.getId(), finalCanonicalId))) {
+                            viewStatsById.put(finalCanonicalId, value);
+                        }
+                    }));
         }
     }
 
@@ -223,7 +228,7 @@ public class RecentlyViewedService {
             // Lock-free read
             if (!recentlyViewedBooks.isEmpty()) {
                 log.debug("Returning {} recently viewed books from cache.", recentlyViewedBooks.size());
-                return Mono.just(new ArrayList<>(recentlyViewedBooks));
+                return Mono.just(snapshotRecentlyViewed());
             }
 
             return fetchDefaultBooksAsync()
@@ -246,7 +251,7 @@ public class RecentlyViewedService {
                 .map(defaultBooks -> {
                     // Return current state (might have been populated by another thread)
                     if (!recentlyViewedBooks.isEmpty()) {
-                        return new ArrayList<>(recentlyViewedBooks);
+                        return snapshotRecentlyViewed();
                     }
                     return defaultBooks;
                 });
@@ -435,6 +440,25 @@ public class RecentlyViewedService {
             });
     }
 
+    /**
+     * Copy of the in-memory history; books with view stats are returned as copies carrying them,
+     * so the shared instances are never mutated after they are published.
+     */
+    List<Book> snapshotRecentlyViewed() {
+        List<Book> snapshot = new ArrayList<>(recentlyViewedBooks.size());
+        for (Book book : recentlyViewedBooks) {
+            RecentBookViewRepository.ViewStats stats = book != null ? viewStatsById.get(book.getId()) : null;
+            if (stats == null) {
+                snapshot.add(book);
+                continue;
+            }
+            Book withStats = book.copy();
+            applyViewStats(withStats, stats);
+            snapshot.add(withStats);
+        }
+        return snapshot;
+    }
+
     private void applyViewStats(Book book, RecentBookViewRepository.ViewStats stats) {
         if (book == null || stats == null) {
             return;
@@ -518,6 +542,7 @@ public class RecentlyViewedService {
      */
     public void clearRecentlyViewedBooks() {
         recentlyViewedBooks.clear();
+        viewStatsById.clear();
         log.debug("Recently viewed books cleared.");
     }
 }
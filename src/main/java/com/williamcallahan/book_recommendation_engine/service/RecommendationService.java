@@ -21,6 +21,7 @@ import com.williamcallahan.book_recommendation_engine.repository.BookQueryReposi
 import com.williamcallahan.book_recommendation_engine.service.BookRecommendationPersistenceService.RecommendationRecord;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
@@ -68,6 +69,7 @@ public class RecommendationService {
     private final BookQueryRepository bookQueryRepository;
     private final BookRecommendationPersistenceService recommendationPersistenceService;
     private final boolean externalFallbackEnabled;
+    private final @Nullable ReactiveSingleFlight singleFlight;
 
     /**
      * Constructs the RecommendationService with required dependencies.
@@ -78,12 +80,14 @@ public class RecommendationService {
                                  BookSearchService bookSearchService,
                                  BookQueryRepository bookQueryRepository,
                                  BookRecommendationPersistenceService recommendationPersistenceService,
-                                 @Value("${app.features.external-fallback.enabled:${app.features.google-fallback.enabled:true}}") boolean externalFallbackEnabled) {
+                                 @Value("${app.features.external-fallback.enabled:${app.features.google-fallback.enabled:true}}") boolean externalFallbackEnabled,
+                                 @Nullable ReactiveSingleFlight singleFlight) {
         this.bookDataOrchestrator = bookDataOrchestrator;
         this.bookSearchService = bookSearchService;
         this.bookQueryRepository = bookQueryRepository;
         this.recommendationPersistenceService = recommendationPersistenceService;
         this.externalFallbackEnabled = externalFallbackEnabled;
+        this.singleFlight = singleFlight;
     }
 
     /**
@@ -96,10 +100,19 @@ public class RecommendationService {
      * @implNote Combines three recommendation strategies (author, category, text matching)
      * Scores and ranks results to provide the most relevant recommendations
      * Filters by language to match the source book when language information is available
+     * Concurrent requests for the same book and count share one pipeline; each caller gets its own copies of the books
      */
     public Mono<List<Book>> getSimilarBooks(String bookId, int finalCount) {
         final int effectiveCount = (finalCount <= 0) ? DEFAULT_RECOMMENDATION_COUNT : finalCount;
+        if (singleFlight == null || bookId == null) {
+            return assembleSimilarBooks(bookId, effectiveCount);
+        }
+        return singleFlight.mono("similar-books", bookId.trim() + '|' + effectiveCount,
+                () -> assembleSimilarBooks(bookId, effectiveCount),
+                books -> books.stream().map(Book::copy).collect(Collectors.toCollection(ArrayList::new)));
+    }
 
+    private Mono<List<Book>> assembleSimilarBooks(String bookId, int effectiveCount) {
         return fetchCanonicalBook(bookId)
                 .flatMap(sourceBook -> fetchCachedRecommendations(sourceBook, effectiveCount)
                         .flatMap(cached -> {
@@ -116,7 +129,9 @@ public class RecommendationService {
                 .onErrorResume(ex -> {
                     LoggingUtils.error(log, ex, "Failed to assemble recommendations for {}", bookId);
                     return Mono.just(Collections.<Book>emptyList());
-                });
+                })
+                // Authenticated Google calls made for recommendations leave the quota reserve to interactive search
+                .contextWrite(ApiRequestPriority.RECOMMENDATION.asContext());
     }
 
     /**
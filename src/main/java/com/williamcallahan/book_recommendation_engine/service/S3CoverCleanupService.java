@@ -8,6 +8,8 @@
  * - Uses ImageProcessingService for content analysis
  * - Identifies covers with predominantly white backgrounds
  * - Supports dry run mode for safe evaluation
+ * - Skips content-addressed blobs, which are shared by every book whose cover has the same bytes
+ * - Streams large buckets page by page with bounded parallelism and resumable checkpoints
  * - Provides detailed logging of scan results
  * - Handles S3 object retrieval and analysis efficiently
  */
@@ -17,15 +19,28 @@ import com.williamcallahan.book_recommendation_engine.config.S3EnvironmentCondit
 import com.williamcallahan.book_recommendation_engine.service.image.ImageProcessingService;
 import com.williamcallahan.book_recommendation_engine.service.s3.DryRunSummary;
 import com.williamcallahan.book_recommendation_engine.service.s3.MoveActionSummary;
+import com.williamcallahan.book_recommendation_engine.service.s3.StreamingAuditSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.williamcallahan.book_recommendation_engine.util.LoggingUtils;
+import com.williamcallahan.book_recommendation_engine.util.cover.S3KeyGenerator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
@@ -33,19 +48,33 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class S3CoverCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(S3CoverCleanupService.class);
+    private static final int AUDIT_PAGE_SIZE = 1000; // S3 maximum keys per listing page
 
     private final S3StorageService s3StorageService;
     private final ImageProcessingService imageProcessingService;
+    private final Scheduler auditScheduler;
+    private final @Nullable JdbcTemplate jdbcTemplate;
+    private final int auditConcurrency;
 
     /**
      * Constructs the S3CoverCleanupService with required dependencies
      *
      * @param s3StorageService service for S3 operations
      * @param imageProcessingService service for analyzing image content
+     * @param imageProcessingExecutor executor the streaming audit decodes images on
+     * @param jdbcTemplate stores streaming audit checkpoints and flags; without it audits cannot resume
+     * @param auditConcurrency images the streaming audit downloads and checks at once
      */
-    public S3CoverCleanupService(S3StorageService s3StorageService, ImageProcessingService imageProcessingService) {
+    public S3CoverCleanupService(S3StorageService s3StorageService,
+                                 ImageProcessingService imageProcessingService,
+                                 @Qualifier("imageProcessingExecutor") Executor imageProcessingExecutor,
+                                 @Nullable JdbcTemplate jdbcTemplate,
+                                 @Value("${app.s3.cleanup.audit-concurrency:4}") int auditConcurrency) {
         this.s3StorageService = s3StorageService;
         this.imageProcessingService = imageProcessingService;
+        this.auditScheduler = Schedulers.fromExecutor(imageProcessingExecutor);
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditConcurrency = Math.max(1, auditConcurrency);
     }
 
     /**
@@ -74,7 +103,7 @@ public class S3CoverCleanupService {
         List<String> flaggedKeysList = new ArrayList<>();
 
         try {
-            List<S3Object> allS3Objects = s3StorageService.listObjects(prefix);
+            List<S3Object> allS3Objects = perBookObjects(s3StorageService.listObjects(prefix));
             logger.info("Found {} total objects in bucket {} with prefix '{}' to scan.", allS3Objects.size(), bucketName, prefix);
 
             List<S3Object> objectsToProcess = allS3Objects;
@@ -127,6 +156,151 @@ public class S3CoverCleanupService {
         return new DryRunSummary(totalScanned.get(), totalFlagged.get(), flaggedKeysList);
     }
 
+    /**
+     * Audits covers under a prefix without holding the listing in memory, resuming where the last run stopped
+     * - Pages through the listing lazily ({@value #AUDIT_PAGE_SIZE} keys per request)
+     * - Streams each object into a subsampled decode on the image processing executor, {@code app.s3.cleanup.audit-concurrency} at a time
+     * - After each page, stores flagged keys and the continuation token, so a crash or limit loses at most one page
+     * No delete or move operations are performed
+     *
+     * @param s3Prefix The S3 prefix to scan - can be empty to scan the whole bucket
+     * @param maxObjects Maximum number of objects to audit in this run; 0 or negative means until the listing ends
+     * @param restart Ignore any saved checkpoint and start from the beginning of the listing, dropping the prefix's previous flags
+     * @return StreamingAuditSummary with this run's results and the totals since the audit started
+     */
+    public StreamingAuditSummary performStreamingAudit(String s3Prefix, int maxObjects, boolean restart) {
+        String prefix = s3Prefix != null ? s3Prefix : "";
+        int budget = maxObjects > 0 ? maxObjects : Integer.MAX_VALUE;
+
+        AuditCheckpoint checkpoint = restart ? null : loadCheckpoint(prefix);
+        if (checkpoint == null) {
+            checkpoint = new AuditCheckpoint(null, 0, 0);
+            startCheckpoint(prefix);
+            logger.info("Starting streaming S3 cover audit for prefix '{}', limit {}.", prefix, maxObjects);
+        } else {
+            logger.info("Resuming streaming S3 cover audit for prefix '{}' after {} scanned objects, limit {}.",
+                    prefix, checkpoint.scanned(), maxObjects);
+        }
+
+        String continuationToken = checkpoint.continuationToken();
+        long scannedSinceStart = checkpoint.scanned();
+        long flaggedSinceStart = checkpoint.flagged();
+        int scannedThisRun = 0;
+        List<String> flaggedThisRun = new ArrayList<>();
+        boolean complete = false;
+
+        try {
+            while (scannedThisRun < budget) {
+                ListObjectsV2Response page = s3StorageService.listObjectsPage(
+                        prefix, continuationToken, Math.min(AUDIT_PAGE_SIZE, budget - scannedThisRun));
+                List<S3Object> flagged = Flux.fromIterable(page.contents())
+                        .filter(s3Object -> s3Object.size() != null && s3Object.size() > 0)
+                        .filter(s3Object -> !S3KeyGenerator.isBlobKey(s3Object.key()))
+                        .flatMap(s3Object -> Mono.fromCallable(() -> isDominantlyWhite(s3Object) ? s3Object : null)
+                                .subscribeOn(auditScheduler), auditConcurrency)
+                        .collectList()
+                        .block();
+
+                recordFlags(prefix, flagged);
+                flagged.forEach(s3Object -> flaggedThisRun.add(s3Object.key()));
+                scannedThisRun += page.contents().size();
+                scannedSinceStart += page.contents().size();
+                flaggedSinceStart += flagged.size();
+                continuationToken = page.nextContinuationToken();
+                complete = !Boolean.TRUE.equals(page.isTruncated()) || continuationToken == null;
+                saveCheckpoint(prefix, complete ? null : continuationToken, scannedSinceStart, flaggedSinceStart, complete);
+                logger.debug("Audited page of {} S3 objects under '{}' ({} flagged). Scanned since start: {}.",
+                        page.contents().size(), prefix, flagged.size(), scannedSinceStart);
+                if (complete) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            LoggingUtils.error(logger, e, "Streaming S3 cover audit for prefix '{}' stopped early; it resumes from the last saved page", prefix);
+        }
+
+        logger.info("Streaming S3 cover audit for prefix '{}': {} scanned and {} flagged this run; {} scanned and {} flagged since start. Complete: {}",
+                prefix, scannedThisRun, flaggedThisRun.size(), scannedSinceStart, flaggedSinceStart, complete);
+        return new StreamingAuditSummary(scannedThisRun, flaggedThisRun.size(), scannedSinceStart, flaggedSinceStart,
+                complete, flaggedThisRun);
+    }
+
+    /**
+     * Drops content-addressed blobs from a listing. Moving one would break the cover of every
+     * book aliased to it, and uploads already reject dominantly white images before storing them.
+     */
+    private static List<S3Object> perBookObjects(List<S3Object> s3Objects) {
+        return s3Objects.stream().filter(s3Object -> !S3KeyGenerator.isBlobKey(s3Object.key())).toList();
+    }
+
+    private boolean isDominantlyWhite(S3Object s3Object) {
+        try (InputStream imageStream = s3StorageService.openObjectStream(s3Object.key())) {
+            boolean isBadCover = imageProcessingService.isDominantlyWhite(imageStream, s3Object.key());
+            if (isBadCover) {
+                logger.info("[FLAGGED] S3 object: {} - Identified as potentially bad cover.", s3Object.key());
+            }
+            return isBadCover;
+        } catch (Exception e) {
+            LoggingUtils.error(logger, e, "Error auditing S3 object: {}", s3Object.key());
+            return false;
+        }
+    }
+
+    private record AuditCheckpoint(String continuationToken, long scanned, long flagged) {
+    }
+
+    /**
+     * @return The unfinished checkpoint for the prefix, or null when there is none to resume
+     */
+    private AuditCheckpoint loadCheckpoint(String prefix) {
+        if (jdbcTemplate == null) {
+            return null;
+        }
+        List<AuditCheckpoint> rows = jdbcTemplate.query(
+                "SELECT continuation_token, scanned, flagged FROM s3_cover_audit_checkpoint " +
+                "WHERE prefix = ? AND completed_at IS NULL AND continuation_token IS NOT NULL",
+                (rs, rowNum) -> new AuditCheckpoint(rs.getString("continuation_token"), rs.getLong("scanned"), rs.getLong("flagged")),
+                prefix);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Resets the prefix's checkpoint and drops the flags of the previous audit in one statement,
+     * so the flags table never holds keys the restarted counters do not account for.
+     */
+    private void startCheckpoint(String prefix) {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        jdbcTemplate.update(
+                "WITH cleared AS (DELETE FROM s3_cover_audit_flags WHERE prefix = ?) " +
+                "INSERT INTO s3_cover_audit_checkpoint (prefix, continuation_token, scanned, flagged, started_at, updated_at, completed_at) " +
+                "VALUES (?, NULL, 0, 0, now(), now(), NULL) " +
+                "ON CONFLICT (prefix) DO UPDATE SET continuation_token = NULL, scanned = 0, flagged = 0, " +
+                "started_at = now(), updated_at = now(), completed_at = NULL",
+                prefix, prefix);
+    }
+
+    private void saveCheckpoint(String prefix, String continuationToken, long scanned, long flagged, boolean complete) {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        jdbcTemplate.update(
+                "UPDATE s3_cover_audit_checkpoint SET continuation_token = ?, scanned = ?, flagged = ?, updated_at = now(), " +
+                "completed_at = CASE WHEN ? THEN now() ELSE NULL END WHERE prefix = ?",
+                continuationToken, scanned, flagged, complete, prefix);
+    }
+
+    private void recordFlags(String prefix, List<S3Object> flagged) {
+        if (jdbcTemplate == null || flagged.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO s3_cover_audit_flags (s3_key, prefix, content_length) VALUES (?, ?, ?) " +
+                "ON CONFLICT (s3_key) DO UPDATE SET prefix = EXCLUDED.prefix, content_length = EXCLUDED.content_length, flagged_at = now()",
+                flagged.stream().map(s3Object -> new Object[] {s3Object.key(), prefix, s3Object.size()}).toList());
+    }
+
     /**
      * Performs the action of moving flagged S3 cover images to a quarantine prefix.
      *
@@ -165,7 +339,7 @@ public class S3CoverCleanupService {
         List<String> failedMoveFileKeys = new ArrayList<>(); // Stores original keys of files that failed to move
 
         try {
-            List<S3Object> allS3Objects = s3StorageService.listObjects(s3Prefix);
+            List<S3Object> allS3Objects = perBookObjects(s3StorageService.listObjects(s3Prefix));
             logger.info("Found {} total objects in bucket {} with prefix '{}' to scan for move action.", allS3Objects.size(), bucketName, s3Prefix);
 
             List<S3Object> objectsToProcess = allS3Objects;
@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Service;
 import com.williamcallahan.book_recommendation_engine.config.S3EnvironmentCondition;
+import com.williamcallahan.book_recommendation_engine.service.image.S3CoverManifest;
 import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -56,6 +57,7 @@ public class S3StorageService {
     private final String bucketName;
     private final String publicCdnUrl;
     private final String serverUrl;
+    private final S3CoverManifest coverManifest;
 
     /**
      * Constructs an S3StorageService with required dependencies
@@ -68,15 +70,18 @@ public class S3StorageService {
      * @param bucketName Name of the S3 bucket to use for storage
      * @param publicCdnUrl Optional CDN URL for public access to files
      * @param serverUrl Optional server URL for DigitalOcean Spaces
+     * @param coverManifest Manifest of stored cover keys, kept in step with deletions
      */
     public S3StorageService(S3Client s3Client, 
                             @Value("${s3.bucket-name:${S3_BUCKET}}") String bucketName,
                             @Value("${s3.cdn-url:${S3_CDN_URL:#{null}}}") String publicCdnUrl,
-                            @Value("${s3.server-url:${S3_SERVER_URL:#{null}}}") String serverUrl) {
+                            @Value("${s3.server-url:${S3_SERVER_URL:#{null}}}") String serverUrl,
+                            S3CoverManifest coverManifest) {
         this.s3Client = s3Client;
         this.bucketName = bucketName;
         this.publicCdnUrl = publicCdnUrl;
         this.serverUrl = serverUrl;
+        this.coverManifest = coverManifest;
     }
 
     @PostConstruct
@@ -356,6 +361,43 @@ public CompletableFuture<S3FetchResult<String>> fetchGenericJsonAsync(String key
         return allObjects;
     }
 
+    /**
+     * Lists a single page of objects, for callers that walk large prefixes without holding the whole listing.
+     *
+     * @param prefix The prefix to filter objects by. Can be empty or null.
+     * @param continuationToken Token from the previous page, or null for the first page
+     * @param maxKeys Maximum number of keys to return (S3 caps this at 1000)
+     * @return The page, including the continuation token for the next one
+     * @throws IllegalStateException if no S3 client is configured
+     */
+    public ListObjectsV2Response listObjectsPage(String prefix, String continuationToken, int maxKeys) {
+        if (s3Client == null) {
+            throw new IllegalStateException("S3Client is not available.");
+        }
+        ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .continuationToken(continuationToken)
+                .maxKeys(Math.max(1, Math.min(1000, maxKeys)));
+        if (prefix != null && !prefix.isEmpty()) {
+            requestBuilder.prefix(prefix);
+        }
+        return s3Client.listObjectsV2(requestBuilder.build());
+    }
+
+    /**
+     * Opens an object for streaming reads; the caller must close the stream.
+     *
+     * @param key The key of the object to read
+     * @return The object content stream
+     * @throws IllegalStateException if no S3 client is configured
+     */
+    public InputStream openObjectStream(String key) {
+        if (s3Client == null) {
+            throw new IllegalStateException("S3Client is not available.");
+        }
+        return s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build());
+    }
+
     /**
      * Downloads a file from S3 as a byte array
      *
@@ -423,6 +465,7 @@ public CompletableFuture<S3FetchResult<String>> fetchGenericJsonAsync(String key
 
     /**
      * Deletes an object from the S3 bucket
+     * A deleted cover key is also removed from the cover manifest, so lookups stop reporting it as stored
      *
      * @param key The key of the object to delete
      * @return true if successful, false otherwise
@@ -440,6 +483,7 @@ public CompletableFuture<S3FetchResult<String>> fetchGenericJsonAsync(String key
                     .build();
 
             s3Client.deleteObject(deleteReq);
+            coverManifest.remove(key);
             logger.info("Successfully deleted object {}", key);
             return true;
         } catch (S3Exception e) {
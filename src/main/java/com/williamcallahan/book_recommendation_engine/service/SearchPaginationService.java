@@ -1,17 +1,23 @@
 package com.williamcallahan.book_recommendation_engine.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.williamcallahan.book_recommendation_engine.dto.BookListItem;
 import com.williamcallahan.book_recommendation_engine.model.Book;
 import com.williamcallahan.book_recommendation_engine.repository.BookQueryRepository;
 import com.williamcallahan.book_recommendation_engine.util.ApplicationConstants;
 import com.williamcallahan.book_recommendation_engine.util.BookDomainMapper;
 import com.williamcallahan.book_recommendation_engine.util.PagingUtils;
+import com.williamcallahan.book_recommendation_engine.util.UuidUtils;
 import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -26,15 +32,28 @@ import reactor.core.scheduler.Schedulers;
 /**
  * Coordinates paginated search across Postgres + external sources and emits
  * cursor-friendly slices with deterministic ordering and deduplication.
+ * <p>
+ * The ordered, deduplicated hits of each (normalized query, orderBy) are cached for
+ * {@link #RESULT_SET_TTL}. Pages inside the cached range are sliced from the cache and
+ * hydrated with one {@link BookQueryRepository#fetchBookListItems} call; a page past the
+ * cached range re-runs the search for at least twice the cached depth, so deep pagination
+ * costs amortized constant work. {@link SearchPage#nextCursor()} is an opaque token for the next page.
  */
 @Service
 @Slf4j
 public class SearchPaginationService {
 
+    private static final int RESULT_SET_CACHE_SIZE = 1_000;
+    private static final Duration RESULT_SET_TTL = Duration.ofMinutes(5);
+
     private final @Nullable TieredBookSearchService tieredBookSearchService;
     private final @Nullable BookDataOrchestrator bookDataOrchestrator;
     private final BookSearchService bookSearchService;
     private final BookQueryRepository bookQueryRepository;
+    private final Cache<ResultSetKey, CachedResultSet> resultSets = Caffeine.newBuilder()
+        .maximumSize(RESULT_SET_CACHE_SIZE)
+        .expireAfterWrite(RESULT_SET_TTL)
+        .build();
 
     public SearchPaginationService(@Nullable TieredBookSearchService tieredBookSearchService,
                                    @Nullable BookDataOrchestrator bookDataOrchestrator,
@@ -47,38 +66,101 @@ public class SearchPaginationService {
     }
 
     public Mono<SearchPage> search(SearchRequest request) {
+        Cursor cursor = Cursor.decode(request.cursor());
+        if (cursor != null && !cursor.matches(request)) {
+            log.debug("Ignoring cursor issued for a different search than '{}'", request.query());
+            cursor = null;
+        }
         PagingUtils.Window window = PagingUtils.window(
-            request.startIndex(),
-            request.maxResults(),
+            cursor != null ? cursor.startIndex() : request.startIndex(),
+            cursor != null ? cursor.maxResults() : request.maxResults(),
             ApplicationConstants.Paging.DEFAULT_SEARCH_LIMIT,
             ApplicationConstants.Paging.MIN_SEARCH_LIMIT,
             ApplicationConstants.Paging.MAX_SEARCH_LIMIT,
             ApplicationConstants.Paging.MAX_TIERED_LIMIT
         );
 
+        ResultSetKey key = ResultSetKey.of(request);
+        CachedResultSet cached = resultSets.getIfPresent(key);
+        if (cached != null && cached.covers(window)) {
+            long start = System.nanoTime();
+            return Mono.fromCallable(() -> sliceCached(cached, window, request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(page -> logPageMetrics(request, window, page, start));
+        }
+        // Grow geometrically past what is cached so walking pages re-runs the search O(log n) times
+        int fetchSize = cached == null
+            ? window.totalRequested()
+            : Math.min(ApplicationConstants.Paging.MAX_TIERED_LIMIT,
+                Math.max(window.totalRequested(), cached.requested() * 2));
+
         if (tieredBookSearchService == null) {
-            return performPostgresOnlySearch(request, window);
+            return performPostgresOnlySearch(request, window, key, fetchSize);
         }
 
         long start = System.nanoTime();
-        return tieredBookSearchService.streamSearch(request.query(), null, window.totalRequested(), request.orderBy(), false)
+        return tieredBookSearchService.streamSearch(request.query(), null, fetchSize, request.orderBy(), false)
             .collectList()
             .defaultIfEmpty(List.of())
-            .map(rawResults -> dedupeAndSlice(rawResults, window, request))
+            .map(rawResults -> dedupeAndSlice(rawResults, window, request, key, fetchSize))
             .doOnNext(page -> persistExternalResults(page.uniqueResults()))
             .doOnNext(page -> logPageMetrics(request, window, page, start));
     }
 
-    private Mono<SearchPage> performPostgresOnlySearch(SearchRequest request, PagingUtils.Window window) {
+    private Mono<SearchPage> performPostgresOnlySearch(SearchRequest request,
+                                                       PagingUtils.Window window,
+                                                       ResultSetKey key,
+                                                       int fetchSize) {
         long start = System.nanoTime();
-        return Mono.fromCallable(() -> bookSearchService.searchBooks(request.query(), window.totalRequested()))
+        return Mono.fromCallable(() -> bookSearchService.searchBooks(request.query(), fetchSize))
             .subscribeOn(Schedulers.boundedElastic())
             .map(results -> results == null ? List.<BookSearchService.SearchResult>of() : results)
             .map(results -> mapPostgresResults(results))
-            .map(list -> dedupeAndSlice(list, window, request))
+            .map(list -> dedupeAndSlice(list, window, request, key, fetchSize))
             .doOnNext(page -> logPageMetrics(request, window, page, start));
     }
 
+    /**
+     * Serves a page from the cached hit list: Postgres rows are re-read in one batch,
+     * external hits come from the snapshot taken when the search ran.
+     */
+    private SearchPage sliceCached(CachedResultSet cached, PagingUtils.Window window, SearchRequest request) {
+        List<CachedHit> hits = PagingUtils.slice(cached.hits(), window.startIndex(), window.limit());
+        List<UUID> postgresIds = hits.stream()
+            .filter(hit -> hit.snapshot() == null)
+            .map(hit -> UUID.fromString(hit.id()))
+            .toList();
+        Map<String, BookListItem> itemsById = new LinkedHashMap<>();
+        if (!postgresIds.isEmpty()) {
+            for (BookListItem item : bookQueryRepository.fetchBookListItems(postgresIds)) {
+                if (item != null) {
+                    itemsById.putIfAbsent(item.id(), item);
+                }
+            }
+        }
+        List<Book> pageItems = new ArrayList<>(hits.size());
+        for (CachedHit hit : hits) {
+            Book book = hit.snapshot();
+            if (book == null) {
+                BookListItem item = itemsById.get(hit.id());
+                book = item != null ? BookDomainMapper.fromListItem(item) : null;
+                if (book == null) {
+                    continue;
+                }
+                book.setInPostgres(true);
+                if (hit.matchType() != null) {
+                    book.addQualifier("search.matchType", hit.matchType());
+                }
+                if (hit.relevanceScore() != null) {
+                    book.addQualifier("search.relevanceScore", hit.relevanceScore());
+                }
+            }
+            pageItems.add(book);
+        }
+        // uniqueResults only drives persistence of fresh external hits, which already happened
+        return buildPage(request, window, cached.hits().size(), pageItems, List.of());
+    }
+
     private List<Book> mapPostgresResults(List<BookSearchService.SearchResult> results) {
         if (results.isEmpty()) {
             return List.of();
@@ -116,7 +198,9 @@ public class SearchPaginationService {
 
     private SearchPage dedupeAndSlice(List<Book> rawResults,
                                       PagingUtils.Window window,
-                                      SearchRequest request) {
+                                      SearchRequest request,
+                                      ResultSetKey key,
+                                      int fetchSize) {
         LinkedHashMap<String, Book> ordered = new LinkedHashMap<>();
         for (Book book : rawResults) {
             if (book == null) {
@@ -147,11 +231,24 @@ public class SearchPaginationService {
         List<Book> uniqueResults = new ArrayList<>(postgresFirst.size() + external.size());
         uniqueResults.addAll(postgresFirst);
         uniqueResults.addAll(external);
+        resultSets.put(key, new CachedResultSet(uniqueResults.stream().map(CachedHit::of).toList(),
+            fetchSize, rawResults.size() < fetchSize));
+
         List<Book> pageItems = PagingUtils.slice(uniqueResults, window.startIndex(), window.limit());
-        int totalUnique = uniqueResults.size();
+        return buildPage(request, window, uniqueResults.size(), pageItems, uniqueResults);
+    }
+
+    private SearchPage buildPage(SearchRequest request,
+                                 PagingUtils.Window window,
+                                 int totalUnique,
+                                 List<Book> pageItems,
+                                 List<Book> uniqueResults) {
         boolean hasMore = PagingUtils.hasMore(totalUnique, window.startIndex(), window.limit());
         int prefetched = PagingUtils.prefetchedCount(totalUnique, window.startIndex(), window.limit());
         int nextStartIndex = hasMore ? window.startIndex() + window.limit() : window.startIndex();
+        String nextCursor = hasMore
+            ? new Cursor(request.query(), request.orderBy(), nextStartIndex, window.limit()).encode()
+            : null;
 
         return new SearchPage(
             request.query(),
@@ -164,7 +261,8 @@ public class SearchPaginationService {
             hasMore,
             nextStartIndex,
             prefetched,
-            request.orderBy()
+            request.orderBy(),
+            nextCursor
         );
     }
 
@@ -202,11 +300,18 @@ public class SearchPaginationService {
         );
     }
 
-    public record SearchRequest(String query, int startIndex, int maxResults, String orderBy) {
+    /**
+     * @param cursor Optional {@link SearchPage#nextCursor()} from a previous page; overrides startIndex/maxResults
+     */
+    public record SearchRequest(String query, int startIndex, int maxResults, String orderBy, @Nullable String cursor) {
         public SearchRequest {
             Objects.requireNonNull(query, "query");
             orderBy = Optional.ofNullable(orderBy).orElse("newest");
         }
+
+        public SearchRequest(String query, int startIndex, int maxResults, String orderBy) {
+            this(query, startIndex, maxResults, orderBy, null);
+        }
     }
 
     public record SearchPage(String query,
@@ -219,6 +324,85 @@ public class SearchPaginationService {
                              boolean hasMore,
                              int nextStartIndex,
                              int prefetchedCount,
-                             String orderBy) {
+                             String orderBy,
+                             @Nullable String nextCursor) {
+
+        public SearchPage(String query,
+                          int startIndex,
+                          int maxResults,
+                          int totalRequested,
+                          int totalUnique,
+                          List<Book> pageItems,
+                          List<Book> uniqueResults,
+                          boolean hasMore,
+                          int nextStartIndex,
+                          int prefetchedCount,
+                          String orderBy) {
+            this(query, startIndex, maxResults, totalRequested, totalUnique, pageItems, uniqueResults,
+                hasMore, nextStartIndex, prefetchedCount, orderBy, null);
+        }
+    }
+
+    private record ResultSetKey(String query, String orderBy) {
+        static ResultSetKey of(SearchRequest request) {
+            return new ResultSetKey(request.query().trim().toLowerCase(Locale.ROOT), request.orderBy().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * @param requested Results asked of the search when this set was built
+     * @param exhausted The search returned fewer than requested, so there is nothing past {@code hits}
+     */
+    private record CachedResultSet(List<CachedHit> hits, int requested, boolean exhausted) {
+        boolean covers(PagingUtils.Window window) {
+            return exhausted || hits.size() >= window.startIndex() + window.limit();
+        }
+    }
+
+    /**
+     * Postgres hits keep only their id and search qualifiers; external hits keep the fetched book
+     * because they cannot be re-read until persistence catches up.
+     */
+    private record CachedHit(String id, @Nullable Book snapshot, @Nullable Object matchType, @Nullable Object relevanceScore) {
+        static CachedHit of(Book book) {
+            Map<String, Object> qualifiers = Optional.ofNullable(book.getQualifiers()).orElse(Map.of());
+            boolean rereadable = Boolean.TRUE.equals(book.getInPostgres()) && UuidUtils.parseUuidOrNull(book.getId()) != null;
+            return new CachedHit(book.getId(), rereadable ? null : book,
+                qualifiers.get("search.matchType"), qualifiers.get("search.relevanceScore"));
+        }
+    }
+
+    /**
+     * Opaque page token: base64url of the search it belongs to plus the page window.
+     */
+    private record Cursor(String query, String orderBy, int startIndex, int maxResults) {
+        private static final char SEPARATOR = '\u001F';
+
+        String encode() {
+            String raw = query + SEPARATOR + orderBy + SEPARATOR + startIndex + SEPARATOR + maxResults;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        boolean matches(SearchRequest request) {
+            return ResultSetKey.of(request).equals(new ResultSetKey(query.trim().toLowerCase(Locale.ROOT),
+                orderBy.toLowerCase(Locale.ROOT)));
+        }
+
+        @Nullable
+        static Cursor decode(@Nullable String token) {
+            if (!ValidationUtils.hasText(token)) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+                if (parts.length != 4) {
+                    return null;
+                }
+                return new Cursor(parts[0], parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
     }
 }
@@ -0,0 +1,163 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces "search view is stale" signals from every writer into debounced
+ * {@code REFRESH MATERIALIZED VIEW CONCURRENTLY book_search_view} runs.
+ * <p>
+ * Writers call {@link #markDirty()} and return immediately. A scheduled check refreshes when rows
+ * are pending, and {@code refresh_book_search_view_debounced()} guarantees at most one refresh per
+ * window across all nodes: a transaction-scoped advisory lock serializes nodes, and the shared
+ * {@code search_view_refresh_state} row tells late arrivals that a fresh snapshot already exists.
+ * <p>
+ * Gauges:
+ * <ul>
+ *   <li>{@code book.search_view.seconds_since_refresh} - age of the newest snapshot this node has observed</li>
+ *   <li>{@code book.search_view.pending_dirty_rows} - writes on this node not yet covered by a refresh</li>
+ * </ul>
+ * Inactive when the incremental search index is enabled, since {@code book_search_view} is then unused.
+ */
+@Service
+@Slf4j
+public class SearchViewRefreshCoordinator {
+
+    static final String SECONDS_SINCE_REFRESH_GAUGE = "book.search_view.seconds_since_refresh";
+    static final String PENDING_DIRTY_ROWS_GAUGE = "book.search_view.pending_dirty_rows";
+
+    private static final String REFRESH_SQL =
+        "SELECT refreshed, refreshed_at FROM refresh_book_search_view_debounced(?::interval, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookSearchIndexService searchIndexService;
+    private final Duration window;
+    private final AtomicLong pendingDirtyRows = new AtomicLong();
+    private final AtomicLong lastRefreshEpochMs = new AtomicLong();
+    private final AtomicBoolean scheduledRefreshRunning = new AtomicBoolean();
+
+    public SearchViewRefreshCoordinator(@Nullable JdbcTemplate jdbcTemplate,
+                                        BookSearchIndexService searchIndexService,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.search-view.refresh.window:PT60S}") Duration window) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchIndexService = searchIndexService;
+        this.window = window;
+
+        Gauge.builder(SECONDS_SINCE_REFRESH_GAUGE, this, SearchViewRefreshCoordinator::secondsSinceLastRefresh)
+            .description("Seconds since book_search_view was last refreshed by any node")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder(PENDING_DIRTY_ROWS_GAUGE, pendingDirtyRows, AtomicLong::get)
+            .description("Book writes on this node not yet visible in book_search_view")
+            .register(meterRegistry);
+    }
+
+    public boolean isActive() {
+        return jdbcTemplate != null && !searchIndexService.isIncrementalEnabled();
+    }
+
+    public void markDirty() {
+        markDirty(1);
+    }
+
+    /**
+     * Records that {@code rows} books changed. Never blocks; the refresh happens on the scheduler.
+     */
+    public void markDirty(int rows) {
+        if (rows <= 0 || !isActive()) {
+            return;
+        }
+        pendingDirtyRows.addAndGet(rows);
+    }
+
+    /**
+     * Refreshes when this node has pending rows and the window has elapsed. Skips quietly when another
+     * node holds the lock or refreshed within the window; the rows stay pending for the next check.
+     */
+    @Scheduled(fixedDelayString = "${app.search-view.refresh.check-interval-ms:5000}",
+               initialDelayString = "${app.search-view.refresh.check-interval-ms:5000}")
+    public void refreshIfDue() {
+        if (!isActive() || pendingDirtyRows.get() == 0) {
+            return;
+        }
+        long last = lastRefreshEpochMs.get();
+        if (last != 0 && System.currentTimeMillis() - last < window.toMillis()) {
+            return;
+        }
+        if (!scheduledRefreshRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresh(window, false);
+        } finally {
+            scheduledRefreshRunning.set(false);
+        }
+    }
+
+    /**
+     * Refreshes now, ignoring the window and waiting for any in-flight refresh on another node so
+     * the caller's own writes are guaranteed to be visible afterwards.
+     *
+     * @return true when this call rebuilt the view
+     */
+    public boolean refreshNow() {
+        if (!isActive()) {
+            return false;
+        }
+        return refresh(Duration.ZERO, true);
+    }
+
+    long pendingDirtyRows() {
+        return pendingDirtyRows.get();
+    }
+
+    double secondsSinceLastRefresh() {
+        long last = lastRefreshEpochMs.get();
+        if (last == 0) {
+            return Double.NaN;
+        }
+        return Math.max(0L, System.currentTimeMillis() - last) / 1000.0;
+    }
+
+    private boolean refresh(Duration minInterval, boolean waitForLock) {
+        long covered = pendingDirtyRows.get();
+        try {
+            RefreshOutcome outcome = jdbcTemplate.queryForObject(
+                REFRESH_SQL,
+                (rs, rowNum) -> new RefreshOutcome(rs.getBoolean("refreshed"), rs.getTimestamp("refreshed_at")),
+                minInterval.toMillis() + " milliseconds",
+                waitForLock
+            );
+            if (outcome == null) {
+                return false;
+            }
+            if (outcome.refreshedAt() != null) {
+                lastRefreshEpochMs.accumulateAndGet(outcome.refreshedAt().getTime(), Math::max);
+            }
+            if (outcome.refreshed()) {
+                // Rows marked while the refresh ran may not be in the snapshot, so only drop what was pending before it
+                pendingDirtyRows.updateAndGet(current -> Math.max(0L, current - covered));
+                log.debug("Refreshed book_search_view covering {} pending rows", covered);
+            }
+            return outcome.refreshed();
+        } catch (DataAccessException ex) {
+            log.warn("Failed to refresh book_search_view: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    private record RefreshOutcome(boolean refreshed, Timestamp refreshedAt) {}
+}
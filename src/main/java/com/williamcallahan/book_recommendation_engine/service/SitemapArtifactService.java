@@ -0,0 +1,237 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
+import com.williamcallahan.book_recommendation_engine.service.SitemapXmlRenderer.XmlPageWriter;
+import com.williamcallahan.book_recommendation_engine.util.HashUtils;
+import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-rendered, gzip-compressed sitemap XML pages served without touching Postgres.
+ * <p>
+ * {@link #renderAll()} renders the index and every book/author page through {@link SitemapXmlRenderer}
+ * and swaps the whole generation in atomically, so readers never see a mix of old and new pages.
+ * Each generation is optionally:
+ * - Written to {@code sitemap.artifact-directory} and reloaded from there on startup
+ * - Uploaded to S3 under {@code sitemap.s3-artifact-prefix}
+ * <p>
+ * Artifacts are keyed by request path ({@code sitemap.xml}, {@code sitemap-xml/books/1.xml}, ...) and carry a
+ * content-hash ETag plus a Last-Modified that only moves when the page content changes.
+ */
+@Service
+@Slf4j
+public class SitemapArtifactService {
+
+    public static final String INDEX_PATH = "sitemap.xml";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final SitemapXmlRenderer renderer;
+    private final SitemapService sitemapService;
+    private final SitemapProperties sitemapProperties;
+    private final S3StorageService s3StorageService;
+
+    private final AtomicReference<Map<String, Artifact>> artifacts = new AtomicReference<>(Map.of());
+
+    public SitemapArtifactService(SitemapXmlRenderer renderer,
+                                  SitemapService sitemapService,
+                                  SitemapProperties sitemapProperties,
+                                  @Autowired(required = false) S3StorageService s3StorageService) {
+        this.renderer = renderer;
+        this.sitemapService = sitemapService;
+        this.sitemapProperties = sitemapProperties;
+        this.s3StorageService = s3StorageService;
+    }
+
+    public static String booksPath(int page) {
+        return "sitemap-xml/books/" + page + ".xml";
+    }
+
+    public static String authorsPath(int page) {
+        return "sitemap-xml/authors/" + page + ".xml";
+    }
+
+    /**
+     * Restores the last generation written to the artifact directory so a restart serves sitemaps immediately.
+     */
+    @PostConstruct
+    void loadFromDisk() {
+        Path directory = artifactDirectory();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        Map<String, Artifact> loaded = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(GZIP_SUFFIX)).toList()) {
+                String relative = directory.relativize(file).toString().replace('\\', '/');
+                String path = relative.substring(0, relative.length() - GZIP_SUFFIX.length());
+                byte[] gzip = Files.readAllBytes(file);
+                loaded.put(path, new Artifact(gzip, etag(gzip), Files.getLastModifiedTime(file).toInstant()));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to load sitemap artifacts from {}: {}", directory, e.getMessage());
+            return;
+        }
+        if (loaded.containsKey(INDEX_PATH)) {
+            artifacts.set(Map.copyOf(loaded));
+            log.info("Loaded {} pre-rendered sitemap artifacts from {}.", loaded.size(), directory);
+        }
+    }
+
+    public Optional<Artifact> find(String path) {
+        return Optional.ofNullable(artifacts.get().get(path));
+    }
+
+    /**
+     * @return true once a generation is available, meaning a missing path is a genuine 404
+     */
+    public boolean hasArtifacts() {
+        return !artifacts.get().isEmpty();
+    }
+
+    /**
+     * Renders every sitemap page, publishes the generation in memory, then persists it to disk and S3.
+     *
+     * @return number of artifacts in the new generation
+     */
+    public synchronized int renderAll() {
+        Map<String, Artifact> previous = artifacts.get();
+        Instant renderedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Artifact> generation = new LinkedHashMap<>();
+
+        put(generation, previous, INDEX_PATH, renderer.index(), renderedAt);
+        int bookPages = sitemapService.getBooksXmlPageCount();
+        for (int page = 1; page <= bookPages; page++) {
+            String path = booksPath(page);
+            renderer.booksPage(page).ifPresent(writer -> put(generation, previous, path, writer, renderedAt));
+        }
+        int authorPages = sitemapService.getAuthorXmlPageCount();
+        for (int page = 1; page <= authorPages; page++) {
+            String path = authorsPath(page);
+            renderer.authorsPage(page).ifPresent(writer -> put(generation, previous, path, writer, renderedAt));
+        }
+
+        artifacts.set(Map.copyOf(generation));
+        writeToDisk(generation);
+        uploadToS3(generation);
+        log.info("Rendered {} sitemap artifacts ({} book pages, {} author pages).", generation.size(), bookPages, authorPages);
+        return generation.size();
+    }
+
+    private void put(Map<String, Artifact> generation, Map<String, Artifact> previous,
+                     String path, XmlPageWriter pageWriter, Instant renderedAt) {
+        // XML goes straight into the compressor, so only the compressed page is ever held in memory
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(buffer), StandardCharsets.UTF_8))) {
+            pageWriter.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render sitemap artifact " + path, e);
+        }
+        byte[] gzip = buffer.toByteArray();
+        String etag = etag(gzip);
+        Artifact prior = previous.get(path);
+        // Unchanged pages keep their Last-Modified so crawlers are not told to refetch them
+        Instant lastModified = prior != null && prior.etag().equals(etag) ? prior.lastModified() : renderedAt;
+        generation.put(path, new Artifact(gzip, etag, lastModified));
+    }
+
+    private void writeToDisk(Map<String, Artifact> generation) {
+        Path directory = artifactDirectory();
+        if (directory == null) {
+            return;
+        }
+        try {
+            for (Map.Entry<String, Artifact> entry : generation.entrySet()) {
+                Path target = directory.resolve(entry.getKey() + GZIP_SUFFIX);
+                Files.createDirectories(target.getParent());
+                Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+                Files.write(temp, entry.getValue().gzip());
+                Files.setLastModifiedTime(temp, FileTime.from(entry.getValue().lastModified()));
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            removeStaleFiles(directory, generation);
+        } catch (IOException e) {
+            log.warn("Failed to write sitemap artifacts to {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void removeStaleFiles(Path directory, Map<String, Artifact> generation) throws IOException {
+        List<Path> stale;
+        try (Stream<Path> files = Files.walk(directory)) {
+            stale = files.filter(f -> f.toString().endsWith(GZIP_SUFFIX))
+                    .filter(f -> {
+                        String relative = directory.relativize(f).toString().replace('\\', '/');
+                        return !generation.containsKey(relative.substring(0, relative.length() - GZIP_SUFFIX.length()));
+                    })
+                    .toList();
+        }
+        for (Path file : stale) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void uploadToS3(Map<String, Artifact> generation) {
+        String prefix = sitemapProperties.getS3ArtifactPrefix();
+        if (s3StorageService == null || !ValidationUtils.hasText(prefix)) {
+            return;
+        }
+        String normalizedPrefix = prefix.endsWith("/") ? prefix : prefix + "/";
+        for (Map.Entry<String, Artifact> entry : generation.entrySet()) {
+            byte[] gzip = entry.getValue().gzip();
+            String key = normalizedPrefix + entry.getKey() + GZIP_SUFFIX;
+            try {
+                s3StorageService.uploadFileAsync(key, new ByteArrayInputStream(gzip), gzip.length, "application/gzip").join();
+            } catch (Exception e) {
+                log.warn("Failed to upload sitemap artifact '{}' to S3: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private Path artifactDirectory() {
+        String directory = sitemapProperties.getArtifactDirectory();
+        return ValidationUtils.hasText(directory) ? Path.of(directory) : null;
+    }
+
+    private static String etag(byte[] gzip) {
+        try {
+            return "W/\"" + HashUtils.sha256Hex(gzip).substring(0, 32) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /**
+     * One pre-rendered sitemap page.
+     *
+     * @param gzip gzip-compressed UTF-8 XML
+     * @param etag weak ETag, shared by the gzip and identity encodings of the page
+     * @param lastModified when the page content last changed
+     */
+    public record Artifact(byte[] gzip, String etag, Instant lastModified) {
+    }
+}
@@ -3,13 +3,17 @@ package com.williamcallahan.book_recommendation_engine.service;
 import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.AuthorRow;
+import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.AuthorSeekKey;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.BookRow;
+import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.BookSeekKey;
+import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.BookXmlChunk;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.DatasetFingerprint;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.PageMetadata;
 import com.williamcallahan.book_recommendation_engine.util.PagingUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -24,12 +28,16 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
  * Coordinates Postgres-backed sitemap data access for both HTML and XML rendering.
+ * <p>
+ * Pages are fetched by keyset: each listing's page boundaries are computed once per cache
+ * lifetime and every page seeks past its boundary, so page cost does not grow with the page number.
  */
 @Service
 public class SitemapService {
@@ -56,6 +64,8 @@ public class SitemapService {
     private final Cache authorXmlPageCache;
     private final Cache bookPageMetadataCache;
     private final Cache authorPageMetadataCache;
+    private final Cache bookSeekKeysCache;
+    private final Cache authorSeekKeysCache;
     private final AtomicReference<DatasetFingerprint> bookFingerprintRef = new AtomicReference<>();
     private final AtomicReference<DatasetFingerprint> authorFingerprintRef = new AtomicReference<>();
 
@@ -74,6 +84,8 @@ public class SitemapService {
         this.authorXmlPageCache = requireCache(cacheManager, CacheNames.AUTHOR_XML_PAGE);
         this.bookPageMetadataCache = requireCache(cacheManager, CacheNames.BOOK_PAGE_METADATA);
         this.authorPageMetadataCache = requireCache(cacheManager, CacheNames.AUTHOR_PAGE_METADATA);
+        this.bookSeekKeysCache = requireCache(cacheManager, CacheNames.BOOK_SEEK_KEYS);
+        this.authorSeekKeysCache = requireCache(cacheManager, CacheNames.AUTHOR_SEEK_KEYS);
     }
 
     public SitemapOverview getOverview() {
@@ -94,8 +106,14 @@ public class SitemapService {
         if (safePage > totalPages) {
             return new PagedResult<>(Collections.emptyList(), safePage, totalPages, totalItems);
         }
-        int offset = (safePage - 1) * pageSize;
-        List<BookSitemapItem> items = sitemapRepository.fetchBooksForBucket(bucket, pageSize, offset)
+        BookSeekKey after = null;
+        if (safePage > 1) {
+            after = seekKey(getBookBucketBoundaries(bucket), safePage);
+            if (after == null) {
+                return new PagedResult<>(Collections.emptyList(), safePage, totalPages, totalItems);
+            }
+        }
+        List<BookSitemapItem> items = sitemapRepository.fetchBooksForBucket(bucket, after, pageSize)
                 .stream()
                 .map(row -> new BookSitemapItem(row.bookId(), row.slug(), row.title(), row.updatedAt()))
                 .toList();
@@ -115,8 +133,14 @@ public class SitemapService {
         if (safePage > totalPages) {
             return new PagedResult<>(Collections.emptyList(), safePage, totalPages, totalItems);
         }
-        int offset = (safePage - 1) * pageSize;
-        List<AuthorRow> authorRows = sitemapRepository.fetchAuthorsForBucket(bucket, pageSize, offset);
+        AuthorSeekKey after = null;
+        if (safePage > 1) {
+            after = seekKey(getAuthorBucketBoundaries(bucket), safePage);
+            if (after == null) {
+                return new PagedResult<>(Collections.emptyList(), safePage, totalPages, totalItems);
+            }
+        }
+        List<AuthorRow> authorRows = sitemapRepository.fetchAuthorsForBucket(bucket, after, pageSize);
         if (authorRows.isEmpty()) {
             return new PagedResult<>(Collections.emptyList(), safePage, totalPages, totalItems);
         }
@@ -145,6 +169,36 @@ public class SitemapService {
         return cached(booksXmlPageCache, safePage, () -> loadBooksForXmlPage(safePage));
     }
 
+    /**
+     * Hands the rows of one XML page to {@code consumer} in keyset chunks of {@code sitemap.xml-fetch-size} rows.
+     * No transaction is held: each chunk is read and its connection released before the consumer sees it, so a
+     * slow client writing the page out never pins a pooled connection. Already cached pages are replayed from
+     * the cache; streamed pages are not cached.
+     */
+    public void streamBooksForXmlPage(int page, Consumer<BookSitemapItem> consumer) {
+        int safePage = PagingUtils.atLeast(page, 1);
+        Cache.ValueWrapper cachedPage = booksXmlPageCache.get(safePage);
+        if (cachedPage != null && cachedPage.get() instanceof List<?> items) {
+            items.forEach(item -> consumer.accept((BookSitemapItem) item));
+            return;
+        }
+        BookSeekKey after = bookXmlSeekKey(safePage);
+        if (safePage > 1 && after == null) {
+            return;
+        }
+        int remaining = properties.getXmlPageSize();
+        while (remaining > 0) {
+            int chunkSize = Math.min(properties.getXmlFetchSize(), remaining);
+            BookXmlChunk chunk = sitemapRepository.fetchBookXmlChunk(after, chunkSize);
+            chunk.rows().forEach(row -> consumer.accept(new BookSitemapItem(row.bookId(), row.slug(), row.title(), row.updatedAt())));
+            if (chunk.rows().size() < chunkSize) {
+                return;
+            }
+            remaining -= chunkSize;
+            after = chunk.lastKey();
+        }
+    }
+
     public List<AuthorListingDescriptor> listAuthorListingDescriptors() {
         return getAuthorListingDescriptors();
     }
@@ -219,6 +273,8 @@ public class SitemapService {
         clearCache(authorXmlPageCache);
         clearCache(bookPageMetadataCache);
         clearCache(authorPageMetadataCache);
+        clearCache(bookSeekKeysCache);
+        clearCache(authorSeekKeysCache);
     }
 
     public String normalizeBucket(String letter) {
@@ -251,14 +307,26 @@ public class SitemapService {
     }
 
     private List<BookSitemapItem> loadBooksForXmlPage(int page) {
-        int pageSize = properties.getXmlPageSize();
-        int offset = (page - 1) * pageSize;
-        return sitemapRepository.fetchBooksForXml(pageSize, offset)
+        BookSeekKey after = bookXmlSeekKey(page);
+        if (page > 1 && after == null) {
+            return List.of();
+        }
+        return sitemapRepository.fetchBooksForXml(after, properties.getXmlPageSize())
                 .stream()
                 .map(row -> new BookSitemapItem(row.bookId(), row.slug(), row.title(), row.updatedAt()))
                 .toList();
     }
 
+    @Nullable
+    private BookSeekKey bookXmlSeekKey(int page) {
+        if (page <= 1) {
+            return null;
+        }
+        int pageSize = properties.getXmlPageSize();
+        return seekKey(cached(bookSeekKeysCache, "xml",
+                () -> List.copyOf(sitemapRepository.fetchBookXmlPageBoundaries(pageSize))), page);
+    }
+
     private List<AuthorListingXmlItem> loadAuthorListingsForXmlPage(int page) {
         List<AuthorListingDescriptor> descriptors = getAuthorListingDescriptors();
         if (descriptors.isEmpty()) {
@@ -360,6 +428,27 @@ public class SitemapService {
         return List.copyOf(descriptors);
     }
 
+    private List<BookSeekKey> getBookBucketBoundaries(String bucket) {
+        int pageSize = properties.getHtmlPageSize();
+        return cached(bookSeekKeysCache, "bucket:" + bucket,
+                () -> List.copyOf(sitemapRepository.fetchBookBucketPageBoundaries(bucket, pageSize)));
+    }
+
+    private List<AuthorSeekKey> getAuthorBucketBoundaries(String bucket) {
+        int pageSize = properties.getHtmlPageSize();
+        return cached(authorSeekKeysCache, "bucket:" + bucket,
+                () -> List.copyOf(sitemapRepository.fetchAuthorBucketPageBoundaries(bucket, pageSize)));
+    }
+
+    /**
+     * Boundaries hold the last key of each full page, so page {@code n} seeks after entry {@code n - 2}.
+     * Returns {@code null} when the page lies past the data.
+     */
+    private static <K> K seekKey(List<K> boundaries, int page) {
+        int index = page - 2;
+        return index < boundaries.size() ? boundaries.get(index) : null;
+    }
+
     private Cache requireCache(CacheManager cacheManager, String name) {
         Cache cache = cacheManager.getCache(name);
         if (cache == null) {
@@ -393,6 +482,8 @@ public class SitemapService {
         private static final String AUTHOR_XML_PAGE = "sitemapAuthorXmlPage";
         private static final String BOOK_PAGE_METADATA = "sitemapBookPageMetadata";
         private static final String AUTHOR_PAGE_METADATA = "sitemapAuthorPageMetadata";
+        private static final String BOOK_SEEK_KEYS = "sitemapBookSeekKeys";
+        private static final String AUTHOR_SEEK_KEYS = "sitemapAuthorSeekKeys";
 
         private CacheNames() {
         }
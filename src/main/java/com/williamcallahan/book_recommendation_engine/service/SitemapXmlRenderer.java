@@ -0,0 +1,180 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
+import com.williamcallahan.book_recommendation_engine.service.SitemapService.AuthorListingXmlItem;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the XML sitemap index and its book/author urlset pages from {@link SitemapService} data.
+ * <p>
+ * Shared by the live controller path and {@link SitemapArtifactService}, which pre-renders every page.
+ * Book pages are written in keyset chunks read without holding a connection, so memory per document stays bounded
+ * by the fetch size rather than the page size.
+ */
+@Component
+public class SitemapXmlRenderer {
+
+    private static final DateTimeFormatter LAST_MODIFIED_FORMATTER = DateTimeFormatter.ISO_INSTANT;
+
+    private final SitemapService sitemapService;
+    private final SitemapProperties sitemapProperties;
+
+    public SitemapXmlRenderer(SitemapService sitemapService, SitemapProperties sitemapProperties) {
+        this.sitemapService = sitemapService;
+        this.sitemapProperties = sitemapProperties;
+    }
+
+    /**
+     * Writes one sitemap document; nothing is buffered beyond what the target {@link Writer} buffers.
+     */
+    @FunctionalInterface
+    public interface XmlPageWriter {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    public XmlPageWriter index() {
+        return this::writeIndex;
+    }
+
+    /**
+     * @return a writer for the urlset, or empty when {@code page} is outside the current page range
+     */
+    public Optional<XmlPageWriter> booksPage(int page) {
+        int totalPages = sitemapService.getBooksXmlPageCount();
+        if (totalPages == 0 || page < 1 || page > totalPages) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> writeBookUrlSet(page, out));
+    }
+
+    /**
+     * @return a writer for the urlset, or empty when {@code page} is outside the current page range
+     */
+    public Optional<XmlPageWriter> authorsPage(int page) {
+        int totalPages = sitemapService.getAuthorXmlPageCount();
+        if (totalPages == 0 || page < 1 || page > totalPages) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> writeAuthorUrlSet(sitemapService.getAuthorListingsForXmlPage(page), out));
+    }
+
+    private void writeIndex(Writer out) throws IOException {
+        int totalBookPages = sitemapService.getBooksXmlPageCount();
+        int totalAuthorPages = sitemapService.getAuthorXmlPageCount();
+        String baseUrl = sitemapProperties.getBaseUrl();
+
+        Map<Integer, Instant> bookLastModified = sitemapService.getBookSitemapPageMetadata().stream()
+                .collect(Collectors.toMap(
+                        SitemapService.SitemapPageMetadata::page,
+                        SitemapService.SitemapPageMetadata::lastModified,
+                        (a, b) -> b,
+                        LinkedHashMap::new));
+        Map<Integer, Instant> authorLastModified = sitemapService.getAuthorSitemapPageMetadata().stream()
+                .collect(Collectors.toMap(
+                        SitemapService.SitemapPageMetadata::page,
+                        SitemapService.SitemapPageMetadata::lastModified,
+                        (a, b) -> b,
+                        LinkedHashMap::new));
+
+        Instant bookFallback = sitemapService.currentBookFingerprint().lastModified();
+        Instant authorFallback = sitemapService.currentAuthorFingerprint().lastModified();
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        for (int i = 1; i <= totalBookPages; i++) {
+            writeSitemapEntry(out, baseUrl + "/sitemap-xml/books/" + i + ".xml", bookLastModified.getOrDefault(i, bookFallback));
+        }
+        for (int i = 1; i <= totalAuthorPages; i++) {
+            writeSitemapEntry(out, baseUrl + "/sitemap-xml/authors/" + i + ".xml", authorLastModified.getOrDefault(i, authorFallback));
+        }
+        out.write("</sitemapindex>");
+    }
+
+    private void writeSitemapEntry(Writer out, String location, Instant lastModified) throws IOException {
+        out.write("  <sitemap>\n");
+        out.write("    <loc>" + escapeXml(location) + "</loc>\n");
+        out.write("    <lastmod>" + LAST_MODIFIED_FORMATTER.format(lastModified) + "</lastmod>\n");
+        out.write("  </sitemap>\n");
+    }
+
+    private void writeBookUrlSet(int page, Writer out) throws IOException {
+        String baseUrl = sitemapProperties.getBaseUrl();
+        Instant fallback = sitemapService.currentBookFingerprint().lastModified();
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        try {
+            sitemapService.streamBooksForXmlPage(page, item -> {
+                if (item.slug() == null || item.slug().isBlank()) {
+                    return; // Skip items without valid slugs
+                }
+                Instant lastModified = item.updatedAt() != null ? item.updatedAt() : fallback;
+                // Slugs should already be URL-safe, but ensure proper encoding
+                String safeSlug = validateAndEncodeSlug(item.slug());
+                try {
+                    out.write("  <url>\n");
+                    out.write("    <loc>" + escapeXml(baseUrl + "/book/" + safeSlug) + "</loc>\n");
+                    out.write("    <lastmod>" + LAST_MODIFIED_FORMATTER.format(lastModified) + "</lastmod>\n");
+                    out.write("    <changefreq>weekly</changefreq>\n");
+                    out.write("    <priority>0.8</priority>\n");
+                    out.write("  </url>\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write("</urlset>");
+    }
+
+    private void writeAuthorUrlSet(List<AuthorListingXmlItem> items, Writer out) throws IOException {
+        String baseUrl = sitemapProperties.getBaseUrl();
+        Instant fallback = sitemapService.currentAuthorFingerprint().lastModified();
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        for (AuthorListingXmlItem item : items) {
+            Instant lastModified = item.lastModified() != null ? item.lastModified() : fallback;
+            out.write("  <url>\n");
+            out.write("    <loc>" + escapeXml(baseUrl + item.toPath()) + "</loc>\n");
+            out.write("    <lastmod>" + LAST_MODIFIED_FORMATTER.format(lastModified) + "</lastmod>\n");
+            out.write("    <changefreq>daily</changefreq>\n");
+            out.write("    <priority>0.6</priority>\n");
+            out.write("  </url>\n");
+        }
+        out.write("</urlset>");
+    }
+
+    private String validateAndEncodeSlug(String slug) {
+        if (slug == null || slug.isBlank()) {
+            return "unknown";
+        }
+        if (slug.matches("[a-z0-9-]+")) {
+            return slug;
+        }
+        return UriUtils.encodePathSegment(slug, StandardCharsets.UTF_8);
+    }
+
+    private String escapeXml(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;")
+                .replace("\"", "&quot;")
+                .replace("'", "&apos;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+}
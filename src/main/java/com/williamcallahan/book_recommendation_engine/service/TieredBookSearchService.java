@@ -65,13 +65,16 @@ public class TieredBookSearchService {
     private final boolean externalFallbackEnabled;
     private final @Nullable ApplicationEventPublisher eventPublisher;
     private final GoogleBooksMapper googleBooksMapper;
+    private final @Nullable ReactiveSingleFlight singleFlight;
+
     public TieredBookSearchService(BookSearchService bookSearchService,
                             GoogleApiFetcher googleApiFetcher,
                             OpenLibraryBookDataService openLibraryBookDataService,
                             GoogleBooksMapper googleBooksMapper,
                             @Nullable BookQueryRepository bookQueryRepository,
                             @Value("${app.features.external-fallback.enabled:${app.features.google-fallback.enabled:true}}") boolean externalFallbackEnabled,
-                            @Nullable ApplicationEventPublisher eventPublisher) {
+                            @Nullable ApplicationEventPublisher eventPublisher,
+                            @Nullable ReactiveSingleFlight singleFlight) {
         this.bookSearchService = bookSearchService;
         this.googleApiFetcher = googleApiFetcher;
         this.openLibraryBookDataService = openLibraryBookDataService;
@@ -79,6 +82,7 @@ public class TieredBookSearchService {
         this.bookQueryRepository = bookQueryRepository;
         this.externalFallbackEnabled = externalFallbackEnabled;
         this.eventPublisher = eventPublisher;
+        this.singleFlight = singleFlight;
     }
 
     /**
@@ -102,6 +106,9 @@ public class TieredBookSearchService {
     }
 
     /**
+     * Concurrent identical searches (same canonical query, language, size, order and bypass flag) share one
+     * pipeline: late subscribers get the results emitted so far replayed, and progress events fire once.
+     *
      * @deprecated Stream DTOs via repository-backed queries rather than legacy {@link Book} flows.
      */
     @Deprecated(since = "2025-10-01", forRemoval = true)
@@ -110,6 +117,20 @@ public class TieredBookSearchService {
                              int desiredTotalResults,
                              String orderBy,
                              boolean bypassExternalApis) {
+        if (singleFlight == null) {
+            return runSearch(query, langCode, desiredTotalResults, orderBy, bypassExternalApis);
+        }
+        String flightKey = SearchQueryUtils.cacheKey(query, langCode) + '|' + desiredTotalResults
+            + '|' + orderBy + '|' + bypassExternalApis;
+        return singleFlight.flux("tiered-search", flightKey,
+            () -> runSearch(query, langCode, desiredTotalResults, orderBy, bypassExternalApis), Book::copy);
+    }
+
+    private Flux<Book> runSearch(String query,
+                                 String langCode,
+                                 int desiredTotalResults,
+                                 String orderBy,
+                                 boolean bypassExternalApis) {
         LOGGER.debug("TieredBookSearch: Starting stream for query='{}', lang={}, total={}, order={}, bypassExternal={}",
             query, langCode, desiredTotalResults, orderBy, bypassExternalApis);
 
@@ -361,7 +382,7 @@ public class TieredBookSearchService {
             BookAggregate aggregate = googleBooksMapper.map(node);
             Book book = BookDomainMapper.fromAggregate(aggregate);
             if (book != null) {
-                book.setRawJsonResponse(node.toString());
+                book.setRawJsonNode(node);
             }
             return book;
         } catch (Exception ex) {
@@ -652,7 +652,8 @@ public class BookCoverManagementService {
                                             s3UploadedDetails.getUrlOrPath(),
                                             s3UploadedDetails.getWidth(),
                                             s3UploadedDetails.getHeight(),
-                                            sanitizedSource
+                                            sanitizedSource,
+                                            s3UploadedDetails.getDerivatives()
                                         );
                                         if (!persistenceResult.success()) {
                                             log.warn("CoverPersistenceService reported no update after S3 upload for {}", identifierKey);
@@ -836,7 +837,8 @@ public class BookCoverManagementService {
                             s3Url,
                             s3ImageDetails.getWidth(),
                             s3ImageDetails.getHeight(),
-                            sanitizedSource
+                            sanitizedSource,
+                            s3ImageDetails.getDerivatives()
                         );
                         if (!persistenceResult.success()) {
                             log.warn("Bug #4: CoverPersistenceService did not persist migration for book {}", bookId);
@@ -0,0 +1,127 @@
+package com.williamcallahan.book_recommendation_engine.service.image;
+
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Index of content-addressed cover objects stored in S3.
+ * - Maps the SHA-256 of a processed cover to the S3 object of each of its tiers ({@code s3_cover_blobs})
+ * - Maps the SHA-256 of a downloaded original to the processed cover it produced ({@code s3_cover_blob_originals})
+ *
+ * Lookups are an optimization: without a database, or when a query fails, they report a miss
+ * and the caller processes and uploads as if the cover were new. All methods block; call them off event loops.
+ *
+ * @author William Callahan
+ */
+@Service
+public class CoverBlobIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverBlobIndex.class);
+
+    private static final RowMapper<StoredTier> STORED_TIER_MAPPER = (rs, rowNum) -> new StoredTier(
+        CoverTier.valueOf(rs.getString("tier")),
+        rs.getString("s3_key"),
+        rs.getInt("width"),
+        rs.getInt("height"),
+        rs.getLong("content_length"));
+
+    private final @Nullable JdbcTemplate jdbcTemplate;
+
+    public CoverBlobIndex(@Nullable JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One stored tier of a content-addressed cover.
+     *
+     * @param tier Resolution tier
+     * @param s3Key S3 object key of the blob
+     * @param width Width in pixels
+     * @param height Height in pixels
+     * @param contentLength Object size in bytes
+     */
+    public record StoredTier(CoverTier tier, String s3Key, int width, int height, long contentLength) {}
+
+    /**
+     * @param contentHash SHA-256 hex digest of a processed primary cover
+     * @return Stored tiers of that cover, or empty if it has not been stored
+     */
+    public List<StoredTier> findByContentHash(String contentHash) {
+        if (jdbcTemplate == null || contentHash == null) {
+            return List.of();
+        }
+        try {
+            return jdbcTemplate.query(
+                "SELECT tier, s3_key, width, height, content_length FROM s3_cover_blobs WHERE content_hash = ?",
+                STORED_TIER_MAPPER, contentHash);
+        } catch (DataAccessException e) {
+            logger.warn("Cover blob lookup failed for content hash {}; treating as new: {}", contentHash, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * @param originalHash SHA-256 hex digest of downloaded image bytes
+     * @return Stored tiers of the cover this original was processed into, or empty if it has not been seen
+     */
+    public List<StoredTier> findByOriginalHash(String originalHash) {
+        if (jdbcTemplate == null || originalHash == null) {
+            return List.of();
+        }
+        try {
+            return jdbcTemplate.query(
+                "SELECT b.tier, b.s3_key, b.width, b.height, b.content_length " +
+                "FROM s3_cover_blob_originals o JOIN s3_cover_blobs b ON b.content_hash = o.content_hash " +
+                "WHERE o.original_hash = ?",
+                STORED_TIER_MAPPER, originalHash);
+        } catch (DataAccessException e) {
+            logger.warn("Cover blob lookup failed for original hash {}; processing download: {}", originalHash, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Records the tiers just uploaded for a processed cover.
+     */
+    public void recordBlob(String contentHash, List<StoredTier> tiers) {
+        if (jdbcTemplate == null || tiers.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO s3_cover_blobs (content_hash, tier, s3_key, width, height, content_length) VALUES (?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT (content_hash, tier) DO NOTHING",
+                tiers.stream()
+                    .map(stored -> new Object[] {
+                        contentHash, stored.tier().name(), stored.s3Key(), stored.width(), stored.height(), stored.contentLength()
+                    })
+                    .toList());
+        } catch (DataAccessException e) {
+            logger.warn("Failed to index cover blob {}; identical covers will be uploaded again: {}", contentHash, e.getMessage());
+        }
+    }
+
+    /**
+     * Records that a downloaded original processes into the given cover.
+     */
+    public void recordOriginal(String originalHash, String contentHash) {
+        if (jdbcTemplate == null || originalHash == null) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO s3_cover_blob_originals (original_hash, content_hash) VALUES (?, ?) ON CONFLICT (original_hash) DO NOTHING",
+                originalHash, contentHash);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to index original {} for cover blob {}: {}", originalHash, contentHash, e.getMessage());
+        }
+    }
+}
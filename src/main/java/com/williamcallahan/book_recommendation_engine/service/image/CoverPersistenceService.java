@@ -1,14 +1,18 @@
 package com.williamcallahan.book_recommendation_engine.service.image;
 
+import com.williamcallahan.book_recommendation_engine.model.image.CoverDerivative;
 import com.williamcallahan.book_recommendation_engine.model.image.CoverImageSource;
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
 import com.williamcallahan.book_recommendation_engine.util.IdGenerator;
 import com.williamcallahan.book_recommendation_engine.util.UrlUtils;
 import com.williamcallahan.book_recommendation_engine.util.cover.ImageDimensionUtils;
+import com.williamcallahan.book_recommendation_engine.util.cover.S3KeyGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -153,6 +157,35 @@ public class CoverPersistenceService {
         Integer width,
         Integer height,
         CoverImageSource source
+    ) {
+        return updateAfterS3Upload(bookId, s3Key, s3CdnUrl, width, height, source, List.of());
+    }
+
+    /**
+     * Updates cover metadata after an S3 upload that also stored smaller resolution tiers.
+     * 
+     * Each derivative is recorded under its tier's image_type so card views can select it.
+     * Tiers without a derivative are cleared, so a view never pairs a new primary cover
+     * with a stale derivative of a previous one.
+     * 
+     * @param bookId Canonical book UUID
+     * @param s3Key S3 object key of the primary cover
+     * @param s3CdnUrl Full CDN URL for the primary cover
+     * @param width Actual detected width
+     * @param height Actual detected height
+     * @param source Original source that provided the image
+     * @param derivatives Smaller tiers uploaded with the primary cover
+     * @return PersistenceResult for the primary cover
+     */
+    @Transactional
+    public PersistenceResult updateAfterS3Upload(
+        UUID bookId,
+        String s3Key,
+        String s3CdnUrl,
+        Integer width,
+        Integer height,
+        CoverImageSource source,
+        List<CoverDerivative> derivatives
     ) {
         if (s3Key == null || s3CdnUrl == null) {
             log.warn("Cannot update cover for book {}: S3 key or URL is null", bookId);
@@ -163,10 +196,11 @@ public class CoverPersistenceService {
 
         try {
             // Upsert book_image_links with actual S3 URL and dimensions, including S3 path
-            upsertImageLink(bookId, "large", s3CdnUrl, source.name(), width, height, highRes, s3Key);
+            upsertImageLink(bookId, CoverTier.LARGE.getImageType(), s3CdnUrl, source.name(), width, height, highRes, s3Key);
 
-            // Update books table with S3 CDN URL as primary cover
+            // Update books table with S3 CDN URL as primary cover, then record the new derivatives
             updateBookCoverPath(bookId, s3CdnUrl);
+            persistDerivatives(bookId, source, derivatives);
             
             log.info("Updated cover metadata for book {} after S3 upload: {} ({}x{}, highRes={})",
                 bookId, s3Key, width, height, highRes);
@@ -243,6 +277,7 @@ public class CoverPersistenceService {
     /**
      * Internal method to upsert a row in book_image_links with optional S3 path.
      * Handles conflict resolution with ON CONFLICT DO UPDATE.
+     * Content-addressed S3 paths also record their content hash, linking books that share a cover object.
      */
     private void upsertImageLink(
         UUID bookId,
@@ -257,9 +292,9 @@ public class CoverPersistenceService {
         jdbcTemplate.update("""
             INSERT INTO book_image_links (
                 id, book_id, image_type, url, source,
-                width, height, is_high_resolution, s3_image_path, created_at
+                width, height, is_high_resolution, s3_image_path, content_hash, created_at
             )
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())
             ON CONFLICT (book_id, image_type) DO UPDATE SET
                 url = EXCLUDED.url,
                 source = EXCLUDED.source,
@@ -267,6 +302,7 @@ public class CoverPersistenceService {
                 height = EXCLUDED.height,
                 is_high_resolution = EXCLUDED.is_high_resolution,
                 s3_image_path = EXCLUDED.s3_image_path,
+                content_hash = EXCLUDED.content_hash,
                 created_at = NOW()
             """,
             IdGenerator.generate(),
@@ -277,13 +313,34 @@ public class CoverPersistenceService {
             width,
             height,
             highRes,
-            s3ImagePath
+            s3ImagePath,
+            S3KeyGenerator.extractContentHash(s3ImagePath)
         );
     }
     
+    private void persistDerivatives(UUID bookId, CoverImageSource source, List<CoverDerivative> derivatives) {
+        for (CoverTier tier : CoverTier.values()) {
+            if (tier == CoverTier.LARGE) {
+                continue;
+            }
+            CoverDerivative derivative = derivatives == null ? null : derivatives.stream()
+                .filter(candidate -> candidate.tier() == tier)
+                .findFirst()
+                .orElse(null);
+            if (derivative == null) {
+                continue;
+            }
+            upsertImageLink(bookId, tier.getImageType(), derivative.url(), source.name(),
+                derivative.width(), derivative.height(), false, derivative.storageKey());
+        }
+    }
+
     /**
      * Updates the books.s3_image_path column with the canonical cover URL.
      * This column serves as the primary cover reference for the book.
+     * 
+     * Derivative tiers were scaled from the previous primary, and card views prefer them over
+     * s3_image_path, so they are dropped here; the S3 upload path records fresh ones afterwards.
      */
     private void updateBookCoverPath(UUID bookId, String coverUrl) {
         try {
@@ -292,6 +349,11 @@ public class CoverPersistenceService {
                 coverUrl,
                 bookId
             );
+            for (CoverTier tier : CoverTier.values()) {
+                if (tier != CoverTier.LARGE) {
+                    jdbcTemplate.update("DELETE FROM book_image_links WHERE book_id = ? AND image_type = ?", bookId, tier.getImageType());
+                }
+            }
         } catch (Exception e) {
             log.warn("Failed to update books.s3_image_path for book {}: {}", bookId, e.getMessage());
         }
@@ -727,7 +727,7 @@ public class CoverSourceFetchingService {
             BookAggregate aggregate = googleBooksMapper.map(node);
             Book book = BookDomainMapper.fromAggregate(aggregate);
             if (book != null) {
-                book.setRawJsonResponse(node.toString());
+                book.setRawJsonNode(node);
             }
             return book;
         } catch (Exception ex) {
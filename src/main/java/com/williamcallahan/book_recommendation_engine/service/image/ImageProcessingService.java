@@ -1,5 +1,6 @@
 package com.williamcallahan.book_recommendation_engine.service.image;
 
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
 import com.williamcallahan.book_recommendation_engine.model.image.ProcessedImage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,15 +8,27 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
 import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -28,6 +41,7 @@ import java.util.concurrent.CompletableFuture;
  * - Preserves aspect ratio during resizing operations
  * - Converts images to consistent color format (RGB)
  * - Compresses to JPEG format with configurable quality
+ * - Produces smaller resolution tiers (see {@link CoverTier}) from the same decode
  * - Prevents upscaling of small images to maintain quality
  * - Provides detailed processing logs for troubleshooting
  * - Returns standardized result object with success/failure info
@@ -36,7 +50,7 @@ import java.util.concurrent.CompletableFuture;
 public class ImageProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageProcessingService.class);
-    private static final int TARGET_WIDTH = 800; // Target width for resizing
+    private static final int TARGET_WIDTH = CoverTier.LARGE.getMaxWidth(); // Target width for resizing
     private static final float JPEG_QUALITY = 0.85f; // Standard JPEG quality
     private static final int MIN_ACCEPTABLE_DIMENSION = 50; // Reject if smaller than this
     private static final int NO_UPSCALE_THRESHOLD_WIDTH = 300; // Don't upscale if original is smaller than this
@@ -54,13 +68,14 @@ public class ImageProcessingService {
      * @return ProcessedImage containing the processed bytes or failure details
      * 
      * @implNote Processing workflow:
-     * 1. Validates input bytes are valid image data
-     * 2. Converts to standardized RGB color space
-     * 3. Checks if image meets minimum size requirements
-     * 4. Determines if resizing is needed based on configurable thresholds
-     * 5. Resizes if necessary while maintaining aspect ratio
-     * 6. Compresses to JPEG with optimized quality settings
-     * 7. Returns complete result object with metadata or error details
+     * 1. Reads dimensions from the image header without decoding pixels
+     * 2. Rejects placeholder-sized images before any decode
+     * 3. Decodes straight into RGB, subsampling at the source when the image is at least twice TARGET_WIDTH
+     * 4. Checks the image is not predominantly white (likely not a cover)
+     * 5. Determines if resizing is needed based on configurable thresholds
+     * 6. Resizes the remainder if necessary while maintaining aspect ratio
+     * 7. Compresses to JPEG with optimized quality settings and returns the result or error details
+     * 8. Scales the output down to each smaller {@link CoverTier} and attaches those as derivatives
      */
     @Async("imageProcessingExecutor") // Offload CPU-intensive work to dedicated executor
     public CompletableFuture<ProcessedImage> processImageForS3(byte[] rawImageBytes, String bookIdForLog) {
@@ -69,83 +84,164 @@ public class ImageProcessingService {
             return CompletableFuture.completedFuture(ProcessedImage.failure("Raw image bytes null or empty"));
         }
 
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(rawImageBytes)) {
-            BufferedImage rawOriginalImage = ImageIO.read(bais);
-            if (rawOriginalImage == null) {
-                logger.warn("Book ID {}: Could not read raw bytes into a BufferedImage. Image format might be unsupported or corrupt.", bookIdForLog);
+        try (ImageInputStream iis = new MemoryCacheImageInputStream(new ByteArrayInputStream(rawImageBytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                logger.warn("Book ID {}: No ImageReader for raw bytes. Image format might be unsupported or corrupt.", bookIdForLog);
                 return CompletableFuture.completedFuture(ProcessedImage.failure("Unsupported or corrupt image format"));
             }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                return CompletableFuture.completedFuture(processImage(reader, bookIdForLog));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            logger.error("Book ID {}: IOException during image processing: {}", bookIdForLog, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ProcessedImage.failure("IOException during image processing: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Book ID {}: Unexpected exception during image processing: {}", bookIdForLog, e.getMessage(), e);
+            return CompletableFuture.completedFuture(ProcessedImage.failure("Unexpected error during image processing: " + e.getMessage()));
+        }
+    }
 
-            // Convert to a standard RGB colorspace to avoid issues with JPEG writer and for consistent analysis
-            BufferedImage originalImage = new BufferedImage(rawOriginalImage.getWidth(), rawOriginalImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-            Graphics2D g = originalImage.createGraphics();
-            g.drawImage(rawOriginalImage, 0, 0, null);
-            g.dispose();
+    private ProcessedImage processImage(ImageReader reader, String bookIdForLog) throws IOException {
+        // Header-only probe: no pixels are decoded until the image is known to be worth processing
+        int originalWidth = reader.getWidth(0);
+        int originalHeight = reader.getHeight(0);
 
-            int originalWidth = originalImage.getWidth();
-            int originalHeight = originalImage.getHeight();
+        // Reject obviously invalid images (1x1 placeholders from OpenLibrary, etc.)
+        if (originalWidth <= 5 || originalHeight <= 5) {
+            logger.warn("Book ID {}: Image dimensions ({}x{}) are suspiciously small (≤5px). Likely a placeholder. REJECTED.", 
+                bookIdForLog, originalWidth, originalHeight);
+            return ProcessedImage.failure("PlaceholderImage_TooSmall");
+        }
 
-            // Reject obviously invalid images (1x1 placeholders from OpenLibrary, etc.)
-            if (originalWidth <= 5 || originalHeight <= 5) {
-                logger.warn("Book ID {}: Image dimensions ({}x{}) are suspiciously small (≤5px). Likely a placeholder. REJECTED.", 
-                    bookIdForLog, originalWidth, originalHeight);
-                return CompletableFuture.completedFuture(ProcessedImage.failure("PlaceholderImage_TooSmall"));
-            }
+        // Largest whole subsampling factor that still leaves at least TARGET_WIDTH columns to scale down from
+        int subsampling = originalWidth > TARGET_WIDTH ? originalWidth / TARGET_WIDTH : 1;
+        BufferedImage decodedImage = decode(reader, subsampling);
 
-            // Perform dominant color check
-            if (isDominantlyWhite(originalImage, bookIdForLog)) {
-                logger.warn("Book ID {}: Image is predominantly white. Flagged as likely not a cover.", bookIdForLog);
-                return CompletableFuture.completedFuture(ProcessedImage.failure("LikelyNotACover_DominantColor"));
-            }
+        // Perform dominant color check, keeping roughly the same pixel spacing in the original image
+        if (isDominantlyWhite(decodedImage, bookIdForLog, Math.max(1, DOMINANT_COLOR_SAMPLE_STEP / subsampling))) {
+            logger.warn("Book ID {}: Image is predominantly white. Flagged as likely not a cover.", bookIdForLog);
+            return ProcessedImage.failure("LikelyNotACover_DominantColor");
+        }
 
-            if (originalWidth < MIN_ACCEPTABLE_DIMENSION || originalHeight < MIN_ACCEPTABLE_DIMENSION) {
-                logger.warn("Book ID {}: Original image dimensions ({}x{}) are below the minimum acceptable ({}x{}). Will process but quality will be low.", 
-                    bookIdForLog, originalWidth, originalHeight, MIN_ACCEPTABLE_DIMENSION, MIN_ACCEPTABLE_DIMENSION);
-                // Still attempt to compress it, but don't resize.
-                // Note: originalImage is already in TYPE_INT_RGB here
-                return CompletableFuture.completedFuture(compressOriginal(originalImage, bookIdForLog, originalWidth, originalHeight));
-            }
+        if (originalWidth < MIN_ACCEPTABLE_DIMENSION || originalHeight < MIN_ACCEPTABLE_DIMENSION) {
+            logger.warn("Book ID {}: Original image dimensions ({}x{}) are below the minimum acceptable ({}x{}). Will process but quality will be low.", 
+                bookIdForLog, originalWidth, originalHeight, MIN_ACCEPTABLE_DIMENSION, MIN_ACCEPTABLE_DIMENSION);
+            // Still attempt to compress it, but don't resize.
+            // Note: decodedImage was not subsampled at this size
+            return compressOriginal(toEncodableRgb(decodedImage), bookIdForLog, originalWidth, originalHeight);
+        }
 
-            int newWidth;
-            int newHeight;
-
-            if (originalWidth <= NO_UPSCALE_THRESHOLD_WIDTH) {
-                // If image is already small, don't upscale. Use original dimensions.
-                newWidth = originalWidth;
-                newHeight = originalHeight;
-                logger.debug("Book ID {}: Image width ({}) is below no-upscale threshold ({}). Using original dimensions for processing.", 
-                    bookIdForLog, originalWidth, NO_UPSCALE_THRESHOLD_WIDTH);
-            } else if (originalWidth > TARGET_WIDTH) {
-                // Resize to TARGET_WIDTH if wider, maintaining aspect ratio
-                newWidth = TARGET_WIDTH;
-                newHeight = (int) Math.round(((double) originalHeight / originalWidth) * newWidth);
-                logger.debug("Book ID {}: Resizing image from {}x{} to {}x{}.", 
-                    bookIdForLog, originalWidth, originalHeight, newWidth, newHeight);
-            } else {
-                // Image is between NO_UPSCALE_THRESHOLD_WIDTH and TARGET_WIDTH, or exactly TARGET_WIDTH. Use original dimensions.
-                newWidth = originalWidth;
-                newHeight = originalHeight;
-                logger.debug("Book ID {}: Image width ({}) is acceptable. Using original dimensions {}x{} for processing.", 
-                    bookIdForLog, originalWidth, newWidth, newHeight);
+        int newWidth;
+        int newHeight;
+
+        if (originalWidth <= NO_UPSCALE_THRESHOLD_WIDTH) {
+            // If image is already small, don't upscale. Use original dimensions.
+            newWidth = originalWidth;
+            newHeight = originalHeight;
+            logger.debug("Book ID {}: Image width ({}) is below no-upscale threshold ({}). Using original dimensions for processing.", 
+                bookIdForLog, originalWidth, NO_UPSCALE_THRESHOLD_WIDTH);
+        } else if (originalWidth > TARGET_WIDTH) {
+            // Resize to TARGET_WIDTH if wider, maintaining aspect ratio
+            newWidth = TARGET_WIDTH;
+            newHeight = (int) Math.round(((double) originalHeight / originalWidth) * newWidth);
+            logger.debug("Book ID {}: Resizing image from {}x{} (decoded at 1/{} as {}x{}) to {}x{}.", 
+                bookIdForLog, originalWidth, originalHeight, subsampling, decodedImage.getWidth(), decodedImage.getHeight(), newWidth, newHeight);
+        } else {
+            // Image is between NO_UPSCALE_THRESHOLD_WIDTH and TARGET_WIDTH, or exactly TARGET_WIDTH. Use original dimensions.
+            newWidth = originalWidth;
+            newHeight = originalHeight;
+            logger.debug("Book ID {}: Image width ({}) is acceptable. Using original dimensions {}x{} for processing.", 
+                bookIdForLog, originalWidth, newWidth, newHeight);
+        }
+
+        // Resizing draws the decoded pixels straight into the output, so only unresized images may need an RGB copy
+        BufferedImage outputImage = toEncodableRgb(decodedImage);
+        if (newWidth != decodedImage.getWidth() || newHeight != decodedImage.getHeight()) { // Only resize if dimensions changed
+             outputImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB); // For JPEG, ensure no alpha
+             Graphics2D g2d = outputImage.createGraphics();
+             g2d.drawImage(decodedImage, 0, 0, newWidth, newHeight, null);
+             g2d.dispose();
+        }
+
+        return withDerivatives(compressImageToJpeg(outputImage, bookIdForLog, newWidth, newHeight), outputImage, bookIdForLog);
+    }
+
+    /**
+     * Scales the processed output down to every tier narrower than it, reusing the decoded pixels.
+     *
+     * @param processed The compressed primary image
+     * @param outputImage The pixels the primary image was compressed from
+     * @param bookIdForLog Book identifier for logging purposes
+     * @return The processed image with derivatives attached, or unchanged when no tier is narrower
+     * @throws IOException If compression fails
+     */
+    private ProcessedImage withDerivatives(ProcessedImage processed, BufferedImage outputImage, String bookIdForLog) throws IOException {
+        if (!processed.isProcessingSuccessful()) {
+            return processed;
+        }
+        List<ProcessedImage.Derivative> derivatives = new ArrayList<>();
+        for (CoverTier tier : CoverTier.values()) {
+            if (tier == CoverTier.LARGE || outputImage.getWidth() <= tier.getMaxWidth()) {
+                continue; // Never upscale; the primary image already serves this tier
             }
-            
-            BufferedImage outputImage = originalImage;
-            if (newWidth != originalWidth || newHeight != originalHeight) { // Only resize if dimensions changed
-                 outputImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB); // For JPEG, ensure no alpha
-                 Graphics2D g2d = outputImage.createGraphics();
-                 g2d.drawImage(originalImage, 0, 0, newWidth, newHeight, null);
-                 g2d.dispose();
+            int width = tier.getMaxWidth();
+            int height = Math.max(1, (int) Math.round(((double) outputImage.getHeight() / outputImage.getWidth()) * width));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(outputImage, 0, 0, width, height, null);
+            g.dispose();
+
+            ProcessedImage encoded = compressImageToJpeg(scaled, bookIdForLog, width, height);
+            if (encoded.isProcessingSuccessful()) {
+                derivatives.add(new ProcessedImage.Derivative(tier, encoded.getProcessedBytes(), width, height));
             }
+        }
+        return derivatives.isEmpty() ? processed : processed.withDerivatives(derivatives);
+    }
 
-            return CompletableFuture.completedFuture(compressImageToJpeg(outputImage, bookIdForLog, newWidth, newHeight));
+    /**
+     * Decodes the first image of the reader's input in the reader's own image type.
+     * The JDK JPEG reader only offers TYPE_3BYTE_BGR and TYPE_BYTE_GRAY, so the dominant color check
+     * reads that layout directly instead of converting every cover first.
+     *
+     * @param reader Reader with its input already set
+     * @param subsampling Source subsampling factor in both directions; 1 decodes every pixel
+     * @return The decoded image
+     * @throws IOException If decoding fails
+     */
+    static BufferedImage decode(ImageReader reader, int subsampling) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        if (subsampling > 1) {
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        }
+        return reader.read(0, param);
+    }
 
-        } catch (IOException e) {
-            logger.error("Book ID {}: IOException during image processing: {}", bookIdForLog, e.getMessage(), e);
-            return CompletableFuture.completedFuture(ProcessedImage.failure("IOException during image processing: " + e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Book ID {}: Unexpected exception during image processing: {}", bookIdForLog, e.getMessage(), e);
-            return CompletableFuture.completedFuture(ProcessedImage.failure("Unexpected error during image processing: " + e.getMessage()));
+    /**
+     * Returns an image the JPEG writer encodes as RGB without surprises.
+     * TYPE_INT_RGB and TYPE_3BYTE_BGR (what JPEG decodes to) are returned as is; anything else,
+     * such as grayscale or images with alpha, is copied into TYPE_INT_RGB.
+     *
+     * @param decoded The decoded image
+     * @return The same image, or an RGB copy of it
+     */
+    static BufferedImage toEncodableRgb(BufferedImage decoded) {
+        if (decoded.getType() == BufferedImage.TYPE_INT_RGB || decoded.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return decoded;
         }
+
+        // Convert to a standard RGB colorspace to avoid issues with JPEG writer
+        BufferedImage rgb = new BufferedImage(decoded.getWidth(), decoded.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(decoded, 0, 0, null);
+        g.dispose();
+        return rgb;
     }
 
     /**
@@ -203,9 +299,10 @@ public class ImageProcessingService {
      *
      * @param image The image to check
      * @param bookIdForLog Book identifier for logging
+     * @param sampleStep Distance between sampled pixels; smaller for images decoded with source subsampling
      * @return True if the image is predominantly white, false otherwise
      */
-    private boolean isDominantlyWhite(BufferedImage image, String bookIdForLog) {
+    private boolean isDominantlyWhite(BufferedImage image, String bookIdForLog, int sampleStep) {
         if (image == null) {
             return false;
         }
@@ -215,12 +312,41 @@ public class ImageProcessingService {
         long whitePixelCount = 0;
         long sampledPixelCount = 0;
 
-        for (int y = 0; y < height; y += DOMINANT_COLOR_SAMPLE_STEP) {
-            for (int x = 0; x < width; x += DOMINANT_COLOR_SAMPLE_STEP) {
-                int rgb = image.getRGB(x, y);
-                int r = (rgb >> 16) & 0xFF;
-                int g = (rgb >> 8) & 0xFF;
-                int b = rgb & 0xFF;
+        // Read TYPE_INT_RGB and TYPE_3BYTE_BGR pixels straight from the backing array instead of a
+        // color-model lookup per getRGB call
+        int[] pixels = null;
+        byte[] bgr = null;
+        int scanlineStride = width;
+        if (image.getType() == BufferedImage.TYPE_INT_RGB
+                && image.getRaster().getDataBuffer() instanceof DataBufferInt dataBuffer
+                && image.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel) {
+            pixels = dataBuffer.getData();
+            scanlineStride = sampleModel.getScanlineStride();
+        } else if (image.getType() == BufferedImage.TYPE_3BYTE_BGR
+                && image.getRaster().getDataBuffer() instanceof DataBufferByte dataBuffer
+                && image.getSampleModel() instanceof PixelInterleavedSampleModel sampleModel
+                && sampleModel.getPixelStride() == 3) {
+            bgr = dataBuffer.getData();
+            scanlineStride = sampleModel.getScanlineStride();
+        }
+
+        for (int y = 0; y < height; y += sampleStep) {
+            int rowStart = y * scanlineStride;
+            for (int x = 0; x < width; x += sampleStep) {
+                int r;
+                int g;
+                int b;
+                if (bgr != null) {
+                    int offset = rowStart + x * 3;
+                    b = bgr[offset] & 0xFF;
+                    g = bgr[offset + 1] & 0xFF;
+                    r = bgr[offset + 2] & 0xFF;
+                } else {
+                    int rgb = pixels != null ? pixels[rowStart + x] : image.getRGB(x, y);
+                    r = (rgb >> 16) & 0xFF;
+                    g = (rgb >> 8) & 0xFF;
+                    b = rgb & 0xFF;
+                }
 
                 if (r >= WHITE_THRESHOLD_RGB && g >= WHITE_THRESHOLD_RGB && b >= WHITE_THRESHOLD_RGB) {
                     whitePixelCount++;
@@ -261,27 +387,42 @@ public class ImageProcessingService {
             return false; // Or throw an IllegalArgumentException, depending on desired strictness
         }
 
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(rawImageBytes)) {
-            BufferedImage rawOriginalImage = ImageIO.read(bais);
-            if (rawOriginalImage == null) {
-                logger.warn("Image ID {}: Could not read raw bytes into a BufferedImage for dominant white check. Image format might be unsupported or corrupt.", imageIdForLog);
-                return false; // Consider this not dominantly white, or handle as an error
-            }
-
-            // Convert to a standard RGB colorspace for consistent analysis
-            BufferedImage imageInRGB = new BufferedImage(rawOriginalImage.getWidth(), rawOriginalImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-            Graphics2D g = imageInRGB.createGraphics();
-            g.drawImage(rawOriginalImage, 0, 0, null);
-            g.dispose();
-
-            return isDominantlyWhite(imageInRGB, imageIdForLog);
+        return isDominantlyWhite(new ByteArrayInputStream(rawImageBytes), imageIdForLog);
+    }
 
+    /**
+     * Streaming variant of {@link #isDominantlyWhite(byte[], String)} for bulk audits.
+     * Decodes with source subsampling at the sample step, so only the pixels the check reads are kept in memory
+     * and the stream is never buffered into a byte array.
+     *
+     * @param imageStream Image content; not closed by this method
+     * @param imageIdForLog Identifier for logging (e.g., S3 key)
+     * @return True if the image is predominantly white, false otherwise. Returns false if image can't be read.
+     */
+    public boolean isDominantlyWhite(InputStream imageStream, String imageIdForLog) {
+        if (imageStream == null) {
+            return false;
+        }
+        // In-memory cache instead of ImageIO's temp file cache; forward-only reads let it discard consumed bytes
+        try (ImageInputStream iis = new MemoryCacheImageInputStream(imageStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                logger.warn("Image ID {}: No ImageReader for stream during dominant white check. Image format might be unsupported or corrupt.", imageIdForLog);
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                return isDominantlyWhite(decode(reader, DOMINANT_COLOR_SAMPLE_STEP), imageIdForLog, 1);
+            } finally {
+                reader.dispose();
+            }
         } catch (IOException e) {
-            logger.error("Image ID {}: IOException during dominant white check from bytes: {}", imageIdForLog, e.getMessage(), e);
-            return false; // Treat as not dominantly white in case of error, or rethrow
+            logger.error("Image ID {}: IOException during streaming dominant white check: {}", imageIdForLog, e.getMessage(), e);
+            return false;
         } catch (Exception e) {
-            logger.error("Image ID {}: Unexpected exception during dominant white check from bytes: {}", imageIdForLog, e.getMessage(), e);
-            return false; // Treat as not dominantly white, or rethrow
+            logger.error("Image ID {}: Unexpected exception during streaming dominant white check: {}", imageIdForLog, e.getMessage(), e);
+            return false;
         }
     }
 }
@@ -7,21 +7,26 @@
  * - Provides durable object storage for book cover images
  * - Manages image uploading and URL generation
  * - Implements in-memory caching for optimized performance
- * - Supports multiple resolution variants of cover images
+ * - Supports multiple resolution variants of cover images, stored as {@link CoverTier} derivatives
+ * - Stores each distinct cover once under a content hash key; book keys alias the shared object
  * - Handles image metadata and resolution preferences
  * - Integrates with content delivery networks for fast global access
  */
 package com.williamcallahan.book_recommendation_engine.service.image;
 
 import com.williamcallahan.book_recommendation_engine.model.Book;
+import com.williamcallahan.book_recommendation_engine.model.image.CoverDerivative;
 import com.williamcallahan.book_recommendation_engine.model.image.CoverImageSource;
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
 import com.williamcallahan.book_recommendation_engine.model.image.ImageDetails;
 import com.williamcallahan.book_recommendation_engine.model.image.ImageProvenanceData;
 import com.williamcallahan.book_recommendation_engine.model.image.ImageResolutionPreference;
 import com.williamcallahan.book_recommendation_engine.model.image.ProcessedImage;
+import com.williamcallahan.book_recommendation_engine.util.HashUtils;
 import com.williamcallahan.book_recommendation_engine.util.ValidationUtils;
 import com.williamcallahan.book_recommendation_engine.util.cover.CoverIdentifierResolver;
 import com.williamcallahan.book_recommendation_engine.util.cover.CoverSourceMapper;
+import com.williamcallahan.book_recommendation_engine.util.cover.S3KeyGenerator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +42,7 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
 
 import jakarta.annotation.PreDestroy;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import com.github.benmanes.caffeine.cache.Cache;
@@ -45,12 +51,14 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 @Service
 public class S3BookCoverService implements ExternalCoverService {
     private static final Logger logger = LoggerFactory.getLogger(S3BookCoverService.class);
     private static final String COVER_IMAGES_DIRECTORY = "images/book-covers/";
-    private static final String LARGE_SUFFIX = "-lg";
     
     @Value("${s3.bucket-name}")
     private String s3BucketName;
@@ -79,15 +87,21 @@ public class S3BookCoverService implements ExternalCoverService {
     private final S3Client s3Client;
     private final WebClient webClient;
     private final ImageProcessingService imageProcessingService;
+    private final S3CoverManifest coverManifest;
+    private final CoverBlobIndex coverBlobIndex;
 
     private final Cache<String, Boolean> objectExistsCache;
 
     public S3BookCoverService(WebClient.Builder webClientBuilder,
                                ImageProcessingService imageProcessingService,
-                               S3Client s3Client) {
+                               S3Client s3Client,
+                               S3CoverManifest coverManifest,
+                               CoverBlobIndex coverBlobIndex) {
         this.webClient = webClientBuilder.build();
         this.imageProcessingService = imageProcessingService;
         this.s3Client = s3Client;
+        this.coverManifest = coverManifest;
+        this.coverBlobIndex = coverBlobIndex;
         this.objectExistsCache = Caffeine.newBuilder()
             .maximumSize(2000)
             .expireAfterWrite(1, TimeUnit.HOURS)
@@ -218,6 +232,20 @@ public class S3BookCoverService implements ExternalCoverService {
      * @throws IllegalArgumentException if bookId is null, empty or contains invalid characters
      */
     public String generateS3Key(String bookId, String fileExtension, String source) {
+        return generateS3Key(bookId, fileExtension, source, CoverTier.LARGE);
+    }
+
+    /**
+     * Generates the S3 object key for one resolution tier of a book cover
+     *
+     * @param bookId Unique identifier for the book
+     * @param fileExtension File extension including the dot (e.g. ".jpg")
+     * @param source Origin source identifier (e.g. "google-books", "open-library")
+     * @param tier Resolution tier; {@link CoverTier#LARGE} is the primary cover
+     * @return Constructed S3 key for the image tier
+     * @throws IllegalArgumentException if bookId is null, empty or contains invalid characters
+     */
+    public String generateS3Key(String bookId, String fileExtension, String source, CoverTier tier) {
         if (bookId == null || bookId.isEmpty()) {
             throw new IllegalArgumentException("Book ID cannot be null or empty");
         }
@@ -228,7 +256,7 @@ public class S3BookCoverService implements ExternalCoverService {
              fileExtension = ".jpg"; 
         }
         String normalizedSource = source != null ? source.toLowerCase().replaceAll("[^a-z0-9_-]", "-") : "unknown";
-        return COVER_IMAGES_DIRECTORY + bookId + LARGE_SUFFIX + "-" + normalizedSource + fileExtension;
+        return COVER_IMAGES_DIRECTORY + bookId + tier.getKeySuffix() + "-" + normalizedSource + fileExtension;
     }
 
     /**
@@ -275,8 +303,8 @@ public class S3BookCoverService implements ExternalCoverService {
                 coverExistsInS3Async(finalBookKey, fileExtension, sourceForS3Key)
                     .filter(Boolean::booleanValue)
                     .map(exists -> {
-                        String s3Key = generateS3Key(finalBookKey, fileExtension, sourceForS3Key);
-                        String cdnUrl = getS3CoverUrl(finalBookKey, fileExtension, sourceForS3Key);
+                        String s3Key = coverManifest.resolve(generateS3Key(finalBookKey, fileExtension, sourceForS3Key));
+                        String cdnUrl = getCdnUrl(s3Key);
                         logger.debug("Found existing S3 cover for book {} from source key '{}': {}", finalBookKey, sourceForS3Key, cdnUrl);
                         // S3 is storage location, not data source - use UNDEFINED for source
                         com.williamcallahan.book_recommendation_engine.model.image.ImageDetails details = 
@@ -298,7 +326,8 @@ public class S3BookCoverService implements ExternalCoverService {
     /**
      * Synchronous version for checking if a cover exists in S3
      * - Used for internal operations where blocking is acceptable
-     * - Checks cache and makes direct S3 HEAD request
+     * - Answers hits and misses from the cover manifest once it is authoritative
+     * - Before that, checks cache and makes direct S3 HEAD request for the blob the cover key aliases
      * 
      * @param bookId Book identifier for the S3 key
      * @param fileExtension File extension to append to the key
@@ -307,12 +336,12 @@ public class S3BookCoverService implements ExternalCoverService {
      */
     public boolean coverExistsInS3(String bookId, String fileExtension, String source) {
         if (!s3EnabledCheck || s3Client == null) return false;
-        String s3Key = generateS3Key(bookId, fileExtension, source);
-        
-        Boolean cachedExists = objectExistsCache.getIfPresent(s3Key);
-        if (cachedExists != null) {
-            return cachedExists;
+        String coverKey = generateS3Key(bookId, fileExtension, source);
+        Boolean known = knownExistence(coverKey, coverManifest.resolve(coverKey));
+        if (known != null) {
+            return known;
         }
+        String s3Key = coverManifest.resolveStored(coverKey);
         
         try {
             HeadObjectResponse response = s3Client.headObject(HeadObjectRequest.builder().bucket(s3BucketName).key(s3Key).build());
@@ -338,10 +367,26 @@ public class S3BookCoverService implements ExternalCoverService {
         }
     }
 
+    /**
+     * Existence known without a HEAD request, or null when S3 has to be asked.
+     * Once the manifest is authoritative it answers both hits and misses; a key another node uploaded since the
+     * last manifest sync reads as missing until that sync. Before then, the HEAD cache answers and misses go to S3.
+     *
+     * @param coverKey Per-book cover key, as recorded in the manifest
+     * @param s3Key Object actually holding the content: the shared blob when the cover key aliases one
+     */
+    private Boolean knownExistence(String coverKey, String s3Key) {
+        if (coverManifest.isAuthoritative()) {
+            return coverManifest.contains(coverKey);
+        }
+        return objectExistsCache.getIfPresent(s3Key);
+    }
+
     /**
      * Asynchronously checks if a cover image exists in S3 for specific parameters
+     * - Answers hits and misses from the cover manifest without any S3 call once it is authoritative
      * - Checks in-memory cache first to avoid redundant S3 calls
-     * - Makes non-blocking HEAD request to S3 if not found in cache
+     * - Makes non-blocking HEAD request to S3 if not found in cache, against the blob the cover key aliases
      * - Updates cache with results to improve future lookup performance
      * - Returns false for any errors without propagating exceptions
      * 
@@ -354,13 +399,18 @@ public class S3BookCoverService implements ExternalCoverService {
         if (!s3EnabledCheck || s3Client == null) {
             return Mono.just(false);
         }
-        String s3Key = generateS3Key(bookId, fileExtension, source);
-        
-        Boolean cachedExists = objectExistsCache.getIfPresent(s3Key);
-        if (cachedExists != null) {
-            return Mono.just(cachedExists);
+        String coverKey = generateS3Key(bookId, fileExtension, source);
+        Boolean known = knownExistence(coverKey, coverManifest.resolve(coverKey));
+        if (known != null) {
+            return Mono.just(known);
         }
-        
+
+        return Mono.fromCallable(() -> coverManifest.resolveStored(coverKey))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(this::headCoverAsync);
+    }
+
+    private Mono<Boolean> headCoverAsync(String s3Key) {
         return Mono.fromCallable(() -> {
             try {
                 s3Client.headObject(HeadObjectRequest.builder().bucket(s3BucketName).key(s3Key).build());
@@ -418,64 +468,16 @@ public class S3BookCoverService implements ExternalCoverService {
         return webClient.get().uri(imageUrl).retrieve().bodyToMono(byte[].class)
             .timeout(Duration.ofSeconds(10))
             .flatMap(rawImageBytes -> {
-                logger.debug("Book ID {}: Downloaded {} bytes from {}. Starting image processing.", bookId, rawImageBytes.length, imageUrl);
-                // Convert CompletableFuture to Mono and continue reactive chain
-                return Mono.fromFuture(imageProcessingService.processImageForS3(rawImageBytes, bookId))
+                String originalHash = contentHash(rawImageBytes);
+                return Mono.fromCallable(() -> coverBlobIndex.findByOriginalHash(originalHash))
                     .subscribeOn(Schedulers.boundedElastic())
-                    .flatMap(processedImage -> {
-                        if (!processedImage.isProcessingSuccessful()) {
-                            logger.warn("Book ID {}: Image processing failed. Reason: {}. Will not upload to S3.", bookId, processedImage.getProcessingError());
-                            return Mono.just(new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(imageUrl, source, "processing-failed-" + bookId, CoverImageSource.ANY, ImageResolutionPreference.ORIGINAL));
-                        }
-                        logger.debug("Book ID {}: Image processing successful. New size: {}x{}, Extension: {}, MimeType: {}.",
-                                     bookId, processedImage.getWidth(), processedImage.getHeight(), processedImage.getNewFileExtension(), processedImage.getNewMimeType());
-
-                        byte[] imageBytesForS3 = processedImage.getProcessedBytes();
-                        String fileExtensionForS3 = processedImage.getNewFileExtension();
-                        String mimeTypeForS3 = processedImage.getNewMimeType();
-
-                        if (imageBytesForS3.length > this.maxFileSizeBytes) {
-                            logger.warn("Book ID {}: Processed image too large (size: {} bytes, max: {} bytes). URL: {}. Will not upload to S3.",
-                                        bookId, imageBytesForS3.length, this.maxFileSizeBytes, imageUrl);
-                            return Mono.just(new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(imageUrl, source, "processed-image-too-large-" + bookId, CoverImageSource.ANY, ImageResolutionPreference.ORIGINAL));
+                    .flatMap(storedTiers -> {
+                        if (hasPrimaryTier(storedTiers)) {
+                            logger.debug("Book ID {}: Download from {} was already processed into a stored cover. Skipping processing.", bookId, imageUrl);
+                            return Mono.fromCallable(() -> linkBlob(bookId, s3Source, storedTiers))
+                                .subscribeOn(Schedulers.boundedElastic());
                         }
-
-                        String s3Key = generateS3Key(bookId, fileExtensionForS3, s3Source);
-
-                        // Asynchronous check for existing object
-                        return coverExistsInS3Async(bookId, fileExtensionForS3, s3Source)
-                            .flatMap(exists -> {
-                                if (exists) {
-                                    // Check content length if it exists
-                                    return Mono.fromCallable(() -> s3Client.headObject(HeadObjectRequest.builder().bucket(s3BucketName).key(s3Key).build()))
-                                        .subscribeOn(Schedulers.boundedElastic())
-                                        .flatMap(headResponse -> {
-                                            if (headResponse.contentLength() == imageBytesForS3.length) {
-                                                logger.info("Processed cover for book {} already exists in S3 with same size, skipping upload. Key: {}", bookId, s3Key);
-                                                String cdnUrl = getS3CoverUrl(bookId, fileExtensionForS3, s3Source);
-                                                com.williamcallahan.book_recommendation_engine.model.image.ImageDetails details = 
-                                                    new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(
-                                                        cdnUrl, "S3", s3Key, CoverImageSource.UNDEFINED, 
-                                                        ImageResolutionPreference.ORIGINAL, processedImage.getWidth(), processedImage.getHeight());
-                                                details.setStorageLocation(ImageDetails.STORAGE_S3);
-                                                details.setStorageKey(s3Key);
-                                                return Mono.just(details);
-                                            }
-                                            return uploadToS3Internal(s3Key, imageBytesForS3, mimeTypeForS3, bookId, fileExtensionForS3, s3Source, processedImage, provenanceData);
-                                        })
-                                        .onErrorResume(NoSuchKeyException.class, e -> uploadToS3Internal(s3Key, imageBytesForS3, mimeTypeForS3, bookId, fileExtensionForS3, s3Source, processedImage, provenanceData))
-                                        .onErrorResume(e -> {
-                                             logger.warn("Error checking existing S3 object for book {}: {}. Proceeding with upload.", bookId, e.getMessage());
-                                             return uploadToS3Internal(s3Key, imageBytesForS3, mimeTypeForS3, bookId, fileExtensionForS3, s3Source, processedImage, provenanceData);
-                                        });
-                                } else {
-                                    return uploadToS3Internal(s3Key, imageBytesForS3, mimeTypeForS3, bookId, fileExtensionForS3, s3Source, processedImage, provenanceData);
-                                }
-                            });
-                    })
-                    .onErrorResume(e -> { // Catches exceptions from imageProcessingService.processImageForS3 or subsequent reactive chain
-                        logger.error("Unexpected exception during S3 upload (image processing or subsequent steps) for book {}: {}. URL: {}", bookId, e.getMessage(), imageUrl, e);
-                        return Mono.just(new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(imageUrl, source, "upload-process-exception-" + bookId, CoverImageSource.ANY, ImageResolutionPreference.ORIGINAL));
+                        return processAndStore(rawImageBytes, originalHash, imageUrl, bookId, source, s3Source);
                     });
             })
             .onErrorResume(e -> {
@@ -484,30 +486,160 @@ public class S3BookCoverService implements ExternalCoverService {
             });
     }
 
-    private Mono<com.williamcallahan.book_recommendation_engine.model.image.ImageDetails> uploadToS3Internal(String s3Key, byte[] imageBytesForS3, String mimeTypeForS3, String bookId, String fileExtensionForS3, String s3Source, ProcessedImage processedImage, ImageProvenanceData provenanceData) {
+    private Mono<ImageDetails> processAndStore(byte[] rawImageBytes, String originalHash, String imageUrl, String bookId, String source, String s3Source) {
+        logger.debug("Book ID {}: Downloaded {} bytes from {}. Starting image processing.", bookId, rawImageBytes.length, imageUrl);
+        // Convert CompletableFuture to Mono and continue reactive chain
+        return Mono.fromFuture(imageProcessingService.processImageForS3(rawImageBytes, bookId))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(processedImage -> {
+                if (!processedImage.isProcessingSuccessful()) {
+                    logger.warn("Book ID {}: Image processing failed. Reason: {}. Will not upload to S3.", bookId, processedImage.getProcessingError());
+                    return Mono.just(new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(imageUrl, source, "processing-failed-" + bookId, CoverImageSource.ANY, ImageResolutionPreference.ORIGINAL));
+                }
+                logger.debug("Book ID {}: Image processing successful. New size: {}x{}, Extension: {}, MimeType: {}.",
+                             bookId, processedImage.getWidth(), processedImage.getHeight(), processedImage.getNewFileExtension(), processedImage.getNewMimeType());
+
+                byte[] imageBytesForS3 = processedImage.getProcessedBytes();
+                if (imageBytesForS3.length > this.maxFileSizeBytes) {
+                    logger.warn("Book ID {}: Processed image too large (size: {} bytes, max: {} bytes). URL: {}. Will not upload to S3.",
+                                bookId, imageBytesForS3.length, this.maxFileSizeBytes, imageUrl);
+                    return Mono.just(new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(imageUrl, source, "processed-image-too-large-" + bookId, CoverImageSource.ANY, ImageResolutionPreference.ORIGINAL));
+                }
+                return storeContentAddressed(processedImage, imageBytesForS3, bookId, s3Source, originalHash);
+            })
+            .onErrorResume(e -> { // Catches exceptions from imageProcessingService.processImageForS3 or subsequent reactive chain
+                logger.error("Unexpected exception during S3 upload (image processing or subsequent steps) for book {}: {}. URL: {}", bookId, e.getMessage(), imageUrl, e);
+                return Mono.just(new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(imageUrl, source, "upload-process-exception-" + bookId, CoverImageSource.ANY, ImageResolutionPreference.ORIGINAL));
+            });
+    }
+
+    /**
+     * Stores a processed cover once per distinct content and points the book's cover keys at it.
+     * - The SHA-256 of the processed bytes names the blob, so identical covers for different books share one object per tier
+     * - A cover already indexed under that hash is linked without uploading anything
+     * - The downloaded original's hash, when known, is indexed so the same download later skips processing
+     * - Without a persistent manifest an alias would be lost on restart, so the cover is written under the book's own keys
+     */
+    private Mono<ImageDetails> storeContentAddressed(ProcessedImage processedImage, byte[] imageBytesForS3, String bookId, String s3Source, String originalHash) {
         return Mono.fromCallable(() -> {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(s3BucketName)
-                    .key(s3Key)
-                    .contentType(mimeTypeForS3)
-                    .acl(ObjectCannedACL.PUBLIC_READ)
-                    .build();
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(imageBytesForS3));
-            
-            String cdnUrl = getS3CoverUrl(bookId, fileExtensionForS3, s3Source);
-            objectExistsCache.put(s3Key, true);
-            logger.info("Successfully uploaded processed cover for book {} to S3. Key: {}", bookId, s3Key);
-
-            // Provenance JSON uploads to S3 are deprecated and disabled as of 2025-10-01.
-            com.williamcallahan.book_recommendation_engine.model.image.ImageDetails details = 
-                new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(
-                    cdnUrl, "S3", s3Key, CoverImageSource.UNDEFINED, 
-                    ImageResolutionPreference.ORIGINAL, processedImage.getWidth(), processedImage.getHeight());
-            details.setStorageLocation(ImageDetails.STORAGE_S3);
-            details.setStorageKey(s3Key);
-            return details;
+            if (!coverManifest.isPersistent()) {
+                String fileExtension = processedImage.getNewFileExtension();
+                List<CoverBlobIndex.StoredTier> storedTiers = uploadTiers(processedImage, imageBytesForS3,
+                    tier -> generateS3Key(bookId, fileExtension, s3Source, tier));
+                logger.info("Successfully uploaded cover for book {} to S3 under its own key {}", bookId, storedTiers.get(0).s3Key());
+                return describeTiers(storedTiers);
+            }
+            String contentHash = contentHash(imageBytesForS3);
+            List<CoverBlobIndex.StoredTier> storedTiers = coverBlobIndex.findByContentHash(contentHash);
+            if (hasPrimaryTier(storedTiers)) {
+                logger.info("Processed cover for book {} is identical to stored blob {}, skipping upload.", bookId, contentHash);
+            } else {
+                storedTiers = uploadBlob(contentHash, processedImage, imageBytesForS3);
+                coverBlobIndex.recordBlob(contentHash, storedTiers);
+            }
+            coverBlobIndex.recordOriginal(originalHash, contentHash);
+            return linkBlob(bookId, s3Source, storedTiers);
         }).subscribeOn(Schedulers.boundedElastic());
     }
+
+    /**
+     * Uploads every tier of a processed cover under its content-addressed key.
+     * A failed derivative is skipped; views fall back to the primary cover for that tier.
+     */
+    private List<CoverBlobIndex.StoredTier> uploadBlob(String contentHash, ProcessedImage processedImage, byte[] imageBytesForS3) {
+        String fileExtension = processedImage.getNewFileExtension();
+        List<CoverBlobIndex.StoredTier> storedTiers = uploadTiers(processedImage, imageBytesForS3,
+            tier -> S3KeyGenerator.generateBlobKey(contentHash, fileExtension, tier));
+        logger.info("Successfully uploaded cover blob {} to S3 with {} tier(s). Key: {}", contentHash, storedTiers.size(), storedTiers.get(0).s3Key());
+        return storedTiers;
+    }
+
+    /**
+     * Uploads the primary cover and each derivative under the key chosen for its tier; the primary tier comes first.
+     */
+    private List<CoverBlobIndex.StoredTier> uploadTiers(ProcessedImage processedImage, byte[] imageBytesForS3, Function<CoverTier, String> keyForTier) {
+        String mimeType = processedImage.getNewMimeType();
+        String primaryKey = keyForTier.apply(CoverTier.LARGE);
+        putCoverObject(primaryKey, imageBytesForS3, mimeType);
+
+        List<CoverBlobIndex.StoredTier> storedTiers = new ArrayList<>();
+        storedTiers.add(new CoverBlobIndex.StoredTier(CoverTier.LARGE, primaryKey, processedImage.getWidth(), processedImage.getHeight(), imageBytesForS3.length));
+        for (ProcessedImage.Derivative derivative : processedImage.getDerivatives()) {
+            String derivativeKey = keyForTier.apply(derivative.tier());
+            try {
+                putCoverObject(derivativeKey, derivative.processedBytes(), mimeType);
+                storedTiers.add(new CoverBlobIndex.StoredTier(derivative.tier(), derivativeKey, derivative.width(), derivative.height(), derivative.processedBytes().length));
+            } catch (Exception e) {
+                logger.warn("Failed to upload {} tier of cover (key {}): {}", derivative.tier(), derivativeKey, e.getMessage());
+            }
+        }
+        return storedTiers;
+    }
+
+    private void putCoverObject(String s3Key, byte[] bytes, String mimeType) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(s3BucketName)
+                .key(s3Key)
+                .contentType(mimeType)
+                .acl(ObjectCannedACL.PUBLIC_READ)
+                .build();
+        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(bytes));
+        objectExistsCache.put(s3Key, true);
+        coverManifest.record(s3Key, null, bytes.length);
+    }
+
+    /**
+     * Points this book's per-source cover keys at stored blob tiers and describes the primary tier.
+     * The keys become manifest aliases, so existence checks and URLs by book resolve to the shared objects.
+     */
+    private ImageDetails linkBlob(String bookId, String s3Source, List<CoverBlobIndex.StoredTier> storedTiers) {
+        if (!hasPrimaryTier(storedTiers)) {
+            throw new IllegalStateException("No primary tier stored for cover of book " + bookId);
+        }
+        for (CoverBlobIndex.StoredTier stored : storedTiers) {
+            String blobKey = stored.s3Key();
+            String bookCoverKey = generateS3Key(bookId, blobKey.substring(blobKey.lastIndexOf('.')), s3Source, stored.tier());
+            coverManifest.recordAlias(bookCoverKey, bookId, stored.contentLength(), blobKey);
+            objectExistsCache.put(blobKey, true);
+        }
+        ImageDetails details = describeTiers(storedTiers);
+        logger.info("Linked cover for book {} (source {}) to S3 blob {}", bookId, s3Source, details.getStorageKey());
+        return details;
+    }
+
+    /**
+     * Describes the primary tier of stored cover objects, with the other tiers as its derivatives.
+     */
+    private ImageDetails describeTiers(List<CoverBlobIndex.StoredTier> storedTiers) {
+        ImageDetails details = null;
+        List<CoverDerivative> derivatives = new ArrayList<>();
+        for (CoverBlobIndex.StoredTier stored : storedTiers) {
+            String cdnUrl = getCdnUrl(stored.s3Key());
+            if (stored.tier() == CoverTier.LARGE) {
+                // S3 is storage location, not data source - use UNDEFINED for source
+                details = new ImageDetails(cdnUrl, "S3", stored.s3Key(), CoverImageSource.UNDEFINED,
+                    ImageResolutionPreference.ORIGINAL, stored.width(), stored.height());
+                details.setStorageLocation(ImageDetails.STORAGE_S3);
+                details.setStorageKey(stored.s3Key());
+            } else {
+                derivatives.add(new CoverDerivative(stored.tier(), stored.s3Key(), cdnUrl, stored.width(), stored.height()));
+            }
+        }
+        details.setDerivatives(derivatives);
+        return details;
+    }
+
+    private static boolean hasPrimaryTier(List<CoverBlobIndex.StoredTier> storedTiers) {
+        return storedTiers.stream().anyMatch(stored -> stored.tier() == CoverTier.LARGE);
+    }
+
+    private static String contentHash(byte[] bytes) {
+        try {
+            return HashUtils.sha256Hex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
  
     /**
      * Synchronous version of cover upload with explicit source
@@ -542,7 +674,17 @@ public class S3BookCoverService implements ExternalCoverService {
      * Generates CDN URL for a book cover with known source
      */
     public String getS3CoverUrl(String bookId, String fileExtension, String source) {
-        String s3Key = generateS3Key(bookId, fileExtension, source);
+        return getS3CoverUrl(bookId, fileExtension, source, CoverTier.LARGE);
+    }
+
+    /**
+     * Generates CDN URL for one resolution tier of a book cover with known source
+     */
+    public String getS3CoverUrl(String bookId, String fileExtension, String source, CoverTier tier) {
+        return getCdnUrl(coverManifest.resolve(generateS3Key(bookId, fileExtension, source, tier)));
+    }
+
+    private String getCdnUrl(String s3Key) {
         return (s3PublicCdnUrl != null && !s3PublicCdnUrl.isEmpty() ? s3PublicCdnUrl : s3CdnUrl) + "/" + s3Key;
     }
 
@@ -624,37 +766,8 @@ public class S3BookCoverService implements ExternalCoverService {
                 return Mono.just(new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(null, originalSourceForS3Key, "processed-image-too-large-for-s3-" + bookId, CoverImageSource.ANY, ImageResolutionPreference.ORIGINAL, width, height));
             }
 
-            String s3Key = generateS3Key(bookId, fileExtension, s3Source);
-
-            // Asynchronous check for existing object
-            return coverExistsInS3Async(bookId, fileExtension, s3Source)
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.fromCallable(() -> s3Client.headObject(HeadObjectRequest.builder().bucket(s3BucketName).key(s3Key).build()))
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .flatMap(headResponse -> {
-                                if (headResponse.contentLength() == processedImageBytes.length) {
-                                    logger.info("Processed cover for book {} (from source {}) already exists in S3 with same size, skipping upload. Key: {}", bookId, s3Source, s3Key);
-                                    String cdnUrl = getS3CoverUrl(bookId, fileExtension, s3Source);
-                                    com.williamcallahan.book_recommendation_engine.model.image.ImageDetails details = 
-                                        new com.williamcallahan.book_recommendation_engine.model.image.ImageDetails(
-                                            cdnUrl, "S3", s3Key, CoverImageSource.UNDEFINED, 
-                                            ImageResolutionPreference.ORIGINAL, width, height);
-                                    details.setStorageLocation(ImageDetails.STORAGE_S3);
-                                    details.setStorageKey(s3Key);
-                                    return Mono.just(details);
-                                }
-                                return uploadToS3Internal(s3Key, processedImageBytes, mimeType, bookId, fileExtension, s3Source, new ProcessedImage(processedImageBytes, fileExtension, mimeType, width, height, true, null), provenanceData);
-                            })
-                            .onErrorResume(NoSuchKeyException.class, e -> uploadToS3Internal(s3Key, processedImageBytes, mimeType, bookId, fileExtension, s3Source, new ProcessedImage(processedImageBytes, fileExtension, mimeType, width, height, true, null), provenanceData))
-                            .onErrorResume(e -> {
-                                 logger.warn("Error checking existing S3 object for book {}: {}. Proceeding with upload.", bookId, e.getMessage());
-                                 return uploadToS3Internal(s3Key, processedImageBytes, mimeType, bookId, fileExtension, s3Source, new ProcessedImage(processedImageBytes, fileExtension, mimeType, width, height, true, null), provenanceData);
-                            });
-                    } else {
-                        return uploadToS3Internal(s3Key, processedImageBytes, mimeType, bookId, fileExtension, s3Source, new ProcessedImage(processedImageBytes, fileExtension, mimeType, width, height, true, null), provenanceData);
-                    }
-                });
+            ProcessedImage processedImage = new ProcessedImage(processedImageBytes, fileExtension, mimeType, width, height, true, null);
+            return storeContentAddressed(processedImage, processedImageBytes, bookId, s3Source, null);
         
         } catch (Exception e) { // Catch synchronous exceptions from this method's setup
             logger.error("Unexpected exception during S3 upload setup for processed cover for book {}: {}.", bookId, e.getMessage(), e);
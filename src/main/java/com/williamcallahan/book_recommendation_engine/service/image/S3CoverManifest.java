@@ -0,0 +1,317 @@
+package com.williamcallahan.book_recommendation_engine.service.image;
+
+import com.williamcallahan.book_recommendation_engine.util.cover.S3KeyGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manifest of cover objects stored in S3, so cover lookups need no HEAD requests.
+ * - Persisted in {@code s3_cover_manifest}; every cover upload records its key
+ * - Hydrated into an in-memory key set at startup (directory prefix stripped to keep it compact)
+ * - Seeded once per bucket from a full listing of the cover directory, after which a hit needs no S3 call
+ * - Keys uploaded or removed by other nodes are picked up by {@link #syncRecent()}; rows are stamped with the
+ *   database clock so a node whose own clock is skewed cannot write changes the sync window skips
+ * - Once seeded, a miss is final: a key another node wrote since the last sync reads as missing for up to one sync
+ * - Deleted objects are removed with {@link #remove(String)}; the row is kept as a tombstone so other nodes sync the removal
+ * - A book key can alias a shared content-addressed blob; {@link #resolve(String)} maps it to the object to serve
+ *
+ * Until hydration and seeding finish, {@link #isAuthoritative()} is false and callers keep probing S3 on misses.
+ *
+ * @author William Callahan
+ */
+@Service
+public class S3CoverManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3CoverManifest.class);
+    private static final String COVER_DIRECTORY = S3KeyGenerator.getCoverImagesDirectory();
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO s3_cover_manifest (s3_key, book_key, content_length, stored_at, blob_key) VALUES (?, ?, ?, now(), ?) " +
+        "ON CONFLICT (s3_key) DO UPDATE SET content_length = EXCLUDED.content_length, stored_at = now(), " +
+        "blob_key = EXCLUDED.blob_key, removed_at = NULL";
+
+    private static final String REMOVE_SQL =
+        "UPDATE s3_cover_manifest SET removed_at = now(), stored_at = now(), blob_key = NULL WHERE s3_key = ?";
+
+    private final @Nullable JdbcTemplate jdbcTemplate;
+    private final @Nullable S3Client s3Client;
+    private final String bucketName;
+    private final boolean s3Enabled;
+
+    private final Set<String> coverFilenames = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> blobFilenames = new ConcurrentHashMap<>(); // aliased book key -> blob, both compacted
+    private final Counter hits;
+    private final Counter misses;
+    private volatile boolean hydrated;
+    private volatile boolean seeded;
+    private volatile Instant lastSyncedAt = Instant.EPOCH;
+
+    public S3CoverManifest(@Nullable JdbcTemplate jdbcTemplate,
+                           @Nullable S3Client s3Client,
+                           @Value("${s3.bucket-name:${S3_BUCKET:}}") String bucketName,
+                           @Value("${s3.enabled:true}") boolean s3Enabled,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.s3Enabled = s3Enabled;
+        Gauge.builder("s3.cover.manifest.keys", coverFilenames, Set::size)
+            .description("Cover object keys held in the in-memory S3 manifest")
+            .register(meterRegistry);
+        this.hits = Counter.builder("s3.cover.manifest.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("s3.cover.manifest.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * @return true once hits can be answered from the manifest alone
+     */
+    public boolean isAuthoritative() {
+        return hydrated && seeded;
+    }
+
+    /**
+     * Checks the in-memory manifest for a cover key. Only meaningful when {@link #isAuthoritative()}.
+     */
+    public boolean contains(String s3Key) {
+        boolean present = s3Key != null && coverFilenames.contains(compact(s3Key));
+        (present ? hits : misses).increment();
+        return present;
+    }
+
+    /**
+     * Maps a cover key to the S3 object that holds its content.
+     *
+     * @return The shared blob key if this key aliases one, otherwise the key itself
+     */
+    public String resolve(String s3Key) {
+        if (s3Key == null) {
+            return null;
+        }
+        String blobFilename = blobFilenames.get(compact(s3Key));
+        return blobFilename != null ? COVER_DIRECTORY + blobFilename : s3Key;
+    }
+
+    /**
+     * Like {@link #resolve(String)}, but before hydration also reads the key's row from the database, so an alias
+     * recorded by an earlier run or another node is served instead of the per-book key, which holds no object.
+     * Blocks on the database only until hydration; call off event loops.
+     */
+    public String resolveStored(String s3Key) {
+        if (s3Key == null || hydrated || jdbcTemplate == null || blobFilenames.containsKey(compact(s3Key))) {
+            return resolve(s3Key);
+        }
+        try {
+            List<String> blobKeys = jdbcTemplate.queryForList(
+                "SELECT blob_key FROM s3_cover_manifest WHERE s3_key = ? AND removed_at IS NULL AND blob_key IS NOT NULL",
+                String.class, s3Key);
+            if (!blobKeys.isEmpty()) {
+                blobFilenames.putIfAbsent(compact(s3Key), compact(blobKeys.get(0)));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Failed to look up S3 cover alias for {} before hydration: {}", s3Key, e.getMessage());
+        }
+        return resolve(s3Key);
+    }
+
+    /**
+     * @return true when recorded keys and aliases are persisted, so they survive a restart
+     */
+    public boolean isPersistent() {
+        return jdbcTemplate != null;
+    }
+
+    /**
+     * Records an uploaded cover; visible to lookups immediately, persisted off the caller's thread.
+     */
+    public void record(String s3Key, String bookKey, long contentLength) {
+        record(s3Key, bookKey, contentLength, null);
+    }
+
+    /**
+     * Records a cover key served by a shared content-addressed blob rather than an object of its own.
+     *
+     * @param s3Key Book cover key as generated for the book and source
+     * @param bookKey Book identifier segment of the key
+     * @param contentLength Size of the blob in bytes
+     * @param blobKey S3 key of the blob holding the content
+     */
+    public void recordAlias(String s3Key, String bookKey, long contentLength, String blobKey) {
+        record(s3Key, bookKey, contentLength, blobKey);
+    }
+
+    private void record(String s3Key, String bookKey, long contentLength, String blobKey) {
+        if (s3Key == null) {
+            return;
+        }
+        String filename = compact(s3Key);
+        coverFilenames.add(filename);
+        if (blobKey != null) {
+            blobFilenames.put(filename, compact(blobKey));
+        } else {
+            blobFilenames.remove(filename); // An object written at this key replaces any alias
+        }
+        if (jdbcTemplate == null) {
+            return;
+        }
+        Mono.fromRunnable(() -> jdbcTemplate.update(INSERT_SQL, s3Key, bookKey, contentLength, blobKey))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, e -> logger.warn("Failed to record S3 cover key {} in manifest: {}", s3Key, e.getMessage()));
+    }
+
+    /**
+     * Forgets a deleted cover object; invisible to lookups immediately, persisted off the caller's thread.
+     * Keys outside the cover directory are ignored.
+     */
+    public void remove(String s3Key) {
+        if (s3Key == null || !s3Key.startsWith(COVER_DIRECTORY)) {
+            return;
+        }
+        String filename = compact(s3Key);
+        coverFilenames.remove(filename);
+        blobFilenames.remove(filename);
+        if (jdbcTemplate == null) {
+            return;
+        }
+        Mono.fromRunnable(() -> jdbcTemplate.update(REMOVE_SQL, s3Key))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, e -> logger.warn("Failed to remove S3 cover key {} from manifest: {}", s3Key, e.getMessage()));
+    }
+
+    /**
+     * Loads the manifest off the startup thread and seeds it from S3 the first time it runs against a bucket.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrateOnStartup() {
+        if (jdbcTemplate == null || s3Client == null || !s3Enabled) {
+            logger.debug("S3 cover manifest disabled: database or S3 not available.");
+            return;
+        }
+        Mono.fromRunnable(this::hydrate)
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, e -> logger.warn("S3 cover manifest hydration failed; falling back to HEAD probes: {}", e.getMessage()));
+    }
+
+    void hydrate() {
+        Instant started = Instant.now();
+        int loaded = loadSince(Instant.EPOCH);
+        hydrated = true;
+        logger.info("Hydrated S3 cover manifest with {} keys in {} ms", loaded, Duration.between(started, Instant.now()).toMillis());
+
+        Boolean alreadySeeded = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM s3_cover_manifest_state WHERE bucket = ?)", Boolean.class, bucketName);
+        if (!Boolean.TRUE.equals(alreadySeeded)) {
+            seedFromBucket();
+        }
+        seeded = true;
+    }
+
+    /**
+     * Pulls in keys other nodes recorded or removed since the last load.
+     *
+     * @return number of rows read
+     */
+    public int syncRecent() {
+        if (!hydrated || jdbcTemplate == null) {
+            return 0;
+        }
+        // stored_at is the writing transaction's start time, so re-read a short overlap to catch rows committed
+        // out of stored_at order
+        return loadSince(lastSyncedAt.minusSeconds(60));
+    }
+
+    private int loadSince(Instant since) {
+        int[] count = {0};
+        Instant[] newest = {lastSyncedAt};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT s3_key, blob_key, stored_at, removed_at FROM s3_cover_manifest WHERE stored_at > ?");
+            ps.setFetchSize(SEED_BATCH_SIZE);
+            ps.setTimestamp(1, Timestamp.from(since));
+            return ps;
+        }, rs -> {
+            String filename = compact(rs.getString("s3_key"));
+            String blobKey = rs.getString("blob_key");
+            if (rs.getTimestamp("removed_at") != null) {
+                coverFilenames.remove(filename);
+                blobFilenames.remove(filename);
+            } else if (blobKey != null) {
+                coverFilenames.add(filename);
+                blobFilenames.put(filename, compact(blobKey));
+            } else {
+                coverFilenames.add(filename);
+                blobFilenames.remove(filename);
+            }
+            Instant storedAt = rs.getTimestamp("stored_at").toInstant();
+            if (storedAt.isAfter(newest[0])) {
+                newest[0] = storedAt;
+            }
+            count[0]++;
+        });
+        lastSyncedAt = newest[0];
+        return count[0];
+    }
+
+    private void seedFromBucket() {
+        logger.info("Seeding S3 cover manifest from bucket {} (prefix {})", bucketName, COVER_DIRECTORY);
+        int seededKeys = 0;
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(bucketName)
+            .prefix(COVER_DIRECTORY)
+            .build();
+        for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(request)) {
+            List<S3Object> objects = page.contents();
+            for (int from = 0; from < objects.size(); from += SEED_BATCH_SIZE) {
+                List<Object[]> rows = objects.subList(from, Math.min(objects.size(), from + SEED_BATCH_SIZE)).stream()
+                    .map(object -> new Object[] {
+                        object.key(),
+                        S3KeyGenerator.extractBookId(object.key()),
+                        object.size()
+                    })
+                    .toList();
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO s3_cover_manifest (s3_key, book_key, content_length, stored_at) VALUES (?, ?, ?, now()) " +
+                    "ON CONFLICT (s3_key) DO NOTHING", rows);
+            }
+            objects.forEach(object -> coverFilenames.add(compact(object.key())));
+            seededKeys += objects.size();
+        }
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO s3_cover_manifest_state (bucket, seeded_at) VALUES (?, now()) ON CONFLICT (bucket) DO NOTHING",
+                bucketName);
+        } catch (DataAccessException e) {
+            logger.warn("Seeded S3 cover manifest but could not mark bucket {} as seeded: {}", bucketName, e.getMessage());
+        }
+        logger.info("Seeded S3 cover manifest with {} keys from bucket {}", seededKeys, bucketName);
+    }
+
+    private static String compact(String s3Key) {
+        return s3Key.startsWith(COVER_DIRECTORY) ? s3Key.substring(COVER_DIRECTORY.length()) : s3Key;
+    }
+}
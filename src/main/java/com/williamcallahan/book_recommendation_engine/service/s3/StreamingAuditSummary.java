@@ -0,0 +1,64 @@
+package com.williamcallahan.book_recommendation_engine.service.s3;
+
+import java.util.List;
+import java.util.ArrayList;
+
+public class StreamingAuditSummary {
+    private final int scannedThisRun;
+    private final int flaggedThisRun;
+    private final long scannedSinceStart;
+    private final long flaggedSinceStart;
+    private final boolean complete;
+    private final List<String> flaggedFileKeys;
+
+    public StreamingAuditSummary(int scannedThisRun, int flaggedThisRun, long scannedSinceStart, long flaggedSinceStart,
+                                 boolean complete, List<String> flaggedFileKeys) {
+        this.scannedThisRun = scannedThisRun;
+        this.flaggedThisRun = flaggedThisRun;
+        this.scannedSinceStart = scannedSinceStart;
+        this.flaggedSinceStart = flaggedSinceStart;
+        this.complete = complete;
+        this.flaggedFileKeys = flaggedFileKeys != null ? new ArrayList<>(flaggedFileKeys) : new ArrayList<>();
+    }
+
+    public int getScannedThisRun() {
+        return scannedThisRun;
+    }
+
+    public int getFlaggedThisRun() {
+        return flaggedThisRun;
+    }
+
+    /**
+     * @return Objects scanned since the audit of this prefix started, across resumed runs
+     */
+    public long getScannedSinceStart() {
+        return scannedSinceStart;
+    }
+
+    public long getFlaggedSinceStart() {
+        return flaggedSinceStart;
+    }
+
+    /**
+     * @return True when this run reached the end of the listing; the next run starts over
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<String> getFlaggedFileKeys() {
+        return new ArrayList<>(flaggedFileKeys); // Return a copy for immutability
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingAuditSummary{" +
+               "scannedThisRun=" + scannedThisRun +
+               ", flaggedThisRun=" + flaggedThisRun +
+               ", scannedSinceStart=" + scannedSinceStart +
+               ", flaggedSinceStart=" + flaggedSinceStart +
+               ", complete=" + complete +
+               '}';
+    }
+}
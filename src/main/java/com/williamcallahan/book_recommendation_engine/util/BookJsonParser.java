@@ -91,7 +91,7 @@ public class BookJsonParser {
             
             if (book != null) {
                 // Preserve raw JSON (not in BookAggregate)
-                book.setRawJsonResponse(item.toString());
+                book.setRawJsonNode(item);
                 
                 // Apply legacy-specific logic that's not in BookAggregate yet
                 extractQualifiersFromItem(item, book);
@@ -113,7 +113,7 @@ public class BookJsonParser {
      */
     private static Book convertJsonToBookLegacy(JsonNode item) {
         Book book = new Book();
-        book.setRawJsonResponse(item.toString());
+        book.setRawJsonNode(item);
 
         extractBookBaseInfo(item, book);
         setAdditionalFields(item, book);
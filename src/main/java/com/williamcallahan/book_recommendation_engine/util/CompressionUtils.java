@@ -5,10 +5,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipException;
 
 /**
- * Utility helpers for decoding byte arrays that may be gzip-compressed JSON.
+ * Utility helpers for gzip-encoding text and decoding byte arrays that may be gzip-compressed JSON.
  */
 public final class CompressionUtils {
 
@@ -52,6 +53,23 @@ public final class CompressionUtils {
         return decompressGzip(raw);
     }
 
+    /**
+     * Encodes the provided text as gzip-compressed UTF-8.
+     *
+     * @param text text to compress
+     * @return gzip bytes (an empty gzip stream when {@code text} is {@code null})
+     * @throws IOException when compression fails
+     */
+    public static byte[] gzipUtf8(String text) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gos = new GZIPOutputStream(baos)) {
+            if (text != null) {
+                gos.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return baos.toByteArray();
+    }
+
     private static String decompressGzip(byte[] raw) throws IOException {
         try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(raw));
              ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
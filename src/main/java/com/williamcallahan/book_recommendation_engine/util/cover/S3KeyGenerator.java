@@ -1,6 +1,7 @@
 package com.williamcallahan.book_recommendation_engine.util.cover;
 
 import com.williamcallahan.book_recommendation_engine.model.image.CoverImageSource;
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
 
 /**
  * Single Source of Truth for S3 object key generation for book cover images.
@@ -10,12 +11,17 @@ import com.williamcallahan.book_recommendation_engine.model.image.CoverImageSour
  * 
  * Key format: images/book-covers/{bookId}-lg-{source}.{ext}
  * Example: images/book-covers/9780123456789-lg-google-books.jpg
+ * Smaller {@link CoverTier} derivatives replace "-lg" with their own suffix (e.g. "-sm")
+ * 
+ * Content-addressed blob format: images/book-covers/sha256/{contentHash}{tierSuffix}.{ext}
+ * Example: images/book-covers/sha256/9f86d081...0f00a08-lg.jpg
  * 
  * @author William Callahan
  */
 public final class S3KeyGenerator {
     
     private static final String COVER_IMAGES_DIRECTORY = "images/book-covers/";
+    private static final String BLOB_DIRECTORY = COVER_IMAGES_DIRECTORY + "sha256/";
     private static final String PROVENANCE_DATA_DIRECTORY = "images/provenance-data/";
     private static final String LARGE_SUFFIX = "-lg";
     
@@ -41,6 +47,46 @@ public final class S3KeyGenerator {
         return COVER_IMAGES_DIRECTORY + bookId + LARGE_SUFFIX + "-" + sourceSegment + normalizedExtension;
     }
     
+    /**
+     * Generates the content-addressed S3 object key for one tier of a processed cover.
+     * Identical covers map to the same key regardless of which book they were downloaded for.
+     * 
+     * @param contentHash SHA-256 hex digest of the processed primary cover
+     * @param fileExtension File extension including dot (e.g., ".jpg")
+     * @param tier Resolution tier stored under this key
+     * @return S3 object key for the blob
+     * @throws IllegalArgumentException if contentHash is not a hex digest
+     */
+    public static String generateBlobKey(String contentHash, String fileExtension, CoverTier tier) {
+        if (contentHash == null || !contentHash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Content hash must be a lowercase SHA-256 hex digest: " + contentHash);
+        }
+        return BLOB_DIRECTORY + contentHash + tier.getKeySuffix() + normalizeExtension(fileExtension);
+    }
+
+    /**
+     * Checks whether a key is a content-addressed blob, which may be shared by several books.
+     * 
+     * @param s3Key S3 object key
+     * @return true if the key lives under the blob directory
+     */
+    public static boolean isBlobKey(String s3Key) {
+        return s3Key != null && s3Key.startsWith(BLOB_DIRECTORY);
+    }
+
+    /**
+     * Extracts the content hash from a key produced by {@link #generateBlobKey}.
+     * 
+     * @param s3Key S3 object key
+     * @return The SHA-256 hex digest, or null if the key is not a content-addressed blob
+     */
+    public static String extractContentHash(String s3Key) {
+        if (s3Key == null || !s3Key.startsWith(BLOB_DIRECTORY) || s3Key.length() < BLOB_DIRECTORY.length() + 64) {
+            return null;
+        }
+        return s3Key.substring(BLOB_DIRECTORY.length(), BLOB_DIRECTORY.length() + 64);
+    }
+
     /**
      * Generates S3 object key for provenance data (debug mode).
      * 
@@ -66,6 +112,24 @@ public final class S3KeyGenerator {
         return PROVENANCE_DATA_DIRECTORY + provenanceFilename;
     }
     
+    /**
+     * Extracts the book identifier from a cover key produced by {@link #generateCoverKey}, or from one of its tier derivatives.
+     *
+     * @param coverKey S3 object key under the cover images directory
+     * @return The book identifier, or null if the key does not follow the cover key format
+     */
+    public static String extractBookId(String coverKey) {
+        if (coverKey == null || !coverKey.startsWith(COVER_IMAGES_DIRECTORY)) {
+            return null;
+        }
+        String filename = coverKey.substring(COVER_IMAGES_DIRECTORY.length());
+        int suffixIndex = -1;
+        for (CoverTier tier : CoverTier.values()) {
+            suffixIndex = Math.max(suffixIndex, filename.lastIndexOf(tier.getKeySuffix() + "-"));
+        }
+        return suffixIndex > 0 ? filename.substring(0, suffixIndex) : null;
+    }
+
     /**
      * Validates book ID for S3 key generation.
      * 
@@ -43,8 +43,15 @@ BEGIN
             ARRAY_AGG(a.name ORDER BY a.name) FILTER (WHERE a.name IS NOT NULL),
             ARRAY[]::TEXT[]
         ) as authors,
-        -- Primary cover image from books table (restored column)
-        b.s3_image_path as cover_url,
+        -- Card-sized S3 derivative when one was stored, otherwise the primary cover from books table
+        COALESCE(
+            (SELECT bil.url
+             FROM book_image_links bil
+             WHERE bil.book_id = b.id
+               AND bil.image_type = 'card'
+               AND bil.s3_image_path IS NOT NULL),
+            b.s3_image_path
+        ) as cover_url,
         bei.average_rating,
         bei.ratings_count,
         -- Aggregate tags as JSONB
@@ -39,6 +39,20 @@ create index if not exists idx_books_created_at on books(created_at desc);
 create index if not exists idx_books_updated_at on books(updated_at desc);
 create index if not exists idx_books_search_vector on books using gin (search_vector);
 
+-- Persisted sitemap ordering so sitemap pages seek through an index instead of sorting and skipping rows
+alter table books
+  add column if not exists sitemap_bucket text generated always as (
+    case when substring(lower(trim(title)), 1, 1) between 'a' and 'z'
+         then substring(lower(trim(title)), 1, 1) else '0-9' end
+  ) stored,
+  add column if not exists sitemap_sort_key text generated always as (lower(title)) stored;
+
+create index if not exists idx_books_sitemap_bucket on books(sitemap_bucket, sitemap_sort_key, slug, id) where slug is not null;
+create index if not exists idx_books_sitemap_xml on books(updated_at, sitemap_sort_key, slug, id) where slug is not null;
+
+comment on column books.sitemap_bucket is 'Sitemap letter bucket (a-z or 0-9) derived from title';
+comment on column books.sitemap_sort_key is 'Sitemap ordering key (lowercased title)';
+
 -- Table and column comments for books
 comment on table books is 'Canonical book records - single source of truth merged from all providers';
 comment on column books.id is 'UUIDv7 generated by our application (NOT provider IDs)';
@@ -315,6 +329,18 @@ create index if not exists idx_authors_name on authors(name);
 create index if not exists idx_authors_normalized_name on authors(normalized_name);
 create index if not exists idx_authors_search_vector on authors using gin (search_vector);
 
+alter table authors
+  add column if not exists sitemap_bucket text generated always as (
+    case when substring(lower(trim(coalesce(normalized_name, name))), 1, 1) between 'a' and 'z'
+         then substring(lower(trim(coalesce(normalized_name, name))), 1, 1) else '0-9' end
+  ) stored,
+  add column if not exists sitemap_sort_key text generated always as (lower(name)) stored;
+
+create index if not exists idx_authors_sitemap_bucket on authors(sitemap_bucket, sitemap_sort_key, id);
+
+comment on column authors.sitemap_bucket is 'Sitemap letter bucket (a-z or 0-9) derived from normalized_name or name';
+comment on column authors.sitemap_sort_key is 'Sitemap ordering key (lowercased name)';
+
 -- Table comments for authors
 comment on table authors is 'Canonical author records deduplicated across all sources';
 comment on column authors.name is 'Author name from volumeInfo.authors[] array';
@@ -416,7 +442,7 @@ create index if not exists idx_book_image_links_book_id on book_image_links(book
 
 -- Table comments for book_image_links
 comment on table book_image_links is 'Maps external image URLs to our S3-persisted copies';
-comment on column book_image_links.image_type is 'Image size: smallThumbnail, thumbnail, small, medium, large, extraLarge';
+comment on column book_image_links.image_type is 'Image size: smallThumbnail, thumbnail, small, medium, large, extraLarge; card for the card-sized S3 derivative';
 comment on column book_image_links.url is 'External URL from volumeInfo.imageLinks';
 comment on column book_image_links.width is 'Image width in pixels (estimated or detected)';
 comment on column book_image_links.height is 'Image height in pixels (estimated or detected)';
@@ -748,6 +774,265 @@ comment on function search_by_isbn is 'Search for books by ISBN-10 or ISBN-13, h
 comment on function search_authors is 'Search for authors with relevance ranking and book count';
 comment on function refresh_book_search_view is 'Refresh the search materialized view after bulk updates';
 
+-- Cluster-wide debounce state for book_search_view refreshes
+create table if not exists search_view_refresh_state (
+  view_name text primary key,
+  refreshed_at timestamptz not null
+);
+
+-- Concurrent refresh gated by an advisory lock and a minimum interval.
+-- Returns refreshed=false with the last known refreshed_at when another node refreshed
+-- within min_interval, and refreshed=false with null refreshed_at when another node
+-- holds the lock (only possible when wait_for_lock is false).
+drop function if exists refresh_book_search_view_debounced(interval, boolean);
+create or replace function refresh_book_search_view_debounced(
+  min_interval interval,
+  wait_for_lock boolean default false
+)
+returns table (refreshed boolean, refreshed_at timestamptz)
+language plpgsql
+as $$
+declare
+  last_refresh timestamptz;
+begin
+  if wait_for_lock then
+    perform pg_advisory_xact_lock(hashtext('book_search_view_refresh'));
+  elsif not pg_try_advisory_xact_lock(hashtext('book_search_view_refresh')) then
+    return query select false, null::timestamptz;
+    return;
+  end if;
+
+  select s.refreshed_at into last_refresh
+  from search_view_refresh_state s
+  where s.view_name = 'book_search_view';
+
+  if last_refresh is not null and last_refresh > now() - min_interval then
+    return query select false, last_refresh;
+    return;
+  end if;
+
+  -- Readers keep using the old contents while the new snapshot is built (needs idx_book_search_view_book_id)
+  refresh materialized view concurrently book_search_view;
+
+  insert into search_view_refresh_state (view_name, refreshed_at)
+  values ('book_search_view', now())
+  on conflict (view_name) do update set refreshed_at = excluded.refreshed_at;
+
+  return query select true, now();
+end;
+$$;
+
+comment on table search_view_refresh_state is 'Last book_search_view refresh time shared by all nodes';
+comment on function refresh_book_search_view_debounced is 'Refresh book_search_view concurrently at most once per interval across the cluster';
+
+-- ============================================================================
+-- INCREMENTAL SEARCH INDEX
+-- ============================================================================
+-- Alternative to book_search_view when app.features.incremental-search-index.enabled=true.
+-- BookUpsertService maintains one row per book in the same transaction as the write,
+-- so refresh cost is O(changed books) and search_books_indexed never waits on a rebuild.
+
+-- Per-book search document (same weights and trigram text as book_search_view)
+drop view if exists book_search_documents;
+create view book_search_documents as
+select
+  b.id as book_id,
+  b.title,
+  b.subtitle,
+  b.slug,
+  b.isbn13,
+  b.isbn10,
+  b.published_date,
+  b.publisher,
+  b.language,
+  b.page_count,
+  string_agg(a.name, ', ' order by ba.position) as authors,
+  (
+    setweight(to_tsvector('english', coalesce(b.title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(string_agg(a.name, ' ' order by ba.position), '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(b.subtitle, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(b.publisher, '')), 'C') ||
+    setweight(to_tsvector('english', coalesce(b.description, '')), 'D')
+  ) as search_vector,
+  lower(
+    coalesce(b.title, '') || ' ' ||
+    coalesce(b.subtitle, '') || ' ' ||
+    coalesce(string_agg(a.name, ' ' order by ba.position), '') || ' ' ||
+    coalesce(b.publisher, '')
+  ) as searchable_text
+from books b
+left join book_authors_join ba on b.id = ba.book_id
+left join authors a on ba.author_id = a.id
+group by b.id;
+
+create table if not exists book_search_index (
+  book_id uuid primary key references books(id) on delete cascade,
+  title text,
+  subtitle text,
+  slug text,
+  isbn13 text,
+  isbn10 text,
+  published_date date,
+  publisher text,
+  language text,
+  page_count integer,
+  authors text,
+  search_vector tsvector,
+  searchable_text text,
+  indexed_at timestamptz not null default now()
+);
+
+create index if not exists idx_book_search_index_search_vector
+  on book_search_index using gin (search_vector);
+create index if not exists idx_book_search_index_searchable_text
+  on book_search_index using gin (searchable_text gin_trgm_ops);
+create index if not exists idx_book_search_index_lower_title
+  on book_search_index (lower(title));
+
+-- Upsert search rows for the given books (call inside the writing transaction)
+create or replace function refresh_book_search_index(target_book_ids uuid[])
+returns integer
+language plpgsql
+as $$
+declare
+  affected integer;
+begin
+  insert into book_search_index (
+    book_id, title, subtitle, slug, isbn13, isbn10, published_date,
+    publisher, language, page_count, authors, search_vector, searchable_text, indexed_at
+  )
+  select
+    d.book_id, d.title, d.subtitle, d.slug, d.isbn13, d.isbn10, d.published_date,
+    d.publisher, d.language, d.page_count, d.authors, d.search_vector, d.searchable_text, now()
+  from book_search_documents d
+  where d.book_id = any(target_book_ids)
+  on conflict (book_id) do update set
+    title = excluded.title,
+    subtitle = excluded.subtitle,
+    slug = excluded.slug,
+    isbn13 = excluded.isbn13,
+    isbn10 = excluded.isbn10,
+    published_date = excluded.published_date,
+    publisher = excluded.publisher,
+    language = excluded.language,
+    page_count = excluded.page_count,
+    authors = excluded.authors,
+    search_vector = excluded.search_vector,
+    searchable_text = excluded.searchable_text,
+    indexed_at = excluded.indexed_at;
+
+  get diagnostics affected = row_count;
+  return affected;
+end;
+$$;
+
+-- Populate rows for books that predate the index (one-off backfill or recovery)
+create or replace function rebuild_book_search_index()
+returns integer
+language plpgsql
+as $$
+declare
+  affected integer;
+begin
+  select refresh_book_search_index(array_agg(b.id)) into affected
+  from books b
+  where not exists (select 1 from book_search_index i where i.book_id = b.id);
+
+  return coalesce(affected, 0);
+end;
+$$;
+
+-- search_books() equivalent that reads the incrementally maintained table
+create or replace function search_books_indexed(
+  search_query text,
+  max_results integer default 20
+)
+returns table (
+  book_id uuid,
+  title text,
+  subtitle text,
+  authors text,
+  isbn13 text,
+  isbn10 text,
+  published_date date,
+  publisher text,
+  relevance_score float,
+  match_type text
+) as $$
+begin
+  return query
+  with
+  exact_matches as (
+    select
+      b.book_id,
+      b.title,
+      b.subtitle,
+      b.authors,
+      b.isbn13,
+      b.isbn10,
+      b.published_date,
+      b.publisher,
+      1.0::float as relevance_score,
+      'exact_title'::text as match_type
+    from book_search_index b
+    where lower(b.title) = lower(search_query)
+    limit 5
+  ),
+  fulltext_matches as (
+    select
+      b.book_id,
+      b.title,
+      b.subtitle,
+      b.authors,
+      b.isbn13,
+      b.isbn10,
+      b.published_date,
+      b.publisher,
+      ts_rank(b.search_vector, plainto_tsquery('english', search_query))::float as relevance_score,
+      'fulltext'::text as match_type
+    from book_search_index b
+    where b.search_vector @@ plainto_tsquery('english', search_query)
+      and b.book_id not in (select em.book_id from exact_matches em)
+    order by relevance_score desc
+    limit max_results
+  ),
+  fuzzy_matches as (
+    select
+      b.book_id,
+      b.title,
+      b.subtitle,
+      b.authors,
+      b.isbn13,
+      b.isbn10,
+      b.published_date,
+      b.publisher,
+      similarity(b.searchable_text, lower(search_query))::float * 0.8 as relevance_score,
+      'fuzzy'::text as match_type
+    from book_search_index b
+    where b.searchable_text % lower(search_query)
+      and b.book_id not in (
+        select em.book_id from exact_matches em
+        union select fm.book_id from fulltext_matches fm
+      )
+    order by relevance_score desc
+    limit 10
+  )
+  select * from exact_matches
+  union all
+  select * from fulltext_matches
+  union all
+  select * from fuzzy_matches
+  order by relevance_score desc
+  limit max_results;
+end;
+$$ language plpgsql;
+
+comment on view book_search_documents is 'Per-book search document shared by the incremental search index';
+comment on table book_search_index is 'Incrementally maintained search rows (one per book), alternative to book_search_view';
+comment on function refresh_book_search_index is 'Upsert book_search_index rows for the given book IDs';
+comment on function rebuild_book_search_index is 'Backfill book_search_index rows for books that have none yet';
+comment on function search_books_indexed is 'search_books() over book_search_index instead of the materialized view';
+
 -- ============================================================================
 -- SLUG MANAGEMENT
 -- ============================================================================
@@ -862,25 +1147,290 @@ comment on column book_recommendations.expires_at is 'When to refresh this recom
 -- ============================================================================
 -- NOTE: Backfill queue now uses BackfillQueueService (in-memory queue)
 -- instead of database table. See BackfillQueueService.java and BackfillCoordinator.java
+-- backfill_queue below is only used when app.backfill.queue=postgres (PostgresBackfillQueueService)
+
+-- Durable, multi-node backfill queue claimed with FOR UPDATE SKIP LOCKED
+create table if not exists backfill_queue (
+  source text not null, -- External provider: GOOGLE_BOOKS, OPEN_LIBRARY
+  source_id text not null, -- Provider's book identifier
+  priority smallint not null default 5, -- 1 = highest, 10 = lowest
+  attempts int not null default 0,
+  not_before timestamptz not null default now(), -- Retry backoff: not claimable until this time
+  claimed_by text, -- Node holding the claim
+  claimed_until timestamptz, -- Claim lease; expired claims are claimable again
+  created_at timestamptz not null default now(),
+  primary key (source, source_id)
+);
+
+create index if not exists idx_backfill_queue_ready
+  on backfill_queue (source, priority, not_before);
+
+comment on table backfill_queue is 'Durable backfill tasks shared by all nodes (app.backfill.queue=postgres)';
+comment on column backfill_queue.claimed_until is 'Lease expiry; rows held by a crashed node are reclaimed after this';
+
+-- Persistent external API response cache (ExternalApiResponseCache)
+-- Keyed by a hash of the request URL without API keys, so authenticated and unauthenticated calls share entries
+create table if not exists external_api_response_cache (
+  cache_key text primary key, -- sha256 of the normalized request URL
+  endpoint text not null, -- Logical endpoint: google-volume, google-search
+  body bytea not null, -- gzip-compressed JSON response body
+  fetched_at timestamptz not null default now(),
+  expires_at timestamptz not null -- Fresh until this time; served stale afterwards while live calls are blocked
+);
+
+create index if not exists idx_external_api_response_cache_expires
+  on external_api_response_cache (expires_at);
+
+comment on table external_api_response_cache is 'Compressed external API responses reused across requests and nodes to save provider quota';
+comment on column external_api_response_cache.expires_at is 'End of the per-endpoint TTL; rows are purged once past app.external-api-cache.max-stale';
+
+-- Shared daily Google Books quota (GoogleApiQuotaBudget)
+-- One row per provider and UTC quota day; nodes lease chunks of the daily limit instead of spending it independently
+create table if not exists api_quota_budget (
+  provider text not null, -- GOOGLE_BOOKS
+  quota_day date not null, -- UTC day the quota applies to
+  daily_limit int not null,
+  granted int not null default 0, -- Tokens leased to nodes so far
+  exhausted_at timestamptz, -- Set by the first node that receives a 429; blocks further leases cluster-wide
+  primary key (provider, quota_day)
+);
+
+comment on table api_quota_budget is 'Cluster-wide daily API quota ledger; nodes lease tokens from daily_limit';
+
+-- Lease up to p_requested tokens for p_day; returns what was leased and what is left for the cluster
+create or replace function claim_api_quota_lease(p_provider text, p_day date, p_daily_limit int, p_requested int)
+returns table(leased int, remaining_quota int, is_exhausted boolean) as $$
+declare
+  v_granted int;
+  v_exhausted timestamptz;
+  v_lease int;
+begin
+  insert into api_quota_budget (provider, quota_day, daily_limit)
+  values (p_provider, p_day, p_daily_limit)
+  on conflict (provider, quota_day) do update set daily_limit = excluded.daily_limit;
+
+  select b.granted, b.exhausted_at into v_granted, v_exhausted
+  from api_quota_budget b
+  where b.provider = p_provider and b.quota_day = p_day
+  for update;
+
+  if v_exhausted is not null then
+    return query select 0, 0, true;
+    return;
+  end if;
+
+  v_lease := greatest(0, least(p_requested, p_daily_limit - v_granted));
+  update api_quota_budget b set granted = b.granted + v_lease
+  where b.provider = p_provider and b.quota_day = p_day;
+
+  return query select v_lease, greatest(0, p_daily_limit - v_granted - v_lease), false;
+end;
+$$ language plpgsql;
+
+comment on function claim_api_quota_lease is 'Atomically leases quota tokens to a node; returns 0 once the day is exhausted';
+
+-- Manifest of cover objects stored in S3 (S3CoverManifest)
+-- Lets cover lookups answer from memory instead of issuing HEAD requests per candidate key
+create table if not exists s3_cover_manifest (
+  s3_key text primary key, -- images/book-covers/{bookKey}-lg-{source}{ext}
+  book_key text, -- ISBN or book id segment of the key
+  content_length bigint,
+  stored_at timestamptz not null default now()
+);
+
+create index if not exists idx_s3_cover_manifest_stored_at on s3_cover_manifest(stored_at);
+
+comment on table s3_cover_manifest is 'Cover object keys known to exist in the S3 bucket; written on upload and seeded once from a bucket listing';
+
+alter table s3_cover_manifest add column if not exists removed_at timestamptz;
+
+comment on column s3_cover_manifest.removed_at is 'Set when the object is deleted; the row stays as a tombstone so other nodes drop the key on their next sync';
+
+comment on column s3_cover_manifest.stored_at is 'Database time (now()) of the last write or removal; nodes sync on it, so it must never come from an application clock';
+
+-- One row per bucket once the manifest has been seeded from a full listing; misses are authoritative afterwards
+create table if not exists s3_cover_manifest_state (
+  bucket text primary key,
+  seeded_at timestamptz not null
+);
+
+-- Resumable streaming audit of S3 cover objects (S3CoverCleanupService.performStreamingAudit)
+-- One checkpoint per scanned prefix; the continuation token points at the first page not yet audited
+create table if not exists s3_cover_audit_checkpoint (
+  prefix text primary key,
+  continuation_token text, -- null before the first page and once the listing is exhausted
+  scanned bigint not null default 0,
+  flagged bigint not null default 0,
+  started_at timestamptz not null default now(),
+  updated_at timestamptz not null default now(),
+  completed_at timestamptz -- set when the last page was audited; the next run starts over
+);
+
+-- Covers flagged by the audit (dominantly white); kept across runs so results survive restarts
+create table if not exists s3_cover_audit_flags (
+  s3_key text primary key,
+  prefix text not null,
+  content_length bigint,
+  flagged_at timestamptz not null default now()
+);
+
+create index if not exists idx_s3_cover_audit_flags_prefix on s3_cover_audit_flags(prefix);
+
+-- Content-addressed cover objects: one S3 object per distinct processed cover and tier
+-- content_hash is the SHA-256 (hex) of the processed primary cover; every tier of that cover shares it
+create table if not exists s3_cover_blobs (
+  content_hash text not null,
+  tier text not null, -- CoverTier name: LARGE, CARD
+  s3_key text not null, -- images/book-covers/sha256/{content_hash}{tier suffix}{ext}
+  width integer not null,
+  height integer not null,
+  content_length bigint not null,
+  created_at timestamptz not null default now(),
+  primary key (content_hash, tier)
+);
+
+comment on table s3_cover_blobs is 'Deduplicated cover objects in S3, one row per processed cover content hash and tier';
+
+-- Downloaded originals already processed, so an identical download skips decoding and upload entirely
+create table if not exists s3_cover_blob_originals (
+  original_hash text primary key, -- SHA-256 (hex) of the downloaded bytes
+  content_hash text not null, -- s3_cover_blobs.content_hash the original processed to
+  created_at timestamptz not null default now()
+);
+
+-- Per-book cover keys that point at a shared blob instead of an object of their own
+alter table s3_cover_manifest add column if not exists blob_key text;
+
+comment on column s3_cover_manifest.blob_key is 'S3 key of the content-addressed blob served for this book key; null when s3_key is itself an object';
+
+alter table book_image_links add column if not exists content_hash text;
+
+comment on column book_image_links.content_hash is 'SHA-256 (hex) of the stored S3 cover; equal across books sharing one cover object';
 
 -- Transactional outbox pattern for WebSocket events
 -- Ensures events are reliably delivered even if WebSocket publish fails
+-- Partitioned by day on created_at so retention drops whole partitions instead of deleting rows.
+-- Convert a pre-partitioning events_outbox in place: pending events are carried over, sent history is discarded.
+do $$
+begin
+  if exists (
+    select 1 from pg_class c join pg_namespace n on n.oid = c.relnamespace
+    where c.relname = 'events_outbox' and n.nspname = current_schema() and c.relkind = 'r'
+  ) then
+    drop index if exists idx_events_outbox_unsent;
+    drop index if exists idx_events_outbox_sent;
+    alter table events_outbox rename constraint events_outbox_pkey to events_outbox_unpartitioned_pkey;
+    alter table events_outbox rename to events_outbox_unpartitioned;
+  end if;
+end;
+$$;
+
 create table if not exists events_outbox (
-  event_id uuid primary key default gen_random_uuid(),
+  event_id uuid not null default gen_random_uuid(),
   topic text not null, -- WebSocket topic path: /topic/search.{id}, /topic/book.{id}
   payload jsonb not null, -- Event data as JSON
   created_at timestamptz not null default now(),
   sent_at timestamptz, -- NULL until successfully published to WebSocket
-  retry_count int not null default 0
-);
+  retry_count int not null default 0,
+  primary key (event_id, created_at)
+) partition by range (created_at);
+
+-- Catches writes if the partition scheduler falls behind; normally empty
+create table if not exists events_outbox_default partition of events_outbox default;
 
 create index if not exists idx_events_outbox_unsent on events_outbox(created_at) where sent_at is null;
 create index if not exists idx_events_outbox_sent on events_outbox(sent_at desc) where sent_at is not null;
 
-comment on table events_outbox is 'Transactional outbox for reliable WebSocket event delivery';
+comment on table events_outbox is 'Transactional outbox for reliable WebSocket event delivery (daily partitions)';
 comment on column events_outbox.topic is 'WebSocket destination topic (e.g., /topic/book.{bookId})';
 comment on column events_outbox.sent_at is 'When event was successfully published (NULL = pending)';
 
+-- Create daily partitions events_outbox_pYYYYMMDD from today through today + days_ahead
+create or replace function ensure_events_outbox_partitions(days_ahead int default 3)
+returns int
+language plpgsql
+as $$
+declare
+  day date;
+  partition_name text;
+  created int := 0;
+begin
+  for day in
+    select generate_series(current_date, current_date + days_ahead, interval '1 day')::date
+  loop
+    partition_name := 'events_outbox_p' || to_char(day, 'YYYYMMDD');
+    if to_regclass(partition_name) is null then
+      begin
+        execute format(
+          'create table %I partition of events_outbox for values from (%L) to (%L)',
+          partition_name, day::timestamptz, (day + 1)::timestamptz
+        );
+        created := created + 1;
+      exception when check_violation then
+        -- Rows for this day already landed in events_outbox_default; leave them there
+        raise notice 'Skipping %: events_outbox_default already holds rows for %', partition_name, day;
+      end;
+    end if;
+  end loop;
+  return created;
+end;
+$$;
+
+-- Drop daily partitions that ended more than retention ago. A partition still holding
+-- unsent events is kept until the relay drains it. Sent rows that fell into the default
+-- partition are deleted (the only row-level delete, and that partition is normally empty).
+create or replace function drop_expired_events_outbox_partitions(retention interval default interval '7 days')
+returns int
+language plpgsql
+as $$
+declare
+  part record;
+  dropped int := 0;
+  has_unsent boolean;
+begin
+  for part in
+    select c.relname,
+           to_date(substring(c.relname from 'events_outbox_p([0-9]{8})$'), 'YYYYMMDD') as day
+    from pg_inherits i
+    join pg_class c on c.oid = i.inhrelid
+    where i.inhparent = 'events_outbox'::regclass
+      and c.relname ~ '^events_outbox_p[0-9]{8}$'
+  loop
+    if (part.day + 1)::timestamptz <= now() - retention then
+      execute format('select exists (select 1 from %I where sent_at is null)', part.relname) into has_unsent;
+      if has_unsent then
+        raise notice 'Keeping % past retention: it still holds unsent events', part.relname;
+      else
+        execute format('drop table %I', part.relname);
+        dropped := dropped + 1;
+      end if;
+    end if;
+  end loop;
+
+  delete from events_outbox_default where sent_at < now() - retention;
+
+  return dropped;
+end;
+$$;
+
+comment on function ensure_events_outbox_partitions is 'Pre-create upcoming daily events_outbox partitions; returns partitions created';
+comment on function drop_expired_events_outbox_partitions is 'Drop events_outbox partitions past retention (skipping ones with unsent events); returns partitions dropped';
+
+select ensure_events_outbox_partitions(3);
+
+-- Finish the in-place conversion: move pending events over and drop the old table
+do $$
+begin
+  if to_regclass('events_outbox_unpartitioned') is not null then
+    insert into events_outbox (event_id, topic, payload, created_at, sent_at, retry_count)
+    select event_id, topic, payload, created_at, sent_at, retry_count
+    from events_outbox_unpartitioned
+    where sent_at is null;
+    drop table events_outbox_unpartitioned;
+  end if;
+end;
+$$;
+
 -- Slug redirect table to handle book slug changes over time
 -- When a book's slug changes (due to title/author updates), old URLs redirect to new slug
 create table if not exists book_slug_redirect (
@@ -895,6 +1445,319 @@ comment on table book_slug_redirect is 'Maps old book slugs to current book IDs
 comment on column book_slug_redirect.old_slug is 'Previous SEO slug that no longer matches book.slug';
 comment on column book_slug_redirect.book_id is 'Current book ID (use to look up current slug)';
 
+-- ============================================================================
+-- RECENT VIEW ANALYTICS
+-- ============================================================================
+-- Raw view rows are kept only for app.recent-views.raw-retention. Homepage and book-page
+-- counters read book_view_stats (one row per book), maintained incrementally by
+-- record_book_view and re-windowed from hourly buckets by compact_book_view_rollups.
+
+create table if not exists recent_book_views (
+  id bigserial primary key,
+  book_id text not null, -- Canonical book UUID as text
+  viewed_at timestamptz not null default now(),
+  source text -- e.g. web, api
+);
+
+create index if not exists idx_recent_book_views_viewed_at on recent_book_views(viewed_at);
+
+-- One row per book per hour
+create table if not exists book_view_rollups_hourly (
+  book_id text not null,
+  bucket_start timestamptz not null, -- date_trunc('hour', viewed_at)
+  views bigint not null default 0,
+  last_viewed_at timestamptz not null,
+  primary key (book_id, bucket_start)
+);
+
+create index if not exists idx_book_view_rollups_hourly_bucket on book_view_rollups_hourly(bucket_start);
+
+-- One row per book viewed in the last 30 days
+create table if not exists book_view_stats (
+  book_id text primary key,
+  last_viewed_at timestamptz not null,
+  views_24h bigint not null default 0,
+  views_7d bigint not null default 0,
+  views_30d bigint not null default 0,
+  compacted_at timestamptz
+);
+
+create index if not exists idx_book_view_stats_last_viewed on book_view_stats(last_viewed_at desc);
+
+comment on table recent_book_views is 'Raw book view events, pruned after a short retention window';
+comment on table book_view_rollups_hourly is 'Hourly view counts per book for the last 30 days';
+comment on table book_view_stats is 'Per-book 24h/7d/30d view counters and last view time';
+comment on column book_view_stats.views_24h is 'Exact as of compacted_at, plus views recorded since';
+
+-- Record one view: raw row, hourly bucket and running counters in one round trip
+create or replace function record_book_view(p_book_id text, p_viewed_at timestamptz, p_source text)
+returns void
+language plpgsql
+as $$
+begin
+  insert into recent_book_views (book_id, viewed_at, source)
+  values (p_book_id, p_viewed_at, p_source);
+
+  insert into book_view_rollups_hourly (book_id, bucket_start, views, last_viewed_at)
+  values (p_book_id, date_trunc('hour', p_viewed_at), 1, p_viewed_at)
+  on conflict (book_id, bucket_start) do update
+    set views = book_view_rollups_hourly.views + 1,
+        last_viewed_at = greatest(book_view_rollups_hourly.last_viewed_at, excluded.last_viewed_at);
+
+  insert into book_view_stats (book_id, last_viewed_at, views_24h, views_7d, views_30d)
+  values (p_book_id, p_viewed_at, 1, 1, 1)
+  on conflict (book_id) do update
+    set last_viewed_at = greatest(book_view_stats.last_viewed_at, excluded.last_viewed_at),
+        views_24h = book_view_stats.views_24h + 1,
+        views_7d = book_view_stats.views_7d + 1,
+        views_30d = book_view_stats.views_30d + 1;
+end;
+$$;
+
+-- Batched variant used by the buffered writer: one statement for many views.
+-- Grouped upserts are ordered by key so concurrent flushes lock rows in the same order and cannot deadlock.
+create or replace function record_book_views(p_book_ids text[], p_viewed_at timestamptz[], p_sources text[])
+returns void
+language plpgsql
+as $$
+begin
+  insert into recent_book_views (book_id, viewed_at, source)
+  select * from unnest(p_book_ids, p_viewed_at, p_sources);
+
+  insert into book_view_rollups_hourly (book_id, bucket_start, views, last_viewed_at)
+  select v.book_id, date_trunc('hour', v.viewed_at), count(*), max(v.viewed_at)
+  from unnest(p_book_ids, p_viewed_at) as v(book_id, viewed_at)
+  group by v.book_id, date_trunc('hour', v.viewed_at)
+  order by v.book_id, date_trunc('hour', v.viewed_at)
+  on conflict (book_id, bucket_start) do update
+    set views = book_view_rollups_hourly.views + excluded.views,
+        last_viewed_at = greatest(book_view_rollups_hourly.last_viewed_at, excluded.last_viewed_at);
+
+  insert into book_view_stats (book_id, last_viewed_at, views_24h, views_7d, views_30d)
+  select v.book_id, max(v.viewed_at), count(*), count(*), count(*)
+  from unnest(p_book_ids, p_viewed_at) as v(book_id, viewed_at)
+  group by v.book_id
+  order by v.book_id
+  on conflict (book_id) do update
+    set last_viewed_at = greatest(book_view_stats.last_viewed_at, excluded.last_viewed_at),
+        views_24h = book_view_stats.views_24h + excluded.views_24h,
+        views_7d = book_view_stats.views_7d + excluded.views_7d,
+        views_30d = book_view_stats.views_30d + excluded.views_30d;
+end;
+$$;
+
+comment on function record_book_views is 'Batched record_book_view: raw rows, hourly buckets and counters for many views at once';
+
+-- Slide the 24h/7d/30d windows: recompute book_view_stats from hourly buckets (hour granularity),
+-- then drop buckets older than 30 days and raw rows older than raw_retention.
+-- Cost depends on books viewed in the last 30 days, not on view volume.
+create or replace function compact_book_view_rollups(raw_retention interval default interval '7 days')
+returns int
+language plpgsql
+as $$
+declare
+  updated int;
+begin
+  with windowed as (
+    select
+      book_id,
+      max(last_viewed_at) as last_viewed_at,
+      coalesce(sum(views) filter (where bucket_start >= date_trunc('hour', now() - interval '24 hours')), 0) as views_24h,
+      coalesce(sum(views) filter (where bucket_start >= date_trunc('hour', now() - interval '7 days')), 0) as views_7d,
+      sum(views) as views_30d
+    from book_view_rollups_hourly
+    where bucket_start >= date_trunc('hour', now() - interval '30 days')
+    group by book_id
+  )
+  insert into book_view_stats (book_id, last_viewed_at, views_24h, views_7d, views_30d, compacted_at)
+  select book_id, last_viewed_at, views_24h, views_7d, views_30d, now()
+  from windowed
+  on conflict (book_id) do update
+    set last_viewed_at = greatest(book_view_stats.last_viewed_at, excluded.last_viewed_at),
+        views_24h = excluded.views_24h,
+        views_7d = excluded.views_7d,
+        views_30d = excluded.views_30d,
+        compacted_at = excluded.compacted_at;
+  get diagnostics updated = row_count;
+
+  delete from book_view_stats where last_viewed_at < now() - interval '30 days';
+  delete from book_view_rollups_hourly where bucket_start < date_trunc('hour', now() - interval '30 days');
+  delete from recent_book_views where viewed_at < now() - raw_retention;
+
+  return updated;
+end;
+$$;
+
+comment on function record_book_view is 'Insert a raw view and bump its hourly bucket and per-book counters';
+comment on function compact_book_view_rollups is 'Recompute windowed view counters from hourly buckets and prune expired rows; returns books updated';
+
+-- Seed rollups from existing raw rows the first time this runs
+insert into book_view_rollups_hourly (book_id, bucket_start, views, last_viewed_at)
+select book_id, date_trunc('hour', viewed_at), count(*), max(viewed_at)
+from recent_book_views
+where viewed_at >= now() - interval '30 days'
+  and not exists (select 1 from book_view_rollups_hourly)
+group by book_id, date_trunc('hour', viewed_at);
+
+select compact_book_view_rollups(interval '30 days');
+
+-- ============================================================================
+-- SITEMAP DATASET STATS
+-- ============================================================================
+-- Maintained counters and watermarks behind the sitemap change-detection fingerprints,
+-- so SitemapRepository reads a handful of rows instead of scanning books and authors.
+-- Statement-level triggers apply one delta per write statement. Deltas are spread over
+-- 16 slots (by backend pid) so concurrent writers don't queue on one row lock; readers sum them.
+
+create table if not exists sitemap_dataset_stats (
+  entity text not null, -- books | authors
+  slot smallint not null,
+  total_records bigint not null default 0,
+  last_modified timestamptz not null default 'epoch',
+  primary key (entity, slot)
+);
+
+comment on table sitemap_dataset_stats is 'Per-entity record counts and last-modified watermarks for sitemap fingerprints; sum/max across slots';
+
+create or replace function bump_sitemap_dataset_stats(target_entity text, record_delta bigint, modified_at timestamptz)
+returns void as $$
+  insert into sitemap_dataset_stats (entity, slot, total_records, last_modified)
+  values (target_entity, (pg_backend_pid() % 16)::smallint, record_delta, coalesce(modified_at, 'epoch'))
+  on conflict (entity, slot) do update
+  set total_records = sitemap_dataset_stats.total_records + excluded.total_records,
+      last_modified = greatest(sitemap_dataset_stats.last_modified, excluded.last_modified);
+$$ language sql;
+
+-- Books with a slug are the sitemap book set. Author listings carry the lastmod of their
+-- books, so book changes move the author watermark too (slightly conservative: books without
+-- authors also move it, which only costs an extra re-render).
+create or replace function track_books_sitemap_stats()
+returns trigger as $$
+declare
+  added bigint := 0;
+  removed bigint := 0;
+  touched timestamptz;
+begin
+  if tg_op in ('INSERT', 'UPDATE') then
+    select count(*) filter (where slug is not null), max(coalesce(updated_at, created_at))
+    into added, touched
+    from new_rows;
+  end if;
+  if tg_op in ('UPDATE', 'DELETE') then
+    select count(*) filter (where slug is not null) into removed from old_rows;
+  end if;
+  if tg_op = 'DELETE' then
+    touched := case when removed > 0 then now() end;
+  end if;
+  if added = removed and touched is null then
+    return null;
+  end if;
+  perform bump_sitemap_dataset_stats('books', added - removed, touched);
+  perform bump_sitemap_dataset_stats('authors', 0, touched);
+  return null;
+end;
+$$ language plpgsql;
+
+create or replace function track_authors_sitemap_stats()
+returns trigger as $$
+declare
+  added bigint := 0;
+  removed bigint := 0;
+  touched timestamptz;
+begin
+  if tg_op in ('INSERT', 'UPDATE') then
+    select count(*), max(coalesce(updated_at, created_at)) into added, touched from new_rows;
+  end if;
+  if tg_op in ('UPDATE', 'DELETE') then
+    select count(*) into removed from old_rows;
+  end if;
+  if tg_op = 'DELETE' then
+    touched := case when removed > 0 then now() end;
+  end if;
+  if added = removed and touched is null then
+    return null;
+  end if;
+  perform bump_sitemap_dataset_stats('authors', added - removed, touched);
+  return null;
+end;
+$$ language plpgsql;
+
+-- Linking or unlinking books changes which lastmods an author listing shows
+create or replace function track_book_authors_sitemap_stats()
+returns trigger as $$
+begin
+  if tg_op = 'INSERT' and exists (select 1 from new_rows)
+     or tg_op = 'DELETE' and exists (select 1 from old_rows) then
+    perform bump_sitemap_dataset_stats('authors', 0, now());
+  end if;
+  return null;
+end;
+$$ language plpgsql;
+
+-- Transition tables allow one event per trigger, hence three triggers per table
+drop trigger if exists books_sitemap_stats_insert on books;
+create trigger books_sitemap_stats_insert after insert on books
+  referencing new table as new_rows
+  for each statement execute function track_books_sitemap_stats();
+drop trigger if exists books_sitemap_stats_update on books;
+create trigger books_sitemap_stats_update after update on books
+  referencing old table as old_rows new table as new_rows
+  for each statement execute function track_books_sitemap_stats();
+drop trigger if exists books_sitemap_stats_delete on books;
+create trigger books_sitemap_stats_delete after delete on books
+  referencing old table as old_rows
+  for each statement execute function track_books_sitemap_stats();
+
+drop trigger if exists authors_sitemap_stats_insert on authors;
+create trigger authors_sitemap_stats_insert after insert on authors
+  referencing new table as new_rows
+  for each statement execute function track_authors_sitemap_stats();
+drop trigger if exists authors_sitemap_stats_update on authors;
+create trigger authors_sitemap_stats_update after update on authors
+  referencing old table as old_rows new table as new_rows
+  for each statement execute function track_authors_sitemap_stats();
+drop trigger if exists authors_sitemap_stats_delete on authors;
+create trigger authors_sitemap_stats_delete after delete on authors
+  referencing old table as old_rows
+  for each statement execute function track_authors_sitemap_stats();
+
+drop trigger if exists book_authors_join_sitemap_stats_insert on book_authors_join;
+create trigger book_authors_join_sitemap_stats_insert after insert on book_authors_join
+  referencing new table as new_rows
+  for each statement execute function track_book_authors_sitemap_stats();
+drop trigger if exists book_authors_join_sitemap_stats_delete on book_authors_join;
+create trigger book_authors_join_sitemap_stats_delete after delete on book_authors_join
+  referencing old table as old_rows
+  for each statement execute function track_book_authors_sitemap_stats();
+
+-- Rebuild the stats from a full scan (first install, or to correct drift after manual edits)
+create or replace function recompute_sitemap_dataset_stats()
+returns void as $$
+begin
+  -- Block trigger deltas until the rebuilt rows commit so no delta is counted twice
+  lock table sitemap_dataset_stats in exclusive mode;
+  delete from sitemap_dataset_stats;
+
+  insert into sitemap_dataset_stats (entity, slot, total_records, last_modified)
+  select 'books', 0, count(*), coalesce(max(updated_at), max(created_at), 'epoch')
+  from books
+  where slug is not null;
+
+  insert into sitemap_dataset_stats (entity, slot, total_records, last_modified)
+  select 'authors', 0, count(distinct a.id),
+         greatest(coalesce(max(a.updated_at), max(a.created_at), 'epoch'),
+                  coalesce(max(b.updated_at), max(b.created_at), 'epoch'))
+  from authors a
+  left join book_authors_join baj on baj.author_id = a.id
+  left join books b on b.id = baj.book_id and b.slug is not null;
+end;
+$$ language plpgsql;
+
+comment on function recompute_sitemap_dataset_stats is 'Rebuild sitemap_dataset_stats from a full scan of books and authors';
+
+select recompute_sitemap_dataset_stats()
+where not exists (select 1 from sitemap_dataset_stats);
+
 -- ============================================================================
 -- IMAGE METADATA EXTENSION
 -- ============================================================================
@@ -3,12 +3,16 @@ package com.williamcallahan.book_recommendation_engine.controller;
 import com.williamcallahan.book_recommendation_engine.RequestLoggingFilter;
 import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.DatasetFingerprint;
+import com.williamcallahan.book_recommendation_engine.service.SitemapArtifactService;
+import com.williamcallahan.book_recommendation_engine.service.SitemapArtifactService.Artifact;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.AuthorListingXmlItem;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.AuthorSection;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.BookSitemapItem;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.PagedResult;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.SitemapOverview;
+import com.williamcallahan.book_recommendation_engine.service.SitemapXmlRenderer;
+import com.williamcallahan.book_recommendation_engine.util.CompressionUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,9 +23,12 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.view.AbstractView;
 import org.springframework.lang.NonNull;
@@ -30,21 +37,31 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 @WebMvcTest(value = SitemapController.class,
     excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = RequestLoggingFilter.class))
 @AutoConfigureMockMvc(addFilters = false)
+@Import(SitemapXmlRenderer.class)
 class SitemapControllerTest {
 
     @Autowired
@@ -56,6 +73,9 @@ class SitemapControllerTest {
     @MockitoBean
     private SitemapProperties sitemapProperties;
 
+    @MockitoBean
+    private SitemapArtifactService sitemapArtifactService;
+
     @BeforeEach
     void setUp() {
         Instant fallbackInstant = Instant.parse("2024-01-01T00:00:00Z");
@@ -116,11 +136,16 @@ class SitemapControllerTest {
     @DisplayName("GET /sitemap-xml/books/1.xml returns book urlset")
     void booksSitemapReturnsXml() throws Exception {
         when(sitemapService.getBooksXmlPageCount()).thenReturn(1);
-        when(sitemapService.getBooksForXmlPage(1)).thenReturn(List.of(
-            new BookSitemapItem("book-id", "book-slug", "Demo Book", Instant.parse("2024-01-01T00:00:00Z"))
-        ));
-
-        mockMvc.perform(get("/sitemap-xml/books/1.xml"))
+        doAnswer(invocation -> {
+            Consumer<BookSitemapItem> consumer = invocation.getArgument(1);
+            consumer.accept(new BookSitemapItem("book-id", "book-slug", "Demo Book", Instant.parse("2024-01-01T00:00:00Z")));
+            return null;
+        }).when(sitemapService).streamBooksForXmlPage(eq(1), any());
+
+        MvcResult result = mockMvc.perform(get("/sitemap-xml/books/1.xml"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_XML))
             .andExpect(content().string(containsString("/book/book-slug")));
@@ -134,7 +159,10 @@ class SitemapControllerTest {
             new AuthorListingXmlItem("A", 1, Instant.parse("2024-01-01T00:00:00Z"))
         ));
 
-        mockMvc.perform(get("/sitemap-xml/authors/1.xml"))
+        MvcResult result = mockMvc.perform(get("/sitemap-xml/authors/1.xml"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_XML))
             .andExpect(content().string(containsString("/sitemap/authors/A/1")));
@@ -158,6 +186,47 @@ class SitemapControllerTest {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /sitemap.xml serves the pre-rendered gzip artifact without querying the dataset")
+    void sitemapIndexServesGzipArtifact() throws Exception {
+        byte[] gzip = CompressionUtils.gzipUtf8("<sitemapindex/>");
+        Artifact artifact = new Artifact(gzip, "W/\"abc123\"", Instant.parse("2024-01-01T00:00:00Z"));
+        when(sitemapArtifactService.find(SitemapArtifactService.INDEX_PATH)).thenReturn(Optional.of(artifact));
+
+        MvcResult gzipped = mockMvc.perform(get("/sitemap.xml").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(gzipped))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"abc123\""))
+            .andExpect(content().bytes(gzip));
+
+        MvcResult identity = mockMvc.perform(get("/sitemap.xml"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(identity))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().string("<sitemapindex/>"));
+
+        mockMvc.perform(get("/sitemap.xml").header(HttpHeaders.IF_NONE_MATCH, "W/\"abc123\""))
+            .andExpect(status().isNotModified());
+
+        verify(sitemapService, never()).getBooksXmlPageCount();
+    }
+
+    @Test
+    @DisplayName("GET /sitemap-xml/books/9.xml returns 404 from the artifact store once a generation exists")
+    void booksSitemapMissingArtifactReturns404WithoutQuery() throws Exception {
+        when(sitemapArtifactService.hasArtifacts()).thenReturn(true);
+
+        mockMvc.perform(get("/sitemap-xml/books/9.xml"))
+            .andExpect(status().isNotFound());
+
+        verify(sitemapService, never()).getBooksXmlPageCount();
+    }
+
     @TestConfiguration
     static class StubViewResolverConfiguration {
         @Bean
@@ -1,5 +1,7 @@
 package com.williamcallahan.book_recommendation_engine.model;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -55,4 +57,19 @@ class BookTest {
         assertThat(book.getExternalImageUrl()).isEqualTo(spoofed);
         assertThat(book.getS3ImagePath()).isNull();
     }
+
+    @Test
+    void rawJsonResponseIsSerializedFromNodeOnlyWhenRead() {
+        Book book = new Book();
+        JsonNode node = JsonNodeFactory.instance.objectNode().put("id", "vol-1");
+
+        book.setRawJsonNode(node);
+
+        assertThat(book.getRawJsonNode()).isSameAs(node);
+        assertThat(book.getRawJsonResponse()).isEqualTo("{\"id\":\"vol-1\"}");
+
+        book.setRawJsonResponse("{}");
+        assertThat(book.getRawJsonNode()).isNull();
+        assertThat(book.getRawJsonResponse()).isEqualTo("{}");
+    }
 }
@@ -0,0 +1,173 @@
+package com.williamcallahan.book_recommendation_engine.repository;
+
+import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.DatasetFingerprint;
+import com.williamcallahan.book_recommendation_engine.test.annotations.DbIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the trigger-maintained sitemap fingerprints in {@code sitemap_dataset_stats}.
+ *
+ * Each write is checked against {@code recompute_sitemap_dataset_stats()}, the full-scan rebuild that also
+ * seeds the table. Writes use timestamps far in the future so they own the watermark whatever the test DB holds.
+ *
+ * Tests only run when database is available (not in CI without DB).
+ */
+@DbIntegrationTest
+class SitemapRepositoryTest {
+
+    private static final Instant FUTURE = Instant.parse("2999-01-01T00:00:00Z");
+
+    @Autowired(required = false)
+    private SitemapRepository sitemapRepository;
+
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookInsert_matchesFullScan() {
+        if (sitemapRepository == null || jdbcTemplate == null) {
+            return; // Skip test if no DB
+        }
+        DatasetFingerprint before = sitemapRepository.fetchBookFingerprint();
+
+        insertBook(FUTURE);
+
+        DatasetFingerprint maintained = sitemapRepository.fetchBookFingerprint();
+        assertThat(maintained.totalRecords()).isEqualTo(before.totalRecords() + 1);
+        assertThat(maintained.lastModified()).isEqualTo(FUTURE);
+        assertThat(maintained).isEqualTo(recomputedBookFingerprint());
+    }
+
+    @Test
+    void bookUpdate_movesWatermarkAndCountsSlugChanges() {
+        if (sitemapRepository == null || jdbcTemplate == null) {
+            return;
+        }
+        UUID bookId = insertBook(FUTURE);
+        DatasetFingerprint before = sitemapRepository.fetchBookFingerprint();
+
+        Instant later = FUTURE.plusSeconds(3600);
+        jdbcTemplate.update("UPDATE books SET title = 'Retitled', updated_at = ? WHERE id = ?", Timestamp.from(later), bookId);
+        DatasetFingerprint retitled = sitemapRepository.fetchBookFingerprint();
+        assertThat(retitled.totalRecords()).isEqualTo(before.totalRecords());
+        assertThat(retitled.lastModified()).isEqualTo(later);
+
+        jdbcTemplate.update("UPDATE books SET slug = NULL, updated_at = ? WHERE id = ?", Timestamp.from(later), bookId);
+        DatasetFingerprint unlisted = sitemapRepository.fetchBookFingerprint();
+        assertThat(unlisted.totalRecords()).isEqualTo(before.totalRecords() - 1);
+        assertThat(unlisted.totalRecords()).isEqualTo(recomputedBookFingerprint().totalRecords());
+    }
+
+    @Test
+    void bookDelete_dropsCountWithoutMovingWatermarkBack() {
+        if (sitemapRepository == null || jdbcTemplate == null) {
+            return;
+        }
+        UUID bookId = insertBook(FUTURE);
+        DatasetFingerprint before = sitemapRepository.fetchBookFingerprint();
+
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", bookId);
+
+        DatasetFingerprint maintained = sitemapRepository.fetchBookFingerprint();
+        assertThat(maintained).isNotEqualTo(before);
+        assertThat(maintained.totalRecords()).isEqualTo(before.totalRecords() - 1);
+        assertThat(maintained.lastModified()).isAfterOrEqualTo(before.lastModified());
+        assertThat(maintained.totalRecords()).isEqualTo(recomputedBookFingerprint().totalRecords());
+    }
+
+    @Test
+    void authorInsertUpdateDelete_matchFullScanCounts() {
+        if (sitemapRepository == null || jdbcTemplate == null) {
+            return;
+        }
+        DatasetFingerprint before = sitemapRepository.fetchAuthorFingerprint();
+
+        String authorId = insertAuthor(FUTURE);
+        DatasetFingerprint inserted = sitemapRepository.fetchAuthorFingerprint();
+        assertThat(inserted.totalRecords()).isEqualTo(before.totalRecords() + 1);
+        assertThat(inserted.lastModified()).isEqualTo(FUTURE);
+
+        Instant later = FUTURE.plusSeconds(3600);
+        jdbcTemplate.update("UPDATE authors SET biography = 'Updated', updated_at = ? WHERE id = ?", Timestamp.from(later), authorId);
+        DatasetFingerprint updated = sitemapRepository.fetchAuthorFingerprint();
+        assertThat(updated.totalRecords()).isEqualTo(inserted.totalRecords());
+        assertThat(updated.lastModified()).isEqualTo(later);
+        assertThat(updated).isEqualTo(recomputedAuthorFingerprint());
+
+        jdbcTemplate.update("DELETE FROM authors WHERE id = ?", authorId);
+        DatasetFingerprint deleted = sitemapRepository.fetchAuthorFingerprint();
+        assertThat(deleted.totalRecords()).isEqualTo(before.totalRecords());
+        assertThat(deleted.totalRecords()).isEqualTo(recomputedAuthorFingerprint().totalRecords());
+    }
+
+    @Test
+    void bookAuthorLinks_moveAuthorWatermark() {
+        if (sitemapRepository == null || jdbcTemplate == null) {
+            return;
+        }
+        Instant old = Instant.parse("2000-01-01T00:00:00Z");
+        UUID bookId = insertBook(old);
+        String authorId = insertAuthor(old);
+        Instant now = jdbcTemplate.queryForObject("SELECT now()", Timestamp.class).toInstant();
+
+        jdbcTemplate.update("INSERT INTO book_authors_join (id, book_id, author_id, position) VALUES (?, ?, ?, 0)",
+            "sitemap-" + UUID.randomUUID(), bookId, authorId);
+        DatasetFingerprint linked = sitemapRepository.fetchAuthorFingerprint();
+        assertThat(linked.lastModified()).isAfterOrEqualTo(now);
+
+        jdbcTemplate.update("DELETE FROM sitemap_dataset_stats WHERE entity = 'authors'");
+        jdbcTemplate.update("INSERT INTO sitemap_dataset_stats (entity, slot, total_records, last_modified) VALUES ('authors', 0, ?, 'epoch')",
+            linked.totalRecords());
+        jdbcTemplate.update("DELETE FROM book_authors_join WHERE book_id = ? AND author_id = ?", bookId, authorId);
+        DatasetFingerprint unlinked = sitemapRepository.fetchAuthorFingerprint();
+        assertThat(unlinked.totalRecords()).isEqualTo(linked.totalRecords());
+        assertThat(unlinked.lastModified()).isAfterOrEqualTo(now);
+    }
+
+    @Test
+    void missingStats_fallBackToFullScan() {
+        if (sitemapRepository == null || jdbcTemplate == null) {
+            return;
+        }
+        insertBook(FUTURE);
+        DatasetFingerprint scannedBooks = recomputedBookFingerprint();
+        DatasetFingerprint scannedAuthors = recomputedAuthorFingerprint();
+
+        jdbcTemplate.update("DELETE FROM sitemap_dataset_stats");
+
+        assertThat(sitemapRepository.fetchBookFingerprint()).isEqualTo(scannedBooks);
+        assertThat(sitemapRepository.fetchAuthorFingerprint()).isEqualTo(scannedAuthors);
+    }
+
+    private DatasetFingerprint recomputedBookFingerprint() {
+        jdbcTemplate.execute("SELECT recompute_sitemap_dataset_stats()");
+        return sitemapRepository.fetchBookFingerprint();
+    }
+
+    private DatasetFingerprint recomputedAuthorFingerprint() {
+        jdbcTemplate.execute("SELECT recompute_sitemap_dataset_stats()");
+        return sitemapRepository.fetchAuthorFingerprint();
+    }
+
+    private UUID insertBook(Instant updatedAt) {
+        UUID bookId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO books (id, title, slug, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+            bookId, "Sitemap Stats Test", "sitemap-stats-test-" + bookId, Timestamp.from(updatedAt), Timestamp.from(updatedAt));
+        return bookId;
+    }
+
+    private String insertAuthor(Instant updatedAt) {
+        String authorId = "st" + UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate.update("INSERT INTO authors (id, name, created_at, updated_at) VALUES (?, ?, ?, ?)",
+            authorId, "Sitemap Stats Author " + authorId, Timestamp.from(updatedAt), Timestamp.from(updatedAt));
+        return authorId;
+    }
+}
@@ -8,6 +8,7 @@ import com.williamcallahan.book_recommendation_engine.model.Book;
 import com.williamcallahan.book_recommendation_engine.service.BookDataOrchestrator;
 import com.williamcallahan.book_recommendation_engine.service.BookSitemapService;
 import com.williamcallahan.book_recommendation_engine.service.S3StorageService;
+import com.williamcallahan.book_recommendation_engine.service.SitemapArtifactService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.AuthorSection;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.BookSitemapItem;
@@ -104,6 +105,7 @@ class SitemapRefreshSchedulerIntegrationTest {
                 sitemapProperties,
                 bookSitemapService,
                 sitemapService,
+                Mockito.mock(SitemapArtifactService.class),
                 coverProvider
         );
 
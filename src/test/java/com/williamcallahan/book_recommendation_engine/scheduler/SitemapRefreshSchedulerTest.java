@@ -4,6 +4,7 @@ import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
 import com.williamcallahan.book_recommendation_engine.service.BookSitemapService;
 import com.williamcallahan.book_recommendation_engine.service.BookSitemapService.SitemapSnapshot;
 import com.williamcallahan.book_recommendation_engine.service.BookSitemapService.SnapshotSyncResult;
+import com.williamcallahan.book_recommendation_engine.service.SitemapArtifactService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService;
 import com.williamcallahan.book_recommendation_engine.service.SitemapService.BookSitemapItem;
 import com.williamcallahan.book_recommendation_engine.service.image.S3BookCoverService;
@@ -19,6 +20,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,6 +33,9 @@ class SitemapRefreshSchedulerTest {
     @Mock
     private SitemapService sitemapService;
 
+    @Mock
+    private SitemapArtifactService sitemapArtifactService;
+
     @Mock
     private ObjectProvider<S3BookCoverService> coverServiceProvider;
 
@@ -50,7 +55,8 @@ class SitemapRefreshSchedulerTest {
         when(coverServiceProvider.getIfAvailable()).thenReturn(coverService);
         when(coverService.fetchCover(org.mockito.ArgumentMatchers.any()))
                 .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
-        scheduler = new SitemapRefreshScheduler(sitemapProperties, bookSitemapService, sitemapService, coverServiceProvider);
+        scheduler = new SitemapRefreshScheduler(sitemapProperties, bookSitemapService, sitemapService,
+                sitemapArtifactService, coverServiceProvider);
     }
 
     @Test
@@ -64,4 +70,19 @@ class SitemapRefreshSchedulerTest {
         verify(bookSitemapService).synchronizeSnapshot();
         verify(coverService).fetchCover(org.mockito.ArgumentMatchers.any());
     }
+
+    @Test
+    void refreshSitemapArtifacts_rendersArtifactsOnlyWhenDatasetChanged() {
+        List<BookSitemapItem> items = List.of(new BookSitemapItem("book-1", "slug-1", "Title", Instant.now()));
+        SitemapSnapshot snapshot = new SitemapSnapshot(Instant.now(), items);
+        when(bookSitemapService.synchronizeSnapshot()).thenReturn(new SnapshotSyncResult(snapshot, false, "sitemaps/books.json"));
+        when(sitemapArtifactService.hasArtifacts()).thenReturn(true);
+        when(sitemapService.refreshSitemapCachesIfDatasetChanged()).thenReturn(false, true);
+
+        scheduler.refreshSitemapArtifacts();
+        verify(sitemapArtifactService, never()).renderAll();
+
+        scheduler.refreshSitemapArtifacts();
+        verify(sitemapArtifactService).renderAll();
+    }
 }
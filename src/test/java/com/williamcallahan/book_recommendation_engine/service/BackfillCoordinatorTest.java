@@ -0,0 +1,176 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.williamcallahan.book_recommendation_engine.config.BackfillProperties;
+import com.williamcallahan.book_recommendation_engine.dto.BookAggregate;
+import com.williamcallahan.book_recommendation_engine.mapper.GoogleBooksMapper;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BackfillCoordinatorTest {
+
+    private final GoogleApiFetcher googleApiFetcher = mock(GoogleApiFetcher.class);
+    private final GoogleBooksMapper googleBooksMapper = mock(GoogleBooksMapper.class);
+    private final BookUpsertService bookUpsertService = mock(BookUpsertService.class);
+    private final BackfillQueueService queueService = new BackfillQueueService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BackfillCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        ObjectNode volume = JsonNodeFactory.instance.objectNode().put("id", "vol");
+        when(googleApiFetcher.fetchVolumeByIdAuthenticated(anyString())).thenReturn(Mono.just(volume));
+        when(googleBooksMapper.map(any())).thenReturn(BookAggregate.builder().title("Title").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (coordinator != null) {
+            coordinator.stopWorker();
+        }
+    }
+
+    @Test
+    void googleLaneProcessesTasksConcurrentlyUpToBulkheadLimit() throws Exception {
+        int tasks = 6;
+        CountDownLatch bothInFlight = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        when(bookUpsertService.upsert(any())).thenAnswer(invocation -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            bothInFlight.countDown();
+            bothInFlight.await(5, TimeUnit.SECONDS);
+            concurrent.decrementAndGet();
+            done.countDown();
+            return BookUpsertService.UpsertResult.builder().bookId(UUID.randomUUID()).slug("slug").isNew(true).build();
+        });
+
+        // Four workers configured, but the bulkhead only allows two concurrent calls
+        coordinator = newCoordinator(Map.of("GOOGLE_BOOKS", 4), 2);
+        for (int i = 0; i < tasks; i++) {
+            coordinator.enqueue("GOOGLE_BOOKS", "vol-" + i, 5);
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxConcurrent.get()).isEqualTo(2);
+        // Latency is recorded after upsert returns, so give the last workers a moment
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (successCount() < tasks && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(successCount()).isEqualTo(tasks);
+        assertThat(meterRegistry.get("backfill.queue.depth").tag("provider", "GOOGLE_BOOKS").gauge().value()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchModeWritesDrainedTasksWithOneUpsertBatch() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        ArgumentCaptor<List<BookAggregate>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        when(bookUpsertService.upsertBatch(batchCaptor.capture())).thenAnswer(invocation -> {
+            List<BookAggregate> aggregates = invocation.getArgument(0);
+            written.countDown();
+            return aggregates.stream()
+                .map(aggregate -> BookUpsertService.UpsertResult.builder().bookId(UUID.randomUUID()).isNew(true).build())
+                .toList();
+        });
+        // Queue the tasks before the worker starts so it drains them together
+        for (int i = 0; i < 3; i++) {
+            queueService.enqueue("GOOGLE_BOOKS", "vol-" + i, 5);
+        }
+
+        BackfillProperties properties = new BackfillProperties();
+        properties.setBatchSize(10);
+        coordinator = newCoordinator(properties, Map.of("GOOGLE_BOOKS", 1), 5);
+
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchCaptor.getValue()).hasSize(3);
+        verify(bookUpsertService, never()).upsert(any());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueService.getDedupeSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(queueService.getDedupeSize()).isZero();
+        assertThat(meterRegistry.get("backfill.batch.latency").tags("provider", "GOOGLE_BOOKS").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedTaskIsGivenUpAfterMaxAttempts() throws Exception {
+        BackfillProperties properties = new BackfillProperties();
+        properties.setRejectionBackoff(Duration.ZERO);
+        // A bulkhead without permits rejects every task
+        coordinator = newCoordinator(properties, Map.of("GOOGLE_BOOKS", 1), 0);
+
+        coordinator.enqueue("GOOGLE_BOOKS", "vol-rejected", 5);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueService.getDedupeSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(queueService.getDedupeSize()).isZero();
+        assertThat(queueService.getQueueSize("GOOGLE_BOOKS")).isZero();
+        verify(googleApiFetcher, never()).fetchVolumeByIdAuthenticated(anyString());
+    }
+
+    @Test
+    void enqueueIgnoresSourcesWithoutLane() {
+        coordinator = newCoordinator(Map.of("GOOGLE_BOOKS", 1), 5);
+
+        coordinator.enqueue("AMAZON", "B000", 5);
+
+        assertThat(queueService.getQueueSize("AMAZON")).isZero();
+        assertThat(queueService.getDedupeSize()).isZero();
+    }
+
+    private long successCount() {
+        var timer = meterRegistry.find("backfill.task.latency")
+            .tags("provider", "GOOGLE_BOOKS", "outcome", "success").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private BackfillCoordinator newCoordinator(Map<String, Integer> lanes, int bulkheadSize) {
+        return newCoordinator(new BackfillProperties(), lanes, bulkheadSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BackfillCoordinator newCoordinator(BackfillProperties properties, Map<String, Integer> lanes, int bulkheadSize) {
+        properties.setLanes(lanes);
+
+        ObjectProvider<RateLimiterRegistry> rateLimiters = mock(ObjectProvider.class);
+        ObjectProvider<BulkheadRegistry> bulkheads = mock(ObjectProvider.class);
+        when(bulkheads.getIfAvailable()).thenReturn(BulkheadRegistry.of(
+            BulkheadConfig.custom().maxConcurrentCalls(bulkheadSize).build()));
+
+        BackfillCoordinator created = new BackfillCoordinator(queueService, googleApiFetcher, googleBooksMapper,
+            bookUpsertService, properties, meterRegistry, rateLimiters, bulkheads);
+        created.startWorker();
+        return created;
+    }
+}
@@ -68,7 +68,9 @@ class BookDataOrchestratorPersistenceScenariosTest {
                 bookUpsertService,
                 googleBooksMapper,
                 tieredBookSearchService,
-                false
+                null,
+                false,
+                null
         );
         lenient().when(bookSearchService.searchBooks(anyString(), any())).thenReturn(List.of());
         lenient().when(bookSearchService.searchByIsbn(anyString())).thenReturn(java.util.Optional.empty());
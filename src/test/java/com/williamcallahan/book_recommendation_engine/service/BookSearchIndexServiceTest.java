@@ -0,0 +1,62 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reindexBook_isNoOpWhenIncrementalIndexDisabled() {
+        BookSearchIndexService service = new BookSearchIndexService(jdbcTemplate, false);
+
+        service.reindexBook(UUID.randomUUID());
+        service.reindexBooks(List.of(UUID.randomUUID()));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void reindexBooks_sendsDistinctIdsInSingleStatement() {
+        BookSearchIndexService service = new BookSearchIndexService(jdbcTemplate, true);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        ArgumentCaptor<Object> idsCaptor = ArgumentCaptor.forClass(Object.class);
+        when(jdbcTemplate.queryForObject(eq("SELECT refresh_book_search_index(?::UUID[])"), eq(Integer.class), idsCaptor.capture()))
+            .thenReturn(2);
+
+        int affected = service.reindexBooks(Arrays.asList(first, second, first, null));
+
+        assertThat(affected).isEqualTo(2);
+        assertThat((UUID[]) idsCaptor.getValue()).containsExactly(first, second);
+    }
+
+    @Test
+    void reindexBook_upsertsSingleRow() {
+        BookSearchIndexService service = new BookSearchIndexService(jdbcTemplate, true);
+        UUID bookId = UUID.randomUUID();
+        ArgumentCaptor<Object> idsCaptor = ArgumentCaptor.forClass(Object.class);
+
+        service.reindexBook(bookId);
+
+        verify(jdbcTemplate).queryForObject(eq("SELECT refresh_book_search_index(?::UUID[])"), eq(Integer.class), idsCaptor.capture());
+        assertThat((UUID[]) idsCaptor.getValue()).containsExactly(bookId);
+    }
+}
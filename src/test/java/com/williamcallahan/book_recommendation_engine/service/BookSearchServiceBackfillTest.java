@@ -0,0 +1,70 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchServiceBackfillTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ExternalBookIdResolver externalBookIdResolver;
+
+    @Mock
+    private BackfillCoordinator backfillCoordinator;
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private BookSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookSearchService(jdbcTemplate, Optional.of(externalBookIdResolver),
+            Optional.of(backfillCoordinator), scheduled::add);
+        ReflectionTestUtils.setField(service, "asyncBackfillEnabled", true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchBooks_resolvesExternalIdsInOneBulkLookupOffTheRequestPath() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+            .thenReturn(List.of(
+                new BookSearchService.SearchResult(first, 0.9, "TITLE"),
+                new BookSearchService.SearchResult(second, 0.5, "AUTHOR")));
+
+        List<BookSearchService.SearchResult> results = service.searchBooks("dune", 20);
+
+        assertThat(results).hasSize(2);
+        assertThat(scheduled).hasSize(1);
+        verifyNoInteractions(externalBookIdResolver, backfillCoordinator);
+
+        when(externalBookIdResolver.reverseAll(List.of(first, second)))
+            .thenReturn(Map.of(first, Map.of("GOOGLE_BOOKS", "vol-1")));
+        scheduled.getFirst().run();
+
+        verify(backfillCoordinator).enqueue("GOOGLE_BOOKS", "vol-1", 3);
+    }
+}
@@ -33,11 +33,14 @@ class BookSupplementalPersistenceServiceTest {
     @Mock
     private BookCollectionPersistenceService collectionPersistenceService;
 
+    @Mock
+    private BookSearchIndexService searchIndexService;
+
     private BookSupplementalPersistenceService service;
 
     @BeforeEach
     void setUp() {
-        service = new BookSupplementalPersistenceService(jdbcTemplate, new ObjectMapper(), collectionPersistenceService);
+        service = new BookSupplementalPersistenceService(jdbcTemplate, new ObjectMapper(), collectionPersistenceService, searchIndexService);
     }
 
     @Test
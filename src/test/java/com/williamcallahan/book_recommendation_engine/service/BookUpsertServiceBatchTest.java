@@ -0,0 +1,190 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.williamcallahan.book_recommendation_engine.dto.BookAggregate;
+import com.williamcallahan.book_recommendation_engine.service.image.CoverPersistenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookUpsertServiceBatchTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BookCollectionPersistenceService collectionPersistenceService;
+
+    @Mock
+    private CoverPersistenceService coverPersistenceService;
+
+    @Mock
+    private BookSearchIndexService searchIndexService;
+
+    private BookUpsertService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookUpsertService(jdbcTemplate, new ObjectMapper(), collectionPersistenceService,
+            coverPersistenceService, searchIndexService, "poll");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertBatch_resolvesOnceAndWritesWithBatches() throws Exception {
+        UUID existingId = UUID.randomUUID();
+        // Resolution query finds the first book by external id; the author upsert returns both names
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            if (sql.contains("FROM book_external_ids e")) {
+                handler.processRow(row("match_key", "EXTERNAL|GOOGLE_BOOKS|vol-1", "id", existingId));
+            } else if (sql.contains("INSERT INTO authors")) {
+                handler.processRow(row("name", "Ann Author", "id", "author-1"));
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        List<BookUpsertService.UpsertResult> results = service.upsertBatch(List.of(
+            aggregate("vol-1", "Existing Book", "9780000000001"),
+            aggregate("vol-2", "New Book", "9780000000002"),
+            aggregate("vol-3", "Same New Book", "9780000000002")
+        ));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getBookId()).isEqualTo(existingId);
+        assertThat(results.get(0).isNew()).isFalse();
+        assertThat(results.get(1).isNew()).isTrue();
+        // Shares an ISBN-13 with the previous aggregate, so it maps to the same new book
+        assertThat(results.get(2).getBookId()).isEqualTo(results.get(1).getBookId());
+
+        verify(jdbcTemplate, times(1)).query(contains("FROM book_external_ids e"), any(RowCallbackHandler.class), any(Object[].class));
+        verify(jdbcTemplate, times(1)).query(contains("INSERT INTO authors"), any(RowCallbackHandler.class), any(Object[].class));
+
+        ArgumentCaptor<List<Object[]>> bookRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO books"), bookRows.capture());
+        assertThat(bookRows.getValue()).hasSize(2);
+        verify(jdbcTemplate).batchUpdate(contains("ensure_unique_slug"), anyList());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO book_authors_join"), anyList());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO book_external_ids"), anyList());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO events_outbox"), anyList());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(searchIndexService).reindexBooks(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertBatch_recordsExternalIdsOfEveryAggregateThatResolvesToTheSameBook() {
+        List<BookUpsertService.UpsertResult> results = service.upsertBatch(List.of(
+            aggregate("GOOGLE_BOOKS", "vol-1", "Shared Book", "9780000000004"),
+            aggregate("OPEN_LIBRARY", "OL1W", "Shared Book", "9780000000004")
+        ));
+
+        UUID bookId = results.get(0).getBookId();
+        assertThat(results.get(1).getBookId()).isEqualTo(bookId);
+
+        ArgumentCaptor<List<Object[]>> bookRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO books"), bookRows.capture());
+        assertThat(bookRows.getValue()).hasSize(1);
+
+        ArgumentCaptor<List<Object[]>> externalIdRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO book_external_ids"), externalIdRows.capture());
+        assertThat(externalIdRows.getValue())
+            .extracting(row -> row[1], row -> row[2], row -> row[3])
+            .containsExactly(
+                tuple(bookId, "GOOGLE_BOOKS", "vol-1"),
+                tuple(bookId, "OPEN_LIBRARY", "OL1W"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertBatch_writesBooksAndAuthorsInKeyOrder() {
+        AtomicReference<String[]> boundNames = new AtomicReference<>();
+        doAnswer(invocation -> {
+            if (invocation.<String>getArgument(0).contains("INSERT INTO authors")) {
+                boundNames.set((String[]) invocation.getArgument(3));
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        service.upsertBatch(List.of(
+            aggregate("GOOGLE_BOOKS", "vol-1", "First Book", "9780000000005", List.of("Zoe Writer", "Ann Author")),
+            aggregate("GOOGLE_BOOKS", "vol-2", "Second Book", "9780000000006", List.of("Mia Poet")),
+            aggregate("vol-3", "Third Book", "9780000000007")
+        ));
+
+        // Parallel batches sharing rows must lock them in the same order
+        assertThat(boundNames.get()).containsExactly("Ann Author", "Mia Poet", "Zoe Writer");
+        ArgumentCaptor<List<Object[]>> bookRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO books"), bookRows.capture());
+        assertThat(bookRows.getValue()).extracting(row -> (UUID) row[0]).isSorted();
+    }
+
+    @Test
+    void upsertBatch_rejectsAggregateWithoutTitle() {
+        BookAggregate untitled = BookAggregate.builder().isbn13("9780000000003").build();
+
+        assertThatThrownBy(() -> service.upsertBatch(List.of(untitled)))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static BookAggregate aggregate(String volumeId, String title, String isbn13) {
+        return aggregate("GOOGLE_BOOKS", volumeId, title, isbn13);
+    }
+
+    private static BookAggregate aggregate(String source, String externalId, String title, String isbn13) {
+        return aggregate(source, externalId, title, isbn13, List.of("Ann Author"));
+    }
+
+    private static BookAggregate aggregate(String source, String externalId, String title, String isbn13, List<String> authors) {
+        return BookAggregate.builder()
+            .title(title)
+            .isbn13(isbn13)
+            .slugBase(title.toLowerCase().replace(' ', '-'))
+            .authors(authors)
+            .identifiers(BookAggregate.ExternalIdentifiers.builder()
+                .source(source)
+                .externalId(externalId)
+                .build())
+            .build();
+    }
+
+    private static ResultSet row(String firstColumn, Object firstValue, String secondColumn, Object secondValue) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(firstColumn)).thenReturn(String.valueOf(firstValue));
+        if (secondValue instanceof String text) {
+            when(rs.getString(secondColumn)).thenReturn(text);
+        } else {
+            when(rs.getObject(secondColumn)).thenReturn(secondValue);
+        }
+        return rs;
+    }
+}
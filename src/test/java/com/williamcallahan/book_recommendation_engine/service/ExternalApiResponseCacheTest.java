@@ -0,0 +1,104 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.williamcallahan.book_recommendation_engine.config.ExternalApiCacheProperties;
+import com.williamcallahan.book_recommendation_engine.util.CompressionUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import reactor.core.publisher.Mono;
+
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExternalApiResponseCacheTest {
+
+    private static final String URL = "https://www.googleapis.com/books/v1/volumes?q=dune&startIndex=0&key=secret";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private ExternalApiResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ExternalApiResponseCache(jdbcTemplate, objectMapper, new ExternalApiCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void cacheKey_ignoresApiKeyAndParameterOrder() {
+        assertThat(ExternalApiResponseCache.cacheKey(URL))
+            .isEqualTo(ExternalApiResponseCache.cacheKey("https://www.googleapis.com/books/v1/volumes?startIndex=0&q=dune"))
+            .isNotEqualTo(ExternalApiResponseCache.cacheKey("https://www.googleapis.com/books/v1/volumes?q=dune&startIndex=40"));
+    }
+
+    @Test
+    void fetch_servesFreshEntryWithoutCallingProvider() throws Exception {
+        stubCachedRow("{\"totalItems\":1}", true);
+        AtomicInteger liveCalls = new AtomicInteger();
+
+        JsonNode body = cache.fetch("google-search", URL, true, () -> {
+            liveCalls.incrementAndGet();
+            return Mono.empty();
+        }).block();
+
+        assertThat(body.get("totalItems").asInt()).isEqualTo(1);
+        assertThat(liveCalls).hasValue(0);
+        assertThat(meterRegistry.get("external.api.cache.hit.ratio").tag("endpoint", "google-search").gauge().value())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void fetch_servesStaleEntryWhileLiveCallsAreBlocked() throws Exception {
+        stubCachedRow("{\"id\":\"vol-1\"}", false);
+
+        JsonNode body = cache.fetch("google-volume", URL, false, () -> Mono.error(new AssertionError("not called"))).block();
+
+        assertThat(body.get("id").asText()).isEqualTo("vol-1");
+        assertThat(meterRegistry.get("external.api.cache.requests")
+            .tag("endpoint", "google-volume").tag("result", "stale").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void fetch_storesLiveResponseOnMiss() throws Exception {
+        doAnswer(invocation -> null)
+            .when(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+        JsonNode live = objectMapper.readTree("{\"id\":\"vol-2\"}");
+
+        JsonNode body = cache.fetch("google-volume", URL, true, () -> Mono.just(live)).block();
+
+        assertThat(body).isEqualTo(live);
+        verify(jdbcTemplate, timeout(1000)).update(contains("INSERT INTO external_api_response_cache"),
+            eq(ExternalApiResponseCache.cacheKey(URL)), eq("google-volume"), any(byte[].class), eq("604800 seconds"));
+    }
+
+    private void stubCachedRow(String json, boolean fresh) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getBytes("body")).thenReturn(CompressionUtils.gzipUtf8(json));
+        when(rs.getBoolean("fresh")).thenReturn(fresh);
+        doAnswer(invocation -> invocation.<ResultSetExtractor<?>>getArgument(1).extractData(rs))
+            .when(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+    }
+}
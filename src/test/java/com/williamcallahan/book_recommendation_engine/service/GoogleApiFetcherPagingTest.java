@@ -0,0 +1,138 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.williamcallahan.book_recommendation_engine.config.ExternalApiCacheProperties;
+import com.williamcallahan.book_recommendation_engine.config.GoogleApiQuotaProperties;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GoogleApiFetcherPagingTest {
+
+    @Mock
+    private ApiRequestMonitor apiRequestMonitor;
+
+    @Mock
+    private ApiCircuitBreakerService circuitBreakerService;
+
+    @Mock
+    private ObjectProvider<RateLimiterRegistry> rateLimiterRegistryProvider;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private int totalItems;
+
+    private WebClient.Builder webClientBuilder;
+    private GoogleApiFetcher fetcher;
+
+    @BeforeEach
+    void setUp() {
+        when(rateLimiterRegistryProvider.getIfAvailable()).thenReturn(null);
+        // Earlier pages answer slower, so out-of-order completion would show up in the item order
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            int startIndex = Integer.parseInt(UriComponentsBuilder.fromUri(request.url()).build()
+                .getQueryParams().getFirst("startIndex"));
+            int count = Math.max(0, Math.min(40, totalItems - startIndex));
+            String items = IntStream.range(startIndex, startIndex + count)
+                .mapToObj(i -> "{\"id\":\"vol-" + i + "\"}")
+                .collect(Collectors.joining(","));
+            ClientResponse response = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"items\":[" + items + "]}")
+                .build();
+            return Mono.just(response)
+                .delayElement(Duration.ofMillis(150 - startIndex))
+                .doFinally(signal -> inFlight.decrementAndGet());
+        });
+        webClientBuilder = builder;
+        fetcher = newFetcher();
+    }
+
+    private GoogleApiFetcher newFetcher() {
+        ExternalApiResponseCache passthroughCache = new ExternalApiResponseCache(null, new ObjectMapper(),
+            new ExternalApiCacheProperties(), new SimpleMeterRegistry());
+        GoogleApiFetcher created = new GoogleApiFetcher(webClientBuilder, apiRequestMonitor, circuitBreakerService, passthroughCache,
+            rateLimiterRegistryProvider, new ObjectMapper(),
+            new GoogleApiQuotaBudget(null, new GoogleApiQuotaProperties(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(created, "googleBooksApiUrl", "https://books.example/v1");
+        ReflectionTestUtils.setField(created, "googleFallbackEnabled", true);
+        ReflectionTestUtils.setField(created, "searchPageConcurrency", 3);
+        return created;
+    }
+
+    @Test
+    void streamSearchItems_fetchesPagesConcurrentlyAndKeepsPageOrder() {
+        totalItems = 500;
+
+        List<String> ids = fetcher.streamSearchItems("dune", 120, "relevance", null, false)
+            .map(node -> node.get("id").asText())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(ids).hasSize(120);
+        assertThat(ids).containsExactlyElementsOf(IntStream.range(0, 120).mapToObj(i -> "vol-" + i).toList());
+        assertThat(maxInFlight.get()).isEqualTo(3);
+    }
+
+    @Test
+    void streamSearchItems_skipsPagesNotYetStartedAfterShortPage() {
+        totalItems = 10;
+        ReflectionTestUtils.setField(fetcher, "searchPageConcurrency", 1);
+
+        List<JsonNode> items = fetcher.streamSearchItems("dune", 120, "relevance", null, false)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(items).hasSize(10);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void streamSearchItems_endsAtFirstRateLimitedPageWithoutHoles() {
+        totalItems = 500;
+        RateLimiterRegistry registry = mock(RateLimiterRegistry.class);
+        RateLimiter limiter = mock(RateLimiter.class);
+        when(rateLimiterRegistryProvider.getIfAvailable()).thenReturn(registry);
+        when(registry.rateLimiter("googleBooksServiceRateLimiter")).thenReturn(limiter);
+        // The permit for the second page is denied; a refilled limiter must not let the third page through
+        when(limiter.acquirePermission()).thenReturn(false, true);
+        fetcher = newFetcher();
+
+        List<String> ids = fetcher.streamSearchItems("dune", 120, "relevance", null, false)
+            .map(node -> node.get("id").asText())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(ids).containsExactlyElementsOf(IntStream.range(0, 40).mapToObj(i -> "vol-" + i).toList());
+        assertThat(requests).hasValue(1);
+    }
+}
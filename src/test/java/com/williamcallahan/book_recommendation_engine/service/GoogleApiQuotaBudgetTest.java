@@ -0,0 +1,120 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.config.GoogleApiQuotaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import reactor.core.publisher.Mono;
+
+import java.sql.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class GoogleApiQuotaBudgetTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GoogleApiQuotaBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        budget = new GoogleApiQuotaBudget(jdbcTemplate, new GoogleApiQuotaProperties(), meterRegistry);
+    }
+
+    @Test
+    void tryAcquire_spendsLeasedTokensWithoutGoingBackToPostgres() {
+        stubLease(20, 900, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(budget.tryAcquire(ApiRequestPriority.INTERACTIVE_SEARCH).block()).isTrue();
+        }
+
+        assertThat(budget.localTokens()).isEqualTo(10);
+        verify(jdbcTemplate, times(1)).query(contains("claim_api_quota_lease"), any(ResultSetExtractor.class), any(Object[].class));
+    }
+
+    @Test
+    void tryAcquire_keepsReserveForHigherPriorities() {
+        stubLease(20, 0, false); // Last lease of the day: only this node's 20 tokens are left
+
+        assertThat(budget.tryAcquire(ApiRequestPriority.BACKFILL).block()).isFalse();
+        assertThat(budget.tryAcquire(ApiRequestPriority.INTERACTIVE_SEARCH).block()).isTrue();
+        assertThat(meterRegistry.get("google.api.quota.requests")
+            .tag("priority", "BACKFILL").tag("outcome", "reserved").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void markExhausted_blocksCallsAndRecordsExhaustionForTheCluster() {
+        stubLease(20, 900, false);
+        assertThat(budget.tryAcquire(ApiRequestPriority.INTERACTIVE_SEARCH).block()).isTrue();
+
+        budget.markExhausted();
+
+        assertThat(budget.tryAcquire(ApiRequestPriority.INTERACTIVE_SEARCH).block()).isFalse();
+        verify(jdbcTemplate, timeout(1000)).update(contains("exhausted_at"),
+            eq(GoogleApiQuotaBudget.PROVIDER), any(Date.class), eq(1000));
+    }
+
+    @Test
+    void guard_skipsCallWhenLedgerReportsExhaustedDay() {
+        stubLease(0, 0, true);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = budget.guard(() -> {
+                calls.incrementAndGet();
+                return Mono.just("body");
+            })
+            .contextWrite(ApiRequestPriority.BACKFILL.asContext())
+            .block();
+
+        assertThat(result).isNull();
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void tryAcquire_failsOpenWhenLedgerIsUnavailable() {
+        doThrow(new DataAccessResourceFailureException("down"))
+            .when(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+
+        assertThat(budget.tryAcquire(ApiRequestPriority.CACHE_WARMING).block()).isTrue();
+        assertThat(meterRegistry.get("google.api.quota.requests")
+            .tag("priority", "CACHE_WARMING").tag("outcome", "unmetered").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void releaseLease_returnsUnspentTokens() {
+        stubLease(20, 900, false);
+        budget.tryAcquire(ApiRequestPriority.INTERACTIVE_SEARCH).block();
+
+        budget.releaseLease();
+
+        verify(jdbcTemplate).update(contains("GREATEST(0, granted - ?)"), eq(19),
+            eq(GoogleApiQuotaBudget.PROVIDER), any(Date.class));
+        assertThat(budget.localTokens()).isZero();
+    }
+
+    private void stubLease(int leased, int remaining, boolean exhausted) {
+        doAnswer(invocation -> new int[] {leased, remaining, exhausted ? 1 : 0})
+            .when(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+    }
+}
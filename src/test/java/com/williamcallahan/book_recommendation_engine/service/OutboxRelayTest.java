@@ -0,0 +1,134 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(jdbcTemplate, messagingTemplate, transactionManager, "poll", Duration.ofSeconds(30));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relayPending_claimsWithSkipLockedAndAcksBatchWithOneUpdate() {
+        UUID sent1 = UUID.randomUUID();
+        UUID sent2 = UUID.randomUUID();
+        UUID failed = UUID.randomUUID();
+        ArgumentCaptor<String> claimSql = ArgumentCaptor.forClass(String.class);
+        when(jdbcTemplate.query(claimSql.capture(), any(RowMapper.class), anyInt())).thenReturn(List.of(
+            new OutboxRelay.OutboxEvent(sent1, "/topic/book.1", "{}", 0),
+            new OutboxRelay.OutboxEvent(failed, "/topic/book.2", "{}", 0),
+            new OutboxRelay.OutboxEvent(sent2, "/topic/book.3", "{}", 0)
+        ));
+        doAnswer(invocation -> {
+            if ("/topic/book.2".equals(invocation.getArgument(0))) {
+                throw new MessagingException("broker down");
+            }
+            return null;
+        }).when(messagingTemplate).convertAndSend(anyString(), any(Object.class));
+
+        assertThat(relay.relayPending()).isEqualTo(2);
+
+        assertThat(claimSql.getValue()).contains("FOR UPDATE SKIP LOCKED");
+        ArgumentCaptor<Object> sentIds = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(1)).update(contains("SET sent_at = NOW() WHERE event_id = ANY(?::UUID[])"), sentIds.capture());
+        assertThat((UUID[]) sentIds.getValue()).containsExactly(sent1, sent2);
+        ArgumentCaptor<Object> failedIds = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(1)).update(contains("retry_count = retry_count + 1 WHERE event_id = ANY(?::UUID[])"), failedIds.capture());
+        assertThat((UUID[]) failedIds.getValue()).containsExactly(failed);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relayPending_skipsUpdatesWhenNothingClaimed() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyInt())).thenReturn(List.of());
+
+        assertThat(relay.relayPending()).isZero();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object.class));
+    }
+
+    @Test
+    void stopListener_unlistensAndReturnsTheListenConnection() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return null;
+        });
+        OutboxRelay notifyRelay = new OutboxRelay(jdbcTemplate, messagingTemplate, transactionManager, "notify", Duration.ofSeconds(30));
+
+        notifyRelay.startListener();
+        verify(pgConnection, timeout(1000).atLeastOnce()).getNotifications(1000);
+        notifyRelay.stopListener();
+
+        InOrder order = inOrder(statement, connection);
+        order.verify(statement).execute("LISTEN " + OutboxRelay.NOTIFY_CHANNEL);
+        order.verify(statement).execute("UNLISTEN " + OutboxRelay.NOTIFY_CHANNEL);
+        order.verify(connection).close();
+    }
+
+    @Test
+    void cleanupOldEvents_dropsPartitionsInsteadOfDeletingRows() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(2);
+
+        assertThat(relay.cleanupOldEvents()).isEqualTo(2);
+
+        verify(jdbcTemplate).queryForObject("SELECT drop_expired_events_outbox_partitions(?::interval)",
+            Integer.class, "604800 seconds");
+        verify(jdbcTemplate, never()).update(contains("DELETE"), any(Object[].class));
+    }
+}
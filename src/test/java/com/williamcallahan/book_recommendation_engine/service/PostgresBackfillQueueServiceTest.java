@@ -0,0 +1,147 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.config.BackfillProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresBackfillQueueServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private BackfillProperties properties;
+    private PostgresBackfillQueueService queue;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BackfillProperties();
+        properties.setQueue("postgres");
+        properties.setClaimBatchSize(2);
+        properties.setRetryBaseDelay(Duration.ofSeconds(5));
+        properties.setRetryMaxDelay(Duration.ofSeconds(30));
+        queue = new PostgresBackfillQueueService(jdbcTemplate, properties);
+    }
+
+    @Test
+    void enqueue_reportsDuplicateWhenRowAlreadyExists() {
+        when(jdbcTemplate.update(contains("ON CONFLICT (source, source_id) DO NOTHING"), any(), any(), any()))
+            .thenReturn(1, 0);
+
+        assertThat(queue.enqueue("GOOGLE_BOOKS", "vol-1", 3)).isTrue();
+        assertThat(queue.enqueue("GOOGLE_BOOKS", "vol-1", 3)).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void take_claimsBatchWithSkipLockedAndServesItFromBuffer() throws Exception {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(jdbcTemplate.query(sql.capture(), any(RowMapper.class), eq("GOOGLE_BOOKS"), eq(2), anyString(), anyString()))
+            .thenAnswer(claimedRows("vol-1", "vol-2"));
+
+        assertThat(queue.take("GOOGLE_BOOKS").sourceId()).isEqualTo("vol-1");
+        assertThat(queue.take("GOOGLE_BOOKS").sourceId()).isEqualTo("vol-2");
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(), any(), any(), any());
+        assertThat(sql.getValue()).contains("FOR UPDATE SKIP LOCKED").contains("ORDER BY priority, not_before");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drain_renewsLeaseOfStaleBufferedClaimsAndSkipsLostOnes() throws Exception {
+        properties.setClaimBatchSize(3);
+        properties.setClaimLease(Duration.ofMillis(2));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("GOOGLE_BOOKS"), eq(3), anyString(), anyString()))
+            .thenAnswer(claimedRows("vol-1", "vol-2", "vol-3"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("GOOGLE_BOOKS"), eq(4), anyString(), anyString()))
+            .thenReturn(List.of());
+        // Another node reclaimed vol-3 after its lease expired
+        lenient().when(jdbcTemplate.update(contains("SET claimed_until = NOW() + ?::interval"), any(), any(), any(), any()))
+            .thenAnswer(invocation -> "vol-3".equals(invocation.getArgument(3)) ? 0 : 1);
+
+        queue.take("GOOGLE_BOOKS");
+        Thread.sleep(5);
+        List<BackfillTaskQueue.BackfillTask> drained = queue.drain("GOOGLE_BOOKS", 5);
+
+        assertThat(drained).extracting(BackfillTaskQueue.BackfillTask::sourceId).containsExactly("vol-2");
+        verify(jdbcTemplate).update(contains("SET claimed_until = NOW() + ?::interval"),
+            eq("2 milliseconds"), eq("GOOGLE_BOOKS"), eq("vol-2"), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void releaseBufferedClaims_freesClaimsNotYetHandedOut() throws Exception {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("GOOGLE_BOOKS"), eq(2), anyString(), anyString()))
+            .thenAnswer(claimedRows("vol-1", "vol-2"));
+        queue.take("GOOGLE_BOOKS");
+
+        queue.releaseBufferedClaims();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("SET claimed_by = NULL, claimed_until = NULL"), rows.capture());
+        assertThat(rows.getValue()).singleElement()
+            .satisfies(row -> assertThat(row).startsWith("GOOGLE_BOOKS", "vol-2"));
+    }
+
+    @Test
+    void retry_releasesClaimWithExponentialBackoff() {
+        BackfillTaskQueue.BackfillTask task =
+            new BackfillTaskQueue.BackfillTask("GOOGLE_BOOKS", "vol-1", 5, "GOOGLE_BOOKS|vol-1", 2);
+
+        queue.retry(task);
+
+        verify(jdbcTemplate).update(contains("not_before = NOW() + ?::interval"),
+            eq(2), eq("20000 milliseconds"), eq("GOOGLE_BOOKS"), eq("vol-1"));
+        assertThat(queue.retryDelay(0)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(queue.retryDelay(10)).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void markCompleted_deletesRow() {
+        queue.markCompleted(new BackfillTaskQueue.BackfillTask("GOOGLE_BOOKS", "vol-1", 5, "GOOGLE_BOOKS|vol-1", 0));
+
+        verify(jdbcTemplate).update("DELETE FROM backfill_queue WHERE source = ? AND source_id = ?", "GOOGLE_BOOKS", "vol-1");
+    }
+
+    /**
+     * Answers the claim query by running its row mapper over one row per source id.
+     */
+    private static Answer<List<Object>> claimedRows(String... sourceIds) {
+        return invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < sourceIds.length; i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("source")).thenReturn("GOOGLE_BOOKS");
+                when(rs.getString("source_id")).thenReturn(sourceIds[i]);
+                when(rs.getInt("priority")).thenReturn(5);
+                when(rs.getInt("attempts")).thenReturn(0);
+                mapped.add(mapper.mapRow(rs, i));
+            }
+            return mapped;
+        };
+    }
+}
@@ -49,7 +49,9 @@ class PostgresBookReaderDedupeTest {
                 bookUpsertService,
                 googleBooksMapper,
                 tieredBookSearchService,
-                false
+                null,
+                false,
+                null
         );
         stubDatabaseQueries();
     }
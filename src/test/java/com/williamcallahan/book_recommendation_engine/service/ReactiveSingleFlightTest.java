@@ -0,0 +1,166 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.model.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveSingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReactiveSingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new ReactiveSingleFlight(meterRegistry);
+    }
+
+    @Test
+    void mono_concurrentCallersShareOnePipeline() {
+        AtomicInteger invocations = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = singleFlight.mono("book-by-id", "abc", () -> {
+            invocations.incrementAndGet();
+            return upstream.asMono();
+        }, UnaryOperator.identity());
+        Mono<String> second = singleFlight.mono("book-by-id", "abc", () -> {
+            invocations.incrementAndGet();
+            return upstream.asMono();
+        }, UnaryOperator.identity());
+
+        List<String> results = new CopyOnWriteArrayList<>();
+        first.subscribe(results::add);
+        second.subscribe(results::add);
+        upstream.tryEmitValue("book");
+
+        assertThat(invocations).hasValue(1);
+        assertThat(results).containsExactly("book", "book");
+        assertThat(meterRegistry.get("singleflight.coalescing.ratio").tag("name", "book-by-id").gauge().value())
+            .isEqualTo(0.5);
+        assertThat(meterRegistry.get("singleflight.inflight").gauge().value()).isZero();
+    }
+
+    @Test
+    void mono_startsFreshPipelineAfterCompletion() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            String value = singleFlight.mono("book-by-id", "abc",
+                () -> Mono.fromCallable(() -> "call-" + invocations.incrementAndGet()), UnaryOperator.identity()).block();
+            assertThat(value).isEqualTo("call-" + (i + 1));
+        }
+        assertThat(meterRegistry.get("singleflight.calls").tag("role", "leader").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void flux_lateSubscriberGetsEmittedElementsReplayed() {
+        AtomicInteger invocations = new AtomicInteger();
+        Sinks.Many<Integer> upstream = Sinks.many().replay().all();
+
+        Flux<Integer> leader = singleFlight.flux("tiered-search", "q", () -> {
+            invocations.incrementAndGet();
+            return upstream.asFlux();
+        }, UnaryOperator.identity());
+        List<Integer> leaderResults = new ArrayList<>();
+        leader.subscribe(leaderResults::add);
+        upstream.tryEmitNext(1);
+
+        List<Integer> followerResults = new ArrayList<>();
+        singleFlight.<Integer>flux("tiered-search", "q", () -> {
+            invocations.incrementAndGet();
+            return Flux.empty();
+        }, UnaryOperator.identity()).subscribe(followerResults::add);
+        upstream.tryEmitNext(2);
+        upstream.tryEmitComplete();
+
+        assertThat(invocations).hasValue(1);
+        assertThat(leaderResults).containsExactly(1, 2);
+        assertThat(followerResults).containsExactly(1, 2);
+    }
+
+    @Test
+    void mono_eachSubscriberGetsItsOwnCopy() {
+        Sinks.One<Book> upstream = Sinks.one();
+        List<Book> results = new CopyOnWriteArrayList<>();
+        singleFlight.mono("book-by-id", "abc", upstream::asMono, Book::copy).subscribe(results::add);
+        singleFlight.mono("book-by-id", "abc", upstream::asMono, Book::copy).subscribe(results::add);
+
+        Book shared = new Book("abc", "Title", List.of("Author"), null, "https://cdn.example/abc.jpg", null);
+        upstream.tryEmitValue(shared);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0)).isNotSameAs(results.get(1)).isNotSameAs(shared);
+        results.get(0).addQualifier("tag", "first");
+        results.get(0).setS3ImagePath("https://cdn.example/replaced.jpg");
+        assertThat(results.get(1).hasQualifier("tag")).isFalse();
+        assertThat(results.get(1).getS3ImagePath()).isEqualTo("https://cdn.example/abc.jpg");
+    }
+
+    @Test
+    void flux_upstreamIsCancelledOnlyWhenLastSubscriberLeaves() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.Many<Integer> upstream = Sinks.many().multicast().onBackpressureBuffer();
+        Flux<Integer> source = upstream.asFlux().doOnCancel(() -> cancelled.set(true));
+
+        List<Integer> remaining = new ArrayList<>();
+        Disposable first = singleFlight.flux("tiered-search", "q", () -> source, UnaryOperator.identity()).subscribe();
+        singleFlight.flux("tiered-search", "q", () -> source, UnaryOperator.identity()).take(1).subscribe(remaining::add);
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+
+        upstream.tryEmitNext(1);
+        assertThat(remaining).containsExactly(1);
+        assertThat(cancelled).isTrue();
+        assertThat(meterRegistry.get("singleflight.inflight").gauge().value()).isZero();
+    }
+
+    @Test
+    void mono_callersWithDifferentPrioritiesDoNotShareAPipeline() {
+        AtomicInteger invocations = new AtomicInteger();
+        Supplier<Mono<ApiRequestPriority>> source = () -> Mono.deferContextual(ctx -> {
+            invocations.incrementAndGet();
+            return Mono.just(ApiRequestPriority.from(ctx)).delayElement(Duration.ofMillis(50));
+        });
+
+        Mono<ApiRequestPriority> background = singleFlight.mono("book-by-id", "abc", source, UnaryOperator.identity())
+            .contextWrite(ApiRequestPriority.BACKFILL.asContext());
+        Mono<ApiRequestPriority> interactive = singleFlight.mono("book-by-id", "abc", source, UnaryOperator.identity());
+
+        List<ApiRequestPriority> seen = Mono.zip(background, interactive, List::of).block();
+
+        assertThat(invocations).hasValue(2);
+        assertThat(seen).containsExactly(ApiRequestPriority.BACKFILL, ApiRequestPriority.INTERACTIVE_SEARCH);
+    }
+
+    @Test
+    void mono_pipelineKeepsTheCallersContext() {
+        Mono<String> traced = singleFlight.mono("book-by-id", "ctx",
+            () -> Mono.deferContextual(ctx -> Mono.just(ctx.getOrDefault("traceId", "missing") + "|" + ApiRequestPriority.from(ctx))),
+            UnaryOperator.identity());
+
+        String seen = traced
+            .contextWrite(ApiRequestPriority.BACKFILL.asContext())
+            .contextWrite(ctx -> ctx.put("traceId", "trace-1"))
+            .block(Duration.ofSeconds(1));
+
+        assertThat(seen).isEqualTo("trace-1|" + ApiRequestPriority.BACKFILL);
+    }
+}
@@ -0,0 +1,105 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecentBookViewRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecentBookViewRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new RecentBookViewRepository(jdbcTemplate, meterRegistry, 2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void recordView_buffersAndDropsWhenFullWithoutTouchingDatabase() {
+        assertThat(repository.recordView("book-1", Instant.now(), "web")).isTrue();
+        assertThat(repository.recordView("book-2", Instant.now(), "web")).isTrue();
+        assertThat(repository.recordView("book-3", Instant.now(), "web")).isFalse();
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(meterRegistry.get("book.views.dropped").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("book.views.buffer.depth").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushBufferedViews_writesAllBufferedViewsWithOneStatement() {
+        repository.recordView("book-1", Instant.now(), "web");
+        repository.recordView("book-2", Instant.now(), null);
+
+        assertThat(repository.flushBufferedViews()).isEqualTo(2);
+
+        ArgumentCaptor<Object> bookIds = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(1)).query(eq("SELECT record_book_views(?::text[], ?::timestamptz[], ?::text[])"),
+            any(ResultSetExtractor.class), bookIds.capture(), any(), any());
+        assertThat((String[]) bookIds.getValue()).containsExactly("book-1", "book-2");
+        assertThat(meterRegistry.get("book.views.buffer.depth").gauge().value()).isZero();
+        assertThat(repository.flushBufferedViews()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushBufferedViews_requeuesBatchWhenTheWriteFails() {
+        repository.recordView("book-1", Instant.now(), "web");
+        repository.recordView("book-2", Instant.now(), "web");
+        when(jdbcTemplate.query(contains("record_book_views"), any(ResultSetExtractor.class), any(), any(), any()))
+            .thenThrow(new CannotAcquireLockException("deadlock detected"))
+            .thenReturn(null);
+
+        assertThat(repository.flushBufferedViews()).isZero();
+        assertThat(meterRegistry.get("book.views.buffer.depth").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("book.views.dropped").counter().count()).isZero();
+
+        assertThat(repository.flushBufferedViews()).isEqualTo(2);
+        assertThat(meterRegistry.get("book.views.flushed").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void readsServeFromStatsTableNotRawViews() {
+        repository.fetchStatsForBook("book-1");
+        repository.fetchMostRecentViews(10);
+
+        verify(jdbcTemplate).query(contains("FROM book_view_stats"), any(PreparedStatementSetter.class),
+            any(ResultSetExtractor.class));
+        verify(jdbcTemplate).query(contains("FROM book_view_stats"), any(PreparedStatementSetter.class),
+            any(RowMapper.class));
+    }
+
+    @Test
+    void compactRollups_passesRawRetentionAsInterval() {
+        when(jdbcTemplate.queryForObject("SELECT compact_book_view_rollups(?::interval)", Integer.class, "604800 seconds"))
+            .thenReturn(42);
+
+        assertThat(repository.compactRollups(Duration.ofDays(7))).isEqualTo(42);
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -87,11 +88,12 @@ class RecentlyViewedServiceTest {
     }
 
     @Test
-    void addToRecentlyViewed_recordsViewAndAppliesStats() {
+    void addToRecentlyViewed_recordsViewAndMergesStatsIntoReadCopies() {
         when(recentBookViewRepository.isEnabled()).thenReturn(true);
         Instant now = Instant.parse("2024-02-02T10:15:30Z");
-        when(recentBookViewRepository.fetchStatsForBook("uuid-2"))
-            .thenReturn(Optional.of(new RecentBookViewRepository.ViewStats("uuid-2", now, 5L, 12L, 20L)));
+        when(recentBookViewRepository.cachedStatsForBook("uuid-2"))
+            .thenReturn(CompletableFuture.completedFuture(
+                Optional.of(new RecentBookViewRepository.ViewStats("uuid-2", now, 5L, 12L, 20L))));
 
 Book book = com.williamcallahan.book_recommendation_engine.testutil.BookTestData.aBook()
                 .id("uuid-2").publishedDate(Date.from(Instant.parse("2020-01-01T00:00:00Z"))).s3ImagePath("https://cdn.example/uuid-2.jpg").build();
@@ -100,11 +102,17 @@ Book book = com.williamcallahan.book_recommendation_engine.testutil.BookTestData
         recentlyViewedService.addToRecentlyViewed(book);
 
         verify(recentBookViewRepository).recordView(eq("uuid-2"), any(Instant.class), eq("web"));
-        verify(recentBookViewRepository).fetchStatsForBook("uuid-2");
+        verify(recentBookViewRepository).cachedStatsForBook("uuid-2");
 
-        assertNotNull(book.getQualifiers());
-        assertEquals(12L, book.getQualifiers().get("recent.views.7d"));
-        assertEquals(now, book.getQualifiers().get("recent.views.lastViewedAt"));
+        // The published instance is never mutated by the async stats lookup
+        assertFalse(book.hasQualifier("recent.views.7d"));
+
+        assertEquals(List.of("uuid-2"), recentlyViewedService.getRecentlyViewedBookIds(1));
+        Book viewed = recentlyViewedService.snapshotRecentlyViewed().get(0);
+        assertNotSame(book, viewed);
+        assertNotNull(viewed.getQualifiers());
+        assertEquals(12L, viewed.getQualifiers().get("recent.views.7d"));
+        assertEquals(now, viewed.getQualifiers().get("recent.views.lastViewedAt"));
     }
 
 }
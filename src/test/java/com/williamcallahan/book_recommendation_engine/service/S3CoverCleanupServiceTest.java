@@ -0,0 +1,155 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.service.image.ImageProcessingService;
+import com.williamcallahan.book_recommendation_engine.service.s3.MoveActionSummary;
+import com.williamcallahan.book_recommendation_engine.service.s3.StreamingAuditSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class S3CoverCleanupServiceTest {
+
+    private static final String PREFIX = "images/book-covers/";
+
+    @Mock
+    private S3StorageService s3StorageService;
+
+    @Mock
+    private ImageProcessingService imageProcessingService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private S3CoverCleanupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new S3CoverCleanupService(s3StorageService, imageProcessingService, Runnable::run, jdbcTemplate, 2);
+    }
+
+    @Test
+    void performStreamingAudit_pagesListingAndCheckpointsEachPage() {
+        when(jdbcTemplate.query(contains("s3_cover_audit_checkpoint"), any(RowMapper.class), eq(PREFIX))).thenReturn(List.of());
+        when(s3StorageService.listObjectsPage(PREFIX, null, 3)).thenReturn(page("token-1", "a.jpg", "b.jpg"));
+        when(s3StorageService.listObjectsPage(PREFIX, "token-1", 1)).thenReturn(page("token-2", "c.jpg"));
+        when(s3StorageService.openObjectStream(anyString())).thenAnswer(invocation -> stream());
+        when(imageProcessingService.isDominantlyWhite(any(InputStream.class), anyString()))
+            .thenAnswer(invocation -> PREFIX.concat("b.jpg").equals(invocation.getArgument(1)));
+
+        StreamingAuditSummary summary = service.performStreamingAudit(PREFIX, 3, false);
+
+        assertThat(summary.getScannedThisRun()).isEqualTo(3);
+        assertThat(summary.getFlaggedFileKeys()).containsExactly(PREFIX + "b.jpg");
+        assertThat(summary.isComplete()).isFalse();
+        verify(jdbcTemplate).batchUpdate(contains("s3_cover_audit_flags"), anyList());
+        verify(jdbcTemplate).update(contains("UPDATE s3_cover_audit_checkpoint"), eq("token-2"), eq(3L), eq(1L), eq(false), eq(PREFIX));
+    }
+
+    @Test
+    void performStreamingAudit_resumesFromSavedContinuationToken() {
+        when(jdbcTemplate.query(contains("s3_cover_audit_checkpoint"), any(RowMapper.class), eq(PREFIX)))
+            .thenAnswer(invocation -> {
+                RowMapper<?> mapper = invocation.getArgument(1);
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("continuation_token")).thenReturn("token-9");
+                when(rs.getLong("scanned")).thenReturn(9000L);
+                when(rs.getLong("flagged")).thenReturn(12L);
+                return List.of(mapper.mapRow(rs, 0));
+            });
+        when(s3StorageService.listObjectsPage(PREFIX, "token-9", 1000)).thenReturn(page(null, "z.jpg"));
+        when(s3StorageService.openObjectStream(anyString())).thenAnswer(invocation -> stream());
+
+        StreamingAuditSummary summary = service.performStreamingAudit(PREFIX, 0, false);
+
+        assertThat(summary.isComplete()).isTrue();
+        assertThat(summary.getScannedSinceStart()).isEqualTo(9001L);
+        assertThat(summary.getFlaggedSinceStart()).isEqualTo(12L);
+        verify(jdbcTemplate).update(contains("UPDATE s3_cover_audit_checkpoint"), isNull(), eq(9001L), eq(12L), eq(true), eq(PREFIX));
+    }
+
+    @Test
+    void performStreamingAudit_restartClearsFlagsWithTheCheckpointReset() {
+        when(s3StorageService.listObjectsPage(PREFIX, null, 1000)).thenReturn(page(null, "a.jpg"));
+        when(s3StorageService.openObjectStream(anyString())).thenAnswer(invocation -> stream());
+
+        StreamingAuditSummary summary = service.performStreamingAudit(PREFIX, 0, true);
+
+        assertThat(summary.getScannedSinceStart()).isEqualTo(1L);
+        verify(jdbcTemplate, never()).query(contains("s3_cover_audit_checkpoint"), any(RowMapper.class), eq(PREFIX));
+        ArgumentCaptor<String> resetSql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(resetSql.capture(), eq(PREFIX), eq(PREFIX));
+        assertThat(resetSql.getValue())
+            .contains("DELETE FROM s3_cover_audit_flags WHERE prefix = ?")
+            .contains("INSERT INTO s3_cover_audit_checkpoint");
+    }
+
+    @Test
+    void performStreamingAudit_leavesSharedBlobsAlone() {
+        when(jdbcTemplate.query(contains("s3_cover_audit_checkpoint"), any(RowMapper.class), eq(PREFIX))).thenReturn(List.of());
+        when(s3StorageService.listObjectsPage(PREFIX, null, 1000)).thenReturn(page(null, "sha256/" + "ab".repeat(32) + "-lg.jpg", "a.jpg"));
+        when(s3StorageService.openObjectStream(anyString())).thenAnswer(invocation -> stream());
+
+        StreamingAuditSummary summary = service.performStreamingAudit(PREFIX, 0, false);
+
+        assertThat(summary.getScannedThisRun()).isEqualTo(2);
+        verify(s3StorageService).openObjectStream(PREFIX + "a.jpg");
+        verify(s3StorageService, never()).openObjectStream(startsWith(PREFIX + "sha256/"));
+    }
+
+    @Test
+    void performMoveAction_neverMovesSharedBlobs() {
+        String blobKey = PREFIX + "sha256/" + "ab".repeat(32) + "-lg.jpg";
+        when(s3StorageService.getBucketName()).thenReturn("covers-bucket");
+        when(s3StorageService.listObjects(PREFIX)).thenReturn(page(null, "sha256/" + "ab".repeat(32) + "-lg.jpg", "a.jpg").contents());
+        when(s3StorageService.downloadFileAsBytes(PREFIX + "a.jpg")).thenReturn(new byte[] {1, 2, 3});
+        when(imageProcessingService.isDominantlyWhite(any(byte[].class), anyString())).thenReturn(true);
+        when(s3StorageService.copyObject(PREFIX + "a.jpg", "quarantine/a.jpg")).thenReturn(true);
+        when(s3StorageService.deleteObject(PREFIX + "a.jpg")).thenReturn(true);
+
+        MoveActionSummary summary = service.performMoveAction(PREFIX, 0, "quarantine/");
+
+        assertThat(summary.getTotalScanned()).isEqualTo(1);
+        assertThat(summary.getSuccessfullyMoved()).isEqualTo(1);
+        verify(s3StorageService, never()).downloadFileAsBytes(blobKey);
+        verify(s3StorageService, never()).deleteObject(blobKey);
+    }
+
+    private static ListObjectsV2Response page(String nextToken, String... names) {
+        return ListObjectsV2Response.builder()
+            .contents(Arrays.stream(names).map(name -> S3Object.builder().key(PREFIX + name).size(1024L).build()).toList())
+            .nextContinuationToken(nextToken)
+            .isTruncated(nextToken != null)
+            .build();
+    }
+
+    private static InputStream stream() {
+        return new ByteArrayInputStream(new byte[] {1, 2, 3});
+    }
+}
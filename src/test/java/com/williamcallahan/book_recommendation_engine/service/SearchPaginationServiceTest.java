@@ -21,12 +21,15 @@ import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -171,6 +174,39 @@ class SearchPaginationServiceTest {
         verify(bookDataOrchestrator, never()).persistBooksAsync(any(), anyString());
     }
 
+    @Test
+    @DisplayName("search() serves the next cursor page from cached ids without re-running the search")
+    void searchServesCursorPageFromCache() {
+        List<UUID> ids = IntStream.range(0, 24).mapToObj(i -> UUID.randomUUID()).toList();
+        List<Book> dataset = ids.stream()
+            .map(id -> buildBook(id.toString(), "Title " + id, true))
+            .toList();
+        when(tieredBookSearchService.streamSearch(eq("java"), isNull(), eq(24), eq("newest"), eq(false)))
+            .thenReturn(Flux.fromIterable(dataset));
+        when(bookQueryRepository.fetchBookListItems(anyList())).thenAnswer(invocation -> {
+            List<UUID> requested = invocation.getArgument(0);
+            return requested.stream().map(id -> buildListItem(id, "Title " + id)).toList();
+        });
+
+        SearchPaginationService.SearchPage first = service.search(
+            new SearchPaginationService.SearchRequest("java", 0, 12, "newest")).block();
+        assertThat(first).isNotNull();
+        assertThat(first.nextCursor()).isNotBlank();
+
+        SearchPaginationService.SearchPage second = service.search(
+            new SearchPaginationService.SearchRequest("java", 0, 0, "newest", first.nextCursor())).block();
+
+        assertThat(second).isNotNull();
+        assertThat(second.startIndex()).isEqualTo(12);
+        assertThat(second.pageItems())
+            .extracting(Book::getId)
+            .containsExactlyElementsOf(ids.subList(12, 24).stream().map(UUID::toString).toList());
+        verify(tieredBookSearchService, times(1)).streamSearch(anyString(), any(), anyInt(), anyString(), anyBoolean());
+        ArgumentCaptor<List<UUID>> fetched = ArgumentCaptor.forClass(List.class);
+        verify(bookQueryRepository, times(1)).fetchBookListItems(fetched.capture());
+        assertThat(fetched.getValue()).containsExactlyElementsOf(ids.subList(12, 24));
+    }
+
     private Book buildBook(String id, String title, boolean inPostgres) {
         Book book = new Book();
         book.setId(id);
@@ -0,0 +1,107 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchViewRefreshCoordinatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BookSearchIndexService searchIndexService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SearchViewRefreshCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coordinator = new SearchViewRefreshCoordinator(jdbcTemplate, searchIndexService, meterRegistry, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void refreshIfDue_coalescesDirtySignalsIntoSingleRefresh() throws Exception {
+        stubRefreshOutcome(true, new Timestamp(System.currentTimeMillis()));
+
+        coordinator.markDirty();
+        coordinator.markDirty(4);
+        assertThat(meterRegistry.get(SearchViewRefreshCoordinator.PENDING_DIRTY_ROWS_GAUGE).gauge().value()).isEqualTo(5.0);
+
+        coordinator.refreshIfDue();
+        coordinator.refreshIfDue();
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), any(RowMapper.class), eq("60000 milliseconds"), eq(false));
+        assertThat(coordinator.pendingDirtyRows()).isZero();
+        assertThat(meterRegistry.get(SearchViewRefreshCoordinator.SECONDS_SINCE_REFRESH_GAUGE).gauge().value()).isLessThan(5.0);
+    }
+
+    @Test
+    void refreshIfDue_keepsRowsPendingWhenAnotherNodeHoldsLock() throws Exception {
+        stubRefreshOutcome(false, null);
+
+        coordinator.markDirty();
+        coordinator.refreshIfDue();
+
+        assertThat(coordinator.pendingDirtyRows()).isEqualTo(1);
+        assertThat(coordinator.secondsSinceLastRefresh()).isNaN();
+    }
+
+    @Test
+    void refreshIfDue_skipsDatabaseWhenNothingIsDirty() {
+        coordinator.refreshIfDue();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void markDirty_isIgnoredWhenIncrementalIndexServesSearch() {
+        when(searchIndexService.isIncrementalEnabled()).thenReturn(true);
+
+        coordinator.markDirty();
+        coordinator.refreshIfDue();
+
+        assertThat(coordinator.pendingDirtyRows()).isZero();
+        verify(jdbcTemplate, never()).queryForObject(anyString(), any(RowMapper.class), any(), any());
+    }
+
+    @Test
+    void refreshNow_waitsForLockAndIgnoresWindow() throws Exception {
+        stubRefreshOutcome(true, new Timestamp(System.currentTimeMillis()));
+
+        assertThat(coordinator.refreshNow()).isTrue();
+
+        verify(jdbcTemplate).queryForObject(anyString(), any(RowMapper.class), eq("0 milliseconds"), eq(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRefreshOutcome(boolean refreshed, Timestamp refreshedAt) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getBoolean("refreshed")).thenReturn(refreshed);
+        when(rs.getTimestamp("refreshed_at")).thenReturn(refreshedAt);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(), any()))
+            .thenAnswer(invocation -> ((RowMapper<Object>) invocation.getArgument(1)).mapRow(rs, 0));
+    }
+}
@@ -0,0 +1,90 @@
+package com.williamcallahan.book_recommendation_engine.service;
+
+import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
+import com.williamcallahan.book_recommendation_engine.service.SitemapArtifactService.Artifact;
+import com.williamcallahan.book_recommendation_engine.service.SitemapXmlRenderer.XmlPageWriter;
+import com.williamcallahan.book_recommendation_engine.util.CompressionUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SitemapArtifactServiceTest {
+
+    @Mock
+    private SitemapXmlRenderer renderer;
+
+    @Mock
+    private SitemapService sitemapService;
+
+    @TempDir
+    Path artifactDirectory;
+
+    private SitemapProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SitemapProperties();
+        properties.setArtifactDirectory(artifactDirectory.toString());
+        when(renderer.index()).thenReturn(page("<sitemapindex/>"));
+        when(sitemapService.getBooksXmlPageCount()).thenReturn(2);
+        when(sitemapService.getAuthorXmlPageCount()).thenReturn(1);
+        when(renderer.booksPage(1)).thenReturn(Optional.of(page("<urlset>books-1</urlset>")));
+        when(renderer.booksPage(2)).thenReturn(Optional.of(page("<urlset>books-2</urlset>")));
+        when(renderer.authorsPage(1)).thenReturn(Optional.of(page("<urlset>authors-1</urlset>")));
+    }
+
+    @Test
+    void renderAll_publishesGzipGenerationAndWritesItToDisk() throws Exception {
+        SitemapArtifactService service = new SitemapArtifactService(renderer, sitemapService, properties, null);
+        assertThat(service.hasArtifacts()).isFalse();
+
+        assertThat(service.renderAll()).isEqualTo(4);
+
+        Artifact books2 = service.find(SitemapArtifactService.booksPath(2)).orElseThrow();
+        assertThat(CompressionUtils.decodeUtf8ExpectingGzip(books2.gzip())).isEqualTo("<urlset>books-2</urlset>");
+        assertThat(books2.etag()).startsWith("W/\"");
+        assertThat(service.find(SitemapArtifactService.authorsPath(2))).isEmpty();
+        assertThat(Files.exists(artifactDirectory.resolve("sitemap-xml/books/2.xml.gz"))).isTrue();
+
+        // A fresh instance restores the generation from disk
+        SitemapArtifactService restarted = new SitemapArtifactService(renderer, sitemapService, properties, null);
+        restarted.loadFromDisk();
+        assertThat(restarted.find(SitemapArtifactService.INDEX_PATH)).get()
+            .extracting(Artifact::etag)
+            .isEqualTo(service.find(SitemapArtifactService.INDEX_PATH).orElseThrow().etag());
+    }
+
+    @Test
+    void renderAll_keepsLastModifiedForUnchangedPagesAndDropsStalePages() throws Exception {
+        SitemapArtifactService service = new SitemapArtifactService(renderer, sitemapService, properties, null);
+        service.renderAll();
+        Artifact firstAuthors = service.find(SitemapArtifactService.authorsPath(1)).orElseThrow();
+
+        Thread.sleep(1100);
+        when(sitemapService.getBooksXmlPageCount()).thenReturn(1);
+        when(renderer.booksPage(1)).thenReturn(Optional.of(page("<urlset>books-1-changed</urlset>")));
+        service.renderAll();
+
+        assertThat(service.find(SitemapArtifactService.authorsPath(1)).orElseThrow().lastModified())
+            .isEqualTo(firstAuthors.lastModified());
+        assertThat(service.find(SitemapArtifactService.booksPath(1)).orElseThrow().lastModified())
+            .isAfter(firstAuthors.lastModified());
+        assertThat(service.find(SitemapArtifactService.booksPath(2))).isEmpty();
+        assertThat(Files.exists(artifactDirectory.resolve("sitemap-xml/books/2.xml.gz"))).isFalse();
+    }
+
+    private static XmlPageWriter page(String xml) {
+        return out -> out.write(xml);
+    }
+}
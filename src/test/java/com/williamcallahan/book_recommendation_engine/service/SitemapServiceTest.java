@@ -4,6 +4,8 @@ import com.williamcallahan.book_recommendation_engine.config.CacheComponentsConf
 import com.williamcallahan.book_recommendation_engine.config.SitemapProperties;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.BookRow;
+import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.BookSeekKey;
+import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.BookXmlChunk;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.DatasetFingerprint;
 import com.williamcallahan.book_recommendation_engine.repository.SitemapRepository.PageMetadata;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +17,13 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.support.SimpleCacheManager;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,7 +51,7 @@ class SitemapServiceTest {
 
     @Test
     void getBooksForXmlPage_usesCachingAndChronologicalOrder() {
-        when(sitemapRepository.fetchBooksForXml(5000, 0)).thenReturn(List.of(
+        when(sitemapRepository.fetchBooksForXml(null, 5000)).thenReturn(List.of(
                 new BookRow("1", "slug-a", "Alpha", Instant.parse("2024-01-01T00:00:00Z")),
                 new BookRow("2", "slug-b", "Beta", Instant.parse("2024-01-02T00:00:00Z"))
         ));
@@ -56,7 +62,52 @@ class SitemapServiceTest {
         assertThat(first).hasSize(2);
         assertThat(first).isEqualTo(second);
         assertThat(first).isSortedAccordingTo((left, right) -> left.updatedAt().compareTo(right.updatedAt()));
-        verify(sitemapRepository, times(1)).fetchBooksForXml(5000, 0);
+        verify(sitemapRepository, times(1)).fetchBooksForXml(null, 5000);
+    }
+
+    @Test
+    void getBooksForXmlPage_seeksPastCachedPageBoundary() {
+        BookSeekKey endOfPage1 = new BookSeekKey(Instant.parse("2024-01-01T00:00:00Z"), "alpha", "slug-a", "id-1");
+        BookSeekKey endOfPage2 = new BookSeekKey(Instant.parse("2024-01-02T00:00:00Z"), "beta", "slug-b", "id-2");
+        when(sitemapRepository.fetchBookXmlPageBoundaries(5000)).thenReturn(List.of(endOfPage1, endOfPage2));
+        when(sitemapRepository.fetchBooksForXml(endOfPage2, 5000)).thenReturn(List.of(
+                new BookRow("3", "slug-c", "Gamma", Instant.parse("2024-01-03T00:00:00Z"))
+        ));
+
+        assertThat(sitemapService.getBooksForXmlPage(3)).extracting(SitemapService.BookSitemapItem::bookId)
+                .containsExactly("3");
+        assertThat(sitemapService.getBooksForXmlPage(4)).isEmpty();
+        verify(sitemapRepository, times(1)).fetchBookXmlPageBoundaries(5000);
+    }
+
+    @Test
+    void streamBooksForXmlPage_readsKeysetChunksUnlessPageIsCached() {
+        sitemapProperties.setXmlFetchSize(2);
+        BookSeekKey endOfPage1 = new BookSeekKey(Instant.parse("2024-01-01T00:00:00Z"), "alpha", "slug-a", "id-1");
+        BookSeekKey endOfChunk1 = new BookSeekKey(Instant.parse("2024-01-03T00:00:00Z"), "gamma", "slug-c", "3");
+        when(sitemapRepository.fetchBookXmlPageBoundaries(5000)).thenReturn(List.of(endOfPage1));
+        when(sitemapRepository.fetchBookXmlChunk(endOfPage1, 2)).thenReturn(new BookXmlChunk(List.of(
+                new BookRow("2", "slug-b", "Beta", Instant.parse("2024-01-02T00:00:00Z")),
+                new BookRow("3", "slug-c", "Gamma", Instant.parse("2024-01-03T00:00:00Z"))
+        ), endOfChunk1));
+        when(sitemapRepository.fetchBookXmlChunk(endOfChunk1, 2)).thenReturn(new BookXmlChunk(List.of(
+                new BookRow("4", "slug-d", "Delta", Instant.parse("2024-01-04T00:00:00Z"))
+        ), null));
+        when(sitemapRepository.fetchBooksForXml(null, 5000)).thenReturn(List.of(
+                new BookRow("1", "slug-a", "Alpha", Instant.parse("2024-01-01T00:00:00Z"))
+        ));
+
+        // Each chunk is handed over only after its query returned, then the next chunk seeks past it
+        List<SitemapService.BookSitemapItem> streamed = new ArrayList<>();
+        sitemapService.streamBooksForXmlPage(2, streamed::add);
+        assertThat(streamed).extracting(SitemapService.BookSitemapItem::bookId).containsExactly("2", "3", "4");
+
+        // Page 1 is cached by getBooksForXmlPage, so streaming replays it without another query
+        sitemapService.getBooksForXmlPage(1);
+        List<SitemapService.BookSitemapItem> replayed = new ArrayList<>();
+        sitemapService.streamBooksForXmlPage(1, replayed::add);
+        assertThat(replayed).extracting(SitemapService.BookSitemapItem::bookId).containsExactly("1");
+        verify(sitemapRepository, never()).fetchBookXmlChunk(isNull(), anyInt());
     }
 
     @Test
@@ -76,7 +127,7 @@ class SitemapServiceTest {
     @Test
     void refreshSitemapCachesIfDatasetChanged_evictsCachesOnDelta() {
         when(sitemapRepository.countAllBooks()).thenReturn(2, 3);
-        when(sitemapRepository.fetchBooksForXml(5000, 0)).thenReturn(List.of(
+        when(sitemapRepository.fetchBooksForXml(null, 5000)).thenReturn(List.of(
                 new BookRow("1", "slug-a", "Alpha", Instant.parse("2024-01-01T00:00:00Z"))
         ));
         when(sitemapRepository.fetchBookFingerprint()).thenReturn(
@@ -164,7 +215,7 @@ class SitemapServiceTest {
 
     @Test
     void getBooksForXmlPage_handlesInvalidPageNumber() {
-        when(sitemapRepository.fetchBooksForXml(5000, 0)).thenReturn(List.of(
+        when(sitemapRepository.fetchBooksForXml(null, 5000)).thenReturn(List.of(
                 new BookRow("1", "slug-a", "Alpha", Instant.parse("2024-01-01T00:00:00Z"))
         ));
 
@@ -156,7 +156,8 @@ ImageDetails s3UploadedImageDetails = ImageTestData.s3Cache(
                 eq(s3UploadedImageDetails.getUrlOrPath()),
                 eq(s3UploadedImageDetails.getWidth()),
                 eq(s3UploadedImageDetails.getHeight()),
-                eq(CoverImageSource.GOOGLE_BOOKS)
+                eq(CoverImageSource.GOOGLE_BOOKS),
+                eq(s3UploadedImageDetails.getDerivatives())
             );
         } finally {
 TestFiles.deleteRecursive(tempDir);
@@ -0,0 +1,80 @@
+package com.williamcallahan.book_recommendation_engine.service.image;
+
+import com.williamcallahan.book_recommendation_engine.model.image.CoverDerivative;
+import com.williamcallahan.book_recommendation_engine.model.image.CoverImageSource;
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CoverPersistenceServiceTest {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String DELETE_TIER_SQL = "DELETE FROM book_image_links WHERE book_id = ? AND image_type = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void persistExternalCover_dropsCardScaledFromThePreviousCover() {
+        CoverPersistenceService service = new CoverPersistenceService(jdbcTemplate);
+        UUID bookId = UUID.randomUUID();
+
+        CoverPersistenceService.PersistenceResult result =
+            service.persistExternalCover(bookId, "http://covers.openlibrary.org/b/id/42-L.jpg", "OPEN_LIBRARY", 400, 600);
+
+        assertThat(result.success()).isTrue();
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update("UPDATE books SET s3_image_path = ? WHERE id = ?",
+            "https://covers.openlibrary.org/b/id/42-L.jpg", bookId);
+        order.verify(jdbcTemplate).update(DELETE_TIER_SQL, bookId, CoverTier.CARD.getImageType());
+    }
+
+    @Test
+    void updateAfterS3Upload_replacesCardWithDerivativeOfTheNewCover() {
+        CoverPersistenceService service = new CoverPersistenceService(jdbcTemplate);
+        UUID bookId = UUID.randomUUID();
+        String cardUrl = "https://cdn.example.com/images/book-covers/sha256/" + HASH + "-sm.jpg";
+        CoverDerivative card = new CoverDerivative(CoverTier.CARD, "images/book-covers/sha256/" + HASH + "-sm.jpg", cardUrl, 320, 480);
+
+        service.updateAfterS3Upload(bookId, "images/book-covers/sha256/" + HASH + "-lg.jpg",
+            "https://cdn.example.com/images/book-covers/sha256/" + HASH + "-lg.jpg", 800, 1200,
+            CoverImageSource.GOOGLE_BOOKS, List.of(card));
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(DELETE_TIER_SQL, bookId, CoverTier.CARD.getImageType());
+        order.verify(jdbcTemplate).update(contains("INSERT INTO book_image_links"),
+            any(), eq(bookId), eq(CoverTier.CARD.getImageType()), eq(cardUrl), anyString(),
+            eq(320), eq(480), eq(false), eq(card.storageKey()), eq(HASH));
+    }
+
+    @Test
+    void updateAfterS3Upload_leavesNoCardWhenNoDerivativeWasStored() {
+        CoverPersistenceService service = new CoverPersistenceService(jdbcTemplate);
+        UUID bookId = UUID.randomUUID();
+
+        service.updateAfterS3Upload(bookId, "images/book-covers/9780441013593-lg-google-books.jpg",
+            "https://cdn.example.com/images/book-covers/9780441013593-lg-google-books.jpg", 800, 1200,
+            CoverImageSource.GOOGLE_BOOKS);
+
+        verify(jdbcTemplate).update(DELETE_TIER_SQL, bookId, CoverTier.CARD.getImageType());
+        verify(jdbcTemplate, never()).update(contains("INSERT INTO book_image_links"),
+            any(), eq(bookId), eq(CoverTier.CARD.getImageType()), any(), any(), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,163 @@
+package com.williamcallahan.book_recommendation_engine.service.image;
+
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
+import com.williamcallahan.book_recommendation_engine.model.image.ProcessedImage;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageProcessingServiceTest {
+
+    private final ImageProcessingService service = new ImageProcessingService();
+
+    @Test
+    void isDominantlyWhite_streamingCheckMatchesByteArrayCheck() throws IOException {
+        byte[] blankPage = png(Color.WHITE, 0.1);
+        byte[] cover = png(Color.WHITE, 0.5);
+
+        assertThat(service.isDominantlyWhite(new ByteArrayInputStream(blankPage), "blank")).isTrue();
+        assertThat(service.isDominantlyWhite(blankPage, "blank")).isTrue();
+        assertThat(service.isDominantlyWhite(new ByteArrayInputStream(cover), "cover")).isFalse();
+        assertThat(service.isDominantlyWhite(cover, "cover")).isFalse();
+    }
+
+    @Test
+    void isDominantlyWhite_streamingCheckReturnsFalseForUnreadableData() {
+        assertThat(service.isDominantlyWhite(new ByteArrayInputStream(new byte[] {1, 2, 3}), "garbage")).isFalse();
+    }
+
+    @Test
+    void processImageForS3_subsamplesLargeImagesDownToTargetWidth() throws Exception {
+        ProcessedImage processed = service.processImageForS3(jpeg(2500, 3750), "large").get();
+
+        assertThat(processed.processingSuccessful()).isTrue();
+        assertThat(processed.width()).isEqualTo(800);
+        assertThat(processed.height()).isEqualTo(1200);
+        BufferedImage written = ImageIO.read(new ByteArrayInputStream(processed.processedBytes()));
+        assertThat(written.getWidth()).isEqualTo(800);
+        assertThat(written.getHeight()).isEqualTo(1200);
+    }
+
+    @Test
+    void processImageForS3_keepsMidSizedImagesAtOriginalDimensions() throws Exception {
+        ProcessedImage processed = service.processImageForS3(jpeg(500, 750), "mid").get();
+
+        assertThat(processed.processingSuccessful()).isTrue();
+        assertThat(processed.width()).isEqualTo(500);
+        assertThat(processed.height()).isEqualTo(750);
+    }
+
+    @Test
+    void processImageForS3_attachesCardTierScaledFromTheSameDecode() throws Exception {
+        ProcessedImage processed = service.processImageForS3(jpeg(2500, 3750), "large").get();
+
+        assertThat(processed.getDerivatives()).hasSize(1);
+        ProcessedImage.Derivative card = processed.getDerivatives().get(0);
+        assertThat(card.tier()).isEqualTo(CoverTier.CARD);
+        assertThat(card.width()).isEqualTo(320);
+        assertThat(card.height()).isEqualTo(480);
+        BufferedImage written = ImageIO.read(new ByteArrayInputStream(card.processedBytes()));
+        assertThat(written.getWidth()).isEqualTo(320);
+        assertThat(written.getHeight()).isEqualTo(480);
+    }
+
+    @Test
+    void processImageForS3_skipsTiersThatWouldUpscale() throws Exception {
+        ProcessedImage processed = service.processImageForS3(jpeg(300, 450), "small").get();
+
+        assertThat(processed.processingSuccessful()).isTrue();
+        assertThat(processed.getDerivatives()).isEmpty();
+    }
+
+    @Test
+    void processImageForS3_rejectsPlaceholdersAndWhitePages() throws Exception {
+        assertThat(service.processImageForS3(jpeg(1, 1), "placeholder").get().processingError())
+            .isEqualTo("PlaceholderImage_TooSmall");
+        assertThat(service.processImageForS3(png(Color.WHITE, 0.1), "blank").get().processingError())
+            .isEqualTo("LikelyNotACover_DominantColor");
+        assertThat(service.processImageForS3(new byte[] {1, 2, 3}, "garbage").get().processingSuccessful())
+            .isFalse();
+    }
+
+    @Test
+    void decode_keepsTheJpegReadersBgrLayoutWithoutAnRgbCopy() throws IOException {
+        BufferedImage decoded = decodeFirst(jpeg(40, 60));
+
+        assertThat(decoded.getType()).isEqualTo(BufferedImage.TYPE_3BYTE_BGR);
+        assertThat(ImageProcessingService.toEncodableRgb(decoded)).isSameAs(decoded);
+    }
+
+    @Test
+    void decode_copiesGrayscaleJpegsIntoRgbForEncoding() throws IOException {
+        BufferedImage gray = new BufferedImage(40, 60, BufferedImage.TYPE_BYTE_GRAY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(gray, "jpeg", out);
+        BufferedImage decoded = decodeFirst(out.toByteArray());
+
+        assertThat(decoded.getType()).isEqualTo(BufferedImage.TYPE_BYTE_GRAY);
+        BufferedImage encodable = ImageProcessingService.toEncodableRgb(decoded);
+        assertThat(encodable).isNotSameAs(decoded);
+        assertThat(encodable.getType()).isEqualTo(BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Test
+    void isDominantlyWhite_readsBgrJpegPixelsDirectly() throws IOException {
+        byte[] whitePage = png(Color.WHITE, 0.1);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(whitePage));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+
+        assertThat(decodeFirst(out.toByteArray()).getType()).isEqualTo(BufferedImage.TYPE_3BYTE_BGR);
+        assertThat(service.isDominantlyWhite(out.toByteArray(), "white-jpeg")).isTrue();
+        assertThat(service.isDominantlyWhite(jpeg(300, 450), "dark-jpeg")).isFalse();
+    }
+
+    private static BufferedImage decodeFirst(byte[] data) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            ImageReader reader = ImageIO.getImageReaders(iis).next();
+            try {
+                reader.setInput(iis, true, true);
+                return ImageProcessingService.decode(reader, 1);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * White image with a dark band covering {@code darkShare} of its height.
+     */
+    private static byte[] png(Color background, double darkShare) throws IOException {
+        BufferedImage image = new BufferedImage(300, 450, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, 300, 450);
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(0, 0, 300, (int) (450 * darkShare));
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,178 @@
+package com.williamcallahan.book_recommendation_engine.service.image;
+
+import com.williamcallahan.book_recommendation_engine.model.image.CoverTier;
+import com.williamcallahan.book_recommendation_engine.model.image.ImageDetails;
+import com.williamcallahan.book_recommendation_engine.util.HashUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class S3BookCoverServiceDedupTest {
+
+    private static final byte[] COVER_BYTES = {(byte) 0xFF, (byte) 0xD8, 1, 2, 3, 4, (byte) 0xFF, (byte) 0xD9};
+
+    @Mock
+    private WebClient.Builder webClientBuilder;
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private CoverBlobIndex coverBlobIndex;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private S3CoverManifest coverManifest;
+    private S3BookCoverService service;
+    private String contentHash;
+    private String blobKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(webClientBuilder.build()).thenReturn(mock(WebClient.class));
+        coverManifest = new S3CoverManifest(jdbcTemplate, s3Client, "covers-bucket", true, new SimpleMeterRegistry());
+        service = newService(coverManifest);
+
+        contentHash = HashUtils.sha256Hex(COVER_BYTES);
+        blobKey = "images/book-covers/sha256/" + contentHash + "-lg.jpg";
+    }
+
+    @Test
+    void uploadProcessedCover_storesNewContentOnceUnderItsHash() {
+        when(coverBlobIndex.findByContentHash(contentHash)).thenReturn(List.of());
+
+        ImageDetails details = service.uploadProcessedCoverToS3Async(
+            COVER_BYTES, ".jpg", "image/jpeg", 600, 900, "9780441013593", "google-books").block();
+
+        ArgumentCaptor<PutObjectRequest> put = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(put.capture(), any(RequestBody.class));
+        assertThat(put.getValue().key()).isEqualTo(blobKey);
+        verify(coverBlobIndex).recordBlob(eq(contentHash), anyList());
+        verify(coverBlobIndex).recordOriginal(isNull(), eq(contentHash));
+
+        assertThat(details.getStorageKey()).isEqualTo(blobKey);
+        assertThat(details.getUrlOrPath()).isEqualTo("https://cdn.example.com/" + blobKey);
+        assertThat(service.getS3CoverUrl("9780441013593", ".jpg", "google-books"))
+            .isEqualTo("https://cdn.example.com/" + blobKey);
+    }
+
+    @Test
+    void uploadProcessedCover_linksIdenticalContentWithoutUploading() {
+        when(coverBlobIndex.findByContentHash(contentHash)).thenReturn(List.of(
+            new CoverBlobIndex.StoredTier(CoverTier.LARGE, blobKey, 600, 900, COVER_BYTES.length)));
+
+        ImageDetails details = service.uploadProcessedCoverToS3Async(
+            COVER_BYTES, ".jpg", "image/jpeg", 600, 900, "9780441013609", "open-library").block();
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(coverBlobIndex, never()).recordBlob(any(), anyList());
+        assertThat(details.getStorageKey()).isEqualTo(blobKey);
+        assertThat(details.getWidth()).isEqualTo(600);
+        assertThat(service.coverExistsInS3("9780441013609", ".jpg", "open-library")).isTrue();
+        assertThat(coverManifest.resolve("images/book-covers/9780441013609-lg-open-library.jpg")).isEqualTo(blobKey);
+    }
+
+    @Test
+    void coverExistsInS3_answersHitsAndMissesFromSeededManifestWithoutHeadRequests() {
+        ReflectionTestUtils.setField(coverManifest, "hydrated", true);
+        ReflectionTestUtils.setField(coverManifest, "seeded", true);
+        coverManifest.record("images/book-covers/9780441013593-lg-google-books.jpg", "9780441013593", 2048L);
+
+        assertThat(service.coverExistsInS3("9780441013593", ".jpg", "google-books")).isTrue();
+        assertThat(service.coverExistsInS3("9780441013609", ".jpg", "google-books")).isFalse();
+        assertThat(service.coverExistsInS3Async("9780441013609", ".jpg", "google-books").block()).isFalse();
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void coverExistsInS3_confirmsMissesWithHeadRequestUntilManifestIsSeeded() {
+        ReflectionTestUtils.setField(coverManifest, "hydrated", true);
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+
+        assertThat(service.coverExistsInS3("9780441013609", ".jpg", "google-books")).isTrue();
+        assertThat(service.coverExistsInS3("9780441013609", ".jpg", "google-books")).isTrue();
+        verify(s3Client).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void coverExistsInS3_readsAliasesPersistedByEarlierRunsBeforeHydration() {
+        String coverKey = "images/book-covers/9780441013609-lg-open-library.jpg";
+        when(jdbcTemplate.queryForList(contains("SELECT blob_key FROM s3_cover_manifest"), eq(String.class), eq(coverKey)))
+            .thenReturn(List.of(blobKey));
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+
+        assertThat(service.coverExistsInS3Async("9780441013609", ".jpg", "open-library").block()).isTrue();
+
+        ArgumentCaptor<HeadObjectRequest> head = ArgumentCaptor.forClass(HeadObjectRequest.class);
+        verify(s3Client).headObject(head.capture());
+        assertThat(head.getValue().key()).isEqualTo(blobKey);
+        assertThat(service.getS3CoverUrl("9780441013609", ".jpg", "open-library"))
+            .isEqualTo("https://cdn.example.com/" + blobKey);
+    }
+
+    @Test
+    void uploadProcessedCover_writesTheBooksOwnKeyWithoutPersistentManifest() {
+        S3BookCoverService unpersisted = newService(new S3CoverManifest(null, s3Client, "covers-bucket", true, new SimpleMeterRegistry()));
+        String bookKey = "images/book-covers/9780441013593-lg-google-books.jpg";
+
+        ImageDetails details = unpersisted.uploadProcessedCoverToS3Async(
+            COVER_BYTES, ".jpg", "image/jpeg", 600, 900, "9780441013593", "google-books").block();
+
+        ArgumentCaptor<PutObjectRequest> put = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(put.capture(), any(RequestBody.class));
+        assertThat(put.getValue().key()).isEqualTo(bookKey);
+        verify(coverBlobIndex, never()).findByContentHash(any());
+        assertThat(details.getStorageKey()).isEqualTo(bookKey);
+        assertThat(unpersisted.coverExistsInS3("9780441013593", ".jpg", "google-books")).isTrue();
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void coverExistsInS3_headsTheAliasedBlobBeforeManifestIsAuthoritative() {
+        coverManifest.recordAlias("images/book-covers/9780441013609-lg-open-library.jpg", "9780441013609", COVER_BYTES.length, blobKey);
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+
+        assertThat(service.coverExistsInS3("9780441013609", ".jpg", "open-library")).isTrue();
+        assertThat(service.coverExistsInS3Async("9780441013609", ".jpg", "open-library").block()).isTrue();
+
+        ArgumentCaptor<HeadObjectRequest> head = ArgumentCaptor.forClass(HeadObjectRequest.class);
+        verify(s3Client).headObject(head.capture());
+        assertThat(head.getValue().key()).isEqualTo(blobKey);
+    }
+
+    private S3BookCoverService newService(S3CoverManifest manifest) {
+        S3BookCoverService coverService = new S3BookCoverService(webClientBuilder, new ImageProcessingService(), s3Client, manifest, coverBlobIndex);
+        ReflectionTestUtils.setField(coverService, "s3EnabledCheck", true);
+        ReflectionTestUtils.setField(coverService, "s3BucketName", "covers-bucket");
+        ReflectionTestUtils.setField(coverService, "s3CdnUrl", "https://cdn.example.com");
+        ReflectionTestUtils.setField(coverService, "maxFileSizeBytes", 5_242_880L);
+        return coverService;
+    }
+}
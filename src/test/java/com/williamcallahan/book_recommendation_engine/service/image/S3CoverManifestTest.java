@@ -0,0 +1,163 @@
+package com.williamcallahan.book_recommendation_engine.service.image;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class S3CoverManifestTest {
+
+    private static final String STORED_KEY = "images/book-covers/9780441013593-lg-google-books.jpg";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private S3Client s3Client;
+
+    private S3CoverManifest manifest;
+
+    @BeforeEach
+    void setUp() {
+        manifest = new S3CoverManifest(jdbcTemplate, s3Client, "covers-bucket", true, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void hydrate_loadsPersistedKeysAndAnswersMissesWithoutS3() throws Exception {
+        stubPersistedKeys(STORED_KEY);
+        when(jdbcTemplate.queryForObject(contains("s3_cover_manifest_state"), eq(Boolean.class), eq("covers-bucket")))
+            .thenReturn(true);
+
+        manifest.hydrate();
+
+        assertThat(manifest.isAuthoritative()).isTrue();
+        assertThat(manifest.contains(STORED_KEY)).isTrue();
+        assertThat(manifest.contains("images/book-covers/9780441013593-lg-open-library.jpg")).isFalse();
+        verify(s3Client, never()).listObjectsV2(any(ListObjectsV2Request.class));
+    }
+
+    @Test
+    void hydrate_seedsFromBucketListingOnFirstRun() throws Exception {
+        stubPersistedKeys();
+        when(jdbcTemplate.queryForObject(contains("s3_cover_manifest_state"), eq(Boolean.class), eq("covers-bucket")))
+            .thenReturn(false);
+        when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+            .thenAnswer(invocation -> new ListObjectsV2Iterable(s3Client, invocation.getArgument(0)));
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(ListObjectsV2Response.builder()
+            .contents(S3Object.builder().key(STORED_KEY).size(2048L).lastModified(Instant.now()).build())
+            .build());
+
+        manifest.hydrate();
+
+        assertThat(manifest.contains(STORED_KEY)).isTrue();
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO s3_cover_manifest"), anyList());
+        verify(jdbcTemplate).update(contains("INSERT INTO s3_cover_manifest_state"), eq("covers-bucket"));
+    }
+
+    @Test
+    void record_makesUploadVisibleBeforeHydrationAndPersistsIt() {
+        manifest.record(STORED_KEY, "9780441013593", 2048L);
+
+        assertThat(manifest.isAuthoritative()).isFalse();
+        assertThat(manifest.contains(STORED_KEY)).isTrue();
+        verify(jdbcTemplate, timeout(1000)).update(contains("INSERT INTO s3_cover_manifest"),
+            eq(STORED_KEY), eq("9780441013593"), eq(2048L), isNull());
+    }
+
+    @Test
+    void recordAlias_resolvesBookKeyToSharedBlob() {
+        String blobKey = "images/book-covers/sha256/" + "ab".repeat(32) + "-lg.jpg";
+
+        manifest.recordAlias(STORED_KEY, "9780441013593", 2048L, blobKey);
+
+        assertThat(manifest.contains(STORED_KEY)).isTrue();
+        assertThat(manifest.resolve(STORED_KEY)).isEqualTo(blobKey);
+        assertThat(manifest.resolve("images/book-covers/other-lg-google-books.jpg"))
+            .isEqualTo("images/book-covers/other-lg-google-books.jpg");
+        verify(jdbcTemplate, timeout(1000)).update(contains("INSERT INTO s3_cover_manifest"),
+            eq(STORED_KEY), eq("9780441013593"), eq(2048L), eq(blobKey));
+
+        manifest.record(STORED_KEY, "9780441013593", 4096L);
+
+        assertThat(manifest.resolve(STORED_KEY)).isEqualTo(STORED_KEY);
+    }
+
+    @Test
+    void remove_dropsDeletedKeyAndPersistsTombstone() {
+        manifest.recordAlias(STORED_KEY, "9780441013593", 2048L, "images/book-covers/sha256/" + "ab".repeat(32) + "-lg.jpg");
+
+        manifest.remove(STORED_KEY);
+
+        assertThat(manifest.contains(STORED_KEY)).isFalse();
+        assertThat(manifest.resolve(STORED_KEY)).isEqualTo(STORED_KEY);
+        verify(jdbcTemplate, timeout(1000)).update(contains("removed_at = now(), stored_at = now()"), eq(STORED_KEY));
+    }
+
+    @Test
+    void syncRecent_dropsKeysRemovedByOtherNodes() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("s3_cover_manifest_state"), eq(Boolean.class), eq("covers-bucket")))
+            .thenReturn(true);
+        boolean[] removed = {false};
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("s3_key")).thenReturn(STORED_KEY);
+            when(rs.getTimestamp("stored_at")).thenReturn(Timestamp.from(Instant.now()));
+            when(rs.getTimestamp("removed_at")).thenReturn(removed[0] ? Timestamp.from(Instant.now()) : null);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        manifest.hydrate();
+        assertThat(manifest.contains(STORED_KEY)).isTrue();
+
+        removed[0] = true;
+        manifest.syncRecent();
+
+        assertThat(manifest.contains(STORED_KEY)).isFalse();
+    }
+
+    private void stubPersistedKeys(String... keys) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (String key : keys) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("s3_key")).thenReturn(key);
+                when(rs.getTimestamp("stored_at")).thenReturn(Timestamp.from(Instant.now()));
+                when(rs.getTimestamp("removed_at")).thenReturn(null);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
@@ -73,7 +73,7 @@ public class TestApiConfig {
         private final List<String> uploadRequests = new ArrayList<>();
         
         public TestS3StorageService(ObjectMapper objectMapper) {
-            super(null, "test-bucket", "https://test-cdn.example.com/", "https://test.example.com/");
+            super(null, "test-bucket", "https://test-cdn.example.com/", "https://test.example.com/", null);
             this.objectMapper = objectMapper;
         }
         